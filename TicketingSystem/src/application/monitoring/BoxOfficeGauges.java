@@ -0,0 +1,45 @@
+package application.monitoring;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gauges bound to the live repositories at start-up. Unbound gauges read as 0.
+ */
+public final class BoxOfficeGauges implements BoxOfficeGaugesMBean {
+
+    private static final LongSupplier UNBOUND = () -> 0;
+
+    private volatile LongSupplier activeHolds = UNBOUND;
+    private volatile LongSupplier inMemoryPayments = UNBOUND;
+    private volatile LongSupplier showtimeKeys = UNBOUND;
+
+    BoxOfficeGauges() {
+    }
+
+    public void bindActiveHolds(LongSupplier supplier) {
+        this.activeHolds = supplier;
+    }
+
+    public void bindInMemoryPayments(LongSupplier supplier) {
+        this.inMemoryPayments = supplier;
+    }
+
+    public void bindShowtimeKeys(LongSupplier supplier) {
+        this.showtimeKeys = supplier;
+    }
+
+    @Override
+    public long getActiveHolds() {
+        return activeHolds.getAsLong();
+    }
+
+    @Override
+    public long getInMemoryPayments() {
+        return inMemoryPayments.getAsLong();
+    }
+
+    @Override
+    public long getShowtimeKeys() {
+        return showtimeKeys.getAsLong();
+    }
+}
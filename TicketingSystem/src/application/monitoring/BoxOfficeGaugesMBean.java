@@ -0,0 +1,16 @@
+package application.monitoring;
+
+/**
+ * JMX view of live box office state, read on demand from the repositories.
+ */
+public interface BoxOfficeGaugesMBean {
+
+    /** Seats currently held in carts but not yet paid for. */
+    long getActiveHolds();
+
+    /** Payments kept in memory by the payment repository. */
+    long getInMemoryPayments();
+
+    /** Showtimes with at least one confirmed booking or cart hold. */
+    long getShowtimeKeys();
+}
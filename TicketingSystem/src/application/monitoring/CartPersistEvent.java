@@ -0,0 +1,24 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for writing the saved carts file (CartManager.persistCarts).
+ */
+@Name("ticketing.CartPersist")
+@Label("Cart Persist")
+@Category({"Ticketing", "Booking"})
+@Description("Saved customer carts written to disk")
+public class CartPersistEvent extends jdk.jfr.Event {
+
+    @Label("Cart Count")
+    public int cartCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,31 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for reading a data file (DataFileHandler).
+ */
+@Name("ticketing.FileLoad")
+@Label("File Load")
+@Category({"Ticketing", "Persistence"})
+@Description("Data file read into memory")
+public class FileLoadEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Record Count")
+    @Description("Non-empty lines read")
+    public int recordCount;
+
+    @Label("Found")
+    public boolean found;
+}
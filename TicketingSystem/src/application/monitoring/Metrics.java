@@ -0,0 +1,83 @@
+package application.monitoring;
+
+import application.utilities.LoggerSetup;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide metrics for the booking, checkout and persistence hot paths.
+ *
+ * Everything here is registered on the platform MBeanServer under the
+ * "TicketingSystem" domain, so JConsole, VisualVM or any JMX exporter can
+ * watch the box office without extra wiring.
+ */
+public final class Metrics {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final String DOMAIN = "TicketingSystem";
+
+    // === OPERATIONS ===
+    public static final OperationStats SEAT_RESERVE = new OperationStats("SeatReserve");
+    public static final OperationStats SEAT_CONFIRM = new OperationStats("SeatConfirm");
+    public static final OperationStats PAYMENT_SAVE = new OperationStats("PaymentSave");
+    public static final OperationStats CART_PERSIST = new OperationStats("CartPersist");
+    public static final OperationStats FILE_READ = new OperationStats("FileRead");
+    public static final OperationStats FILE_WRITE = new OperationStats("FileWrite");
+    public static final OperationStats LOGIN_VERIFY = new OperationStats("LoginVerify");
+
+    // === GAUGES ===
+    public static final BoxOfficeGauges GAUGES = new BoxOfficeGauges();
+
+    private static final List<OperationStats> OPERATIONS = List.of(
+        SEAT_RESERVE, SEAT_CONFIRM, PAYMENT_SAVE, CART_PERSIST, FILE_READ, FILE_WRITE, LOGIN_VERIFY
+    );
+
+    static {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (OperationStats op : OPERATIONS) {
+            register(server, objectName("Operation", op.getName()), op);
+        }
+        register(server, objectName("Gauges", "BoxOffice"), GAUGES);
+    }
+
+    private Metrics() {
+        // Prevent instantiation
+    }
+
+    public static List<OperationStats> operations() {
+        return OPERATIONS;
+    }
+
+    /** Clears all operation counters (gauges are live and have nothing to reset). */
+    public static void resetAll() {
+        for (OperationStats op : OPERATIONS) {
+            op.reset();
+        }
+    }
+
+    public static ObjectName objectName(String type, String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid metric name: " + name, e);
+        }
+    }
+
+    private static void register(MBeanServer server, ObjectName name, Object mbean) {
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            // Metrics are best effort; the application must still start without them
+            logger.log(Level.WARNING, "Failed to register MBean {0}: {1}", new Object[]{name, e.getMessage()});
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package application.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram for one hot path.
+ *
+ * Usage:
+ * <pre>
+ *   long start = Metrics.SEAT_RESERVE.start();
+ *   try { ... Metrics.SEAT_RESERVE.stop(start); }
+ *   catch (RuntimeException e) { Metrics.SEAT_RESERVE.failed(start); throw e; }
+ * </pre>
+ */
+public final class OperationStats implements OperationStatsMBean {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+    }
+
+    public void stop(long startNanos, long byteCount) {
+        stop(startNanos);
+        bytes.add(byteCount);
+    }
+
+    /** Records the attempt's latency and counts it as an error. */
+    public void failed(long startNanos) {
+        stop(startNanos);
+        errors.increment();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    // === MBEAN ATTRIBUTES ===
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanMicros();
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return latency.getMaxMicros();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latency.percentileMicros(50);
+    }
+
+    @Override
+    public long getP95Micros() {
+        return latency.percentileMicros(95);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latency.percentileMicros(99);
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        bytes.reset();
+    }
+}
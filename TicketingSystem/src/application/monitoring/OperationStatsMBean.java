@@ -0,0 +1,27 @@
+package application.monitoring;
+
+/**
+ * JMX view of one instrumented operation (visible in JConsole / VisualVM under
+ * the "TicketingSystem" domain).
+ */
+public interface OperationStatsMBean {
+
+    long getCount();
+
+    long getErrorCount();
+
+    /** Bytes moved by the operation; zero for operations that do no I/O. */
+    long getBytes();
+
+    double getMeanMicros();
+
+    long getMaxMicros();
+
+    long getP50Micros();
+
+    long getP95Micros();
+
+    long getP99Micros();
+
+    void reset();
+}
@@ -0,0 +1,28 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for saving a payment (PaymentRepository.savePayment).
+ */
+@Name("ticketing.PaymentPersist")
+@Label("Payment Persist")
+@Category({"Ticketing", "Checkout"})
+@Description("Payment history rewritten after a checkout")
+public class PaymentPersistEvent extends jdk.jfr.Event {
+
+    @Label("Payment ID")
+    public int paymentId;
+
+    @Label("Record Count")
+    @Description("Payments written to the history file")
+    public int recordCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
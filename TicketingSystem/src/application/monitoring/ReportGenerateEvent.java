@@ -0,0 +1,26 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for writing one report (ReportService), whether to text or PDF.
+ */
+@Name("ticketing.ReportGenerate")
+@Label("Report Generate")
+@Category({"Ticketing", "Reports"})
+@Description("Report written row by row into a sink")
+public class ReportGenerateEvent extends jdk.jfr.Event {
+
+    @Label("Report")
+    public String report;
+
+    @Label("Output")
+    @Description("Sink the report was written to")
+    public String output;
+
+    @Label("Row Count")
+    public int rowCount;
+}
@@ -0,0 +1,22 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for turning cart holds into paid bookings (FileSeatRepository.confirmCartReservation).
+ */
+@Name("ticketing.SeatConfirm")
+@Label("Seat Confirm")
+@Category({"Ticketing", "Checkout"})
+@Description("Cart seats confirmed as a paid booking and written to the bookings file")
+public class SeatConfirmEvent extends jdk.jfr.Event {
+
+    @Label("Showtime Key")
+    public String showtimeKey;
+
+    @Label("Seat Count")
+    public int seatCount;
+}
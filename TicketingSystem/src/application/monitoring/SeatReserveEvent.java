@@ -0,0 +1,26 @@
+package application.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for holding seats in a cart (FileSeatRepository.reserveSeats).
+ */
+@Name("ticketing.SeatReserve")
+@Label("Seat Reserve")
+@Category({"Ticketing", "Booking"})
+@Description("Seats held in a cart for one showtime")
+public class SeatReserveEvent extends jdk.jfr.Event {
+
+    @Label("Showtime Key")
+    public String showtimeKey;
+
+    @Label("Seat Count")
+    public int seatCount;
+
+    @Label("Conflict")
+    @Description("True if the seats were already taken and nothing was reserved")
+    public boolean conflict;
+}
@@ -8,6 +8,7 @@ package application.services;
  *
  * @author zhili
  */
+import application.monitoring.Metrics;
 import application.utilities.LoggerSetup;
 import domain.Customer;
 import java.util.ArrayList;
@@ -44,7 +45,7 @@ public class AuthService {
              return Optional.empty();
         }
         
-        if (passwordService.verifyPassword(password, HASHED_STAFF_PASSWORD)) {
+        if (verifyTimed(password, HASHED_STAFF_PASSWORD)) {
             logger.info("Staff logged in successfully: " + STAFF_ID);
             return Optional.of(STAFF_ID);
         }
@@ -74,7 +75,7 @@ public class AuthService {
         if (foundCustomer.isPresent()) {
             Customer customer = foundCustomer.get();
 
-            if (passwordService.verifyPassword(password, customer.getPassword())) { 
+            if (verifyTimed(password, customer.getPassword())) { 
                 logger.log(Level.INFO, "Customer logged in successfully: {0}", customer.getName());
                 // Return the actual Customer object
                 return foundCustomer; 
@@ -85,6 +86,21 @@ public class AuthService {
         return Optional.empty();
     }
 
+    /**
+     * Password check with its latency recorded; hashing dominates login time.
+     */
+    private boolean verifyTimed(String password, String hashedPassword) {
+        long start = Metrics.LOGIN_VERIFY.start();
+        try {
+            boolean ok = passwordService.verifyPassword(password, hashedPassword);
+            Metrics.LOGIN_VERIFY.stop(start);
+            return ok;
+        } catch (RuntimeException e) {
+            Metrics.LOGIN_VERIFY.failed(start);
+            throw e;
+        }
+    }
+
     // --- Registration Methods ---
     
     /**
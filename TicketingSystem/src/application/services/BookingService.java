@@ -5,10 +5,12 @@ import application.dto.BookingResult;
 import domain.CinemaHall;
 import domain.Movie;
 import domain.Showtime;
+import domain.pricing.PriceTable;
+import domain.pricing.PricingEngine;
 import domain.repositories.MovieRepository;
 import domain.repositories.ShowtimeRepository;
 import domain.repositories.SeatRepository;
-import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.CartSeatRepository;
 import infrastructure.repositories.SeatUnavailableException;
 
 import java.time.LocalDate;
@@ -68,8 +70,8 @@ public class BookingService {
      * Retrieves all available cinema halls.
      */
     public List<CinemaHall> getAllHalls() {
-        if (seatRepository instanceof FileSeatRepository) {
-            return ((FileSeatRepository) seatRepository).getAllHalls();
+        if (seatRepository instanceof CartSeatRepository) {
+            return ((CartSeatRepository) seatRepository).getAllHalls();
         }
         return List.of(); // Empty list if wrong repository type
     }
@@ -78,8 +80,8 @@ public class BookingService {
      * Retrieves halls of a specific type.
      */
     public List<CinemaHall> getHallsByType(String hallType) {
-        if (seatRepository instanceof FileSeatRepository) {
-            return ((FileSeatRepository) seatRepository).getHallsByType(hallType);
+        if (seatRepository instanceof CartSeatRepository) {
+            return ((CartSeatRepository) seatRepository).getHallsByType(hallType);
         }
         return List.of();
     }
@@ -95,6 +97,17 @@ public class BookingService {
         return seatRepository.findSeatsByShowtime(showtime);
     }
     
+    /**
+     * Retrieves the compiled seat prices for a specific showtime (seat map tooltips, subtotals).
+     */
+    public PriceTable getPriceTable(Movie movie, LocalDate date, String time, int hallId) {
+        Showtime showtime = showtimeRepository.findAvailableShowtime(
+            movie, date, time, hallId
+        ).orElseThrow(() -> new IllegalArgumentException("Showtime not found"));
+        
+        return PricingEngine.getDefault().tableFor(showtime);
+    }
+    
     /**
      * Retrieves a single movie by its ID.
      */
@@ -0,0 +1,220 @@
+package application.services;
+
+import application.utilities.LoggerSetup;
+import domain.Customer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Case-insensitive prefix index over customer names, for the staff type-ahead.
+ *
+ * Names live in a sorted array, so a prefix search is a binary search to the
+ * first match followed by a walk of at most limit entries. Registrations go
+ * into a small sorted side array and deletions of indexed names into a removed
+ * set; once those pass the merge threshold they are folded into a new sorted
+ * array. Writers build a new immutable snapshot and publish it through a
+ * volatile field, so searches take no lock and never see a half-applied change.
+ */
+public class CustomerNameIndex {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final int DEFAULT_MERGE_THRESHOLD = 1024;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(e -> e.key);
+
+    private final int mergeThreshold;
+    private volatile Snapshot snapshot;
+
+    public CustomerNameIndex(Collection<Customer> customers) {
+        this(customers, DEFAULT_MERGE_THRESHOLD);
+    }
+
+    // Constructor for testing with a custom merge threshold
+    public CustomerNameIndex(Collection<Customer> customers, int mergeThreshold) {
+        if (mergeThreshold < 1) {
+            throw new IllegalArgumentException("Merge threshold must be positive: " + mergeThreshold);
+        }
+        this.mergeThreshold = mergeThreshold;
+
+        Entry[] sorted = new Entry[customers.size()];
+        int i = 0;
+        for (Customer c : customers) {
+            sorted[i++] = new Entry(c);
+        }
+        // Stable sort: customers sharing a name stay in registration order
+        Arrays.sort(sorted, BY_KEY);
+        this.snapshot = new Snapshot(sorted, NO_ENTRIES, Set.of());
+        logger.log(Level.INFO, "Customer name index built: {0} names", sorted.length);
+    }
+
+    /**
+     * Up to limit customers whose name starts with prefix (ignoring case), in name
+     * order. A blank prefix matches every customer.
+     */
+    public List<Customer> findByPrefix(String prefix, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        String key = (prefix == null) ? "" : key(prefix.trim());
+        Snapshot s = snapshot;
+
+        List<Customer> matches = new ArrayList<>(Math.min(limit, 64));
+        int b = lowerBound(s.base, key);
+        int d = lowerBound(s.added, key);
+        while (matches.size() < limit) {
+            Entry fromBase = (b < s.base.length && s.base[b].key.startsWith(key)) ? s.base[b] : null;
+            Entry fromAdded = (d < s.added.length && s.added[d].key.startsWith(key)) ? s.added[d] : null;
+            if (fromBase == null && fromAdded == null) {
+                break;
+            }
+            if (fromAdded == null || (fromBase != null && fromBase.key.compareTo(fromAdded.key) <= 0)) {
+                b++;
+                if (!s.removed.contains(fromBase.key)) {
+                    matches.add(fromBase.customer);
+                }
+            } else {
+                d++;
+                matches.add(fromAdded.customer);
+            }
+        }
+        return matches;
+    }
+
+    public synchronized void add(Customer customer) {
+        Snapshot s = snapshot;
+        Entry entry = new Entry(customer);
+        // After any existing entries with the same key, as the constructor orders them
+        int at = upperBound(s.added, entry.key);
+        Entry[] added = new Entry[s.added.length + 1];
+        System.arraycopy(s.added, 0, added, 0, at);
+        added[at] = entry;
+        System.arraycopy(s.added, at, added, at + 1, s.added.length - at);
+        publish(new Snapshot(s.base, added, s.removed));
+    }
+
+    /**
+     * Removes every customer with this name (ignoring case), as CustomerService.deleteCustomer does.
+     */
+    public synchronized void remove(String name) {
+        Snapshot s = snapshot;
+        String key = key(name.trim());
+
+        Entry[] added = Arrays.stream(s.added).filter(e -> !e.key.equals(key)).toArray(Entry[]::new);
+        Set<String> removed = s.removed;
+        int b = lowerBound(s.base, key);
+        if (b < s.base.length && s.base[b].key.equals(key) && !removed.contains(key)) {
+            removed = new HashSet<>(removed);
+            removed.add(key);
+        }
+        publish(new Snapshot(s.base, added, removed));
+    }
+
+    /**
+     * Customers currently indexed.
+     */
+    public int size() {
+        Snapshot s = snapshot;
+        int removedEntries = 0;
+        for (String key : s.removed) {
+            removedEntries += upperBound(s.base, key) - lowerBound(s.base, key);
+        }
+        return s.base.length - removedEntries + s.added.length;
+    }
+
+    // Caller holds this
+    private void publish(Snapshot next) {
+        if (next.added.length + next.removed.size() >= mergeThreshold) {
+            next = merge(next);
+        }
+        snapshot = next;
+    }
+
+    /**
+     * Folds the side array and removed set into one sorted array.
+     */
+    private static Snapshot merge(Snapshot s) {
+        Entry[] merged = new Entry[s.base.length + s.added.length];
+        int n = 0;
+        int d = 0;
+        for (Entry e : s.base) {
+            if (s.removed.contains(e.key)) {
+                continue;
+            }
+            while (d < s.added.length && s.added[d].key.compareTo(e.key) < 0) {
+                merged[n++] = s.added[d++];
+            }
+            merged[n++] = e;
+        }
+        while (d < s.added.length) {
+            merged[n++] = s.added[d++];
+        }
+        logger.log(Level.FINE, "Customer name index merged: {0} names", n);
+        return new Snapshot(Arrays.copyOf(merged, n), NO_ENTRIES, Set.of());
+    }
+
+    // First entry with key >= the given key
+    private static int lowerBound(Entry[] entries, String key) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].key.compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First entry with key > the given key
+    private static int upperBound(Entry[] entries, String key) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].key.compareTo(key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        final String key;
+        final Customer customer;
+
+        Entry(Customer customer) {
+            this.key = key(customer.getName());
+            this.customer = customer;
+        }
+    }
+
+    // Immutable; removed only names keys present in base
+    private static final class Snapshot {
+        final Entry[] base;
+        final Entry[] added;
+        final Set<String> removed;
+
+        Snapshot(Entry[] base, Entry[] added, Set<String> removed) {
+            this.base = base;
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+}
@@ -6,37 +6,30 @@ package application.services;
  */
 import application.utilities.LoggerSetup;
 import domain.Customer;
-import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.CustomerLogStore;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class CustomerService {
-    private final String customerFile;
+    private final CustomerLogStore customerStore;
     private static final Logger logger = LoggerSetup.getLogger();
     private Customer loggedInCustomer = null;
     private ArrayList<Customer> customerList;
+    private final CustomerNameIndex nameIndex;
 
     public CustomerService() {
         this("customer_data.json");
     }
 
     public CustomerService(String customerFile) {
-        this.customerFile = customerFile;
-        this.customerList = loadCustomers();
+        this.customerStore = new CustomerLogStore(customerFile);
+        this.customerList = new ArrayList<>(customerStore.load());
         logger.log(Level.INFO, "CustomerService initialized with {0} existing customers.", this.customerList.size());
         this.customerList.removeIf(c -> c.getName().equalsIgnoreCase(AuthService.STAFF_ID));
-    }
-    
-    private ArrayList<Customer> loadCustomers() {
-        List<String> jsonLines = DataFileHandler.loadFromJsonFile(customerFile);
-        return jsonLines.stream()
-            .map(Customer::fromJsonString) 
-            .filter(c -> c != null)       
-            .collect(Collectors.toCollection(ArrayList::new));
+        this.nameIndex = new CustomerNameIndex(this.customerList);
     }
     
     public void setLoggedInCustomer(Customer customer) {
@@ -51,39 +44,43 @@ public class CustomerService {
         return Optional.ofNullable(loggedInCustomer);
     }
     
-    private void saveCustomers() {
-        List<String> jsonLines = this.customerList.stream()
-            .map(Customer::toJsonString) 
-            .collect(Collectors.toList());
-            
-        DataFileHandler.saveToJsonFile(jsonLines, customerFile);
-    }
-    
     // --- Core Management Logic ---
     public ArrayList<Customer> getCustomerList() {
         return this.customerList;
     }
 
+    /**
+     * Up to limit customers whose name starts with prefix (ignoring case), in name
+     * order, from the prefix index rather than a scan of the list.
+     */
+    public List<Customer> searchCustomers(String prefix, int limit) {
+        return nameIndex.findByPrefix(prefix, limit);
+    }
+
     public boolean deleteCustomer(String nameToDelete) {
         if (nameToDelete == null || nameToDelete.trim().isEmpty() || nameToDelete.equalsIgnoreCase(AuthService.STAFF_ID)) {
             logger.warning("Attempted to delete customer with invalid name or tried to delete Staff account.");
             return false;
         }
         
-        boolean removed = this.customerList.removeIf(c -> c.getName().equalsIgnoreCase(nameToDelete.trim()));
+        boolean found = this.customerList.stream().anyMatch(c -> c.getName().equalsIgnoreCase(nameToDelete.trim()));
 
-        if (removed) {
-            saveCustomers();
+        if (found) {
+            // Log first: a failed write throws before the customer leaves memory
+            customerStore.appendTombstone(nameToDelete.trim());
+            this.customerList.removeIf(c -> c.getName().equalsIgnoreCase(nameToDelete.trim()));
+            nameIndex.remove(nameToDelete);
             logger.log(Level.INFO, "Customer deleted successfully: {0}", nameToDelete);
         } else {
             logger.log(Level.WARNING, "Deletion failed: Customer not found: {0}", nameToDelete);
         }
-        return removed;
+        return found;
     }
     
     public void addCustomer(Customer newCustomer) {
+        customerStore.append(newCustomer);
         this.customerList.add(newCustomer);
-        saveCustomers();
+        nameIndex.add(newCustomer);
         logger.info(() -> "New customer added and data saved: " + newCustomer.getName());
     }
 }
@@ -0,0 +1,147 @@
+package application.services;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Handle for one queued PDF export: state, progress and cancellation.
+ *
+ * Listeners are called on the worker thread; UI code must hop back onto its own
+ * thread (Platform.runLater) before touching controls.
+ */
+public final class ExportJob {
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED, CANCELLED }
+
+    private final String title;
+    private final File outputFile;
+    private final int expectedRows;
+
+    private volatile State state = State.QUEUED;
+    private volatile int rowsWritten;
+    private volatile int lastReportedPercent = -1;
+    private volatile boolean cancelRequested;
+    private volatile Throwable error;
+    private volatile Consumer<ExportJob> listener;
+    private volatile Future<?> future;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    ExportJob(String title, File outputFile, int expectedRows) {
+        this.title = title;
+        this.outputFile = outputFile;
+        this.expectedRows = expectedRows;
+    }
+
+    public String getTitle() { return title; }
+    public File getOutputFile() { return outputFile; }
+    public State getState() { return state; }
+    public Throwable getError() { return error; }
+
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED || state == State.CANCELLED;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * @return progress between 0 and 1, or -1 when the row count is not known up front.
+     */
+    public double getProgress() {
+        if (state == State.DONE) return 1.0;
+        if (expectedRows <= 0) return -1;
+        return Math.min(1.0, (double) rowsWritten / expectedRows);
+    }
+
+    /**
+     * Registers the listener for progress and state changes. It is called once
+     * straight away so a job that already finished is not missed.
+     */
+    public void onUpdate(Consumer<ExportJob> listener) {
+        this.listener = listener;
+        listener.accept(this);
+    }
+
+    /**
+     * Requests cancellation. A queued job never starts; a running job stops at the
+     * next row and its partial output is discarded.
+     */
+    public void cancel() {
+        boolean queued;
+        synchronized (this) {
+            cancelRequested = true;
+            queued = (state == State.QUEUED);
+        }
+        if (queued) {
+            // Never picked up by a worker: drop it from the pool queue as well
+            Future<?> f = future;
+            if (f != null) f.cancel(false);
+            finish(State.CANCELLED, null);
+        }
+    }
+
+    /**
+     * Waits for the job to finish.
+     *
+     * @return false if the timeout elapsed first.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    // === WORKER SIDE (package-private) ===
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * @return false if the job was cancelled before it could start.
+     */
+    boolean start() {
+        synchronized (this) {
+            if (cancelRequested) return false;
+            state = State.RUNNING;
+        }
+        notifyListener();
+        return true;
+    }
+
+    void rowWritten() {
+        int rows = ++rowsWritten; // single writer thread
+        if (expectedRows > 0) {
+            // Only notify when the whole percentage changes
+            int percent = (int) Math.min(100, (rows * 100L) / expectedRows);
+            if (percent != lastReportedPercent) {
+                lastReportedPercent = percent;
+                notifyListener();
+            }
+        }
+    }
+
+    void finish(State finalState, Throwable cause) {
+        synchronized (this) {
+            if (isFinished()) return;
+            this.error = cause;
+            this.state = finalState;
+        }
+        finished.countDown();
+        notifyListener();
+    }
+
+    private void notifyListener() {
+        Consumer<ExportJob> l = listener;
+        if (l != null) {
+            l.accept(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return title + " -> " + outputFile.getName() + " [" + state + "]";
+    }
+}
@@ -11,53 +11,90 @@ package application.services;
 // FoodService.java - Business Logic Layer (Inventory and Order Management)
 import application.utilities.LoggerSetup;
 import domain.Food;
+import domain.FoodOrderList;
 import domain.factory.FoodFactory;
 import infrastructure.repositories.DataFileHandler;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public class FoodService {
     private static final Logger logger = LoggerSetup.getLogger();
+    private static final String DEFAULT_STOCK_FILE = "food_stock.json";
+    private static final long DEFAULT_LOW_STOCK = 10;
     
-    private final Map<String, List<Food>> inventory;
+    // Immutable snapshot per category, replaced wholesale by reloadMenu()
+    private volatile Map<String, List<Food>> inventory;
+    
+    // "type:name" -> stock; items missing from the stock file are not tracked (never sell out)
+    private final String stockFile;
+    private final ConcurrentHashMap<String, StockLevel> stock = new ConcurrentHashMap<>();
+    private final List<LowStockListener> lowStockListeners = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Notified once each time an item drops to its low-stock threshold.
+     */
+    public interface LowStockListener {
+        void onLowStock(StockLevel level);
+    }
 
     public FoodService() {
-        this.inventory = new HashMap<>();
+        this(DEFAULT_STOCK_FILE);
+    }
+    
+    // Constructor for testing with custom stock file
+    public FoodService(String stockFile) {
+        this.stockFile = stockFile;
         loadInventory();
+        loadStock();
     }
 
     private void loadInventory() {
         // MATCHING ORIGINAL LOGIC: Reset Food numbering before loading menu
         Food.setLastNum(1); 
 
-        loadCategory("Beverage", "beverage.json");
-        loadCategory("Popcorn", "popcorn.json");
-        loadCategory("HotFood", "hotfood.json");
+        inventory = readMenu();
         
         logger.log(Level.INFO, "Food inventory loaded. Next item ID will be: {0}", Food.getLastNum());
     }
     
-    private void loadCategory(String type, String filename) {
-        List<Map<String, Object>> data = DataFileHandler.loadFoodInventoryData(filename);
+    /**
+     * Re-reads the menu files and swaps in the new menu. Item numbering carries on
+     * from the current counter so numbers already in carts stay unique.
+     */
+    public void reloadMenu() {
+        inventory = readMenu();
+        logger.info("Food menu reloaded.");
+    }
+    
+    private Map<String, List<Food>> readMenu() {
+        Map<String, List<Food>> menu = new HashMap<>();
+        menu.put("Beverage", loadCategory("Beverage", "beverage.json"));
+        menu.put("Popcorn", loadCategory("Popcorn", "popcorn.json"));
+        menu.put("HotFood", loadCategory("HotFood", "hotfood.json"));
+        return Map.copyOf(menu);
+    }
+    
+    private List<Food> loadCategory(String type, String filename) {
         List<Food> items = new ArrayList<>();
         
-        for (Map<String, Object> item : data) {
-            String name = (String) item.get("name");
-            Double price = (Double) item.getOrDefault("price", 0.0);
-            
+        DataFileHandler.readFoodInventory(filename, (name, price) -> {
             try {
                 // Use the factory to create the item, which increments lastNum
                 items.add(FoodFactory.createMenuItem(type, name, price));
             } catch (IllegalArgumentException e) {
                 logger.log(Level.WARNING, "Skipping item due to unknown type or parsing error: {0}", name);
             }
-        }
-        inventory.put(type, items);
+        });
         logger.log(Level.INFO, "Loaded {0} items for category: {1}", new Object[]{items.size(), type});
+        return List.copyOf(items);
     }
     
     public List<Food> getMenuByType(String type) {
@@ -74,19 +111,15 @@ public class FoodService {
     public ArrayList<Food> addOrMergeOrder(ArrayList<Food> orders, Food newItem, double unitPrice) {
         if (newItem == null) return orders;
 
-        for (Food existingItem : orders) {
-            if (existingItem.getName() != null && 
-                existingItem.getClass().equals(newItem.getClass()) && 
-                existingItem.getName().equals(newItem.getName())) {
-                
-                // 1. Merge Qty and Price (using your original methods)
-                existingItem.incrementQty(newItem.getQty()); 
-                existingItem.incrementPrice(newItem.getPrice()); 
+        Food existingItem = findSameItem(orders, newItem);
+        if (existingItem != null) {
+            // 1. Merge Qty and Price (using your original methods)
+            existingItem.incrementQty(newItem.getQty()); 
+            existingItem.setPriceCents(existingItem.getPriceCents() + newItem.getPriceCents()); 
 
-                // NOTE: We rely on the caller setting the total price correctly before calling this.
-                logger.log(Level.INFO, "Merged order: {0}, new quantity: {1}", new Object[]{existingItem.getName(), existingItem.getQty()});
-                return orders; 
-            }
+            // NOTE: We rely on the caller setting the total price correctly before calling this.
+            logger.log(Level.INFO, "Merged order: {0}, new quantity: {1}", new Object[]{existingItem.getName(), existingItem.getQty()});
+            return orders; 
         }
         
         // If no duplicate found, add new item (the newItem already has its total price set)
@@ -95,6 +128,23 @@ public class FoodService {
         return orders;
     }
     
+    /**
+     * O(1) on a FoodOrderList cart; plain lists are scanned.
+     */
+    private Food findSameItem(ArrayList<Food> orders, Food newItem) {
+        if (orders instanceof FoodOrderList) {
+            return ((FoodOrderList) orders).findSame(newItem);
+        }
+        for (Food existingItem : orders) {
+            if (existingItem.getName() != null && 
+                existingItem.getClass().equals(newItem.getClass()) && 
+                existingItem.getName().equals(newItem.getName())) {
+                return existingItem;
+            }
+        }
+        return null;
+    }
+    
     public double calculateTotal(ArrayList<Food> orders) {
         return orders.stream()
                      .mapToDouble(Food::getPrice) // price field stores total price in order context
@@ -110,4 +160,151 @@ public class FoodService {
         }
         return false;
     }
+    
+    // === STOCK ===
+    
+    /**
+     * Stock of an item, or empty when the item is not stock-tracked.
+     */
+    public Optional<StockLevel> getStock(String type, String name) {
+        return Optional.ofNullable(stock.get(stockKey(type, name)));
+    }
+    
+    /**
+     * True if qty more units could be sold right now (always true for untracked items).
+     */
+    public boolean hasStock(String type, String name, long qty) {
+        StockLevel level = stock.get(stockKey(type, name));
+        return level == null || level.getRemaining() >= qty;
+    }
+    
+    public List<StockLevel> getLowStockItems() {
+        return stock.values().stream()
+            .filter(StockLevel::isLow)
+            .collect(Collectors.toList());
+    }
+    
+    public void addLowStockListener(LowStockListener listener) {
+        lowStockListeners.add(listener);
+    }
+    
+    /**
+     * Takes the whole order out of stock at checkout, or nothing at all.
+     * Call before taking payment, and {@link #releaseStock} if the payment fails.
+     *
+     * @throws OutOfStockException if any line asks for more than remains
+     */
+    public void commitStock(List<Food> orders) {
+        List<Food> taken = new ArrayList<>();
+        for (Food item : orders) {
+            StockLevel level = stock.get(stockKey(item.getFoodType(), item.getName()));
+            if (level == null) {
+                continue;
+            }
+            if (!level.tryTake(item.getQty())) {
+                giveBack(taken); // nothing was saved yet
+                logger.log(Level.WARNING, "Out of stock: {0} (wanted {1}, {2} left)",
+                           new Object[]{item.getName(), item.getQty(), level.getRemaining()});
+                throw new OutOfStockException("Only " + level.getRemaining() + " " + item.getName() + " left");
+            }
+            taken.add(item);
+        }
+        
+        for (Food item : taken) {
+            StockLevel level = stock.get(stockKey(item.getFoodType(), item.getName()));
+            if (level.shouldAlert()) {
+                logger.log(Level.WARNING, "Low stock: {0} ({1} left)", new Object[]{level.getName(), level.getRemaining()});
+                for (LowStockListener listener : lowStockListeners) {
+                    listener.onLowStock(level);
+                }
+            }
+        }
+        if (!taken.isEmpty()) {
+            saveStock();
+        }
+    }
+    
+    /**
+     * Puts back stock taken by commitStock for an order that was not paid.
+     */
+    public void releaseStock(List<Food> orders) {
+        if (giveBack(orders)) {
+            saveStock();
+        }
+    }
+    
+    // True if any line was stock-tracked
+    private boolean giveBack(List<Food> orders) {
+        boolean tracked = false;
+        for (Food item : orders) {
+            StockLevel level = stock.get(stockKey(item.getFoodType(), item.getName()));
+            if (level != null) {
+                level.giveBack(item.getQty());
+                tracked = true;
+            }
+        }
+        return tracked;
+    }
+    
+    public void restock(String type, String name, long qty) {
+        StockLevel level = stock.get(stockKey(type, name));
+        if (level == null) {
+            throw new IllegalArgumentException("Item is not stock-tracked: " + type + " " + name);
+        }
+        level.restock(qty);
+        saveStock();
+        logger.log(Level.INFO, "Restocked {0} by {1}, now {2}", new Object[]{name, qty, level.getRemaining()});
+    }
+    
+    private static String stockKey(String type, String name) {
+        return type + ":" + name;
+    }
+    
+    /**
+     * One line per tracked item: {"type":"Popcorn","name":"...","stock":120,"lowStock":15}
+     */
+    private void loadStock() {
+        for (String line : DataFileHandler.loadFromJsonFile(stockFile)) {
+            try {
+                String type = extractString(line, "type");
+                String name = extractString(line, "name");
+                long remaining = extractLong(line, "stock");
+                long low = line.contains("\"lowStock\":") ? extractLong(line, "lowStock") : DEFAULT_LOW_STOCK;
+                stock.put(stockKey(type, name), new StockLevel(type, name, remaining, low));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to parse stock line: {0}", line);
+            }
+        }
+        logger.log(Level.INFO, "Loaded stock levels for {0} items.", stock.size());
+    }
+    
+    private synchronized void saveStock() {
+        List<String> lines = stock.values().stream()
+            .sorted((a, b) -> stockKey(a.getType(), a.getName()).compareTo(stockKey(b.getType(), b.getName())))
+            .map(l -> String.format("{\"type\":\"%s\",\"name\":\"%s\",\"stock\":%d,\"lowStock\":%d}",
+                l.getType(), l.getName(), l.getRemaining(), l.getLowStockThreshold()))
+            .collect(Collectors.toList());
+        DataFileHandler.saveToJsonFile(lines, stockFile);
+    }
+    
+    private String extractString(String json, String key) {
+        String searchKey = "\"" + key + "\":\"";
+        if (!json.contains(searchKey)) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        int start = json.indexOf(searchKey) + searchKey.length();
+        int end = json.indexOf("\"", start);
+        return json.substring(start, end);
+    }
+    
+    private long extractLong(String json, String key) {
+        String searchKey = "\"" + key + "\":";
+        if (!json.contains(searchKey)) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        int start = json.indexOf(searchKey) + searchKey.length();
+        int end = json.indexOf(",", start);
+        if (end == -1) end = json.indexOf("}", start);
+        return Long.parseLong(json.substring(start, end).trim());
+    }
 }
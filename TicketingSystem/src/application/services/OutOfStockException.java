@@ -0,0 +1,13 @@
+package application.services;
+
+/**
+ * Thrown by FoodService when an order asks for more of an item than remains.
+ * Nothing is taken from stock when this is thrown.
+ */
+public class OutOfStockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public OutOfStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,104 @@
+package application.services;
+
+import application.utilities.LoggerSetup;
+import domain.Food;
+import domain.Payment;
+import domain.Popcorn;
+import domain.Seat;
+import domain.Ticket;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.CartSeatRepository;
+import infrastructure.repositories.PaymentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Refunds a paid booking.
+ *
+ * History is append-only: a refund never edits the original payment. It saves a
+ * compensating payment (negative amounts, refundOf = original ID), which the
+ * repository appends to the file and adds to its indexes, and the report totals
+ * net out on their own. The refunded seats are then returned to sale. Every
+ * step touches only the refunded payment and its seats.
+ */
+public class RefundService {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    private final PaymentRepository paymentRepository;
+    private final CartSeatRepository seatRepository;
+
+    public RefundService(PaymentRepository paymentRepository, CartSeatRepository seatRepository) {
+        this.paymentRepository = paymentRepository;
+        this.seatRepository = seatRepository;
+    }
+
+    /**
+     * Refunds the whole payment and releases its seats.
+     * @return the compensating refund record
+     * @throws IllegalArgumentException if no such payment exists
+     * @throws IllegalStateException if the payment is a refund or was already refunded
+     */
+    public Payment refund(int paymentId) {
+        Payment original = paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new IllegalArgumentException("Payment not found: " + paymentId));
+        if (original.isRefund()) {
+            throw new IllegalStateException("Payment " + paymentId + " is itself a refund");
+        }
+        if (paymentRepository.findRefundFor(paymentId).isPresent()) {
+            throw new IllegalStateException("Payment " + paymentId + " has already been refunded");
+        }
+
+        Payment refund = compensationFor(original);
+        // Record the money first: a crash after this leaves seats to release by
+        // hand, never a refund without a record
+        paymentRepository.savePayment(refund);
+        releaseSeats(original);
+
+        logger.log(Level.INFO, "Refunded payment {0} as payment {1}",
+                   new Object[]{paymentId, refund.getPaymentID()});
+        return refund;
+    }
+
+    private Payment compensationFor(Payment original) {
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        for (Ticket t : original.getTicket()) {
+            tickets.add(Ticket.refundOf(t));
+        }
+        ArrayList<Food> food = new ArrayList<>();
+        for (Food f : original.getFood()) {
+            // History stores F&B lines by name only, as PaymentRepository reloads them
+            Food line = new Popcorn();
+            line.setName(f.getName());
+            line.setQty(-f.getQty());
+            line.setPriceCents(-f.getPriceCents());
+            food.add(line);
+        }
+
+        Payment refund = new Payment(original.getCustomer(), tickets, food, 0.0, true);
+        refund.setTotalPriceCents(-original.getTotalPriceCents());
+        refund.setRefundOf(original.getPaymentID());
+        return refund;
+    }
+
+    private void releaseSeats(Payment original) {
+        for (Ticket t : original.getTicket()) {
+            if (t.getShowtime() == null || t.getSeat().isEmpty()) {
+                continue;
+            }
+            if (t.getHallId() == 0) {
+                // Payments saved before hall IDs were recorded cannot be matched to a hall
+                logger.log(Level.WARNING, "Cannot release seats of payment {0}: no hall recorded",
+                           original.getPaymentID());
+                continue;
+            }
+            List<SeatId> seatIds = t.getSeat().stream()
+                .map(Seat::getId)
+                .collect(Collectors.toList());
+            seatRepository.releaseConfirmed(t.getShowtime(), seatIds);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package application.services;
+
+import application.utilities.LoggerSetup;
+import application.utilities.ReportSink;
+import application.utilities.TextReportSink;
+import domain.Food;
+import domain.Payment;
+import domain.Ticket;
+import infrastructure.repositories.PaymentQuery;
+import infrastructure.repositories.PaymentRepository;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the staff reports between clicks instead of re-running them over the
+ * whole payment history every time.
+ *
+ * Each report keeps the figures it was built from, stamped with the history
+ * watermark they cover: the number of payments read and the last payment ID.
+ * While the watermark is unchanged the rendered text and PDF bytes are served
+ * as they are. When payments have arrived, only those after the watermark are
+ * read and added to the figures, then the report is rendered again. The history
+ * is append-only, so nothing before the watermark ever needs reading twice.
+ *
+ * Reports carry the current date, so rendered output is also dropped at midnight
+ * (the figures are kept). A cached PDF keeps the "Generated" time of the export
+ * that produced it.
+ */
+public class ReportCache {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    /** PDFs larger than this are still exported but not kept in memory. */
+    public static final int DEFAULT_MAX_PDF_BYTES = 8 * 1024 * 1024;
+
+    private static final String MOVIE_PURCHASE = "MoviePurchase";
+    private static final String FOOD_PURCHASE = "FoodPurchase";
+    private static final String SALES_SUMMARY = "SalesSummary";
+
+    private final ReportService reportService;
+    private final PaymentRepository paymentRepository;
+    private final int maxPdfBytes;
+
+    // Guarded by this
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int hits;
+    private int incrementalUpdates;
+    private int rebuilds;
+
+    public ReportCache(ReportService reportService, PaymentRepository paymentRepository) {
+        this(reportService, paymentRepository, DEFAULT_MAX_PDF_BYTES);
+    }
+
+    // Constructor for testing with a custom PDF size limit
+    public ReportCache(ReportService reportService, PaymentRepository paymentRepository, int maxPdfBytes) {
+        this.reportService = reportService;
+        this.paymentRepository = paymentRepository;
+        this.maxPdfBytes = maxPdfBytes;
+    }
+
+    // ========== TEXT REPORTS ==========
+
+    public String getMoviePurchaseReport() {
+        return text(MOVIE_PURCHASE);
+    }
+
+    public String getFoodPurchaseReport() {
+        return text(FOOD_PURCHASE);
+    }
+
+    public String getSalesSummaryReport() {
+        return text(SALES_SUMMARY);
+    }
+
+    // ========== PDF EXPORT ==========
+
+    public void exportMoviePurchaseToPdf(File outputFile) throws IOException {
+        exportPdf(MOVIE_PURCHASE, "Movie Purchase Report", outputFile);
+    }
+
+    public void exportFoodPurchaseToPdf(File outputFile) throws IOException {
+        exportPdf(FOOD_PURCHASE, "Food Purchase Report", outputFile);
+    }
+
+    public void exportSalesSummaryToPdf(File outputFile) throws IOException {
+        exportPdf(SALES_SUMMARY, "Sales Summary Report", outputFile);
+    }
+
+    // ========== BACKGROUND EXPORT ==========
+
+    /**
+     * Writes the report into a queued export's sink from the cached figures,
+     * after catching up with any new payments.
+     */
+    public void writeMoviePurchaseReport(ReportSink sink) {
+        render(MOVIE_PURCHASE, sink);
+    }
+
+    public void writeFoodPurchaseReport(ReportSink sink) {
+        render(FOOD_PURCHASE, sink);
+    }
+
+    public void writeSalesSummaryReport(ReportSink sink) {
+        render(SALES_SUMMARY, sink);
+    }
+
+    /** Table rows in the movie purchase report, for export progress. */
+    public synchronized int getMoviePurchaseRowCount() {
+        return current(MOVIE_PURCHASE).tableRows.getAsInt();
+    }
+
+    /** Table rows in the food purchase report, for export progress. */
+    public synchronized int getFoodPurchaseRowCount() {
+        return current(FOOD_PURCHASE).tableRows.getAsInt();
+    }
+
+    /**
+     * Drops every cached report; the next request rebuilds from the start.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+    }
+
+    // ========== STATISTICS (for monitoring and tests) ==========
+
+    /** Requests answered with already rendered text or PDF bytes. */
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    /** Times a report caught up by reading only the payments after its watermark. */
+    public synchronized int getIncrementalUpdateCount() {
+        return incrementalUpdates;
+    }
+
+    /** Times a report was built from the start of the history. */
+    public synchronized int getRebuildCount() {
+        return rebuilds;
+    }
+
+    // ========== INTERNALS ==========
+
+    private synchronized String text(String report) {
+        Entry entry = current(report);
+        LocalDate today = LocalDate.now();
+        if (entry.text != null && today.equals(entry.textDate)) {
+            hits++;
+            return entry.text;
+        }
+        StringBuilder out = new StringBuilder();
+        entry.render.accept(new TextReportSink(out));
+        entry.text = out.toString();
+        entry.textDate = today;
+        return entry.text;
+    }
+
+    private synchronized void render(String report, ReportSink sink) {
+        current(report).render.accept(sink);
+    }
+
+    private synchronized void exportPdf(String report, String title, File outputFile) throws IOException {
+        Entry entry = current(report);
+        LocalDate today = LocalDate.now();
+        if (entry.pdf != null && today.equals(entry.pdfDate)) {
+            Files.write(outputFile.toPath(), entry.pdf);
+            hits++;
+            logger.info("Cached " + title + " written to PDF: " + outputFile.getName());
+            return;
+        }
+        reportService.exportToPdf(outputFile, title, entry.render);
+        logger.info(title + " exported to PDF: " + outputFile.getName());
+
+        long length = outputFile.length();
+        if (length <= maxPdfBytes) {
+            entry.pdf = Files.readAllBytes(outputFile.toPath());
+            entry.pdfDate = today;
+        }
+    }
+
+    /**
+     * The report's entry brought up to the current watermark. Caller holds this.
+     */
+    private Entry current(String report) {
+        int count = paymentRepository.getPaymentCount();
+        int lastId = paymentRepository.getLastPaymentId();
+        Entry entry = entries.get(report);
+        if (entry != null && entry.rows == count && entry.lastPaymentId == lastId) {
+            return entry;
+        }
+
+        // Append-only history: a shorter one, or a different payment at the watermark, is not ours
+        if (entry == null || count < entry.rows || (count == entry.rows && lastId != entry.lastPaymentId)) {
+            entry = newEntry(report);
+            entries.put(report, entry);
+            rebuilds++;
+        } else {
+            incrementalUpdates++;
+        }
+
+        int before = entry.rows;
+        Entry target = entry;
+        try (Stream<Payment> newer = paymentRepository.stream(PaymentQuery.all(), entry.rows)) {
+            newer.forEach(p -> {
+                target.add.accept(p);
+                target.rows++;
+                target.lastPaymentId = p.getPaymentID();
+            });
+        }
+        entry.text = null;
+        entry.pdf = null;
+        logger.log(Level.FINE, "{0} report caught up from payment {1} to {2}",
+                   new Object[]{report, before, entry.rows});
+        return entry;
+    }
+
+    private Entry newEntry(String report) {
+        switch (report) {
+            case MOVIE_PURCHASE: {
+                ReportService.PurchaseLines lines = new ReportService.PurchaseLines();
+                return new Entry(p -> {
+                    for (Ticket t : p.getTicket()) {
+                        if (t.getMovieName() != null) {
+                            lines.add(t.getMovieName(), t.getTicketAmt(), t.getTotalPriceCents());
+                        }
+                    }
+                }, sink -> reportService.writeMoviePurchaseReport(lines, sink), lines::size);
+            }
+            case FOOD_PURCHASE: {
+                ReportService.PurchaseLines lines = new ReportService.PurchaseLines();
+                return new Entry(p -> {
+                    for (Food f : p.getFood()) {
+                        if (f.getName() != null) {
+                            lines.add(f.getName(), f.getQty(), f.getPriceCents());
+                        }
+                    }
+                }, sink -> reportService.writeFoodPurchaseReport(lines, sink), lines::size);
+            }
+            case SALES_SUMMARY: {
+                ReportService.SalesTotals totals = new ReportService.SalesTotals();
+                // No table rows
+                return new Entry(totals::add, sink -> reportService.writeSalesSummaryReport(totals, sink), () -> 0);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown report: " + report);
+        }
+    }
+
+    /**
+     * One report: its figures, the watermark they cover and what was rendered from them.
+     */
+    private static final class Entry {
+        final Consumer<Payment> add;
+        final Consumer<ReportSink> render;
+        final IntSupplier tableRows;
+
+        int rows;
+        int lastPaymentId;
+
+        String text;
+        LocalDate textDate;
+        byte[] pdf;
+        LocalDate pdfDate;
+
+        Entry(Consumer<Payment> add, Consumer<ReportSink> render, IntSupplier tableRows) {
+            this.add = add;
+            this.render = render;
+            this.tableRows = tableRows;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package application.services;
+
+import application.utilities.LoggerSetup;
+import application.utilities.PdfReportWriter;
+import application.utilities.ReportSink;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs PDF report exports on a small worker pool so the staff portal stays
+ * responsive. Several exports can run in parallel; each one is tracked by an
+ * ExportJob that exposes progress and cancellation.
+ */
+public class ReportExportQueue {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final int DEFAULT_WORKERS =
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final ExecutorService workers;
+
+    public ReportExportQueue() {
+        this(DEFAULT_WORKERS);
+    }
+
+    public ReportExportQueue(int workerCount) {
+        this.workers = Executors.newFixedThreadPool(workerCount, new ExportThreadFactory());
+        logger.log(Level.INFO, "ReportExportQueue initialized with {0} workers.", workerCount);
+    }
+
+    /**
+     * Loads PDFBox fonts on a worker in the background so the first export does not stall.
+     */
+    public void prewarmFonts() {
+        workers.execute(PdfReportWriter::warmUp);
+    }
+
+    /**
+     * Queues a report export.
+     *
+     * @param title        report title printed on the PDF
+     * @param outputFile   target PDF file (only written if the export completes)
+     * @param report       writes the report rows into the sink it is given
+     * @param expectedRows rows the report is expected to write, or 0 if unknown
+     */
+    public ExportJob submit(String title, File outputFile, Consumer<ReportSink> report, int expectedRows) {
+        ExportJob job = new ExportJob(title, outputFile, expectedRows);
+        job.setFuture(workers.submit(() -> run(job, report)));
+        logger.log(Level.INFO, "Queued PDF export: {0}", job);
+        return job;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return workers.awaitTermination(timeout, unit);
+    }
+
+    private void run(ExportJob job, Consumer<ReportSink> report) {
+        if (!job.start()) {
+            return; // cancelled while queued
+        }
+
+        PdfReportWriter writer = null;
+        try {
+            writer = new PdfReportWriter(job.getOutputFile(), job.getTitle());
+            report.accept(new TrackingSink(writer, job));
+            writer.close();
+            job.finish(ExportJob.State.DONE, null);
+            logger.log(Level.INFO, "PDF export finished: {0}", job);
+
+        } catch (CancellationException e) {
+            writer.abort();
+            job.finish(ExportJob.State.CANCELLED, null);
+            logger.log(Level.INFO, "PDF export cancelled: {0}", job);
+
+        } catch (IOException | RuntimeException e) {
+            if (writer != null) writer.abort();
+            Throwable cause = (e instanceof UncheckedIOException) ? e.getCause() : e;
+            job.finish(ExportJob.State.FAILED, cause);
+            logger.log(Level.SEVERE, "PDF export failed: " + job, cause);
+        }
+    }
+
+    /**
+     * Passes rows through to the writer, counting them for progress and
+     * stopping the report as soon as the job is cancelled.
+     */
+    private static final class TrackingSink implements ReportSink {
+        private final ReportSink delegate;
+        private final ExportJob job;
+
+        TrackingSink(ReportSink delegate, ExportJob job) {
+            this.delegate = delegate;
+            this.job = job;
+        }
+
+        private void checkCancelled() {
+            if (job.isCancelRequested() || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException(job.getTitle());
+            }
+        }
+
+        @Override
+        public void text(String line) {
+            checkCancelled();
+            delegate.text(line);
+        }
+
+        @Override
+        public void separator() {
+            checkCancelled();
+            delegate.separator();
+        }
+
+        @Override
+        public void beginTable(String[] headers, int[] widths) {
+            checkCancelled();
+            delegate.beginTable(headers, widths);
+        }
+
+        @Override
+        public void row(String... cells) {
+            checkCancelled();
+            delegate.row(cells);
+            job.rowWritten();
+        }
+
+        @Override
+        public void endTable() {
+            checkCancelled();
+            delegate.endTable();
+        }
+    }
+
+    private static final class ExportThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "report-export-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
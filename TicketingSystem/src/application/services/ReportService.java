@@ -1,19 +1,30 @@
 package application.services;
 
+import application.monitoring.ReportGenerateEvent;
 import application.utilities.LoggerSetup;
-import application.utilities.PdfReportGenerator;
+import application.utilities.PdfReportWriter;
+import application.utilities.ReportSink;
+import application.utilities.TextReportSink;
 import domain.Customer;
 import domain.Food;
 import domain.Payment;
 import domain.Ticket;
+import domain.valueobjects.Money;
+import infrastructure.repositories.PaymentColumnStore;
+import infrastructure.repositories.PaymentPage;
+import infrastructure.repositories.PaymentQuery;
 import infrastructure.repositories.PaymentRepository;
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Service for generating business reports.
@@ -23,7 +34,12 @@ public class ReportService {
     private static final Logger logger = LoggerSetup.getLogger();
     private final PaymentRepository paymentRepository;
     
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    // Immutable formatter: reports may be written from several export workers at once
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    
+    // Column widths in characters
+    private static final int[] CUSTOMER_COLUMNS = {4, 35, 20};
+    private static final int[] PURCHASE_COLUMNS = {4, 35, 8, 12};
     
     public ReportService(PaymentRepository paymentRepository) {
         logger.info("ReportService initialized.");
@@ -36,162 +52,334 @@ public class ReportService {
      * Generates a detailed list of all registered customers.
      */
     public String getCustomerListReport(ArrayList<Customer> customer) {
+        StringBuilder report = new StringBuilder();
+        writeCustomerListReport(customer, new TextReportSink(report));
+        return report.toString();
+    }
+
+    /**
+     * Generates a detailed report of all movie ticket purchases.
+     */
+    public String getMoviePurchaseReport() {
+        StringBuilder report = new StringBuilder();
+        writeMoviePurchaseReport(new TextReportSink(report));
+        return report.toString();
+    }
+
+    /**
+     * Generates a detailed report of all F&B purchases.
+     */
+    public String getFoodPurchaseReport() {
+        StringBuilder report = new StringBuilder();
+        writeFoodPurchaseReport(new TextReportSink(report));
+        return report.toString();
+    }
+    
+    /**
+     * Generates the consolidated Sales Summary Report.
+     */
+    public String generateSalesSummaryReport() {
+        StringBuilder report = new StringBuilder();
+        writeSalesSummaryReport(new TextReportSink(report));
+        return report.toString();
+    }
+    
+    // ========== STREAMING REPORT METHODS ==========
+    // Each report is written row by row into a sink while walking the payment
+    // history, so neither the text nor the PDF path holds the whole report.
+    
+    public void writeCustomerListReport(ArrayList<Customer> customer, ReportSink sink) {
+        generate("CustomerList", sink, s -> writeCustomerListRows(customer, s));
+    }
+    
+    public void writeMoviePurchaseReport(ReportSink sink) {
+        generate("MoviePurchase", sink, this::writeMoviePurchaseRows);
+    }
+    
+    public void writeFoodPurchaseReport(ReportSink sink) {
+        generate("FoodPurchase", sink, this::writeFoodPurchaseRows);
+    }
+    
+    public void writeSalesSummaryReport(ReportSink sink) {
+        generate("SalesSummary", sink, this::writeSalesSummaryRows);
+    }
+    
+    // Same reports from figures ReportCache has already collected
+    
+    void writeMoviePurchaseReport(PurchaseLines lines, ReportSink sink) {
+        generate("MoviePurchase", sink, s -> {
+            if (lines.size() == 0) {
+                writeNoMoviePurchases(s);
+                return;
+            }
+            beginMoviePurchaseTable(s);
+            lines.writeRows(s);
+            endMoviePurchaseTable(s, lines.getSumCents());
+        });
+    }
+    
+    void writeFoodPurchaseReport(PurchaseLines lines, ReportSink sink) {
+        generate("FoodPurchase", sink, s -> {
+            if (lines.size() == 0) {
+                writeNoFoodPurchases(s);
+                return;
+            }
+            beginFoodPurchaseTable(s);
+            lines.writeRows(s);
+            endFoodPurchaseTable(s, lines.getSumCents());
+        });
+    }
+    
+    void writeSalesSummaryReport(SalesTotals totals, ReportSink sink) {
+        generate("SalesSummary", sink, s -> writeSalesSummary(totals, s));
+    }
+    
+    /**
+     * Runs one report, wrapped in a ReportGenerate flight recorder event when
+     * recording is on. Rows are only counted while the event is enabled.
+     */
+    private void generate(String report, ReportSink sink, Consumer<ReportSink> body) {
+        ReportGenerateEvent event = new ReportGenerateEvent();
+        if (!event.isEnabled()) {
+            body.accept(sink);
+            return;
+        }
+        
+        RowCountingSink counting = new RowCountingSink(sink);
+        event.begin();
+        try {
+            body.accept(counting);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.report = report;
+                event.output = sink.getClass().getSimpleName();
+                event.rowCount = counting.rows;
+                event.commit();
+            }
+        }
+    }
+    
+    private void writeCustomerListRows(ArrayList<Customer> customer, ReportSink sink) {
         if (customer.isEmpty()) {
-            return "\n <!> There are no registered customer records! <!>";
+            sink.text("");
+            sink.text(" <!> There are no registered customer records! <!>");
+            return;
         }
         
-        String todayDate = dateFormat.format(new Date());
-        StringBuilder report = new StringBuilder();
         int count = 0;
-        
-        report.append("\n---< Customer List Report >---\n\n");
-        report.append("Date    : ").append(todayDate).append("\n");
-        report.append("< Customer List Registered > \n\n");
-        report.append("=========================================================\n");
-        report.append("No. Customer Name                        Customer Password\n");
-        report.append("=========================================================\n");
-        
+        writeTitle(sink, "Customer List Report", "Customer List Registered");
+        sink.beginTable(new String[]{"No.", "Customer Name", "Customer Password"}, CUSTOMER_COLUMNS);
         for (Customer c : customer) {
-            report.append(String.format("%d   %s\t\t\t\t%s\n", ++count, c.getName(), c.getPassword()));
+            sink.row(Integer.toString(++count), c.getName(), c.getPassword());
         }
-        
-        report.append("=========================================================\n");
-        report.append(String.format("Total Number of Customer: %d\n", count));
-        report.append("=========================================================");
+        sink.endTable();
+        sink.text("Total Number of Customer: " + count);
+        sink.separator();
         
         logger.info("Customer list report generated.");
-        return report.toString();
     }
-
-    /**
-     * Generates a detailed report of all movie ticket purchases.
-     */
-    public String getMoviePurchaseReport() {
-        ArrayList<Ticket> ticketArr = new ArrayList<>();
-        ArrayList<Payment> payments = paymentRepository.getAllPayments();
-        for (Payment p : payments) {
-            ticketArr.addAll(p.getTicket());
+    
+    private void writeMoviePurchaseRows(ReportSink sink) {
+        PaymentColumnStore columns = paymentRepository.getColumnStore();
+        if (columns != null) {
+            writeMoviePurchaseReport(columns.snapshot(), sink);
+            return;
         }
         
-        if (ticketArr.isEmpty()) {
-            return "\n <!> There are no movie purchase records! <!>";
+        if (!hasTickets()) {
+            writeNoMoviePurchases(sink);
+            return;
         }
 
-        String todayDate = dateFormat.format(new Date());
-        StringBuilder report = new StringBuilder();
         int count = 0;
-        double ticketSum = 0;
-
-        report.append("\n---< Movie Purchase Report >---\n\n");
-        report.append("Date    : ").append(todayDate).append("\n");
-        report.append("< Movie Purchase Record >\n\n");
-        report.append("=============================================================\n");
-        report.append("No. Movie Name                         Unit             Total Price\n");
-        report.append("=============================================================\n");
+        long ticketSum = 0; // cents
 
-        for (Ticket t : ticketArr) {
-            if (t.getMovieName() != null) {
-                double totalPrice = t.ticketPrice() * t.getTicketAmt();
-                report.append(String.format("%d    %s\t\t%d\t\t\t%.2f\n", ++count, t.getMovieName(), t.getTicketAmt(), totalPrice));
-                ticketSum += totalPrice;
+        beginMoviePurchaseTable(sink);
+        // Streamed: one materialized payment at a time, never the whole history
+        for (Payment p : eachPayment()) {
+            for (Ticket t : p.getTicket()) {
+                if (t.getMovieName() != null) {
+                    long totalPrice = t.getTotalPriceCents();
+                    sink.row(Integer.toString(++count), t.getMovieName(),
+                             Integer.toString(t.getTicketAmt()), Money.format(totalPrice));
+                    ticketSum += totalPrice;
+                }
             }
         }
-
-        report.append("=============================================================\n");
-        report.append(String.format("Sum of Price: %.2f\n", ticketSum));
-        report.append("=============================================================");
-
-        logger.info("Movie purchase report generated.");
-        return report.toString();
+        endMoviePurchaseTable(sink, ticketSum);
     }
-
+    
     /**
-     * Generates a detailed report of all F&B purchases.
+     * Same report read straight from the payment columns.
      */
-    public String getFoodPurchaseReport() {
-        ArrayList<Food> foodArr = new ArrayList<>();
-        ArrayList<Payment> payments = paymentRepository.getAllPayments();
-        for (Payment p : payments) {
-            foodArr.addAll(p.getFood());
+    private void writeMoviePurchaseReport(PaymentColumnStore.Snapshot columns, ReportSink sink) {
+        if (columns.ticketRowCount() == 0) {
+            writeNoMoviePurchases(sink);
+            return;
         }
         
-        if (foodArr.isEmpty()) {
-            return "\n <!> There are no food purchase records! <!>";
+        int count = 0;
+        long ticketSum = 0; // cents
+        
+        beginMoviePurchaseTable(sink);
+        for (int i = 0; i < columns.size; i++) {
+            int movie = columns.movie[i];
+            if (movie != PaymentColumnStore.NO_MOVIE) {
+                long totalPrice = columns.ticketCents[i];
+                sink.row(Integer.toString(++count), columns.movieName(movie),
+                         Integer.toString(columns.seats[i]), Money.format(totalPrice));
+                ticketSum += totalPrice;
+            }
+        }
+        endMoviePurchaseTable(sink, ticketSum);
+    }
+    
+    private void writeNoMoviePurchases(ReportSink sink) {
+        sink.text("");
+        sink.text(" <!> There are no movie purchase records! <!>");
+    }
+    
+    private void beginMoviePurchaseTable(ReportSink sink) {
+        writeTitle(sink, "Movie Purchase Report", "Movie Purchase Record");
+        sink.beginTable(new String[]{"No.", "Movie Name", "Unit", "Total Price"}, PURCHASE_COLUMNS);
+    }
+    
+    private void endMoviePurchaseTable(ReportSink sink, long ticketSum) {
+        sink.endTable();
+        sink.text("Sum of Price: " + Money.format(ticketSum));
+        sink.separator();
+        logger.info("Movie purchase report generated.");
+    }
+    
+    private void writeFoodPurchaseRows(ReportSink sink) {
+        if (!hasFood()) {
+            writeNoFoodPurchases(sink);
+            return;
         }
 
-        String todayDate = dateFormat.format(new Date());
-        StringBuilder report = new StringBuilder();
         int count = 0;
-        double foodSum = 0;
-
-        report.append("\n---< Food Purchase Report >---\n\n");
-        report.append("Date    : ").append(todayDate).append("\n");
-        report.append("< Food Purchase Record >\n\n");
-        report.append("=============================================================\n");
-        report.append("No. Food Name                          Unit             Total Price\n");
-        report.append("=============================================================\n");
+        long foodSum = 0; // cents
 
-        for (Food f : foodArr) {
-            if (f.getName() != null) {
-                report.append(String.format("%d    %s\t\t%d\t\t%.2f\n", ++count, f.getName(), f.getQty(), f.getPrice()));
-                foodSum += f.getPrice();
+        beginFoodPurchaseTable(sink);
+        for (Payment p : eachPayment()) {
+            for (Food f : p.getFood()) {
+                if (f.getName() != null) {
+                    long price = f.getPriceCents();
+                    sink.row(Integer.toString(++count), f.getName(),
+                             Integer.toString(f.getQty()), Money.format(price));
+                    foodSum += price;
+                }
             }
         }
-
-        report.append("=============================================================\n");
-        report.append(String.format("Sum of Price: %.2f\n", foodSum));
-        report.append("=============================================================");
-
+        endFoodPurchaseTable(sink, foodSum);
+    }
+    
+    private void writeNoFoodPurchases(ReportSink sink) {
+        sink.text("");
+        sink.text(" <!> There are no food purchase records! <!>");
+    }
+    
+    private void beginFoodPurchaseTable(ReportSink sink) {
+        writeTitle(sink, "Food Purchase Report", "Food Purchase Record");
+        sink.beginTable(new String[]{"No.", "Food Name", "Unit", "Total Price"}, PURCHASE_COLUMNS);
+    }
+    
+    private void endFoodPurchaseTable(ReportSink sink, long foodSum) {
+        sink.endTable();
+        sink.text("Sum of Price: " + Money.format(foodSum));
+        sink.separator();
         logger.info("Food purchase report generated.");
-        return report.toString();
     }
     
-    /**
-     * Generates the consolidated Sales Summary Report.
-     */
-    public String generateSalesSummaryReport() {
-        ArrayList<Payment> payments = paymentRepository.getAllPayments();
-        if (payments == null || payments.isEmpty()) {
-            return "\n*** No Payment Data Available to Generate Report ***\n";
+    private void writeSalesSummaryRows(ReportSink sink) {
+        SalesTotals totals = new SalesTotals();
+        PaymentColumnStore columns = paymentRepository.getColumnStore();
+        if (columns != null) {
+            // Tight loops over the primitive columns of one consistent snapshot
+            PaymentColumnStore.Snapshot snapshot = columns.snapshot();
+            totals.transactions = snapshot.payments;
+            totals.ticketCents = snapshot.totalTicketCents();
+            totals.foodCents = snapshot.totalFoodCents();
+            totals.revenueCents = snapshot.totalRevenueCents();
+        } else {
+            for (Payment payment : eachPayment()) {
+                totals.add(payment);
+            }
         }
-
-        double totalRevenue = 0.0;
-        double totalTicketSales = 0.0;
-        double totalFoodBeverageSales = 0.0;
-        int totalTransactions = payments.size();
-        
-        for (Payment payment : payments) {
-            double ticketPrice = payment.getTotalTicketPrice();
-            double fbPrice = payment.getTotalFoodPrice();
-            double grandTotal = payment.getTotalPrice();
-
-            totalTicketSales += ticketPrice;
-            totalFoodBeverageSales += fbPrice;
-            totalRevenue += grandTotal;
+        writeSalesSummary(totals, sink);
+    }
+    
+    private void writeSalesSummary(SalesTotals totals, ReportSink sink) {
+        if (totals.transactions == 0) {
+            sink.text("");
+            sink.text("*** No Payment Data Available to Generate Report ***");
+            return;
         }
 
-        String report = String.format("""
-                                      
-                                      ==============================================
-                                             CINEMA SALES SUMMARY REPORT
-                                      ==============================================
-                                      Date: %s
-                                      Total Number of Transactions: %d
-                                      ----------------------------------------------
-                                      Total Ticket Sales:   RM %.2f
-                                      Total F&B Sales:      RM %.2f
-                                      ----------------------------------------------
-                                      GRAND TOTAL REVENUE:  RM %.2f
-                                      ==============================================""",
-            dateFormat.format(new Date()),
-            totalTransactions,
-            totalTicketSales,
-            totalFoodBeverageSales,
-            totalRevenue
-        );
+        sink.text("");
+        sink.separator();
+        sink.text("       CINEMA SALES SUMMARY REPORT");
+        sink.separator();
+        sink.text("Date: " + LocalDate.now().format(DATE_FORMAT));
+        sink.text("Total Number of Transactions: " + totals.transactions);
+        sink.text("----------------------------------------------");
+        sink.text("Total Ticket Sales:   RM " + Money.format(totals.ticketCents));
+        sink.text("Total F&B Sales:      RM " + Money.format(totals.foodCents));
+        sink.text("----------------------------------------------");
+        sink.text("GRAND TOTAL REVENUE:  RM " + Money.format(totals.revenueCents));
+        sink.separator();
 
         logger.info("Sales summary report generated.");
-        return report;
+    }
+    
+    private void writeTitle(ReportSink sink, String title, String subtitle) {
+        sink.text("");
+        sink.text("---< " + title + " >---");
+        sink.text("");
+        sink.text("Date    : " + LocalDate.now().format(DATE_FORMAT));
+        sink.text("< " + subtitle + " >");
+        sink.text("");
+    }
+    
+    // ========== ROW COUNTS (for export progress) ==========
+    
+    public int countTicketRows() {
+        PaymentColumnStore columns = paymentRepository.getColumnStore();
+        if (columns != null) {
+            return columns.snapshot().ticketRowCount();
+        }
+        return allPayments().mapToInt(p -> p.getTicket().size()).sum();
+    }
+    
+    public int countFoodRows() {
+        return allPayments().mapToInt(p -> p.getFood().size()).sum();
+    }
+    
+    private boolean hasTickets() {
+        return allPayments().anyMatch(p -> !p.getTicket().isEmpty());
+    }
+    
+    private boolean hasFood() {
+        return allPayments().anyMatch(p -> !p.getFood().isEmpty());
+    }
+    
+    private Stream<Payment> allPayments() {
+        return paymentRepository.stream(PaymentQuery.all());
+    }
+    
+    // For-each over the streamed history
+    private Iterable<Payment> eachPayment() {
+        return () -> allPayments().iterator();
+    }
+    
+    // ========== PAYMENT BROWSING ==========
+    
+    /**
+     * One page of payments for the staff history table.
+     */
+    public PaymentPage findPaymentPage(PaymentQuery query, int cursor, int pageSize) {
+        return paymentRepository.findPage(query, cursor, pageSize);
     }
     
     // ========== PDF EXPORT METHODS (New) ==========
@@ -205,8 +393,7 @@ public class ReportService {
      */
     public void exportCustomerListToPdf(ArrayList<Customer> customer, File outputFile) 
             throws IOException {
-        String reportContent = getCustomerListReport(customer);
-        PdfReportGenerator.generatePdfReport(reportContent, outputFile, "Customer List Report");
+        exportToPdf(outputFile, "Customer List Report", sink -> writeCustomerListReport(customer, sink));
         logger.info("Customer list exported to PDF: " + outputFile.getName());
     }
     
@@ -217,8 +404,7 @@ public class ReportService {
      * @throws IOException if PDF generation fails
      */
     public void exportMoviePurchaseToPdf(File outputFile) throws IOException {
-        String reportContent = getMoviePurchaseReport();
-        PdfReportGenerator.generatePdfReport(reportContent, outputFile, "Movie Purchase Report");
+        exportToPdf(outputFile, "Movie Purchase Report", this::writeMoviePurchaseReport);
         logger.info("Movie purchase report exported to PDF: " + outputFile.getName());
     }
     
@@ -229,8 +415,7 @@ public class ReportService {
      * @throws IOException if PDF generation fails
      */
     public void exportFoodPurchaseToPdf(File outputFile) throws IOException {
-        String reportContent = getFoodPurchaseReport();
-        PdfReportGenerator.generatePdfReport(reportContent, outputFile, "Food Purchase Report");
+        exportToPdf(outputFile, "Food Purchase Report", this::writeFoodPurchaseReport);
         logger.info("Food purchase report exported to PDF: " + outputFile.getName());
     }
     
@@ -241,8 +426,124 @@ public class ReportService {
      * @throws IOException if PDF generation fails
      */
     public void exportSalesSummaryToPdf(File outputFile) throws IOException {
-        String reportContent = generateSalesSummaryReport();
-        PdfReportGenerator.generatePdfReport(reportContent, outputFile, "Sales Summary Report");
+        exportToPdf(outputFile, "Sales Summary Report", this::writeSalesSummaryReport);
         logger.info("Sales summary report exported to PDF: " + outputFile.getName());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Streams a report straight into a PDF file. The file is only saved once the
+     * whole report has been written; a report that fails part way is discarded,
+     * so no partial PDF is left at the chosen path.
+     */
+    void exportToPdf(File outputFile, String title, Consumer<ReportSink> report) throws IOException {
+        PdfReportWriter writer = new PdfReportWriter(outputFile, title);
+        boolean written = false;
+        try {
+            report.accept(writer);
+            written = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!written) {
+                writer.abort();
+            }
+        }
+        writer.close();
+    }
+    
+    // ========== REPORT FIGURES ==========
+    
+    /**
+     * Sales summary totals, in cents so they stay exact over the whole history.
+     */
+    static final class SalesTotals {
+        int transactions;
+        long ticketCents;
+        long foodCents;
+        long revenueCents;
+        
+        void add(Payment payment) {
+            transactions++;
+            ticketCents += payment.getTotalTicketPriceCents();
+            foodCents += payment.getTotalFoodPriceCents();
+            revenueCents += payment.getTotalPriceCents();
+        }
+    }
+    
+    /**
+     * The rows of a purchase report (name, units, price) and their sum, in
+     * parallel arrays so a long history costs a few bytes per row.
+     */
+    static final class PurchaseLines {
+        private String[] names = new String[64];
+        private int[] units = new int[64];
+        private long[] cents = new long[64];
+        private int size;
+        private long sumCents;
+        
+        void add(String name, int unit, long price) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                units = Arrays.copyOf(units, size * 2);
+                cents = Arrays.copyOf(cents, size * 2);
+            }
+            names[size] = name;
+            units[size] = unit;
+            cents[size] = price;
+            size++;
+            sumCents += price;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        long getSumCents() {
+            return sumCents;
+        }
+        
+        void writeRows(ReportSink sink) {
+            for (int i = 0; i < size; i++) {
+                sink.row(Integer.toString(i + 1), names[i], Integer.toString(units[i]), Money.format(cents[i]));
+            }
+        }
+    }
+    
+    /**
+     * Passes everything through and counts table rows for the flight recorder event.
+     */
+    private static final class RowCountingSink implements ReportSink {
+        private final ReportSink delegate;
+        private int rows;
+        
+        RowCountingSink(ReportSink delegate) {
+            this.delegate = delegate;
+        }
+        
+        @Override
+        public void text(String line) {
+            delegate.text(line);
+        }
+        
+        @Override
+        public void separator() {
+            delegate.separator();
+        }
+        
+        @Override
+        public void beginTable(String[] headers, int[] widths) {
+            delegate.beginTable(headers, widths);
+        }
+        
+        @Override
+        public void row(String... cells) {
+            delegate.row(cells);
+            rows++;
+        }
+        
+        @Override
+        public void endTable() {
+            delegate.endTable();
+        }
+    }
+}
@@ -2,9 +2,13 @@ package application.services;
 
 import application.utilities.LoggerSetup;
 import domain.Customer;
+import domain.Payment;
+import infrastructure.repositories.PaymentPage;
+import infrastructure.repositories.PaymentQuery;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,10 +21,27 @@ public class StaffService {
     
     private final ReportService reportService;
     private final CustomerService customerService; 
+    private final Optional<ReportExportQueue> exportQueue;
+    private final Optional<RefundService> refundService;
+    private final Optional<ReportCache> reportCache;
     
     public StaffService(ReportService reportService, CustomerService customerService) {
+        this(reportService, customerService, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+    
+    /**
+     * @param exportQueue   runs background PDF exports; without one the submit methods throw
+     * @param refundService without one refundPayment throws
+     * @param reportCache   serves repeated movie, food and sales reports until new payments arrive
+     */
+    public StaffService(ReportService reportService, CustomerService customerService,
+                        Optional<ReportExportQueue> exportQueue, Optional<RefundService> refundService,
+                        Optional<ReportCache> reportCache) {
         this.reportService = reportService;
         this.customerService = customerService;
+        this.exportQueue = exportQueue;
+        this.refundService = refundService;
+        this.reportCache = reportCache;
         logger.info("StaffService initialized.");
     }
 
@@ -33,17 +54,20 @@ public class StaffService {
 
     public String getMoviePurchaseReport() {
         logger.info("Retrieving Movie Purchase Report.");
-        return reportService.getMoviePurchaseReport();
+        return reportCache.map(ReportCache::getMoviePurchaseReport)
+            .orElseGet(reportService::getMoviePurchaseReport);
     }
 
     public String getFoodPurchaseReport() {
         logger.info("Retrieving Food Purchase Report.");
-        return reportService.getFoodPurchaseReport();
+        return reportCache.map(ReportCache::getFoodPurchaseReport)
+            .orElseGet(reportService::getFoodPurchaseReport);
     }
     
     public String getSalesSummaryReport() {
         logger.info("Retrieving Sales Summary Report.");
-        return reportService.generateSalesSummaryReport();
+        return reportCache.map(ReportCache::getSalesSummaryReport)
+            .orElseGet(reportService::generateSalesSummaryReport);
     }
     
     // ========== PDF EXPORT METHODS (New) ==========
@@ -69,7 +93,11 @@ public class StaffService {
      */
     public void exportMoviePurchaseToPdf(File outputFile) throws IOException {
         logger.log(Level.INFO, "Exporting Movie Purchase Report to PDF: {0}", outputFile.getName());
-        reportService.exportMoviePurchaseToPdf(outputFile);
+        if (reportCache.isPresent()) {
+            reportCache.get().exportMoviePurchaseToPdf(outputFile);
+        } else {
+            reportService.exportMoviePurchaseToPdf(outputFile);
+        }
     }
     
     /**
@@ -80,7 +108,11 @@ public class StaffService {
      */
     public void exportFoodPurchaseToPdf(File outputFile) throws IOException {
         logger.log(Level.INFO, "Exporting Food Purchase Report to PDF: {0}", outputFile.getName());
-        reportService.exportFoodPurchaseToPdf(outputFile);
+        if (reportCache.isPresent()) {
+            reportCache.get().exportFoodPurchaseToPdf(outputFile);
+        } else {
+            reportService.exportFoodPurchaseToPdf(outputFile);
+        }
     }
     
     /**
@@ -91,7 +123,61 @@ public class StaffService {
      */
     public void exportSalesSummaryToPdf(File outputFile) throws IOException {
         logger.log(Level.INFO, "Exporting Sales Summary Report to PDF: {0}", outputFile.getName());
-        reportService.exportSalesSummaryToPdf(outputFile);
+        if (reportCache.isPresent()) {
+            reportCache.get().exportSalesSummaryToPdf(outputFile);
+        } else {
+            reportService.exportSalesSummaryToPdf(outputFile);
+        }
+    }
+    
+    // ========== BACKGROUND PDF EXPORT ==========
+    
+    /**
+     * Queues the Customer List Report for export on the report worker pool.
+     * 
+     * @throws IllegalStateException if no export queue was configured
+     */
+    public ExportJob submitCustomerListExport(ArrayList<Customer> customers, File outputFile) {
+        return queue().submit("Customer List Report", outputFile,
+            sink -> reportService.writeCustomerListReport(customers, sink), customers.size());
+    }
+    
+    /**
+     * Queued movie, food and sales exports render from the report cache when
+     * there is one, like the text reports.
+     */
+    public ExportJob submitMoviePurchaseExport(File outputFile) {
+        if (reportCache.isPresent()) {
+            ReportCache cache = reportCache.get();
+            return queue().submit("Movie Purchase Report", outputFile,
+                cache::writeMoviePurchaseReport, cache.getMoviePurchaseRowCount());
+        }
+        return queue().submit("Movie Purchase Report", outputFile,
+            reportService::writeMoviePurchaseReport, reportService.countTicketRows());
+    }
+    
+    public ExportJob submitFoodPurchaseExport(File outputFile) {
+        if (reportCache.isPresent()) {
+            ReportCache cache = reportCache.get();
+            return queue().submit("Food Purchase Report", outputFile,
+                cache::writeFoodPurchaseReport, cache.getFoodPurchaseRowCount());
+        }
+        return queue().submit("Food Purchase Report", outputFile,
+            reportService::writeFoodPurchaseReport, reportService.countFoodRows());
+    }
+    
+    public ExportJob submitSalesSummaryExport(File outputFile) {
+        // No table rows, so progress is indeterminate
+        if (reportCache.isPresent()) {
+            return queue().submit("Sales Summary Report", outputFile,
+                reportCache.get()::writeSalesSummaryReport, 0);
+        }
+        return queue().submit("Sales Summary Report", outputFile,
+            reportService::writeSalesSummaryReport, 0);
+    }
+    
+    private ReportExportQueue queue() {
+        return exportQueue.orElseThrow(() -> new IllegalStateException("No report export queue configured"));
     }
     
     // ========== CUSTOMER MANAGEMENT (Existing) ==========
@@ -100,4 +186,27 @@ public class StaffService {
         logger.log(Level.INFO, "Attempting to delete customer account: {0}", name);
         return customerService.deleteCustomer(name);
     }
+    
+    // ========== PAYMENT HISTORY ==========
+    
+    /**
+     * One page of the payment history for the staff table; pass the returned
+     * page's next cursor to get the following page.
+     */
+    public PaymentPage browsePayments(PaymentQuery query, int cursor, int pageSize) {
+        return reportService.findPaymentPage(query, cursor, pageSize);
+    }
+    
+    // ========== REFUNDS ==========
+    
+    /**
+     * Refunds a payment and returns its seats to sale.
+     * @return the refund record
+     */
+    public Payment refundPayment(int paymentId) {
+        RefundService refunds = refundService.orElseThrow(
+            () -> new IllegalStateException("No refund service configured"));
+        logger.log(Level.INFO, "Staff refund requested for payment: {0}", paymentId);
+        return refunds.refund(paymentId);
+    }
 }
\ No newline at end of file
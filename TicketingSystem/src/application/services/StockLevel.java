@@ -0,0 +1,81 @@
+package application.services;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remaining stock of one concession item.
+ *
+ * Taking stock is a CAS loop on the remaining count, so two tills can never sell
+ * the last hot dog twice. The sold total is a LongAdder because it is only ever
+ * added to and read for reports.
+ */
+public final class StockLevel {
+    private final String type;
+    private final String name;
+    private final long lowStockThreshold;
+    private final AtomicLong remaining;
+    private final LongAdder sold = new LongAdder();
+    private final AtomicBoolean lowAlerted = new AtomicBoolean();
+
+    StockLevel(String type, String name, long remaining, long lowStockThreshold) {
+        this.type = type;
+        this.name = name;
+        this.remaining = new AtomicLong(remaining);
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public String getType() { return type; }
+    public String getName() { return name; }
+    public long getRemaining() { return remaining.get(); }
+    public long getSold() { return sold.sum(); }
+    public long getLowStockThreshold() { return lowStockThreshold; }
+
+    public boolean isLow() {
+        return remaining.get() <= lowStockThreshold;
+    }
+
+    /**
+     * Takes qty units if that many remain; never goes below zero.
+     */
+    boolean tryTake(long qty) {
+        long current;
+        do {
+            current = remaining.get();
+            if (current < qty) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - qty));
+        sold.add(qty);
+        return true;
+    }
+
+    /**
+     * Returns units taken by an order that did not go through.
+     */
+    void giveBack(long qty) {
+        remaining.addAndGet(qty);
+        sold.add(-qty);
+        resetAlertIfRecovered();
+    }
+
+    void restock(long qty) {
+        remaining.addAndGet(qty);
+        resetAlertIfRecovered();
+    }
+
+    /**
+     * True exactly once per dip below the threshold, so an intermission rush
+     * raises one alert instead of one per sale.
+     */
+    boolean shouldAlert() {
+        return isLow() && lowAlerted.compareAndSet(false, true);
+    }
+
+    private void resetAlertIfRecovered() {
+        if (!isLow()) {
+            lowAlerted.set(false);
+        }
+    }
+}
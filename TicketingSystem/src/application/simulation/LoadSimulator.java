@@ -0,0 +1,455 @@
+package application.simulation;
+
+import application.dto.BookingRequest;
+import application.monitoring.LatencyHistogram;
+import application.services.BookingService;
+import application.utilities.LoggerSetup;
+import domain.CinemaHall;
+import domain.Customer;
+import domain.Movie;
+import domain.Payment;
+import domain.Seat;
+import domain.Showtime;
+import domain.Ticket;
+import domain.repositories.MovieRepository;
+import domain.repositories.ShowtimeRepository;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.CartSeatRepository;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.MappedSeatRepository;
+import infrastructure.repositories.PaymentRepository;
+import infrastructure.repositories.SeatUnavailableException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load simulation of the box office.
+ *
+ * Thousands of virtual-thread customers run browse -> reserveSeats -> confirm ->
+ * savePayment against the real BookingService, FileSeatRepository (or MappedSeatRepository) and
+ * PaymentRepository (on scratch files), all released at the same instant.
+ * A ledger of every sold seat detects double sells, and the bookings file is
+ * re-read at the end to catch lost writes.
+ *
+ * Run with: java presentation.gui.Launcher --simulate [--customers=5000 --skew=0.8 ...]
+ */
+public class LoadSimulator {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    private static final String[] SHOW_TIMES = {"10:00 AM", "1:00 PM", "4:00 PM", "7:00 PM", "10:00 PM"};
+
+    /**
+     * Simulation settings. Defaults give a busy evening on a small multiplex.
+     */
+    public static class Config {
+        int customers = 2000;
+        int halls = 2;
+        int rows = 10;
+        int cols = 20;
+        int showtimesPerHall = 2;
+        int seatsPerOrder = 2;      // each customer buys 1..seatsPerOrder adjacent seats
+        double hotSeatSkew = 0.7;   // chance a customer goes for the hot block in the middle
+        int maxAttempts = 3;        // browse + reserve retries after a conflict
+        int thinkMillis = 20;       // up to this long between seeing the seat map and reserving
+        boolean mappedStore;        // MappedSeatRepository instead of FileSeatRepository
+        File workDir;               // scratch directory; a temp directory when null
+        boolean keepFiles;
+
+        public Config customers(int n) { this.customers = n; return this; }
+        public Config halls(int n) { this.halls = n; return this; }
+        public Config hallSize(int rows, int cols) { this.rows = rows; this.cols = cols; return this; }
+        public Config showtimesPerHall(int n) { this.showtimesPerHall = Math.min(n, SHOW_TIMES.length); return this; }
+        public Config seatsPerOrder(int n) { this.seatsPerOrder = n; return this; }
+        public Config hotSeatSkew(double skew) { this.hotSeatSkew = skew; return this; }
+        public Config maxAttempts(int n) { this.maxAttempts = n; return this; }
+        public Config thinkMillis(int ms) { this.thinkMillis = ms; return this; }
+        public Config mappedStore(boolean mapped) { this.mappedStore = mapped; return this; }
+        public Config workDir(File dir) { this.workDir = dir; return this; }
+        public Config keepFiles(boolean keep) { this.keepFiles = keep; return this; }
+
+        /**
+         * Parses --name=value arguments (customers, halls, rows, cols, showtimes,
+         * seats, skew, attempts, think, store=file|mapped, dir, keep).
+         */
+        public static Config fromArgs(String[] args) {
+            Config c = new Config();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "customers": c.customers(Integer.parseInt(value)); break;
+                    case "halls": c.halls(Integer.parseInt(value)); break;
+                    case "rows": c.rows = Integer.parseInt(value); break;
+                    case "cols": c.cols = Integer.parseInt(value); break;
+                    case "showtimes": c.showtimesPerHall(Integer.parseInt(value)); break;
+                    case "seats": c.seatsPerOrder(Integer.parseInt(value)); break;
+                    case "skew": c.hotSeatSkew(Double.parseDouble(value)); break;
+                    case "attempts": c.maxAttempts(Integer.parseInt(value)); break;
+                    case "think": c.thinkMillis(Integer.parseInt(value)); break;
+                    case "store":
+                        if (!value.equals("file") && !value.equals("mapped")) {
+                            throw new IllegalArgumentException("--store must be file or mapped");
+                        }
+                        c.mappedStore(value.equals("mapped"));
+                        break;
+                    case "dir": c.workDir(new File(value)); break;
+                    case "keep": c.keepFiles(Boolean.parseBoolean(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Outcome of one run.
+     */
+    public static class Report {
+        public int customers;
+        public long checkouts;          // customers who paid
+        public long conflicts;          // reserveSeats rejected because someone got there first
+        public long reserveAttempts;
+        public long soldOut;            // customers who found nothing left to buy
+        public long gaveUp;             // customers who ran out of attempts
+        public long errors;             // anything unexpected
+        public long seatsSold;
+        public long doubleSells;        // the same seat confirmed for two customers
+        public long lostBookings;       // sold seats missing from the bookings file afterwards
+        public long paymentsSaved;
+        public long wallMillis;
+        public final LatencyHistogram reserveLatency = new LatencyHistogram();
+        public final LatencyHistogram checkoutLatency = new LatencyHistogram();
+
+        public double throughputPerSecond() {
+            return wallMillis == 0 ? 0 : checkouts * 1000.0 / wallMillis;
+        }
+
+        public double conflictRate() {
+            return reserveAttempts == 0 ? 0 : (double) conflicts / reserveAttempts;
+        }
+
+        public boolean isConsistent() {
+            return doubleSells == 0 && lostBookings == 0 && paymentsSaved == checkouts && errors == 0;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== Box Office Load Simulation ===\n");
+            sb.append(String.format("Customers:        %d%n", customers));
+            sb.append(String.format("Checkouts:        %d (%.1f/s over %d ms)%n", checkouts, throughputPerSecond(), wallMillis));
+            sb.append(String.format("Seats sold:       %d%n", seatsSold));
+            sb.append(String.format("Conflicts:        %d of %d reserves (%.1f%%)%n", conflicts, reserveAttempts, conflictRate() * 100));
+            sb.append(String.format("Sold out / gave up / errors: %d / %d / %d%n", soldOut, gaveUp, errors));
+            sb.append(String.format("Reserve latency:  p50 %d us, p95 %d us, p99 %d us, max %d us%n",
+                reserveLatency.percentileMicros(50), reserveLatency.percentileMicros(95),
+                reserveLatency.percentileMicros(99), reserveLatency.getMaxMicros()));
+            sb.append(String.format("Checkout latency: p50 %d us, p95 %d us, p99 %d us, max %d us%n",
+                checkoutLatency.percentileMicros(50), checkoutLatency.percentileMicros(95),
+                checkoutLatency.percentileMicros(99), checkoutLatency.getMaxMicros()));
+            sb.append(String.format("Double sells: %d, lost bookings: %d, payments saved: %d -> %s%n",
+                doubleSells, lostBookings, paymentsSaved, isConsistent() ? "CONSISTENT" : "INCONSISTENT"));
+            return sb.toString();
+        }
+    }
+
+    private final Config config;
+    private final Movie movie = new Movie(1, "Load Test Feature", 2.0, "Simulator", "2025-01-01");
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder reserveAttempts = new LongAdder();
+    private final LongAdder soldOut = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder doubleSells = new LongAdder();
+
+    // "showtimeKey|seat" -> customer id of the buyer
+    private final ConcurrentHashMap<String, Integer> ledger = new ConcurrentHashMap<>();
+
+    public LoadSimulator(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Per-reservation INFO logging would drown the report
+        LoggerSetup.getLogger().setLevel(Level.WARNING);
+        Report report = new LoadSimulator(Config.fromArgs(args)).run();
+        System.out.print(report);
+        if (!report.isConsistent()) {
+            System.exit(2);
+        }
+    }
+
+    public Report run() throws IOException, InterruptedException {
+        File dir = (config.workDir != null) ? config.workDir : Files.createTempDirectory("box-office-sim").toFile();
+        dir.mkdirs();
+        File bookingsFile = new File(dir, "bookings.json");
+        File hallsFile = new File(dir, "halls.json");
+        File paymentFile = new File(dir, "payment_history.json");
+        File inventoryFile = new File(dir, "seat_inventory.map");
+
+        try {
+            List<CinemaHall> halls = writeHalls(hallsFile);
+            bookingsFile.delete();
+            paymentFile.delete();
+            inventoryFile.delete();
+
+            CartSeatRepository seatRepository = openSeatRepository(bookingsFile, hallsFile, inventoryFile, halls);
+            PaymentRepository paymentRepository = new PaymentRepository(paymentFile.getPath());
+            BookingService bookingService = new BookingService(movieRepository(), showtimeRepository(halls), seatRepository);
+
+            List<Showtime> showtimes = new ArrayList<>();
+            for (CinemaHall hall : halls) {
+                for (int i = 0; i < config.showtimesPerHall; i++) {
+                    showtimes.add(showtime(SHOW_TIMES[i], hall));
+                }
+            }
+
+            List<Customer> customers = new ArrayList<>();
+            for (int i = 0; i < config.customers; i++) {
+                customers.add(new Customer("sim-" + i, "x"));
+            }
+
+            Report report = new Report();
+            report.customers = config.customers;
+            CountDownLatch go = new CountDownLatch(1);
+
+            logger.log(Level.INFO, "Simulating {0} customers on {1} showtimes", new Object[]{config.customers, showtimes.size()});
+            long wallStart;
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Customer customer : customers) {
+                    pool.execute(() -> {
+                        try {
+                            go.await();
+                            buy(customer, showtimes, bookingService, seatRepository, paymentRepository, report);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                            logger.log(Level.WARNING, "Simulated customer failed", e);
+                        }
+                    });
+                }
+                wallStart = System.nanoTime();
+                go.countDown(); // release everyone at once
+            } // close() waits for all customers
+            report.wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+
+            report.checkouts = checkouts.sum();
+            report.conflicts = conflicts.sum();
+            report.reserveAttempts = reserveAttempts.sum();
+            report.soldOut = soldOut.sum();
+            report.gaveUp = gaveUp.sum();
+            report.errors = errors.sum();
+            report.doubleSells = doubleSells.sum();
+            report.seatsSold = ledger.size();
+            report.paymentsSaved = paymentRepository.getPaymentCount();
+            report.lostBookings = countLostBookings(openSeatRepository(bookingsFile, hallsFile, inventoryFile, halls), showtimes);
+            return report;
+
+        } finally {
+            if (!config.keepFiles) {
+                bookingsFile.delete();
+                new File(dir, "bookings.json.lock").delete();
+                hallsFile.delete();
+                paymentFile.delete();
+                inventoryFile.delete();
+                if (config.workDir == null) dir.delete();
+            }
+        }
+    }
+
+    // === ONE CUSTOMER ===
+
+    private void buy(Customer customer, List<Showtime> showtimes, BookingService bookingService,
+                     CartSeatRepository seatRepository, PaymentRepository paymentRepository, Report report)
+            throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Showtime showtime = showtimes.get(random.nextInt(showtimes.size()));
+        CinemaHall hall = showtime.getCinemaHall();
+        int wanted = 1 + random.nextInt(Math.max(1, config.seatsPerOrder));
+        boolean wantsHotSeats = random.nextDouble() < config.hotSeatSkew;
+        long start = System.nanoTime();
+
+        for (int attempt = 0; attempt < config.maxAttempts; attempt++) {
+            // Browse
+            List<Seat> seats = bookingService.getSeatsByShowtime(movie, date, showtime.time(), hall.getHallId());
+            List<SeatId> pick = pickSeats(seats, hall, wanted, wantsHotSeats && attempt == 0, random);
+            if (pick.isEmpty()) {
+                soldOut.increment();
+                return;
+            }
+            if (config.thinkMillis > 0) {
+                // Picking seats takes a moment; this is where other buyers get in first
+                Thread.sleep(random.nextInt(config.thinkMillis + 1));
+            }
+
+            // Reserve
+            reserveAttempts.increment();
+            long reserveStart = System.nanoTime();
+            List<Seat> reserved;
+            try {
+                reserved = bookingService.bookTickets(
+                    new BookingRequest(movie.getId(), date, showtime.time(), hall.getHallId(), pick)).getSeats();
+                report.reserveLatency.record(System.nanoTime() - reserveStart);
+            } catch (SeatUnavailableException e) {
+                report.reserveLatency.record(System.nanoTime() - reserveStart);
+                conflicts.increment();
+                continue;
+            }
+
+            // Confirm and pay
+            seatRepository.confirmCartReservation(showtime, pick);
+            String key = showtime.getHallId() + "_" + showtime.getDate() + "_" + showtime.time();
+            for (SeatId id : pick) {
+                if (ledger.putIfAbsent(key + "|" + id.toDisplayString(), customer.getId()) != null) {
+                    doubleSells.increment();
+                }
+            }
+
+            ArrayList<Ticket> tickets = new ArrayList<>();
+            tickets.add(new Ticket(showtime, pick.size(), hall, new ArrayList<>(reserved)));
+            double total = tickets.get(0).getTotalPrice();
+            paymentRepository.savePayment(new Payment(Optional.of(customer), tickets, new ArrayList<>(), total, true));
+
+            checkouts.increment();
+            report.checkoutLatency.record(System.nanoTime() - start);
+            return;
+        }
+        gaveUp.increment();
+    }
+
+    /**
+     * Picks adjacent free seats in one row from the browse snapshot. Hot-seat buyers
+     * only look at the middle third of the hall, which is where contention builds up.
+     */
+    static List<SeatId> pickSeats(List<Seat> seats, CinemaHall hall, int wanted, boolean hotOnly,
+                                  ThreadLocalRandom random) {
+        int rows = hall.getRowAmt();
+        int cols = hall.getMaxSeatCol();
+        boolean[][] free = new boolean[rows][cols + 1];
+        for (Seat s : seats) {
+            if ("Available".equals(s.getSeatStatus())) {
+                free[s.getSeatRow() - 'A'][s.getSeatCol()] = true;
+            }
+        }
+
+        int rowFrom = hotOnly ? rows / 3 : 0;
+        int rowTo = hotOnly ? Math.max(rowFrom + 1, rows - rows / 3) : rows;
+        int colFrom = hotOnly ? cols / 3 + 1 : 1;
+        int colTo = hotOnly ? Math.max(colFrom, cols - cols / 3) : cols;
+
+        List<SeatId> candidates = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int r = rowFrom; r < rowTo; r++) {
+            for (int c = colFrom; c + wanted - 1 <= colTo; c++) {
+                boolean ok = true;
+                for (int k = 0; k < wanted && ok; k++) ok = free[r][c + k];
+                if (ok) starts.add(r * (cols + 1) + c);
+            }
+        }
+        if (starts.isEmpty()) {
+            return hotOnly ? pickSeats(seats, hall, wanted, false, random) : candidates;
+        }
+
+        int start = starts.get(random.nextInt(starts.size()));
+        char row = (char) ('A' + start / (cols + 1));
+        int col = start % (cols + 1);
+        for (int k = 0; k < wanted; k++) {
+            candidates.add(SeatId.of(row, col + k));
+        }
+        return candidates;
+    }
+
+    // === VERIFICATION ===
+
+    /**
+     * Re-reads the store with a fresh repository and counts ledger seats it does not know about.
+     */
+    private long countLostBookings(CartSeatRepository reloaded, List<Showtime> showtimes) {
+        long persisted = 0;
+        for (Showtime showtime : showtimes) {
+            persisted += reloaded.findSeatsByShowtime(showtime).stream()
+                .filter(s -> "Booked".equals(s.getSeatStatus()))
+                .count();
+        }
+        return Math.max(0, ledger.size() - persisted);
+    }
+
+    // === SCRATCH DATA ===
+
+    private CartSeatRepository openSeatRepository(File bookingsFile, File hallsFile, File inventoryFile, List<CinemaHall> halls) {
+        if (config.mappedStore) {
+            return new MappedSeatRepository(inventoryFile.getPath(), halls, 64);
+        }
+        return new FileSeatRepository(bookingsFile.getPath(), hallsFile.getPath());
+    }
+
+    private List<CinemaHall> writeHalls(File hallsFile) {
+        List<CinemaHall> halls = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= config.halls; i++) {
+            CinemaHall hall = new CinemaHall(i, CinemaHall.HALL_TYPE_STANDARD, config.rows, config.cols);
+            halls.add(hall);
+            lines.add(String.format("{\"hallNum\":%d,\"hallType\":\"%s\",\"rowAmt\":%d,\"colAmt\":%d}",
+                i, hall.getHallType(), config.rows, config.cols));
+        }
+        DataFileHandler.saveToJsonFile(lines, hallsFile.getPath());
+        return halls;
+    }
+
+    private Showtime showtime(String time, CinemaHall hall) {
+        return new Showtime(movie, date.getYear(), date.getMonthValue(), date.getDayOfMonth(), time, hall);
+    }
+
+    private MovieRepository movieRepository() {
+        return new MovieRepository() {
+            @Override
+            public List<Movie> findAll() {
+                return List.of(movie);
+            }
+
+            @Override
+            public Optional<Movie> findById(int id) {
+                return id == movie.getId() ? Optional.of(movie) : Optional.empty();
+            }
+        };
+    }
+
+    private ShowtimeRepository showtimeRepository(List<CinemaHall> halls) {
+        return new ShowtimeRepository() {
+            @Override
+            public List<Showtime> findAvailableDates(Movie m) {
+                return List.of(showtime(SHOW_TIMES[0], halls.get(0)));
+            }
+
+            @Override
+            public Optional<Showtime> findAvailableShowtime(Movie m, LocalDate d, String timeString, int hallId) {
+                return halls.stream()
+                    .filter(h -> h.getHallId() == hallId)
+                    .findFirst()
+                    .map(h -> showtime(timeString, h));
+            }
+        };
+    }
+}
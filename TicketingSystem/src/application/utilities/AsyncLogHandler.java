@@ -0,0 +1,234 @@
+package application.utilities;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Handler that hands records to a bounded ring buffer and writes them to the
+ * wrapped handler from a single drain thread, so a slow console never stalls a
+ * seat reservation or checkout.
+ *
+ * Records are formatted on the drain thread: log parameters must not be mutated
+ * after the call (strings, numbers and fresh lists are fine).
+ */
+public class AsyncLogHandler extends Handler {
+
+    /** What publish does when the buffer is full. */
+    public enum OverflowPolicy {
+        /** Discard the record and count it; the caller never waits. */
+        DROP,
+        /** Wait for the drain thread to make room (backpressure). */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final long CLOSE_TIMEOUT_MS = 2000;
+
+    private final Handler delegate;
+    private final OverflowPolicy policy;
+
+    private final LogRecord[] ring;
+    private int head;    // next slot to read
+    private int tail;    // next slot to write
+    private int count;
+    private boolean draining; // drain thread is writing a batch outside the lock
+    private boolean closed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+
+    private final LongAdder dropped = new LongAdder();
+    private final Thread drainThread;
+
+    /**
+     * A handler over delegate with its drain thread already running.
+     */
+    public static AsyncLogHandler start(Handler delegate) {
+        return start(delegate, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    public static AsyncLogHandler start(Handler delegate, int capacity, OverflowPolicy policy) {
+        AsyncLogHandler handler = new AsyncLogHandler(delegate, capacity, policy);
+        // Only once the handler is fully built, so the drain thread never sees it half-initialized
+        handler.setLevel(delegate.getLevel());
+        handler.drainThread.start();
+        return handler;
+    }
+
+    private AsyncLogHandler(Handler delegate, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.policy = policy;
+        this.ring = new LogRecord[capacity];
+
+        this.drainThread = new Thread(this::drainLoop, "log-drain");
+        this.drainThread.setDaemon(true);
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /** Records discarded because the buffer was full (DROP policy only). */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        // Caller inference walks the current stack, so it must happen before the hand-off
+        record.getSourceClassName();
+
+        lock.lock();
+        try {
+            if (closed) {
+                // Late records (e.g. during shutdown) are written straight through
+                delegate.publish(record);
+                return;
+            }
+            while (count == ring.length) {
+                if (policy == OverflowPolicy.DROP) {
+                    dropped.increment();
+                    return;
+                }
+                notFull.await();
+                if (closed) {
+                    delegate.publish(record);
+                    return;
+                }
+            }
+            ring[tail] = record;
+            tail = (tail + 1) % ring.length;
+            count++;
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainLoop() {
+        LogRecord[] batch = new LogRecord[ring.length];
+        long reportedDrops = 0;
+
+        while (true) {
+            int n;
+            lock.lock();
+            try {
+                while (count == 0 && !closed) {
+                    idle.signalAll();
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (count == 0) {
+                    idle.signalAll();
+                    return; // closed and fully drained
+                }
+                // Take everything queued in one go to keep lock traffic low
+                n = count;
+                for (int i = 0; i < n; i++) {
+                    batch[i] = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                }
+                count = 0;
+                draining = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            for (int i = 0; i < n; i++) {
+                write(batch[i]);
+                batch[i] = null;
+            }
+
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                write(new LogRecord(Level.WARNING,
+                    "Async log buffer full: " + (drops - reportedDrops) + " record(s) dropped"));
+                reportedDrops = drops;
+            }
+
+            lock.lock();
+            try {
+                draining = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(LogRecord record) {
+        try {
+            delegate.publish(record);
+        } catch (RuntimeException e) {
+            reportError("Async log delegate failed", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+     * Waits (briefly) for everything published so far to reach the delegate, then flushes it.
+     */
+    @Override
+    public void flush() {
+        awaitIdle(CLOSE_TIMEOUT_MS);
+        delegate.flush();
+    }
+
+    private void awaitIdle(long timeoutMs) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while ((count > 0 || draining) && drainThread.isAlive() && remaining > 0) {
+                notEmpty.signal();
+                remaining = idle.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drains what is buffered, stops the drain thread and closes the delegate.
+     * LogManager calls this on JVM shutdown, so buffered records are not lost.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            drainThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+}
@@ -4,6 +4,7 @@
  */
 package application.utilities;
 import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
@@ -12,7 +13,13 @@ import java.util.logging.SimpleFormatter;
  * @author zhili
  */
 public class LoggerSetup {
-    private static final Logger LOGGER = Logger.getLogger(presentation.gui.CinemaApplication.class.getName());
+    // Named by string so headless tools do not have to load JavaFX just to log
+    private static final Logger LOGGER = Logger.getLogger("presentation.gui.CinemaApplication");
+
+    // System properties controlling the console output path
+    public static final String ASYNC_PROPERTY = "ticketing.log.async";       // true (default) / false
+    public static final String BUFFER_PROPERTY = "ticketing.log.buffer";     // ring buffer capacity
+    public static final String OVERFLOW_PROPERTY = "ticketing.log.overflow"; // DROP (default) / BLOCK
 
     private LoggerSetup() {
         // Prevent instantiation
@@ -21,22 +28,50 @@ public class LoggerSetup {
     public static Logger getLogger() {
         // Guard clause: Configure only if not already configured (e.g., handlers are empty)
         if (LOGGER.getHandlers().length == 0) {
-            // Set level to INFO to capture important application flow
-            LOGGER.setLevel(Level.INFO);
-
-            // Create console handler
-            ConsoleHandler handler = new ConsoleHandler();
-            // Set handler level
-            handler.setLevel(Level.INFO);
-            // Use a simple formatter for clean output
-            handler.setFormatter(new SimpleFormatter());
-
-            // Add handler to the logger
-            LOGGER.addHandler(handler);
-            
-            // Prevent logs from being passed up to the root logger which might duplicate output
-            LOGGER.setUseParentHandlers(false);
+            configure();
         }
         return LOGGER;
     }
+
+    private static synchronized void configure() {
+        if (LOGGER.getHandlers().length != 0) {
+            return; // configured by another thread meanwhile
+        }
+        // Set level to INFO to capture important application flow
+        LOGGER.setLevel(Level.INFO);
+
+        // Create console handler
+        ConsoleHandler console = new ConsoleHandler();
+        // Set handler level
+        console.setLevel(Level.INFO);
+        // Use a simple formatter for clean output
+        console.setFormatter(new SimpleFormatter());
+
+        // Add handler to the logger, behind the ring buffer unless async logging is switched off
+        LOGGER.addHandler(createHandler(console));
+
+        // Prevent logs from being passed up to the root logger which might duplicate output
+        LOGGER.setUseParentHandlers(false);
+    }
+
+    /**
+     * Wraps the console handler in an AsyncLogHandler so callers never wait on
+     * console I/O. Falls back to the synchronous handler when disabled.
+     */
+    static Handler createHandler(Handler console) {
+        if (!Boolean.parseBoolean(System.getProperty(ASYNC_PROPERTY, "true"))) {
+            return console;
+        }
+
+        int capacity = AsyncLogHandler.DEFAULT_CAPACITY;
+        AsyncLogHandler.OverflowPolicy policy = AsyncLogHandler.OverflowPolicy.DROP;
+        try {
+            capacity = Integer.parseInt(System.getProperty(BUFFER_PROPERTY, Integer.toString(capacity)));
+            policy = AsyncLogHandler.OverflowPolicy.valueOf(
+                System.getProperty(OVERFLOW_PROPERTY, policy.name()).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid async logging settings, using defaults: " + e.getMessage());
+        }
+        return AsyncLogHandler.start(console, Math.max(1, capacity), policy);
+    }
 }
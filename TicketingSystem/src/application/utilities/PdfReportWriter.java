@@ -0,0 +1,348 @@
+package application.utilities;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams report lines and table rows straight into a PDF, one page at a time.
+ *
+ * Page content is buffered in a temp-file stream cache rather than on the heap,
+ * so memory stays flat however many rows are written. Pages roll over
+ * automatically and an open table repeats its header on each new page.
+ * The document is saved to the output file on close().
+ *
+ * ReportSink methods cannot throw IOException, so write failures surface as
+ * UncheckedIOException.
+ */
+public class PdfReportWriter implements ReportSink, Closeable {
+
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    // PDF Layout Constants
+    private static final float MARGIN = 50;
+    private static final float FONT_SIZE_TITLE = 16;
+    private static final float FONT_SIZE_NORMAL = 10;
+    private static final float LINE_HEIGHT = 15;
+    private static final float CHAR_WIDTH = FONT_SIZE_NORMAL * 0.6f; // Courier advance is 600/1000 em
+    private static final int MAX_CHARS_PER_LINE = 85;
+    private static final Standard14Fonts.FontName[] WARM_FONTS = {
+        Standard14Fonts.FontName.HELVETICA_BOLD, Standard14Fonts.FontName.HELVETICA,
+        Standard14Fonts.FontName.COURIER, Standard14Fonts.FontName.COURIER_BOLD
+    };
+
+    // Static initializer to disable font cache and suppress warnings
+    static {
+        try {
+            // Disable PDFBox font cache to avoid corrupted font issues
+            System.setProperty("pdfbox.fontcache", "false");
+            
+            // Disable system font loading entirely - use only PDF base fonts
+            System.setProperty("sun.font.fontmanager", "sun.awt.X11FontManager");
+            
+            // Suppress PDFBox font warnings
+            Logger pdfboxLogger = Logger.getLogger("org.apache.fontbox");
+            pdfboxLogger.setLevel(Level.SEVERE); // Only show severe errors
+            
+            Logger pdfboxTTFLogger = Logger.getLogger("org.apache.fontbox.ttf");
+            pdfboxTTFLogger.setLevel(Level.SEVERE);
+            
+            Logger pdfboxTTFParser = Logger.getLogger("org.apache.fontbox.ttf.TTFParser");
+            pdfboxTTFParser.setLevel(Level.SEVERE);
+        } catch (Exception e) {
+            // Ignore any errors in static initialization
+            System.err.println("Warning: Could not configure PDF font settings: " + e.getMessage());
+        }
+    }
+
+    private final File outputFile;
+    private final PDDocument document;
+    private final PDFont titleFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    private final PDFont headerFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final PDFont textFont = new PDType1Font(Standard14Fonts.FontName.COURIER);
+    private final PDFont tableHeaderFont = new PDType1Font(Standard14Fonts.FontName.COURIER_BOLD);
+
+    private PDPage page;
+    private PDPageContentStream contentStream;
+    private float yPosition;
+    private int pageCount;
+
+    private String[] tableHeaders;
+    private int[] tableWidths;
+    private boolean closed;
+
+    /**
+     * Opens a new document and writes the title block on the first page.
+     */
+    public PdfReportWriter(File outputFile, String reportTitle) throws IOException {
+        this.outputFile = outputFile;
+        this.document = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        try {
+            newPage();
+            writeHeader(reportTitle);
+        } catch (IOException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    // === ReportSink ===
+
+    @Override
+    public void text(String line) {
+        String clean = sanitize(line);
+        try {
+            // Wrap long lines
+            int start = 0;
+            do {
+                int end = Math.min(start + MAX_CHARS_PER_LINE, clean.length());
+                ensureRoom(1);
+                drawText(textFont, MARGIN, clean.substring(start, end));
+                yPosition -= LINE_HEIGHT;
+                start = end;
+            } while (start < clean.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void separator() {
+        try {
+            ensureRoom(1);
+            drawRule();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void beginTable(String[] headers, int[] widths) {
+        try {
+            // Keep the header together with at least one row
+            ensureRoom(4);
+            this.tableHeaders = headers;
+            this.tableWidths = widths;
+            writeTableHeader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void row(String... cells) {
+        try {
+            ensureRoom(1);
+            drawCells(textFont, cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endTable() {
+        tableHeaders = null;
+        tableWidths = null;
+        separator();
+    }
+
+    /**
+     * Finishes the current page and saves the document to the output file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            contentStream.close();
+            document.save(outputFile);
+            logger.info("PDF report saved successfully: " + outputFile.getAbsolutePath()
+                    + " (" + pageCount + " pages)");
+        } finally {
+            document.close();
+        }
+    }
+
+    /**
+     * Discards the document without writing the output file (used when an export
+     * is cancelled or fails part way).
+     */
+    public void abort() {
+        if (closed) return;
+        closed = true;
+        try {
+            document.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to discard PDF document: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lays out a throwaway page with every font the writer uses, so the first real
+     * export does not pay for PDFBox font and glyph-list loading.
+     */
+    public static void warmUp() {
+        try (PDDocument doc = new PDDocument()) {
+            PDPage warmPage = new PDPage(PDRectangle.A4);
+            doc.addPage(warmPage);
+            try (PDPageContentStream stream = new PDPageContentStream(doc, warmPage)) {
+                for (Standard14Fonts.FontName name : WARM_FONTS) {
+                    stream.beginText();
+                    stream.setFont(new PDType1Font(name), FONT_SIZE_NORMAL);
+                    stream.newLineAtOffset(MARGIN, MARGIN);
+                    stream.showText("YSCM 0123456789 RM.");
+                    stream.endText();
+                }
+            }
+            doc.save(OutputStream.nullOutputStream());
+            logger.info("PDF fonts pre-warmed.");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "PDF font pre-warm failed: {0}", e.getMessage());
+        }
+    }
+
+    // === PAGE LAYOUT ===
+
+    private void newPage() throws IOException {
+        if (contentStream != null) {
+            contentStream.close();
+        }
+        page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        contentStream = new PDPageContentStream(document, page);
+        yPosition = page.getMediaBox().getHeight() - MARGIN;
+        pageCount++;
+    }
+
+    /**
+     * Rolls over to a new page if fewer than the given number of lines still fit.
+     */
+    private void ensureRoom(int lines) throws IOException {
+        if (yPosition - (lines - 1) * LINE_HEIGHT < MARGIN + LINE_HEIGHT) {
+            newPage();
+            if (tableHeaders != null) {
+                writeTableHeader();
+            }
+        }
+    }
+
+    private void writeHeader(String title) throws IOException {
+        contentStream.beginText();
+        contentStream.setFont(titleFont, FONT_SIZE_TITLE);
+        contentStream.newLineAtOffset(MARGIN, yPosition);
+        contentStream.showText(sanitize("YSCM CINEMA - " + title));
+        contentStream.endText();
+
+        yPosition -= LINE_HEIGHT * 1.5f;
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        drawText(headerFont, MARGIN, "Generated: " + dateFormat.format(new Date()));
+
+        yPosition -= LINE_HEIGHT * 2;
+
+        contentStream.moveTo(MARGIN, yPosition);
+        contentStream.lineTo(page.getMediaBox().getWidth() - MARGIN, yPosition);
+        contentStream.stroke();
+
+        yPosition -= LINE_HEIGHT;
+    }
+
+    private void writeTableHeader() throws IOException {
+        drawRule();
+        drawCells(tableHeaderFont, tableHeaders);
+        drawRule();
+    }
+
+    private void drawRule() throws IOException {
+        float y = yPosition + LINE_HEIGHT / 3;
+        contentStream.moveTo(MARGIN, y);
+        contentStream.lineTo(page.getMediaBox().getWidth() - MARGIN, y);
+        contentStream.stroke();
+        yPosition -= LINE_HEIGHT;
+    }
+
+    /**
+     * Draws one row with each cell at its column offset, truncated to the column width.
+     */
+    private void drawCells(PDFont font, String[] cells) throws IOException {
+        int offset = 0;
+        for (int i = 0; i < cells.length; i++) {
+            boolean last = tableWidths == null || i >= tableWidths.length - 1;
+            int width = last ? MAX_CHARS_PER_LINE - offset : tableWidths[i];
+            if (width <= 0) break;
+
+            String cell = sanitize(cells[i]);
+            int max = last ? width : width - 1;
+            if (cell.length() > max) {
+                cell = cell.substring(0, max);
+            }
+            drawText(font, MARGIN + offset * CHAR_WIDTH, cell);
+            if (last) break;
+            offset += width;
+        }
+        yPosition -= LINE_HEIGHT;
+    }
+
+    private void drawText(PDFont font, float x, String text) throws IOException {
+        if (text.isEmpty()) return;
+        contentStream.beginText();
+        contentStream.setFont(font, FONT_SIZE_NORMAL);
+        contentStream.newLineAtOffset(x, yPosition);
+        try {
+            contentStream.showText(text);
+        } catch (IllegalArgumentException e) {
+            // If character encoding fails, log and write a placeholder
+            logger.log(Level.WARNING, "Skipping line due to encoding error: {0}", e.getMessage());
+            contentStream.showText("[Content contains unsupported characters]");
+        }
+        contentStream.endText();
+    }
+
+    /**
+     * Makes a single line safe for the standard PDF fonts (WinAnsiEncoding):
+     * tabs become 4 spaces, control characters are dropped and characters
+     * outside U+0020-U+00FF become '?'.
+     */
+    static String sanitize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sanitized = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean plain = (c >= 32 && c <= 126) || (c >= 160 && c <= 255);
+            if (plain && sanitized == null) continue;
+            if (sanitized == null) {
+                sanitized = new StringBuilder(text.length() + 8).append(text, 0, i);
+            }
+            if (plain) {
+                sanitized.append(c);
+            } else if (c == '\t') {
+                sanitized.append("    ");
+            } else if (c > 255) {
+                sanitized.append('?');
+            }
+            // Other control characters are dropped
+        }
+        return sanitized == null ? text : sanitized.toString();
+    }
+}
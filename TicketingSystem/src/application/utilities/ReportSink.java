@@ -0,0 +1,33 @@
+package application.utilities;
+
+/**
+ * Row-by-row target for reports. ReportService pushes lines and table rows into
+ * a sink as it walks the payment history, so no report is ever held as one String.
+ *
+ * Implementations: TextReportSink (on-screen text) and PdfReportWriter (PDF export).
+ */
+public interface ReportSink {
+
+    /**
+     * Writes a free text line.
+     */
+    void text(String line);
+
+    /**
+     * Writes a horizontal rule.
+     */
+    void separator();
+
+    /**
+     * Starts a table. Widths are in characters; the header is repeated when a
+     * table continues on a new page.
+     */
+    void beginTable(String[] headers, int[] widths);
+
+    /**
+     * Writes one table row. Cells longer than their column are truncated.
+     */
+    void row(String... cells);
+
+    void endTable();
+}
@@ -0,0 +1,73 @@
+package application.utilities;
+
+/**
+ * Renders a report as fixed-width text into a StringBuilder (used for on-screen reports).
+ */
+public class TextReportSink implements ReportSink {
+
+    private static final int DEFAULT_WIDTH = 46;
+
+    private final StringBuilder out;
+    private int[] widths;
+    private int ruleWidth = DEFAULT_WIDTH;
+
+    public TextReportSink(StringBuilder out) {
+        this.out = out;
+    }
+
+    @Override
+    public void text(String line) {
+        out.append(line).append('\n');
+    }
+
+    @Override
+    public void separator() {
+        out.repeat('=', ruleWidth).append('\n');
+    }
+
+    @Override
+    public void beginTable(String[] headers, int[] widths) {
+        this.widths = widths;
+        int total = 0;
+        for (int w : widths) total += w;
+        this.ruleWidth = total;
+
+        separator();
+        row(headers);
+        separator();
+    }
+
+    @Override
+    public void row(String... cells) {
+        appendCells(out, cells, widths);
+        out.append('\n');
+    }
+
+    @Override
+    public void endTable() {
+        separator();
+        widths = null;
+    }
+
+    /**
+     * Pads (or truncates) each cell to its column width. The last column is not padded.
+     */
+    static void appendCells(StringBuilder sb, String[] cells, int[] widths) {
+        for (int i = 0; i < cells.length; i++) {
+            String cell = cells[i] == null ? "" : cells[i];
+            if (widths == null || i >= widths.length) {
+                sb.append(cell);
+                continue;
+            }
+            int width = widths[i];
+            boolean last = i == cells.length - 1;
+            if (cell.length() >= width) {
+                sb.append(cell, 0, last ? cell.length() : Math.max(0, width - 1));
+                if (!last) sb.append(' ');
+            } else {
+                sb.append(cell);
+                if (!last) sb.repeat(' ', width - cell.length());
+            }
+        }
+    }
+}
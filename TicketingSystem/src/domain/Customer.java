@@ -12,6 +12,7 @@ package domain;
 // NOTE: This class holds the HASHED password in the 'password' field.
 
 import application.utilities.LoggerSetup;
+import java.util.function.IntSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -23,19 +24,52 @@ public class Customer {
     
     // Match your original static counter logic
     private static int assignid = 1; // Start at 1 instead of 0001 for int type
+    private static volatile IntSupplier idSource = Customer::nextLocalId;
 
     // Empty Constructor (Updated to increment ID if used, matching original)
     public Customer() {
-        this.id = assignid++;
+        this.id = idSource.getAsInt();
     }
 
     // Main Constructor (Accepts HASHED password from AuthService)
     public Customer(String name, String hashedPassword) {
         this.name = name;
         this.password = hashedPassword;
-        // Match your original ID assignment logic
-        id = assignid; 
-        assignid++;
+        id = idSource.getAsInt();
+    }
+    
+    // Used when loading a stored customer
+    private Customer(String name, String hashedPassword, int id) {
+        this.name = name;
+        this.password = hashedPassword;
+        this.id = id;
+    }
+    
+    /**
+     * The customer named on a stored payment. History keeps only the name, so
+     * this is not an account: no password and ID 0, and no ID is drawn.
+     */
+    public static Customer fromHistory(String name) {
+        return new Customer(name, "", 0);
+    }
+    
+    private static synchronized int nextLocalId() {
+        return assignid++;
+    }
+    
+    /**
+     * The next ID the in-memory counter would hand out (at least one above every loaded customer).
+     */
+    public static synchronized int getNextLocalId() {
+        return assignid;
+    }
+    
+    /**
+     * Where new customer IDs come from (e.g. a persistent IdAllocator sequence);
+     * null restores the in-memory counter.
+     */
+    public static void setIdSource(IntSupplier source) {
+        idSource = (source != null) ? source : Customer::nextLocalId;
     }
     
     // --- Getters (Matching Original Names) ---
@@ -106,13 +140,12 @@ public class Customer {
             int assignidValue = Integer.parseInt(json.substring(assignidStart, json.lastIndexOf("}")));
             
             // Set the static counter to the highest value found across all loaded customers
-            Customer.assignid = Math.max(Customer.assignid, assignidValue);
+            synchronized (Customer.class) {
+                Customer.assignid = Math.max(Customer.assignid, Math.max(assignidValue, id + 1));
+            }
 
-            // Manually create the customer object and set the ID, bypassing the constructor's increment
-            Customer c = new Customer(name, password);
-            c.id = id; // Override the ID assigned by the constructor
-            
-            return c;
+            // Restore the stored ID without drawing a new one from the ID source
+            return new Customer(name, password, id);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Failed to parse JSON string: {0}. Error: {1}", new Object[]{json, e.getMessage()});
             return null;
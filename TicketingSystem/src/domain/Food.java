@@ -9,13 +9,14 @@ package domain;
  * @author MOON
  */
 // Food.java - ADAPTED Domain Model (Abstract Base Class)
+import domain.valueobjects.Money;
 import java.util.Scanner;
 import java.util.ArrayList;
 
 public abstract class Food {
     protected int foodNum;
     protected String name;
-    protected double price; // Note: This field is used for both Unit Price (in inventory) and Total Price (in order) in your logic.
+    protected long priceCents; // Note: This field is used for both Unit Price (in inventory) and Total Price (in order) in your logic.
     protected int qty;
     protected static int lastNum = 1;
     
@@ -25,7 +26,7 @@ public abstract class Food {
         lastNum++;
         this.name = name;
         // In the inventory, price stores the unit price
-        this.price = unitPrice; 
+        this.priceCents = Money.ofAmount(unitPrice); 
         this.qty = 1; 
     }
 
@@ -46,8 +47,12 @@ public abstract class Food {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
+    public double getPrice() { return Money.toAmount(priceCents); }
+    public void setPrice(double price) { this.priceCents = Money.ofAmount(price); }
+
+    // Exact price in cents, for totals and serialization
+    public long getPriceCents() { return priceCents; }
+    public void setPriceCents(long priceCents) { this.priceCents = priceCents; }
 
     public int getQty() { return qty; }
     public void setQty(int qty) { this.qty = qty; }
@@ -62,7 +67,7 @@ public abstract class Food {
         // NOTE: This logic assumes 'price' currently holds the unit price before this call.
         // In the new architecture, we will manage unit price separate from total price.
         // For compatibility with your final object state, we calculate the total here.
-        this.price = this.qty * this.price; 
+        this.priceCents = Money.times(this.priceCents, this.qty); 
     }
 
     // Matches your original logic
@@ -73,7 +78,7 @@ public abstract class Food {
     
     // Matches your original logic
     public void incrementPrice(double amount) {
-        this.price += amount;
+        this.priceCents += Money.ofAmount(amount);
     }
     
     // Abstract method to differentiate types for the factory/service
@@ -82,11 +87,11 @@ public abstract class Food {
     // --- Display Methods (Retaining your exact formatting) ---
     public String toString() {
         // Used to display the menu items (number, name, unit price)
-        return String.format("%3d %-35s RM %6.2f", foodNum, name, price);
+        return String.format("%3d %-35s RM %6.2f", foodNum, name, getPrice());
     }
     
     public String printOrder() {
         // Used to display items in the order list (name, qty, total price)
-        return String.format("%-35s %3d RM %6.2f", name, qty, price);
+        return String.format("%-35s %3d RM %6.2f", name, qty, getPrice());
     }
 }
@@ -0,0 +1,76 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Food cart that can find the line for an item in O(1), so merging repeat
+ * orders does not scan the cart.
+ *
+ * It is still a plain ArrayList to every caller. The name index is rebuilt
+ * lazily whenever the list was changed behind its back (tracked via modCount),
+ * so direct add/remove/clear calls stay safe.
+ */
+public class FoodOrderList extends ArrayList<Food> {
+    private static final long serialVersionUID = 1L;
+
+    private transient Map<String, Food> index;
+    private transient int indexedModCount;
+
+    public FoodOrderList() {
+        super();
+    }
+
+    public FoodOrderList(Collection<? extends Food> items) {
+        super(items);
+    }
+
+    /**
+     * The cart line for the same kind of food with the same name, or null.
+     */
+    public Food findSame(Food item) {
+        return index().get(key(item));
+    }
+
+    @Override
+    public boolean add(Food item) {
+        boolean upToDate = index != null && indexedModCount == modCount;
+        super.add(item);
+        if (upToDate) {
+            index.putIfAbsent(key(item), item);
+            indexedModCount = modCount;
+        }
+        return true;
+    }
+
+    @Override
+    public Food set(int i, Food item) {
+        index = null; // not a structural change, so modCount would not notice
+        return super.set(i, item);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Food> operator) {
+        index = null;
+        super.replaceAll(operator);
+    }
+
+    private Map<String, Food> index() {
+        if (index == null || indexedModCount != modCount) {
+            Map<String, Food> rebuilt = new HashMap<>();
+            for (Food f : this) {
+                rebuilt.putIfAbsent(key(f), f);
+            }
+            index = rebuilt;
+            indexedModCount = modCount;
+        }
+        return index;
+    }
+
+    private static String key(Food item) {
+        return item.getClass().getName() + ':' + item.getName();
+    }
+}
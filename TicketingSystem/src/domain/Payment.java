@@ -1,18 +1,23 @@
 // src/domain/Payment.java
 package domain;
 
+import domain.valueobjects.Money;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
 
 public class Payment implements Serializable {
     private static final long serialVersionUID = 1L;
     private ArrayList<Ticket> ticket;
     private ArrayList<Food> food;
-    private double totalPricing;
+    private long totalPricingCents;
     private int paymentID = 0;
-    private static int lastID = 0;
+    private static final AtomicInteger lastID = new AtomicInteger(); // checkouts may run concurrently
+    private static volatile IntSupplier idSource = lastID::incrementAndGet;
     private boolean paymentMade;
+    private int refundOf; // ID of the payment this record refunds; 0 for a sale
     private Optional<Customer> customer;
     
     public Payment(){
@@ -26,23 +31,53 @@ public class Payment implements Serializable {
         this.ticket = (ticket != null) ? new ArrayList<>(ticket) : new ArrayList<>();
         this.food = (food != null) ? new ArrayList<>(food) : new ArrayList<>();
         this.customer = customer;
-        this.totalPricing = totalPricing;
+        this.totalPricingCents = Money.ofAmount(totalPricing);
         this.paymentMade = paymentMade;
-        this.paymentID = ++lastID;
+        this.paymentID = idSource.getAsInt();
+    }
+    
+    /**
+     * Rebuilds a stored payment without drawing a new payment ID.
+     */
+    public static Payment restore(int paymentId, Optional<Customer> customer, ArrayList<Ticket> ticket,
+                                  ArrayList<Food> food, long totalPricingCents, int refundOf) {
+        Payment p = new Payment();
+        p.paymentID = paymentId;
+        p.customer = customer;
+        p.ticket = ticket;
+        p.food = food;
+        p.totalPricingCents = totalPricingCents;
+        p.paymentMade = true;
+        p.refundOf = refundOf;
+        return p;
     }
     
     // --- STATIC SETTERS ---
     public static void setLastID(int id){
-        lastID = id;
+        lastID.set(id);
+    }
+    
+    /**
+     * Where new payment IDs come from (e.g. a persistent IdAllocator sequence);
+     * null restores the in-memory counter.
+     */
+    public static void setIdSource(IntSupplier source) {
+        idSource = (source != null) ? source : lastID::incrementAndGet;
     }
     
     // --- SETTERS FOR HISTORY LOADING ---
     public void setPaymentID(int paymentId) {
         this.paymentID = paymentId;
         // Ensure static counter doesn't lag behind if we load a high ID
-        if (paymentId > lastID) {
-            lastID = paymentId;
-        }
+        lastID.accumulateAndGet(paymentId, Math::max);
+    }
+    
+    public void setTotalPriceCents(long totalPricingCents) {
+        this.totalPricingCents = totalPricingCents;
+    }
+    
+    public void setRefundOf(int paymentId) {
+        this.refundOf = paymentId;
     }
 
     // --- GETTERS ---
@@ -55,6 +90,14 @@ public class Payment implements Serializable {
         return paymentMade;
     }
     
+    public int getRefundOf() {
+        return refundOf;
+    }
+    
+    public boolean isRefund() {
+        return refundOf != 0;
+    }
+    
     public Optional<Customer> getCustomer(){
         return customer;
     }
@@ -72,7 +115,11 @@ public class Payment implements Serializable {
      * No need to recalculate, which prevents errors if lists are empty.
      */
     public double getTotalPrice(){
-        return totalPricing;
+        return Money.toAmount(totalPricingCents);
+    }
+    
+    public long getTotalPriceCents(){
+        return totalPricingCents;
     }
     
     // --- SMART GETTERS (No separate summary variables needed) ---
@@ -87,12 +134,16 @@ public class Payment implements Serializable {
         return total;
     }
     
-    public int getTotalTicketPrice() {
-        if (ticket == null || ticket.isEmpty()) return 0;
+    public double getTotalTicketPrice() {
+        return Money.toAmount(getTotalTicketPriceCents());
+    }
+    
+    public long getTotalTicketPriceCents() {
+        if (ticket == null || ticket.isEmpty()) return 0L;
         
-        int total = 0;
+        long total = 0;
         for(Ticket t : ticket) {
-            if(t != null) total += t.getTotalPrice();
+            if(t != null) total += t.getTotalPriceCents();
         }
         return total;
     }
@@ -109,11 +160,15 @@ public class Payment implements Serializable {
     }
     
     public double getTotalFoodPrice() {
-        if (food == null || food.isEmpty()) return 0;
+        return Money.toAmount(getTotalFoodPriceCents());
+    }
+    
+    public long getTotalFoodPriceCents() {
+        if (food == null || food.isEmpty()) return 0L;
         
-        double total = 0;
+        long total = 0;
         for(Food f : food) {
-            if(f != null) total += f.getPrice();
+            if(f != null) total += f.getPriceCents();
         }
         return total;
     }
@@ -129,6 +184,6 @@ public class Payment implements Serializable {
     
     @Override
     public String toString(){
-        return "Payment ID: " + paymentID + " | Total: " + totalPricing;
+        return "Payment ID: " + paymentID + " | Total: " + Money.format(totalPricingCents);
     }
 }
\ No newline at end of file
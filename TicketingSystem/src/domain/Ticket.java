@@ -1,23 +1,30 @@
 package domain;
 
+import domain.pricing.PricingEngine;
+import domain.valueobjects.Money;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
 
 public class Ticket {
 
-    private static int lastTicketID = 1;
+    private static final AtomicInteger lastTicketID = new AtomicInteger(1); // tickets may be issued concurrently
+    private static volatile IntSupplier idSource = lastTicketID::getAndIncrement;
     private final int ticketID; // Recommended: make final
     private final int ticketAmt; // Recommended: make final
     private final Showtime showtime; // Recommended: make final
     private final CinemaHall cinema; // Recommended: make final
     private final ArrayList<Seat> seat; // Recommended: make final
+    private final Long fixedTotalCents; // set on refunds and restored history; null = priced from the seats
 
     public Ticket() {
-        this.ticketID = lastTicketID; // Still needs an ID, even if default
+        this.ticketID = lastTicketID.get(); // Still needs an ID, even if default
         this.ticketAmt = 0;
         this.showtime = null;
         this.cinema = null;
         this.seat = new ArrayList<>();
+        this.fixedTotalCents = null;
     }
 
     public Ticket(Showtime showtime, int ticketAmt, CinemaHall cinema, ArrayList<Seat> seat) {
@@ -25,8 +32,53 @@ public class Ticket {
         this.ticketAmt = ticketAmt;
         this.cinema = cinema;
         this.seat = seat;
-        this.ticketID = lastTicketID;
-        lastTicketID++;
+        this.ticketID = idSource.getAsInt();
+        this.fixedTotalCents = null;
+    }
+
+    private Ticket(Ticket original, long totalCents) {
+        this(original.showtime, -original.ticketAmt, original.cinema, original.seat, idSource.getAsInt(), totalCents);
+    }
+
+    private Ticket(Showtime showtime, int ticketAmt, CinemaHall cinema, ArrayList<Seat> seat,
+                   int ticketID, Long fixedTotalCents) {
+        this.showtime = showtime;
+        this.ticketAmt = ticketAmt;
+        this.cinema = cinema;
+        this.seat = seat;
+        this.ticketID = ticketID;
+        this.fixedTotalCents = fixedTotalCents;
+    }
+
+    /**
+     * Rebuilds a ticket from the payment history with its recorded ID instead of
+     * drawing a new one (lines written before IDs were recorded restore as ID 0).
+     * The total is the one recorded at sale, so later pricing changes do not
+     * rewrite past sales.
+     */
+    public static Ticket restore(Showtime showtime, CinemaHall cinema, ArrayList<Seat> seat,
+                                 boolean refund, int ticketID, long totalCents) {
+        return new Ticket(showtime, refund ? -seat.size() : seat.size(), cinema, seat, ticketID, totalCents);
+    }
+
+    /**
+     * Compensating line for a refunded ticket: same showing and seats, negative
+     * amount and price, so sums over the history net the sale out.
+     */
+    public static Ticket refundOf(Ticket original) {
+        return new Ticket(original, -original.getTotalPriceCents());
+    }
+
+    public boolean isRefund() {
+        return ticketAmt < 0;
+    }
+
+    /**
+     * Where new ticket IDs come from (e.g. a persistent IdAllocator sequence);
+     * null restores the in-memory counter.
+     */
+    public static void setIdSource(IntSupplier source) {
+        idSource = (source != null) ? source : lastTicketID::getAndIncrement;
     }
 
     public int getTicketID() {
@@ -65,21 +117,37 @@ public class Ticket {
         return seat;
     }
 
-    // FIX: This calculation is wrong in the original code. It only returns the price 
-    // of the *first* seat. It should calculate the sum.
+    // Unit price of the first seat. With zone pricing seats in one ticket can differ,
+    // so totals must come from getTotalPrice() rather than unit price * quantity.
     public double ticketPrice() {
-        double totalPrice = 0;
         if (seat == null || seat.isEmpty()) return 0;
         
-        // This calculates the price based on ONE seat's price logic 
-        // (which is tied to the hall type, meaning all seats in the same hall cost the same).
-        // Returning the price of the first seat is conceptually correct for the unit price:
+        if (isPricedByEngine()) {
+            return PricingEngine.getDefault().priceOf(showtime, seat.get(0).getId());
+        }
         return seat.get(0).calculatePrice(); 
     }
     
     public double getTotalPrice() {
-        if (seat == null || seat.isEmpty()) return 0;
-        return seat.size() * ticketPrice(); // Total price is unit price * quantity
+        return Money.toAmount(getTotalPriceCents());
+    }
+
+    /**
+     * Exact total in cents; reports and payments should sum this rather than getTotalPrice().
+     */
+    public long getTotalPriceCents() {
+        if (fixedTotalCents != null) return fixedTotalCents;
+        if (seat == null || seat.isEmpty()) return 0L;
+        
+        if (isPricedByEngine()) {
+            // Compiled per-showtime table: one array lookup per seat
+            return PricingEngine.getDefault().totalCentsFor(showtime, seat);
+        }
+        return Money.times(Money.ofAmount(ticketPrice()), seat.size()); // Unit price * quantity
+    }
+    
+    private boolean isPricedByEngine() {
+        return showtime != null && showtime.getCinemaHall() != null;
     }
 
     public String getMovieName() {
@@ -0,0 +1,71 @@
+package domain.pricing;
+
+import domain.Seat;
+import domain.valueobjects.Money;
+import domain.valueobjects.SeatId;
+import java.util.List;
+
+/**
+ * Compiled prices for one showtime: a flat array of cents indexed by seat
+ * position (row-major, 0-based). Built once by the PricingEngine and then read-only.
+ */
+public final class PriceTable {
+
+    private final int rows;
+    private final int cols;
+    private final long[] prices; // cents
+
+    PriceTable(int rows, int cols, long[] prices) {
+        this.rows = rows;
+        this.cols = cols;
+        this.prices = prices;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int size() { return prices.length; }
+
+    /**
+     * @return the seat index, or -1 if the seat is outside this hall.
+     */
+    public int indexOf(char row, int col) {
+        int r = row - 'A';
+        if (r < 0 || r >= rows || col < 1 || col > cols) return -1;
+        return r * cols + (col - 1);
+    }
+
+    public boolean contains(SeatId seatId) {
+        return indexOf(seatId.getRow(), seatId.getColumn()) >= 0;
+    }
+
+    public long centsAt(int index) {
+        return prices[index];
+    }
+
+    public double priceAt(int index) {
+        return Money.toAmount(prices[index]);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the seat is outside this hall.
+     */
+    public long centsOf(SeatId seatId) {
+        int index = indexOf(seatId.getRow(), seatId.getColumn());
+        if (index < 0) {
+            throw new IllegalArgumentException("Seat " + seatId + " is outside a " + rows + "x" + cols + " hall");
+        }
+        return prices[index];
+    }
+
+    public double priceOf(SeatId seatId) {
+        return Money.toAmount(centsOf(seatId));
+    }
+
+    public long totalCentsFor(List<Seat> seats) {
+        long total = 0;
+        for (Seat s : seats) {
+            total += centsOf(s.getId());
+        }
+        return total;
+    }
+}
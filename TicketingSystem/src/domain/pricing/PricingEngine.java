@@ -0,0 +1,162 @@
+package domain.pricing;
+
+import domain.CinemaHall;
+import domain.Seat;
+import domain.Showtime;
+import domain.valueobjects.Money;
+import domain.valueobjects.SeatId;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates pricing rules on top of CinemaHall.getBasePrice().
+ *
+ * Rules are compiled once per showtime into a PriceTable so that cart totals,
+ * seat map tooltips and report recomputation are plain array lookups. The
+ * compiled tables are dropped whenever the rule set changes.
+ */
+public class PricingEngine {
+
+    private static final PricingEngine DEFAULT = new PricingEngine();
+    private static final int MAX_CACHED_TABLES = 4096;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+
+    private volatile List<PricingRule> rules = List.of();
+    private final ConcurrentHashMap<String, PriceTable> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Shared engine used by Ticket and the services.
+     */
+    public static PricingEngine getDefault() {
+        return DEFAULT;
+    }
+
+    public List<PricingRule> getRules() {
+        return rules;
+    }
+
+    public synchronized void setRules(List<PricingRule> newRules) {
+        this.rules = List.copyOf(newRules);
+        compiled.clear();
+    }
+
+    public synchronized void addRule(PricingRule rule) {
+        List<PricingRule> copy = new ArrayList<>(rules);
+        copy.add(rule);
+        setRules(copy);
+    }
+
+    /**
+     * Returns the compiled price table for a showtime, building it on first use.
+     * Returns null when the showtime has no hall with known dimensions.
+     */
+    public PriceTable tableFor(Showtime showtime) {
+        CinemaHall hall = showtime.getCinemaHall();
+        if (hall == null || hall.getRowAmt() <= 0 || hall.getColAmt() <= 0) {
+            return null;
+        }
+
+        String key = cacheKey(showtime, hall);
+        PriceTable table = compiled.get(key);
+        if (table == null) {
+            if (compiled.size() >= MAX_CACHED_TABLES) {
+                compiled.clear();
+            }
+            table = compiled.computeIfAbsent(key, k -> compile(showtime, hall));
+        }
+        return table;
+    }
+
+    /**
+     * Price of one seat. Uses the compiled table when possible and falls back to
+     * direct rule evaluation for reconstructed history (halls without dimensions).
+     */
+    public long centsOf(Showtime showtime, SeatId seatId) {
+        PriceTable table = tableFor(showtime);
+        if (table != null && table.contains(seatId)) {
+            return table.centsOf(seatId);
+        }
+        CinemaHall hall = showtime.getCinemaHall();
+        if (hall == null) return 0L;
+
+        List<PricingRule> showtimeRules = rulesFor(showtime, hall);
+        return centsForRow(hall.getBasePrice(), showtimeRules, seatId.getRow());
+    }
+
+    public double priceOf(Showtime showtime, SeatId seatId) {
+        return Money.toAmount(centsOf(showtime, seatId));
+    }
+
+    public long totalCentsFor(Showtime showtime, List<Seat> seats) {
+        PriceTable table = tableFor(showtime);
+        long total = 0;
+        for (Seat s : seats) {
+            SeatId id = s.getId();
+            total += (table != null && table.contains(id)) ? table.centsOf(id) : centsOf(showtime, id);
+        }
+        return total;
+    }
+
+    // === COMPILATION ===
+
+    private PriceTable compile(Showtime showtime, CinemaHall hall) {
+        int rows = hall.getRowAmt();
+        int cols = hall.getColAmt();
+        long[] prices = new long[rows * cols];
+
+        List<PricingRule> showtimeRules = rulesFor(showtime, hall);
+        double base = hall.getBasePrice();
+
+        // Rules only vary by row, so each row is evaluated once and filled across.
+        for (int r = 0; r < rows; r++) {
+            long rowPrice = centsForRow(base, showtimeRules, (char) ('A' + r));
+            int offset = r * cols;
+            for (int c = 0; c < cols; c++) {
+                prices[offset + c] = rowPrice;
+            }
+        }
+        return new PriceTable(rows, cols, prices);
+    }
+
+    private List<PricingRule> rulesFor(Showtime showtime, CinemaHall hall) {
+        LocalTime time = parseTime(showtime.time());
+        List<PricingRule> matching = new ArrayList<>();
+        for (PricingRule rule : rules) {
+            if (rule.matchesShowtime(hall.getHallType(), showtime.getDate(), time)) {
+                matching.add(rule);
+            }
+        }
+        return matching;
+    }
+
+    private long centsForRow(double base, List<PricingRule> showtimeRules, char row) {
+        double price = base;
+        for (PricingRule rule : showtimeRules) {
+            if (rule.matchesRow(row)) {
+                price = rule.apply(price);
+            }
+        }
+        // Round to cents once here; everything downstream is exact integer math
+        return Money.ofAmount(price);
+    }
+
+    private String cacheKey(Showtime showtime, CinemaHall hall) {
+        return hall.getHallId() + "_" + hall.getHallType() + "_" + hall.getRowAmt() + "x" + hall.getColAmt()
+                + "_" + showtime.getDate() + "_" + showtime.time();
+    }
+
+    private static LocalTime parseTime(String time) {
+        if (time == null || time.isEmpty()) return null;
+        try {
+            return LocalTime.parse(time.trim().toUpperCase(Locale.ENGLISH), TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package domain.pricing;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A single fare adjustment applied on top of the hall's base price.
+ * Every criterion is optional; an unset criterion matches everything.
+ * Rules are immutable and are evaluated in order by the PricingEngine.
+ */
+public class PricingRule {
+
+    public enum Adjustment { SET, ADD, MULTIPLY }
+
+    private final String name;
+    private final String hallType;      // null = any hall
+    private final char fromRow;         // 0 = any row
+    private final char toRow;
+    private final LocalTime dayPartStart; // null = any time (inclusive start, exclusive end)
+    private final LocalTime dayPartEnd;
+    private final Set<DayOfWeek> weekdays; // empty = every day
+    private final LocalDate validFrom;  // null = open ended
+    private final LocalDate validTo;
+    private final Adjustment adjustment;
+    private final double amount;
+
+    private PricingRule(Builder b) {
+        this.name = b.name;
+        this.hallType = b.hallType;
+        this.fromRow = b.fromRow;
+        this.toRow = b.toRow;
+        this.dayPartStart = b.dayPartStart;
+        this.dayPartEnd = b.dayPartEnd;
+        this.weekdays = b.weekdays.isEmpty() ? Set.of() : Set.copyOf(b.weekdays);
+        this.validFrom = b.validFrom;
+        this.validTo = b.validTo;
+        this.adjustment = b.adjustment;
+        this.amount = b.amount;
+    }
+
+    public static Builder named(String name) {
+        return new Builder(name);
+    }
+
+    // --- Matching (split so the engine can evaluate showtime criteria once per table) ---
+
+    /**
+     * Checks the criteria that are the same for every seat of a showtime.
+     */
+    public boolean matchesShowtime(String showHallType, LocalDate date, LocalTime time) {
+        if (hallType != null && !hallType.equalsIgnoreCase(showHallType)) return false;
+
+        if (validFrom != null || validTo != null || !weekdays.isEmpty()) {
+            if (date == null) return false;
+            if (validFrom != null && date.isBefore(validFrom)) return false;
+            if (validTo != null && date.isAfter(validTo)) return false;
+            if (!weekdays.isEmpty() && !weekdays.contains(date.getDayOfWeek())) return false;
+        }
+
+        if (dayPartStart != null) {
+            if (time == null) return false;
+            if (time.isBefore(dayPartStart) || !time.isBefore(dayPartEnd)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the seat zone criterion.
+     */
+    public boolean matchesRow(char row) {
+        return fromRow == 0 || (row >= fromRow && row <= toRow);
+    }
+
+    public boolean isSeatDependent() {
+        return fromRow != 0;
+    }
+
+    public double apply(double price) {
+        switch (adjustment) {
+            case SET:
+                return amount;
+            case MULTIPLY:
+                return price * amount;
+            case ADD:
+            default:
+                return price + amount;
+        }
+    }
+
+    // GETTERS
+    public String getName() { return name; }
+    public String getHallType() { return hallType; }
+    public Adjustment getAdjustment() { return adjustment; }
+    public double getAmount() { return amount; }
+
+    @Override
+    public String toString() {
+        return name + " (" + adjustment + " " + amount + ")";
+    }
+
+    /**
+     * Fluent builder; rules have too many optional criteria for a constructor.
+     */
+    public static class Builder {
+        private final String name;
+        private String hallType;
+        private char fromRow;
+        private char toRow;
+        private LocalTime dayPartStart;
+        private LocalTime dayPartEnd;
+        private final EnumSet<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+        private LocalDate validFrom;
+        private LocalDate validTo;
+        private Adjustment adjustment = Adjustment.ADD;
+        private double amount;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder hallType(String hallType) {
+            this.hallType = hallType;
+            return this;
+        }
+
+        public Builder rows(char fromRow, char toRow) {
+            if (fromRow < 'A' || toRow > 'Z' || fromRow > toRow) {
+                throw new IllegalArgumentException("Invalid row range: " + fromRow + "-" + toRow);
+            }
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            return this;
+        }
+
+        public Builder dayPart(LocalTime start, LocalTime end) {
+            if (start == null || end == null || !start.isBefore(end)) {
+                throw new IllegalArgumentException("Invalid day-part: " + start + "-" + end);
+            }
+            this.dayPartStart = start;
+            this.dayPartEnd = end;
+            return this;
+        }
+
+        public Builder on(DayOfWeek... days) {
+            for (DayOfWeek d : days) weekdays.add(d);
+            return this;
+        }
+
+        public Builder between(LocalDate from, LocalDate to) {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+            }
+            this.validFrom = from;
+            this.validTo = to;
+            return this;
+        }
+
+        public PricingRule set(double price) {
+            return finish(Adjustment.SET, price);
+        }
+
+        public PricingRule add(double amount) {
+            return finish(Adjustment.ADD, amount);
+        }
+
+        public PricingRule multiply(double factor) {
+            return finish(Adjustment.MULTIPLY, factor);
+        }
+
+        public PricingRule finish(Adjustment adjustment, double amount) {
+            this.adjustment = adjustment;
+            this.amount = amount;
+            return new PricingRule(this);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package domain.valueobjects;
+
+/**
+ * Fixed-point money helpers. Amounts are carried as a primitive long number of
+ * cents (sen) so sums over the whole payment history are exact and never box.
+ * This is deliberately a static utility rather than an object: a Money instance
+ * per ticket or food line would put allocation back on the hot paths.
+ */
+public final class Money {
+
+    public static final long ZERO = 0L;
+
+    private Money() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Converts a ringgit amount to cents, rounding half away from zero.
+     */
+    public static long ofAmount(double amount) {
+        // Math.round alone rounds halves up, which is toward zero for negatives (-12.5 -> -12)
+        long cents = Math.round(Math.abs(amount) * 100.0);
+        return amount < 0 ? -cents : cents;
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    public static long times(long cents, int qty) {
+        return Math.multiplyExact(cents, (long) qty);
+    }
+
+    /**
+     * Parses a decimal amount such as "30", "30.0", "-14.50" straight into cents,
+     * without going through a double. Falls back to double parsing for exponents.
+     *
+     * @throws NumberFormatException if the text is not a number.
+     */
+    public static long parse(String text) {
+        String s = text.trim();
+        if (s.isEmpty()) {
+            throw new NumberFormatException("Empty amount");
+        }
+        if (s.indexOf('e') >= 0 || s.indexOf('E') >= 0) {
+            return ofAmount(Double.parseDouble(s));
+        }
+
+        int i = 0;
+        boolean negative = false;
+        if (s.charAt(0) == '-' || s.charAt(0) == '+') {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+
+        long whole = 0;
+        boolean digits = false;
+        for (; i < s.length() && s.charAt(i) != '.'; i++) {
+            whole = Math.addExact(Math.multiplyExact(whole, 10L), digit(s, i));
+            digits = true;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < s.length()) {
+            i++; // skip '.'
+            for (; i < s.length(); i++) {
+                int d = digit(s, i);
+                digits = true;
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + d;
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    roundUp = d >= 5;
+                    fractionDigits++;
+                }
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        if (fractionDigits == 1) fraction *= 10;
+
+        long cents = Math.addExact(Math.multiplyExact(whole, 100L), fraction + (roundUp ? 1 : 0));
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Formats cents as a plain two-decimal amount, e.g. 1505 -> "15.05".
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(16), cents).toString();
+    }
+
+    /**
+     * Appends cents as a plain two-decimal amount without intermediate objects.
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+        }
+        long whole = Math.abs(cents / 100);
+        long fraction = Math.abs(cents % 100);
+        sb.append(whole).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    private static int digit(String s, int index) {
+        char c = s.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Not an amount: " + s);
+        }
+        return c - '0';
+    }
+}
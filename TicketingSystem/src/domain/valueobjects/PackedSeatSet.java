@@ -0,0 +1,148 @@
+package domain.valueobjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Immutable set of seats stored as a bitmap over SeatId.packed(). Membership is
+ * one bit test with no hashing or boxing, and a showtime's whole seat set is a
+ * few longs. Changes return a new set, so a set can be shared between threads
+ * and swapped into a map atomically.
+ */
+public final class PackedSeatSet {
+
+    public static final PackedSeatSet EMPTY = new PackedSeatSet(new long[0], 0);
+
+    private final long[] words;
+    private final int size;
+
+    private PackedSeatSet(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    public static PackedSeatSet of(List<SeatId> seats) {
+        return EMPTY.plus(seats);
+    }
+
+    public boolean contains(SeatId seat) {
+        int packed = seat.packed();
+        int word = packed >>> 6;
+        return word < words.length && (words[word] & (1L << packed)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * This set with the seats added.
+     */
+    public PackedSeatSet plus(List<SeatId> seats) {
+        int highest = -1;
+        for (SeatId seat : seats) {
+            highest = Math.max(highest, seat.packed());
+        }
+        long[] next = Arrays.copyOf(words, Math.max(words.length, (highest >>> 6) + 1));
+        for (SeatId seat : seats) {
+            int packed = seat.packed();
+            next[packed >>> 6] |= 1L << packed;
+        }
+        return new PackedSeatSet(next, count(next));
+    }
+
+    /**
+     * Union, for ConcurrentHashMap.merge().
+     */
+    public PackedSeatSet plusAll(PackedSeatSet other) {
+        long[] next = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            next[i] |= other.words[i];
+        }
+        return new PackedSeatSet(next, count(next));
+    }
+
+    /**
+     * This set without the seats.
+     */
+    public PackedSeatSet minus(List<SeatId> seats) {
+        long[] next = words.clone();
+        for (SeatId seat : seats) {
+            int packed = seat.packed();
+            if ((packed >>> 6) < next.length) {
+                next[packed >>> 6] &= ~(1L << packed);
+            }
+        }
+        return new PackedSeatSet(next, count(next));
+    }
+
+    /**
+     * The seats in row-then-column order.
+     */
+    public List<SeatId> toList() {
+        List<SeatId> seats = new ArrayList<>(size);
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                seats.add(SeatId.fromPacked((w << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Comma-separated display form ("A1,A2,B5"), as stored in the bookings file.
+     */
+    public String toDisplayString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (SeatId seat : toList()) {
+            joiner.add(seat.toDisplayString());
+        }
+        return joiner.toString();
+    }
+
+    private static int count(long[] words) {
+        int n = 0;
+        for (long w : words) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+
+    // Sets of different array lengths can be equal: trailing zero words hold no seats
+    private long word(int i) {
+        return i < words.length ? words[i] : 0L;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedSeatSet)) return false;
+        PackedSeatSet other = (PackedSeatSet) o;
+        for (int i = Math.max(words.length, other.words.length) - 1; i >= 0; i--) {
+            if (word(i) != other.word(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < words.length; i++) {
+            h += (i + 1) * Long.hashCode(words[i]);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return toDisplayString();
+    }
+}
@@ -4,10 +4,25 @@
  */
 package domain.valueobjects;
 
-import java.util.Objects;
-
+/**
+ * A seat position such as "B7". of() returns one shared instance per row and
+ * column instead of allocating, and each seat also has a packed int form
+ * (see packed()) that is dense enough to index arrays and bitsets directly.
+ */
 public class SeatId {
     
+    public static final int MAX_COLUMN = 256;
+    private static final int COLUMN_BITS = 8;
+    /** Exclusive upper bound of packed(): every seat packs into [0, PACKED_LIMIT). */
+    public static final int PACKED_LIMIT = 26 << COLUMN_BITS;
+    
+    private static final SeatId[] CANONICAL = new SeatId[PACKED_LIMIT];
+    static {
+        for (int packed = 0; packed < PACKED_LIMIT; packed++) {
+            CANONICAL[packed] = new SeatId((char) ('A' + (packed >>> COLUMN_BITS)), (packed & (MAX_COLUMN - 1)) + 1);
+        }
+    }
+    
     private final char row;
     private final int column;
     
@@ -16,7 +31,7 @@ public class SeatId {
         if (row < 'A' || row > 'Z') {
             throw new IllegalArgumentException("Invalid seat row: " + row);
         }
-        if (column < 1) {
+        if (column < 1 || column > MAX_COLUMN) {
             throw new IllegalArgumentException("Invalid seat column: " + column);
         }
         
@@ -24,9 +39,51 @@ public class SeatId {
         this.column = column;
     }
     
+    /**
+     * The shared instance for this seat; prefer it over the constructor.
+     */
+    public static SeatId of(char row, int column) {
+        if (row < 'A' || row > 'Z') {
+            throw new IllegalArgumentException("Invalid seat row: " + row);
+        }
+        if (column < 1 || column > MAX_COLUMN) {
+            throw new IllegalArgumentException("Invalid seat column: " + column);
+        }
+        return CANONICAL[pack(row, column)];
+    }
+    
+    /**
+     * Parses the display form ("A10").
+     */
+    public static SeatId parse(String seat) {
+        String s = seat.trim();
+        if (s.length() < 2) {
+            throw new IllegalArgumentException("Invalid seat: " + seat);
+        }
+        return of(s.charAt(0), Integer.parseInt(s.substring(1)));
+    }
+    
+    public static SeatId fromPacked(int packed) {
+        if (packed < 0 || packed >= PACKED_LIMIT) {
+            throw new IllegalArgumentException("Invalid packed seat: " + packed);
+        }
+        return CANONICAL[packed];
+    }
+    
+    private static int pack(char row, int column) {
+        return ((row - 'A') << COLUMN_BITS) | (column - 1);
+    }
+    
     public char getRow() { return row; }
     public int getColumn() { return column; }
     
+    /**
+     * Row in the high bits, column in the low bits; fits in a short.
+     */
+    public int packed() {
+        return pack(row, column);
+    }
+    
     public String toDisplayString() {
         return String.valueOf(row) + column;
     }
@@ -41,7 +98,7 @@ public class SeatId {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return packed();
     }
     
     @Override
@@ -1,5 +1,7 @@
 package infrastructure.repositories;
 
+import application.monitoring.CartPersistEvent;
+import application.monitoring.Metrics;
 import application.utilities.LoggerSetup;
 import domain.Customer;
 import domain.Food;
@@ -8,6 +10,7 @@ import domain.Seat;
 import domain.CinemaHall;
 import domain.Showtime;
 import domain.Movie;
+import domain.valueobjects.Money;
 import domain.valueobjects.SeatId;
 
 import java.io.*;
@@ -26,14 +29,31 @@ import java.util.stream.Collectors;
  */
 public class CartManager {
     
-    private static final String CART_FILE = "customer_carts.json";
+    private static final String DEFAULT_CART_FILE = "customer_carts.json";
     private static final Logger logger = LoggerSetup.getLogger();
     
+    private final String cartFile;
+    private final CatalogInterner interner;
     private ConcurrentHashMap<Integer, CartData> customerCarts;
     
     public CartManager() {
+        this(DEFAULT_CART_FILE);
+    }
+    
+    public CartManager(CatalogInterner interner) {
+        this(DEFAULT_CART_FILE, interner);
+    }
+    
+    // Constructor for testing with custom file path
+    public CartManager(String cartFile) {
+        this(cartFile, new CatalogInterner());
+    }
+    
+    public CartManager(String cartFile, CatalogInterner interner) {
+        this.cartFile = cartFile;
+        this.interner = interner;
         this.customerCarts = loadCarts();
-        logger.info("CartManager initialized with " + customerCarts.size() + " saved carts");
+        logger.info(() -> "CartManager initialized with " + customerCarts.size() + " saved carts");
     }
     
     /**
@@ -63,7 +83,7 @@ public class CartManager {
         customerCarts.put(customer.getId(), cartData);
         persistCarts();
         
-        logger.info("Cart saved for customer: " + customer.getName());
+        logger.info(() -> "Cart saved for customer: " + customer.getName());
     }
     
     /**
@@ -78,12 +98,12 @@ public class CartManager {
             // Check if cart is expired (24 hours)
             long hoursSinceCreation = (System.currentTimeMillis() - cart.timestamp) / (1000 * 60 * 60);
             if (hoursSinceCreation > 24) {
-                logger.info("Cart expired for customer: " + customer.getName());
+                logger.info(() -> "Cart expired for customer: " + customer.getName());
                 clearCart(customer);
                 return null;
             }
             
-            logger.info("Cart loaded for customer: " + customer.getName());
+            logger.info(() -> "Cart loaded for customer: " + customer.getName());
         }
         
         return cart;
@@ -98,7 +118,7 @@ public class CartManager {
         customerCarts.remove(customer.getId());
         persistCarts();
         
-        logger.info("Cart cleared for customer: " + customer.getName());
+        logger.info(() -> "Cart cleared for customer: " + customer.getName());
     }
     
     /**
@@ -119,16 +139,28 @@ public class CartManager {
     
     // === PERSISTENCE LOGIC ===
     
-    private void persistCarts() {
+    // Synchronized: API sessions save carts from many threads at once
+    private synchronized void persistCarts() {
+        CartPersistEvent event = new CartPersistEvent();
+        event.begin();
+        long start = Metrics.CART_PERSIST.start();
         List<String> jsonLines = customerCarts.values().stream()
             .map(this::cartToJsonString)
             .collect(Collectors.toList());
         
-        DataFileHandler.saveToJsonFile(jsonLines, CART_FILE);
+        DataFileHandler.saveToJsonFile(jsonLines, cartFile);
+        Metrics.CART_PERSIST.stop(start);
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.cartCount = jsonLines.size();
+            event.bytes = new File(cartFile).length();
+            event.commit();
+        }
     }
     
     private ConcurrentHashMap<Integer, CartData> loadCarts() {
-        List<String> jsonLines = DataFileHandler.loadFromJsonFile(CART_FILE);
+        List<String> jsonLines = DataFileHandler.loadFromJsonFile(cartFile);
         ConcurrentHashMap<Integer, CartData> carts = new ConcurrentHashMap<>();
         
         for (String line : jsonLines) {
@@ -194,15 +226,15 @@ public class CartManager {
         }
         sb.append("\",");
         
-        sb.append("\"price\":").append(ticket.getTotalPrice());
+        Money.appendTo(sb.append("\"price\":"), ticket.getTotalPriceCents());
         sb.append("}");
         
         return sb.toString();
     }
     
     private String foodToJson(Food food) {
-        return String.format("{\"name\":\"%s\",\"qty\":%d,\"price\":%.2f}",
-            food.getName(), food.getQty(), food.getPrice());
+        return String.format("{\"name\":\"%s\",\"qty\":%d,\"price\":%s}",
+            food.getName(), food.getQty(), Money.format(food.getPriceCents()));
     }
     
     private CartData parseCartFromJson(String json) {
@@ -250,24 +282,16 @@ public class CartManager {
             String seatsStr = extractString(json, "seats");
             
             // Reconstruct entities
-            Movie movie = new Movie(0, movieName, 0, "", "");
-            
-            String[] dateParts = dateStr.split("-");
-            int year = Integer.parseInt(dateParts[0]);
-            int month = Integer.parseInt(dateParts[1]);
-            int day = Integer.parseInt(dateParts[2]);
-            
-            CinemaHall hall = new CinemaHall(hallId, hallType, 0, 0);
-            Showtime showtime = new Showtime(movie, year, month, day, timeStr, hall);
+            Movie movie = interner.movie(movieName);
+            CinemaHall hall = interner.hall(hallId, hallType);
+            Showtime showtime = interner.showtime(movie, LocalDate.parse(dateStr), timeStr, hall);
             
             // Parse seats
             ArrayList<Seat> seats = new ArrayList<>();
             if (!seatsStr.isEmpty()) {
                 String[] seatIds = seatsStr.split(",");
                 for (String id : seatIds) {
-                    char row = id.charAt(0);
-                    int col = Integer.parseInt(id.substring(1));
-                    seats.add(new Seat(new SeatId(row, col), "Single", "Reserved", hall));
+                    seats.add(new Seat(SeatId.parse(id), "Single", "Reserved", hall));
                 }
             }
             
@@ -283,12 +307,12 @@ public class CartManager {
         try {
             String name = extractString(json, "name");
             int qty = extractInt(json, "qty");
-            double price = extractDouble(json, "price");
+            String price = extractValue(json, "price");
             
             domain.Popcorn food = new domain.Popcorn();
             food.setName(name);
             food.setQty(qty);
-            food.setPrice(price);
+            food.setPriceCents(price.isEmpty() ? 0L : Money.parse(price));
             
             return food;
         } catch (Exception e) {
@@ -308,11 +332,6 @@ public class CartManager {
         return val.isEmpty() ? 0L : Long.parseLong(val);
     }
     
-    private double extractDouble(String json, String key) {
-        String val = extractValue(json, key);
-        return val.isEmpty() ? 0.0 : Double.parseDouble(val);
-    }
-    
     private String extractString(String json, String key) {
         String search = "\"" + key + "\":\"";
         int start = json.indexOf(search);
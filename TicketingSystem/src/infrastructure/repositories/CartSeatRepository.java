@@ -0,0 +1,46 @@
+package infrastructure.repositories;
+
+import domain.CinemaHall;
+import domain.Showtime;
+import domain.repositories.SeatRepository;
+import domain.valueobjects.SeatId;
+
+import java.util.List;
+
+/**
+ * Seat store with cart holds: reserveSeats holds seats in a cart, and they are
+ * confirmed at checkout or released on cancel/logout. Implemented by
+ * FileSeatRepository (bookings.json) and MappedSeatRepository (shared memory-mapped file).
+ */
+public interface CartSeatRepository extends SeatRepository {
+
+    /**
+     * Turns held seats into a paid booking.
+     * @throws SeatUnavailableException if another buyer already owns any of the seats.
+     */
+    void confirmCartReservation(Showtime showtime, List<SeatId> seatIds);
+
+    /**
+     * Releases held seats back to sale.
+     */
+    void cancelCartReservation(Showtime showtime, List<SeatId> seatIds);
+
+    /**
+     * Returns paid seats to sale after a refund. Seats that are not sold are ignored.
+     */
+    void releaseConfirmed(Showtime showtime, List<SeatId> seatIds);
+
+    /**
+     * Releases every seat held by this repository's carts.
+     */
+    void clearAllCartReservations();
+
+    List<CinemaHall> getAllHalls();
+
+    List<CinemaHall> getHallsByType(String hallType);
+
+    /**
+     * Number of seats currently held in carts.
+     */
+    long getActiveHoldCount();
+}
@@ -0,0 +1,125 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+import domain.CinemaHall;
+import domain.Movie;
+import domain.Showtime;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resolves the movie, hall and showtime references in saved payments and carts
+ * to shared instances (flyweights).
+ *
+ * Loaders used to build a new Movie(0, name, ...) and CinemaHall(0, type, 0, 0)
+ * for every ticket, so a long history held millions of identical objects with
+ * no real IDs or dimensions. Here a movie name resolves to the catalog Movie and
+ * a hall ID to the registered CinemaHall, and each distinct showing is built once.
+ * Names or halls no longer in the catalog get one placeholder each, still shared.
+ */
+public class CatalogInterner {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    private final Map<String, Movie> catalogMovies = new HashMap<>();
+    private final Map<Integer, CinemaHall> registeredHalls = new HashMap<>();
+    private final Map<String, CinemaHall> hallsByUniqueType = new HashMap<>();
+
+    private final ConcurrentHashMap<String, Movie> unknownMovies = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CinemaHall> unknownHalls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ShowingKey, Showtime> showtimes = new ConcurrentHashMap<>();
+
+    /**
+     * Interner with no catalog: still shares one placeholder per name, hall and showing.
+     */
+    public CatalogInterner() {
+        this(List.of(), List.of());
+    }
+
+    public CatalogInterner(List<Movie> movies, List<CinemaHall> halls) {
+        for (Movie m : movies) {
+            catalogMovies.putIfAbsent(m.getMovieName(), m);
+        }
+        Map<String, Integer> typeCounts = new HashMap<>();
+        for (CinemaHall h : halls) {
+            registeredHalls.putIfAbsent(h.getHallId(), h);
+            typeCounts.merge(h.getHallType(), 1, Integer::sum);
+        }
+        // Legacy records carry only the hall type; that is enough when the type is unique
+        for (CinemaHall h : halls) {
+            if (typeCounts.get(h.getHallType()) == 1) {
+                hallsByUniqueType.put(h.getHallType(), h);
+            }
+        }
+        logger.log(Level.INFO, "Catalog interner ready: {0} movies, {1} halls",
+                   new Object[]{catalogMovies.size(), registeredHalls.size()});
+    }
+
+    public Movie movie(String movieName) {
+        Movie known = catalogMovies.get(movieName);
+        if (known != null) {
+            return known;
+        }
+        return unknownMovies.computeIfAbsent(movieName, name -> new Movie(0, name, 0, "", ""));
+    }
+
+    /**
+     * The registered hall with this ID. Records saved without a hall ID (0) resolve
+     * by type when exactly one hall has it.
+     */
+    public CinemaHall hall(int hallId, String hallType) {
+        CinemaHall known = (hallId != 0) ? registeredHalls.get(hallId) : hallsByUniqueType.get(hallType);
+        if (known != null) {
+            return known;
+        }
+        return unknownHalls.computeIfAbsent(hallId + "|" + hallType, k -> new CinemaHall(hallId, hallType, 0, 0));
+    }
+
+    public Showtime showtime(Movie movie, LocalDate date, String time, CinemaHall hall) {
+        return showtimes.computeIfAbsent(new ShowingKey(movie, date, time, hall),
+            k -> new Showtime(movie, date.getYear(), date.getMonthValue(), date.getDayOfMonth(), time, hall));
+    }
+
+    /**
+     * Distinct showings built so far (for monitoring and tests).
+     */
+    public int getShowtimeCount() {
+        return showtimes.size();
+    }
+
+    // Movie and hall are already interned, so identity is the right equality for them
+    private static final class ShowingKey {
+        private final Movie movie;
+        private final LocalDate date;
+        private final String time;
+        private final CinemaHall hall;
+
+        ShowingKey(Movie movie, LocalDate date, String time, CinemaHall hall) {
+            this.movie = movie;
+            this.date = date;
+            this.time = time;
+            this.hall = hall;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ShowingKey)) {
+                return false;
+            }
+            ShowingKey k = (ShowingKey) o;
+            return movie == k.movie && hall == k.hall && date.equals(k.date) && Objects.equals(time, k.time);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((System.identityHashCode(movie) * 31 + System.identityHashCode(hall)) * 31
+                    + date.hashCode()) * 31 + Objects.hashCode(time);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package infrastructure.repositories;
+
+import domain.CinemaHall;
+import domain.Customer;
+import domain.Food;
+import domain.Movie;
+import domain.Payment;
+import domain.Popcorn;
+import domain.Seat;
+import domain.Showtime;
+import domain.Ticket;
+import domain.valueobjects.SeatId;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The payment history held as parallel primitive arrays instead of Payment
+ * object graphs. Three tables share one layout idea: a payment row points at its
+ * first ticket and first food line, a ticket row at its first seat, and each
+ * table ends where the next row begins. Names, times and hall types are stored
+ * once in a dictionary and referenced by code; seats are SeatId.packed() shorts.
+ * Ticket prices are kept as charged, so history never changes when pricing does.
+ *
+ * A stored payment costs a few dozen bytes instead of a few kilobytes. Payment
+ * objects are rebuilt by materialize() when a caller actually asks for one.
+ *
+ * Not thread-safe: PaymentRepository guards it with its own lock.
+ */
+final class CompactPaymentHistory {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NO_CUSTOMER = -1;
+
+    private final Dictionary strings = new Dictionary();
+
+    // Payment table
+    private int payments;
+    private int[] paymentId = new int[INITIAL_CAPACITY];
+    private int[] customer = new int[INITIAL_CAPACITY];
+    private int[] refundOf = new int[INITIAL_CAPACITY];
+    private long[] totalCents = new long[INITIAL_CAPACITY];
+    private int[] firstTicket = new int[INITIAL_CAPACITY];
+    private int[] firstFood = new int[INITIAL_CAPACITY];
+
+    // Ticket table
+    private int tickets;
+    private int[] ticketId = new int[INITIAL_CAPACITY];
+    private int[] movie = new int[INITIAL_CAPACITY];
+    private int[] epochDay = new int[INITIAL_CAPACITY];
+    private int[] time = new int[INITIAL_CAPACITY];
+    private int[] hallId = new int[INITIAL_CAPACITY];
+    private int[] hallType = new int[INITIAL_CAPACITY];
+    private int[] firstSeat = new int[INITIAL_CAPACITY];
+    private long[] ticketCents = new long[INITIAL_CAPACITY];
+
+    // Seat table
+    private int seatCount;
+    private short[] seats = new short[INITIAL_CAPACITY];
+
+    // Food table
+    private int foods;
+    private int[] foodName = new int[INITIAL_CAPACITY];
+    private int[] foodQty = new int[INITIAL_CAPACITY];
+    private long[] foodCents = new long[INITIAL_CAPACITY];
+
+    // === WRITE ===
+
+    /**
+     * Starts a payment row; its tickets and food lines follow via addTicket/addFood.
+     * Returns the row.
+     */
+    int beginPayment(int id, Optional<String> customerName, int refundOfId, long total) {
+        if (payments == paymentId.length) {
+            int capacity = payments * 2;
+            paymentId = Arrays.copyOf(paymentId, capacity);
+            customer = Arrays.copyOf(customer, capacity);
+            refundOf = Arrays.copyOf(refundOf, capacity);
+            totalCents = Arrays.copyOf(totalCents, capacity);
+            firstTicket = Arrays.copyOf(firstTicket, capacity);
+            firstFood = Arrays.copyOf(firstFood, capacity);
+        }
+        paymentId[payments] = id;
+        customer[payments] = customerName.map(strings::code).orElse(NO_CUSTOMER);
+        refundOf[payments] = refundOfId;
+        totalCents[payments] = total;
+        firstTicket[payments] = tickets;
+        firstFood[payments] = foods;
+        return payments++;
+    }
+
+    /**
+     * Adds a ticket line to the current payment. recordedId is the ticket's recorded ID (0 for
+     * lines written before IDs were recorded); priceCents is the total charged for it
+     * (negative on a refund), kept as recorded rather than priced again.
+     */
+    void addTicket(int recordedId, String movieName, LocalDate date, String showTime, int hall, String type,
+                   List<SeatId> seatIds, long priceCents) {
+        if (tickets == movie.length) {
+            int capacity = tickets * 2;
+            ticketId = Arrays.copyOf(ticketId, capacity);
+            movie = Arrays.copyOf(movie, capacity);
+            epochDay = Arrays.copyOf(epochDay, capacity);
+            time = Arrays.copyOf(time, capacity);
+            hallId = Arrays.copyOf(hallId, capacity);
+            hallType = Arrays.copyOf(hallType, capacity);
+            firstSeat = Arrays.copyOf(firstSeat, capacity);
+            ticketCents = Arrays.copyOf(ticketCents, capacity);
+        }
+        ticketId[tickets] = recordedId;
+        movie[tickets] = strings.code(movieName);
+        epochDay[tickets] = (int) date.toEpochDay();
+        time[tickets] = strings.code(showTime);
+        hallId[tickets] = hall;
+        hallType[tickets] = strings.code(type);
+        firstSeat[tickets] = seatCount;
+        ticketCents[tickets] = priceCents;
+        tickets++;
+
+        if (seatCount + seatIds.size() > seats.length) {
+            seats = Arrays.copyOf(seats, Math.max(seats.length * 2, seatCount + seatIds.size()));
+        }
+        for (SeatId id : seatIds) {
+            seats[seatCount++] = (short) id.packed();
+        }
+    }
+
+    void addFood(String name, int qty, long priceCents) {
+        if (foods == foodName.length) {
+            int capacity = foods * 2;
+            foodName = Arrays.copyOf(foodName, capacity);
+            foodQty = Arrays.copyOf(foodQty, capacity);
+            foodCents = Arrays.copyOf(foodCents, capacity);
+        }
+        foodName[foods] = strings.code(name);
+        foodQty[foods] = qty;
+        foodCents[foods] = priceCents;
+        foods++;
+    }
+
+    /**
+     * Packs a payment built in this session. Returns its row.
+     */
+    int append(Payment p) {
+        int row = beginPayment(p.getPaymentID(), p.getCustomer().map(Customer::getName),
+                               p.getRefundOf(), p.getTotalPriceCents());
+        for (Ticket t : p.getTicket()) {
+            if (t == null || t.getShowtime() == null) continue;
+            List<SeatId> seatIds = new ArrayList<>(t.getSeat().size());
+            for (Seat s : t.getSeat()) {
+                seatIds.add(s.getId());
+            }
+            CinemaHall hall = t.getCinemaHall();
+            addTicket(t.getTicketID(), t.getMovieName(), t.getSchedule(), t.time(),
+                      hall != null ? hall.getHallId() : 0, hall != null ? hall.getHallType() : "",
+                      seatIds, t.getTotalPriceCents());
+        }
+        for (Food f : p.getFood()) {
+            addFood(f.getName(), f.getQty(), f.getPriceCents());
+        }
+        return row;
+    }
+
+    /**
+     * Drops row and everything after it (used to undo a half-parsed payment).
+     */
+    void truncate(int row) {
+        if (firstTicket[row] < tickets) {
+            seatCount = firstSeat[firstTicket[row]];
+        }
+        tickets = firstTicket[row];
+        foods = firstFood[row];
+        payments = row;
+    }
+
+    // === READ ===
+
+    int size() {
+        return payments;
+    }
+
+    int paymentId(int row) {
+        return paymentId[row];
+    }
+
+    /**
+     * The customer's name, or "Guest" for a walk-in (as the history file records it).
+     */
+    String customerName(int row) {
+        return customer[row] == NO_CUSTOMER ? "Guest" : strings.get(customer[row]);
+    }
+
+    int refundOf(int row) {
+        return refundOf[row];
+    }
+
+    long totalCents(int row) {
+        return totalCents[row];
+    }
+
+    /** First ticket index of a payment row; its tickets end at ticketEnd(row). */
+    int ticketStart(int row) {
+        return firstTicket[row];
+    }
+
+    int ticketEnd(int row) {
+        return row + 1 < payments ? firstTicket[row + 1] : tickets;
+    }
+
+    int ticketId(int ticket) {
+        return ticketId[ticket];
+    }
+
+    String movieName(int ticket) {
+        return strings.get(movie[ticket]);
+    }
+
+    int epochDay(int ticket) {
+        return epochDay[ticket];
+    }
+
+    LocalDate showDate(int ticket) {
+        return LocalDate.ofEpochDay(epochDay[ticket]);
+    }
+
+    String showTime(int ticket) {
+        return strings.get(time[ticket]);
+    }
+
+    long ticketCents(int ticket) {
+        return ticketCents[ticket];
+    }
+
+    /** First food line of a payment row; its lines end at foodEnd(row). */
+    int foodStart(int row) {
+        return firstFood[row];
+    }
+
+    int foodEnd(int row) {
+        return row + 1 < payments ? firstFood[row + 1] : foods;
+    }
+
+    long foodCents(int food) {
+        return foodCents[food];
+    }
+
+    /**
+     * Rebuilds the Payment for a row. Each call returns new objects; movies, halls
+     * and showtimes come from the interner and are shared.
+     */
+    Payment materialize(int row, CatalogInterner interner) {
+        boolean refund = refundOf[row] != 0;
+
+        ArrayList<Ticket> ticketList = new ArrayList<>(ticketEnd(row) - ticketStart(row));
+        for (int t = ticketStart(row); t < ticketEnd(row); t++) {
+            Movie m = interner.movie(movieName(t));
+            CinemaHall hall = interner.hall(hallId[t], strings.get(hallType[t]));
+            Showtime s = interner.showtime(m, showDate(t), showTime(t), hall);
+
+            int seatEnd = t + 1 < tickets ? firstSeat[t + 1] : seatCount;
+            ArrayList<Seat> seatList = new ArrayList<>(seatEnd - firstSeat[t]);
+            for (int i = firstSeat[t]; i < seatEnd; i++) {
+                seatList.add(new Seat(SeatId.fromPacked(seats[i]), "Single", "Sold", hall));
+            }
+            ticketList.add(Ticket.restore(s, hall, seatList, refund, ticketId[t], ticketCents[t]));
+        }
+
+        ArrayList<Food> foodList = new ArrayList<>(foodEnd(row) - firstFood[row]);
+        for (int f = firstFood[row]; f < foodEnd(row); f++) {
+            Food item = new Popcorn();
+            item.setName(strings.get(foodName[f]));
+            item.setQty(foodQty[f]);
+            item.setPriceCents(foodCents[f]);
+            foodList.add(item);
+        }
+
+        Optional<Customer> buyer = (customer[row] == NO_CUSTOMER)
+            ? Optional.empty()
+            : Optional.of(Customer.fromHistory(strings.get(customer[row])));
+        return Payment.restore(paymentId[row], buyer, ticketList, foodList, totalCents[row], refundOf[row]);
+    }
+
+    /**
+     * Strings seen in the history, each stored once.
+     */
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        int code(String value) {
+            String v = (value != null) ? value : "";
+            Integer code = codes.get(v);
+            if (code == null) {
+                code = values.size();
+                values.add(v);
+                codes.put(v, code);
+            }
+            return code;
+        }
+
+        String get(int code) {
+            return values.get(code);
+        }
+    }
+}
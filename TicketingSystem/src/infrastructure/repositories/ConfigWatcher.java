@@ -0,0 +1,148 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reloads configuration files (menus, movies.json, halls.json) when they change
+ * on disk, so edits take effect during opening hours without a restart.
+ *
+ * One daemon thread waits on a WatchService for the data directory. Bursts of
+ * events (editors often truncate, write and rename) are coalesced for a short
+ * settle period, then each changed file's reload actions run on a separate
+ * reload thread. The repositories parse into a fresh immutable snapshot and
+ * swap it in with a single volatile write, so readers never pause or see a
+ * half-loaded list.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final long DEFAULT_SETTLE_MILLIS = 250;
+
+    private final Path directory;
+    private final long settleMillis;
+    private final Map<String, CopyOnWriteArrayList<Runnable>> reloaders = new ConcurrentHashMap<>();
+    private final ExecutorService reloadExecutor;
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    public ConfigWatcher(Path directory) {
+        this(directory, DEFAULT_SETTLE_MILLIS);
+    }
+
+    public ConfigWatcher(Path directory, long settleMillis) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.settleMillis = settleMillis;
+        this.reloadExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "config-reload");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Runs reload (off the caller's thread) whenever the named file in the watched
+     * directory is created or modified. Several actions may watch one file.
+     */
+    public ConfigWatcher watch(String fileName, Runnable reload) {
+        reloaders.computeIfAbsent(Path.of(fileName).getFileName().toString(), k -> new CopyOnWriteArrayList<>())
+                 .add(reload);
+        return this;
+    }
+
+    public synchronized void start() throws IOException {
+        if (watchThread != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchThread = new Thread(this::watchLoop, "config-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        logger.log(Level.INFO, "Watching {0} for changes to {1}", new Object[]{directory, reloaders.keySet()});
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watchThread == null) {
+            return;
+        }
+        try {
+            watchService.close(); // wakes the watch thread with ClosedWatchServiceException
+            watchThread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close config watcher: {0}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reloadExecutor.shutdown();
+            watchThread = null;
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+
+                // Let the writer finish before parsing
+                WatchKey more;
+                while ((more = watchService.poll(settleMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+
+                for (String name : changed) {
+                    reloadExecutor.execute(() -> reload(name));
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            logger.fine("Config watcher stopped.");
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(reloaders.keySet()); // lost events: reload everything
+                continue;
+            }
+            String name = ((Path) event.context()).getFileName().toString();
+            if (reloaders.containsKey(name)) {
+                changed.add(name);
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(String name) {
+        logger.log(Level.INFO, "Configuration file changed: {0}", name);
+        for (Runnable action : reloaders.getOrDefault(name, new CopyOnWriteArrayList<>())) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // Keep serving the previous snapshot; the next save will try again
+                logger.log(Level.SEVERE, "Reload of " + name + " failed", e);
+            }
+        }
+    }
+}
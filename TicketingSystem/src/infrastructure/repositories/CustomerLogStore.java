@@ -0,0 +1,198 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+import domain.Customer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only customer file. A registration appends one customer line and a
+ * deletion appends a tombstone line ({"tombstone":"name"}), so neither rewrites
+ * the whole membership file. Loading replays the lines in order.
+ *
+ * Lines made dead by tombstones (and the tombstones themselves) are garbage.
+ * Once garbage passes the threshold, a background thread rewrites the file with
+ * only the live customers. Appends made while it writes are carried over before
+ * the new file is renamed into place, so nothing is lost.
+ */
+public class CustomerLogStore implements AutoCloseable {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final int DEFAULT_MIN_GARBAGE = 64;
+    private static final String TOMBSTONE_PREFIX = "{\"tombstone\":\"";
+
+    private final String customerFile;
+    private final int minGarbage;
+    private final ExecutorService compactor;
+
+    // Guarded by this
+    private final List<Customer> live = new ArrayList<>();
+    private int fileLines;
+    private boolean compacting;
+    private final List<String> appendedDuringCompaction = new ArrayList<>();
+
+    public CustomerLogStore(String customerFile) {
+        this(customerFile, DEFAULT_MIN_GARBAGE);
+    }
+
+    // Constructor for testing with a custom garbage threshold
+    public CustomerLogStore(String customerFile, int minGarbage) {
+        this.customerFile = customerFile;
+        this.minGarbage = minGarbage;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "customer-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Replays the log and returns the live customers in registration order.
+     */
+    public synchronized List<Customer> load() {
+        List<String> lines = DataFileHandler.loadFromJsonFile(customerFile);
+        live.clear();
+        for (String line : lines) {
+            if (line.startsWith(TOMBSTONE_PREFIX)) {
+                String name = line.substring(TOMBSTONE_PREFIX.length(), line.lastIndexOf('"'));
+                live.removeIf(c -> c.getName().equalsIgnoreCase(name));
+            } else {
+                Customer c = Customer.fromJsonString(line);
+                if (c != null) {
+                    live.add(c);
+                }
+            }
+        }
+        fileLines = lines.size();
+        logger.log(Level.INFO, "Replayed {0} customer log lines: {1} live",
+                   new Object[]{fileLines, live.size()});
+        maybeCompact();
+        return new ArrayList<>(live);
+    }
+
+    /**
+     * @throws UncheckedIOException if the line could not be written
+     */
+    public synchronized void append(Customer customer) {
+        write(customer.toJsonString());
+        live.add(customer);
+    }
+
+    /**
+     * Records the deletion of every customer with this name (case-insensitive).
+     * @throws UncheckedIOException if the tombstone could not be written
+     */
+    public synchronized void appendTombstone(String name) {
+        write(TOMBSTONE_PREFIX + name + "\"}");
+        live.removeIf(c -> c.getName().equalsIgnoreCase(name));
+        maybeCompact();
+    }
+
+    public synchronized int getGarbageCount() {
+        return fileLines - live.size();
+    }
+
+    /**
+     * Rewrites the file now, on the caller's thread.
+     */
+    public void compact() {
+        List<String> snapshot;
+        synchronized (this) {
+            if (compacting) {
+                return;
+            }
+            compacting = true;
+            appendedDuringCompaction.clear();
+            snapshot = new ArrayList<>(live.size());
+            for (Customer c : live) {
+                snapshot.add(c.toJsonString());
+            }
+        }
+
+        // The slow part runs without the lock so registrations keep appending
+        Path target = Path.of(customerFile);
+        Path temp = Path.of(customerFile + ".compact");
+        IOException failure = null;
+        try {
+            DataFileHandler.writeJsonFile(snapshot, temp);
+        } catch (IOException e) {
+            failure = e;
+        }
+
+        synchronized (this) {
+            try {
+                if (failure != null) {
+                    throw failure; // never rename a partial file over the log
+                }
+                if (!appendedDuringCompaction.isEmpty()) {
+                    Files.write(temp, appendedDuringCompaction, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                }
+                DataFileHandler.moveIntoPlace(temp, target);
+                int before = fileLines;
+                fileLines = snapshot.size() + appendedDuringCompaction.size();
+                logger.log(Level.INFO, "Compacted {0}: {1} -> {2} lines",
+                           new Object[]{customerFile, before, fileLines});
+            } catch (IOException e) {
+                // The old log is still intact; try again after the next deletion
+                logger.log(Level.SEVERE, "Failed to compact {0}: {1}", new Object[]{customerFile, e.getMessage()});
+                deleteQuietly(temp);
+            } finally {
+                compacting = false;
+                appendedDuringCompaction.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the line, throwing if it did not reach the file so the caller
+     * leaves the in-memory state as it was. Caller holds this.
+     */
+    private void write(String line) {
+        if (!DataFileHandler.appendToJsonFile(line, customerFile)) {
+            throw new UncheckedIOException(new IOException("Failed to append to " + customerFile));
+        }
+        fileLines++;
+        if (compacting) {
+            appendedDuringCompaction.add(line);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        try {
+            if (Files.isRegularFile(temp)) {
+                Files.delete(temp);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not remove {0}: {1}", new Object[]{temp, e.getMessage()});
+        }
+    }
+
+    // Caller holds this
+    private void maybeCompact() {
+        int garbage = fileLines - live.size();
+        if (!compacting && garbage >= minGarbage && garbage * 2 >= fileLines && !compactor.isShutdown()) {
+            compactor.execute(this::compact);
+        }
+    }
+}
@@ -10,8 +10,14 @@ package infrastructure.repositories;
  */
 // DataFileHandler.java - Utility/Data Layer
 // DataFileHandler.java - Utility/Data Layer
+import application.monitoring.FileLoadEvent;
+import application.monitoring.Metrics;
 import application.utilities.LoggerSetup;
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,19 +31,101 @@ public class DataFileHandler {
 
     // --- Customer/Payment Persistence (One JSON Object Per Line) ---
     public static void saveToJsonFile(List<String> jsonList, String filename) {
+        long start = Metrics.FILE_WRITE.start();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
             for (String json : jsonList) {
                 writer.write(json);
                 writer.newLine();
             }
+            writer.flush();
+            Metrics.FILE_WRITE.stop(start, new File(filename).length());
             logger.log(Level.INFO, "Data saved successfully to: {0}", filename);
         } catch (IOException e) {
+            Metrics.FILE_WRITE.failed(start);
             logger.log(Level.SEVERE, "Failed to save data to file {0}: {1}", new Object[]{filename, e.getMessage()});
         }
     }
 
+    /**
+     * Replaces filename with the records via a temp file ("&lt;file&gt;.tmp") that is
+     * synced and then renamed over it, so readers never see a partial file.
+     * Unlike saveToJsonFile this throws on failure, and the original file is left
+     * untouched unless the temp file was written completely.
+     */
+    public static void replaceJsonFile(List<String> jsonList, String filename) throws IOException {
+        Path temp = Path.of(filename + ".tmp");
+        writeJsonFile(jsonList, temp);
+        moveIntoPlace(temp, Path.of(filename));
+    }
+
+    /**
+     * Writes the records to file and forces them to disk. Throws instead of
+     * logging, so callers can tell a complete file from a partial one; a failed
+     * write deletes what was written.
+     */
+    public static void writeJsonFile(List<String> jsonList, Path file) throws IOException {
+        long start = Metrics.FILE_WRITE.start();
+        try {
+            try (FileOutputStream out = new FileOutputStream(file.toFile());
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+                for (String json : jsonList) {
+                    writer.write(json);
+                    writer.newLine();
+                }
+                writer.flush();
+                out.getFD().sync();
+            }
+            Metrics.FILE_WRITE.stop(start, Files.size(file));
+        } catch (IOException e) {
+            Metrics.FILE_WRITE.failed(start);
+            try {
+                if (Files.isRegularFile(file)) {
+                    Files.delete(file);
+                }
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Renames a fully written temp file over target, atomically where the file
+     * system allows it.
+     */
+    public static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Appends one record without rewriting the file, for append-only logs.
+     * @return false if the write failed
+     */
+    public static boolean appendToJsonFile(String json, String filename) {
+        long start = Metrics.FILE_WRITE.start();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename, true))) {
+            writer.write(json);
+            writer.newLine();
+            writer.flush();
+            Metrics.FILE_WRITE.stop(start, json.length() + 1);
+            return true;
+        } catch (IOException e) {
+            Metrics.FILE_WRITE.failed(start);
+            logger.log(Level.SEVERE, "Failed to append to file {0}: {1}", new Object[]{filename, e.getMessage()});
+            return false;
+        }
+    }
+
     public static List<String> loadFromJsonFile(String filename) {
         List<String> jsonList = new ArrayList<>();
+        FileLoadEvent event = new FileLoadEvent();
+        event.begin();
+        long start = Metrics.FILE_READ.start();
+        long bytes = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             String line;
             while ((line = reader.readLine()) != null) {
@@ -45,95 +133,106 @@ public class DataFileHandler {
                     jsonList.add(line);
                 }
             }
+            bytes = new File(filename).length();
+            Metrics.FILE_READ.stop(start, bytes);
+            event.found = true;
             logger.log(Level.INFO, "Data loaded successfully from: {0}", filename);
         } catch (FileNotFoundException e) {
+            Metrics.FILE_READ.stop(start);
             logger.log(Level.WARNING, "File not found: {0}. Returning empty list.", filename);
         } catch (IOException e) {
+            Metrics.FILE_READ.failed(start);
             logger.log(Level.SEVERE, "Failed to read data from file {0}. Error: {1}", new Object[]{filename, e.getMessage()});
         }
+        commitLoadEvent(event, filename, bytes, jsonList.size());
         return jsonList;
     }
 
     // --- Food Inventory Loading (Single JSON Array File) ---
-    private static String readEntireFile(String filename) {
-        StringBuilder content = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line.trim());
+
+    /**
+     * Receives each menu item as the inventory file is parsed.
+     */
+    public interface FoodItemHandler {
+        void onItem(String name, double price);
+    }
+
+    /**
+     * Streams a food inventory array ([{"name":..,"price":..}, ...]) item by item
+     * into handler. Fields may appear in any order; other attributes such as
+     * category, stock or image (including nested values) are skipped. Items
+     * without a name or price are skipped with a warning. A syntax error stops
+     * the read, keeping the items already delivered.
+     * @return number of items delivered
+     */
+    public static int readFoodInventory(String filename, FoodItemHandler handler) {
+        FileLoadEvent event = new FileLoadEvent();
+        event.begin();
+        long start = Metrics.FILE_READ.start();
+        long bytes = 0;
+        int count = 0;
+        try (Reader reader = new BufferedReader(new FileReader(filename))) {
+            bytes = new File(filename).length();
+            event.found = true;
+            JsonArrayReader in = new JsonArrayReader(reader);
+            if (!in.beginArray()) {
+                logger.log(Level.WARNING, "Inventory file {0} is not a JSON array.", filename);
+            } else {
+                while (in.nextObject()) {
+                    String name = null;
+                    Double price = null;
+                    String key;
+                    while ((key = in.nextKey()) != null) {
+                        switch (key) {
+                            case "name":
+                                name = in.readString().trim();
+                                break;
+                            case "price":
+                                price = in.readNumber();
+                                break;
+                            default:
+                                in.skipValue();
+                        }
+                    }
+                    if (name == null || price == null) {
+                        logger.log(Level.WARNING, "Skipping item #{0} in {1}: missing name or price",
+                                   new Object[]{count + 1, filename});
+                        continue;
+                    }
+                    handler.onItem(name, price);
+                    count++;
+                }
             }
-            return content.toString();
+            Metrics.FILE_READ.stop(start, bytes);
         } catch (FileNotFoundException e) {
+            Metrics.FILE_READ.stop(start);
             logger.log(Level.WARNING, "Inventory file not found: {0}.", filename);
-            return null;
         } catch (IOException e) {
+            Metrics.FILE_READ.failed(start);
             logger.log(Level.SEVERE, "Error reading inventory file {0}: {1}", new Object[]{filename, e.getMessage()});
-            return null;
         }
+        commitLoadEvent(event, filename, bytes, count);
+        return count;
     }
 
-    public static List<Map<String, Object>> loadFoodInventoryData(String filename) {
-        List<Map<String, Object>> inventory = new ArrayList<>();
-        String jsonContent = readEntireFile(filename);
-
-        if (jsonContent == null || jsonContent.isEmpty() || !jsonContent.startsWith("[") || !jsonContent.endsWith("]")) {
-            return inventory;
+    private static void commitLoadEvent(FileLoadEvent event, String filename, long bytes, int records) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filename;
+            event.bytes = bytes;
+            event.recordCount = records;
+            event.commit();
         }
+    }
 
-        String arrayContent = jsonContent.substring(1, jsonContent.length() - 1);
-        String[] itemStrings = arrayContent.split("},\\s*\\{");
-
-        for (String itemStr : itemStrings) {
+    public static List<Map<String, Object>> loadFoodInventoryData(String filename) {
+        List<Map<String, Object>> inventory = new ArrayList<>();
+        readFoodInventory(filename, (name, price) -> {
             Map<String, Object> item = new HashMap<>();
-
-            if (!itemStr.startsWith("{")) {
-                itemStr = "{" + itemStr;
-            }
-            if (!itemStr.endsWith("}")) {
-                itemStr = itemStr + "}";
-            }
-
-            // DataFileHandler.java - loadFoodInventoryData() (Inside the loop)
-            // ...
-            try {
-                // Find the full string value, including the quotes, for "name"
-                int nameKeyStart = itemStr.indexOf("\"name\"");
-                int nameValueStart = itemStr.indexOf(":", nameKeyStart) + 1; // Find the colon after "name" and move one character right
-
-                // --- Core Fix ---
-                // Find the start quote of the name value
-                int quote1 = itemStr.indexOf("\"", nameValueStart);
-                if (quote1 == -1) {
-                    throw new IllegalStateException("Name value quote not found.");
-                }
-
-                // Find the end quote of the name value (looking after the start quote)
-                int quote2 = itemStr.indexOf("\"", quote1 + 1);
-                if (quote2 == -1) {
-                    throw new IllegalStateException("Name value end quote not found.");
-                }
-
-                // The name is the substring BETWEEN the two quotes.
-                String name = itemStr.substring(quote1 + 1, quote2);
-                // --- End Core Fix ---
-
-                // Extract price as before (this looks safe)
-                int priceStart = itemStr.indexOf("\"price\":") + 8;
-                int priceEnd = itemStr.lastIndexOf("}");
-                String priceStr = itemStr.substring(priceStart, priceEnd);
-                double price = Double.parseDouble(priceStr);
-
-                // We clean the name here to remove any potential hidden characters like the colon
-                // that your manual parsing might have accidentally included in the FoodService.
-                item.put("name", name.trim());
-                item.put("price", price);
-                inventory.add(item);
-
-            } catch (NumberFormatException | IllegalStateException e) {
-                logger.log(Level.SEVERE, "Failed to parse item from file " + filename + ": " + itemStr, e);
-            }
-        }
-
+            item.put("name", name);
+            item.put("price", price);
+            inventory.add(item);
+        });
         logger.info(() -> "Successfully parsed " + inventory.size() + " items from food inventory file: " + filename);
         return inventory;
     }
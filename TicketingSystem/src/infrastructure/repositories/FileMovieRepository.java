@@ -13,36 +13,62 @@ import java.util.stream.Collectors;
 
 public class FileMovieRepository implements MovieRepository {
     
-    private static final String MOVIE_FILE = "movies.json";
+    private static final String DEFAULT_MOVIE_FILE = "movies.json";
     private static final Logger logger = LoggerSetup.getLogger();
     
-    private List<Movie> movieList;
+    private final String movieFile;
+    // Immutable snapshot, replaced wholesale by reload()
+    private volatile List<Movie> movieList;
 
     public FileMovieRepository() {
+        this(DEFAULT_MOVIE_FILE);
+    }
+    
+    // Constructor for testing with custom file path
+    public FileMovieRepository(String movieFile) {
+        this.movieFile = movieFile;
         loadData();
         // --- ADD DEBUG LINE 1 HERE ---
         System.out.println("[DEBUG] Movies loaded from file: " + (movieList != null ? movieList.size() : 0)); 
     }
 
     private void loadData() {
-        List<String> jsonLines = DataFileHandler.loadFromJsonFile(MOVIE_FILE);
+        List<String> jsonLines = DataFileHandler.loadFromJsonFile(movieFile);
         
         if (jsonLines.isEmpty()) {
             // --- ADD DEBUG LINE 2 HERE ---
             System.out.println("[DEBUG] List is empty. Seeding default data...");
             
             logger.warning("No movies found in file. Creating default movies.");
-            movieList = createDefaultMovies();
+            movieList = List.copyOf(createDefaultMovies());
             saveMovies(); 
         } else {
-            movieList = jsonLines.stream()
-                .map(this::parseMovieFromJson)
-                .filter(m -> m != null)
-                .collect(Collectors.toList());
+            movieList = parseMovies(jsonLines);
         }
         
         logger.log(Level.INFO, "Loaded {0} movies from {1}", 
-                   new Object[]{movieList.size(), MOVIE_FILE});
+                   new Object[]{movieList.size(), movieFile});
+    }
+    
+    /**
+     * Re-reads the movie file and swaps in the new list. An empty or unreadable
+     * file (e.g. caught mid-save) keeps the current movies.
+     */
+    public void reload() {
+        List<Movie> reloaded = parseMovies(DataFileHandler.loadFromJsonFile(movieFile));
+        if (reloaded.isEmpty()) {
+            logger.log(Level.WARNING, "Ignoring reload of {0}: no movies parsed", movieFile);
+            return;
+        }
+        movieList = reloaded;
+        logger.log(Level.INFO, "Reloaded {0} movies from {1}", new Object[]{reloaded.size(), movieFile});
+    }
+    
+    private List<Movie> parseMovies(List<String> jsonLines) {
+        return jsonLines.stream()
+            .map(this::parseMovieFromJson)
+            .filter(m -> m != null)
+            .collect(Collectors.toUnmodifiableList());
     }
     
     // ... (Keep the rest of the methods extractInt, extractString etc. exactly the same) ...
@@ -79,7 +105,7 @@ public class FileMovieRepository implements MovieRepository {
             .map(this::movieToJsonString)
             .collect(Collectors.toList());
         
-        DataFileHandler.saveToJsonFile(jsonLines, MOVIE_FILE);
+        DataFileHandler.saveToJsonFile(jsonLines, movieFile);
     }
     
     private String movieToJsonString(Movie movie) {
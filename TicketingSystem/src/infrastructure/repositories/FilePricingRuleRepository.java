@@ -0,0 +1,123 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+import domain.pricing.PricingRule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads pricing rules from pricing_rules.json (one JSON object per line).
+ * Format: {"name":"Weekend IMAX","hallType":"IMAX","rows":"A-C","dayPart":"18:00-23:00",
+ *          "days":"SAT,SUN","from":"2025-12-01","to":"2025-12-31","adjust":"ADD","amount":5.0}
+ * Every field except name, adjust and amount is optional.
+ */
+public class FilePricingRuleRepository {
+
+    private static final String DEFAULT_RULES_FILE = "pricing_rules.json";
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    private final String rulesFile;
+
+    public FilePricingRuleRepository() {
+        this(DEFAULT_RULES_FILE);
+    }
+
+    public FilePricingRuleRepository(String rulesFile) {
+        this.rulesFile = rulesFile;
+    }
+
+    public List<PricingRule> findAll() {
+        List<String> jsonLines = DataFileHandler.loadFromJsonFile(rulesFile);
+        List<PricingRule> rules = new ArrayList<>();
+
+        for (String line : jsonLines) {
+            PricingRule rule = parseRuleFromJson(line);
+            if (rule != null) rules.add(rule);
+        }
+
+        logger.log(Level.INFO, "Loaded {0} pricing rules from {1}", new Object[]{rules.size(), rulesFile});
+        return rules;
+    }
+
+    private PricingRule parseRuleFromJson(String json) {
+        try {
+            PricingRule.Builder builder = PricingRule.named(extractString(json, "name"));
+
+            String hallType = extractString(json, "hallType");
+            if (!hallType.isEmpty()) builder.hallType(hallType);
+
+            String rows = extractString(json, "rows");
+            if (!rows.isEmpty()) {
+                String[] parts = rows.split("-");
+                char from = parts[0].trim().charAt(0);
+                char to = parts.length > 1 ? parts[1].trim().charAt(0) : from;
+                builder.rows(from, to);
+            }
+
+            String dayPart = extractString(json, "dayPart");
+            if (!dayPart.isEmpty()) {
+                String[] parts = dayPart.split("-");
+                builder.dayPart(LocalTime.parse(parts[0].trim()), LocalTime.parse(parts[1].trim()));
+            }
+
+            String days = extractString(json, "days");
+            if (!days.isEmpty()) {
+                for (String d : days.split(",")) {
+                    builder.on(parseDay(d.trim()));
+                }
+            }
+
+            String from = extractString(json, "from");
+            String to = extractString(json, "to");
+            if (!from.isEmpty() || !to.isEmpty()) {
+                builder.between(from.isEmpty() ? null : LocalDate.parse(from),
+                                to.isEmpty() ? null : LocalDate.parse(to));
+            }
+
+            PricingRule.Adjustment adjustment = PricingRule.Adjustment.valueOf(
+                extractString(json, "adjust").toUpperCase(Locale.ENGLISH));
+            return builder.finish(adjustment, Double.parseDouble(extractValue(json, "amount")));
+
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Failed to parse pricing rule JSON: {0}. Error: {1}",
+                       new Object[]{json, e.getMessage()});
+            return null;
+        }
+    }
+
+    private DayOfWeek parseDay(String day) {
+        String upper = day.toUpperCase(Locale.ENGLISH);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(upper)) return d;
+        }
+        throw new IllegalArgumentException("Unknown day: " + day);
+    }
+
+    private String extractString(String json, String key) {
+        String search = "\"" + key + "\":\"";
+        int start = json.indexOf(search);
+        if (start == -1) return "";
+        start += search.length();
+        int end = json.indexOf("\"", start);
+        return json.substring(start, end);
+    }
+
+    private String extractValue(String json, String key) {
+        String search = "\"" + key + "\":";
+        int start = json.indexOf(search);
+        if (start == -1) return "";
+        start += search.length();
+        int endComma = json.indexOf(",", start);
+        int endBrace = json.indexOf("}", start);
+        if (endComma == -1 && endBrace == -1) return "";
+        int end = (endComma == -1) ? endBrace : (endBrace == -1 ? endComma : Math.min(endComma, endBrace));
+        return json.substring(start, end).trim();
+    }
+}
@@ -1,33 +1,59 @@
 package infrastructure.repositories;
 
+import application.monitoring.Metrics;
+import application.monitoring.SeatConfirmEvent;
+import application.monitoring.SeatReserveEvent;
 import application.utilities.LoggerSetup;
 import domain.Seat;
 import domain.Showtime;
 import domain.CinemaHall;
-import domain.repositories.SeatRepository;
+import domain.valueobjects.PackedSeatSet;
 import domain.valueobjects.SeatId;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class FileSeatRepository implements SeatRepository {
+public class FileSeatRepository implements CartSeatRepository {
 
     private static final String DEFAULT_BOOKINGS_FILE = "bookings.json";
     private static final String DEFAULT_HALLS_FILE = "halls.json";
     private static final Logger logger = LoggerSetup.getLogger();
+    private static final String VERSION_FIELD = "\"version\":";
+    private static final String VERSION_LINE = "{" + VERSION_FIELD;
+    private static final String RELEASED_FIELD = "\"released\":";
+    // Enough for the last line of any bookings file; a longer one just forces a full read
+    private static final int TAIL_BYTES = 4096;
     
     private final String bookingsFile;
     private final String hallsFile;
     
-    private final List<CinemaHall> hallList;
-    private ConcurrentHashMap<String, List<SeatId>> confirmedBookings;
-    private ConcurrentHashMap<String, List<SeatId>> cartReservations;
+    // Immutable snapshot, replaced wholesale by reloadHalls()
+    private volatile List<CinemaHall> hallList;
+    // Seat sets are immutable bitmaps: every change swaps in a new set inside
+    // compute()/merge(), so readers always see a consistent snapshot per showtime and
+    // all writes to one showtime key are serialized.
+    private ConcurrentHashMap<String, PackedSeatSet> confirmedBookings;
+    private ConcurrentHashMap<String, PackedSeatSet> cartReservations;
+    
+    // Several JVMs may share one bookings file. Every save happens under the shared
+    // lock, starts from the latest file and bumps the version, so a terminal never
+    // overwrites sales it has not seen. The version is on the file's last line: a
+    // confirm rewrites the file with it at the end, and a refund appends one release
+    // line carrying it.
+    private final SharedFileLock bookingsLock;
+    private volatile long bookingsVersion;
+    private volatile long seenModified;
+    private volatile long seenSize;
 
     // DEFAULT CONSTRUCTOR (for production use)
     public FileSeatRepository() {
@@ -38,7 +64,8 @@ public class FileSeatRepository implements SeatRepository {
     public FileSeatRepository(String bookingsFile, String hallsFile) {
         this.bookingsFile = bookingsFile;
         this.hallsFile = hallsFile;
-        this.hallList = loadHalls();
+        this.hallList = List.copyOf(loadHalls());
+        this.bookingsLock = new SharedFileLock(bookingsFile);
         this.confirmedBookings = loadBookings();
         this.cartReservations = new ConcurrentHashMap<>();
         
@@ -53,35 +80,79 @@ public class FileSeatRepository implements SeatRepository {
      */
     public void addToCartReservation(Showtime showtime, List<SeatId> seatIds) {
         String key = generateKey(showtime);
-        List<SeatId> currentCart = cartReservations.getOrDefault(key, new ArrayList<>());
-        currentCart.addAll(seatIds);
-        cartReservations.put(key, currentCart);
+        cartReservations.merge(key, PackedSeatSet.of(seatIds), PackedSeatSet::plusAll);
         
-        logger.info("Added " + seatIds.size() + " seats to cart reservation: " + key);
+        logger.info(() -> "Added " + seatIds.size() + " seats to cart reservation: " + key);
     }
     
     /**
      * Confirms cart reservation as a paid booking (written to file)
      */
     public void confirmCartReservation(Showtime showtime, List<SeatId> seatIds) {
+        SeatConfirmEvent event = new SeatConfirmEvent();
+        event.begin();
+        long start = Metrics.SEAT_CONFIRM.start();
+        try {
+            moveCartToConfirmed(showtime, seatIds);
+            Metrics.SEAT_CONFIRM.stop(start);
+        } catch (RuntimeException e) {
+            Metrics.SEAT_CONFIRM.failed(start);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.showtimeKey = generateKey(showtime);
+                event.seatCount = seatIds.size();
+                event.commit();
+            }
+        }
+    }
+    
+    private void moveCartToConfirmed(Showtime showtime, List<SeatId> seatIds) {
         String key = generateKey(showtime);
         
-        // Move from cart to confirmed
-        List<SeatId> confirmed = confirmedBookings.getOrDefault(key, new ArrayList<>());
-        confirmed.addAll(seatIds);
-        confirmedBookings.put(key, confirmed);
-        
-        // Remove from cart
-        List<SeatId> cart = cartReservations.get(key);
-        if (cart != null) {
-            cart.removeAll(seatIds);
-            if (cart.isEmpty()) {
-                cartReservations.remove(key);
+        SharedFileLock.Held held = bookingsLock.acquire();
+        try {
+            // Another terminal may have sold these seats since we last read the file.
+            // Always re-read here: mtime and size alone can miss a same-size rewrite.
+            reloadBookings();
+            
+            // Move from cart to confirmed while holding the cart entry for this showtime,
+            // so a concurrent reserve never sees the seats as free in between
+            List<SeatId> fromCart = new ArrayList<>();
+            cartReservations.compute(key, (k, cart) -> {
+                PackedSeatSet confirmed = confirmedBookings.getOrDefault(k, PackedSeatSet.EMPTY);
+                List<SeatId> soldElsewhere = seatIds.stream()
+                    .filter(confirmed::contains)
+                    .collect(Collectors.toList());
+                
+                if (!soldElsewhere.isEmpty()) {
+                    logger.log(Level.WARNING, "Seats sold by another terminal before confirm: {0}", soldElsewhere);
+                    throw new SeatUnavailableException("Seats already booked: " + soldElsewhere);
+                }
+                
+                if (cart != null) {
+                    seatIds.stream().filter(cart::contains).forEach(fromCart::add);
+                }
+                confirmedBookings.merge(k, PackedSeatSet.of(seatIds), PackedSeatSet::plusAll);
+                return (cart == null) ? null : minus(cart, seatIds);
+            });
+            
+            try {
+                writeBookings();
+            } catch (UncheckedIOException e) {
+                // Not on disk, so not sold: none of these seats was confirmed before, and
+                // the ones that came from the cart go back to it
+                confirmedBookings.computeIfPresent(key, (k, sold) -> minus(sold, seatIds));
+                if (!fromCart.isEmpty()) {
+                    cartReservations.merge(key, PackedSeatSet.of(fromCart), PackedSeatSet::plusAll);
+                }
+                throw e;
             }
+        } finally {
+            held.close();
         }
-        
-        saveBookings();
-        logger.info("Confirmed " + seatIds.size() + " seats as paid booking: " + key);
+        logger.info(() -> "Confirmed " + seatIds.size() + " seats as paid booking: " + key);
     }
     
     /**
@@ -89,15 +160,49 @@ public class FileSeatRepository implements SeatRepository {
      */
     public void cancelCartReservation(Showtime showtime, List<SeatId> seatIds) {
         String key = generateKey(showtime);
-        List<SeatId> cart = cartReservations.get(key);
         
-        if (cart != null) {
-            cart.removeAll(seatIds);
-            if (cart.isEmpty()) {
-                cartReservations.remove(key);
+        if (cartReservations.containsKey(key)) {
+            cartReservations.computeIfPresent(key, (k, cart) -> minus(cart, seatIds));
+            logger.info(() -> "Cancelled " + seatIds.size() + " seats from cart: " + key);
+        }
+    }
+    
+    /**
+     * Returns refunded seats to sale. The release is appended to the file as one line
+     * for this showtime instead of rewriting every showtime, so a refund costs the
+     * seats it frees; the next confirm folds it into the rewritten file.
+     */
+    @Override
+    public void releaseConfirmed(Showtime showtime, List<SeatId> seatIds) {
+        String key = generateKey(showtime);
+        List<SeatId> released;
+        
+        SharedFileLock.Held held = bookingsLock.acquire();
+        try {
+            // Only a save by another terminal since our last read or write makes the
+            // whole file worth reading again
+            if (lastVersionOnDisk() != bookingsVersion) {
+                reloadBookings();
+            }
+            PackedSeatSet sold = confirmedBookings.getOrDefault(key, PackedSeatSet.EMPTY);
+            released = seatIds.stream().filter(sold::contains).collect(Collectors.toList());
+            if (released.isEmpty()) {
+                return;
+            }
+            
+            long nextVersion = bookingsVersion + 1;
+            if (!DataFileHandler.appendToJsonFile(releaseToJsonString(key, released, nextVersion), bookingsFile)) {
+                // Still sold on disk, so still sold here
+                throw new UncheckedIOException(new IOException("Failed to append release to " + bookingsFile));
             }
-            logger.info("Cancelled " + seatIds.size() + " seats from cart: " + key);
+            confirmedBookings.computeIfPresent(key, (k, seats) -> minus(seats, released));
+            bookingsVersion = nextVersion;
+            seenModified = fileStamp();
+            seenSize = new File(bookingsFile).length();
+        } finally {
+            held.close();
         }
+        logger.info(() -> "Released " + released.size() + " refunded seats: " + key);
     }
     
     /**
@@ -106,7 +211,33 @@ public class FileSeatRepository implements SeatRepository {
     public void clearAllCartReservations() {
         int count = cartReservations.size();
         cartReservations.clear();
-        logger.info("Cleared all cart reservations (" + count + " entries)");
+        logger.info(() -> "Cleared all cart reservations (" + count + " entries)");
+    }
+    
+    // === MONITORING GAUGES ===
+    
+    /**
+     * Number of seats currently held in carts
+     */
+    public long getActiveHoldCount() {
+        return cartReservations.values().stream().mapToLong(PackedSeatSet::size).sum();
+    }
+    
+    /**
+     * Number of distinct showtimes with a confirmed booking or a cart hold
+     */
+    public long getShowtimeKeyCount() {
+        return Stream.concat(confirmedBookings.keySet().stream(), cartReservations.keySet().stream())
+            .distinct()
+            .count();
+    }
+    
+    /**
+     * The set without the seats, or null (removes the map entry) when nothing is left
+     */
+    private static PackedSeatSet minus(PackedSeatSet current, List<SeatId> removed) {
+        PackedSeatSet remaining = current.minus(removed);
+        return remaining.isEmpty() ? null : remaining;
     }
     
     // === EXISTING METHODS (Updated to use instance variables) ===
@@ -121,6 +252,23 @@ public class FileSeatRepository implements SeatRepository {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Re-reads the halls file and swaps in the new layout; bookings are untouched.
+     * An empty file (e.g. caught mid-save) keeps the current halls.
+     */
+    public void reloadHalls() {
+        List<CinemaHall> reloaded = DataFileHandler.loadFromJsonFile(hallsFile).stream()
+            .map(this::parseHallFromJson)
+            .filter(h -> h != null)
+            .collect(Collectors.toUnmodifiableList());
+        if (reloaded.isEmpty()) {
+            logger.log(Level.WARNING, "Ignoring reload of {0}: no halls parsed", hallsFile);
+            return;
+        }
+        hallList = reloaded;
+        logger.log(Level.INFO, "Reloaded {0} halls from {1}", new Object[]{reloaded.size(), hallsFile});
+    }
+    
     private List<CinemaHall> loadHalls() {
         List<String> jsonLines = DataFileHandler.loadFromJsonFile(hallsFile);
         
@@ -177,27 +325,132 @@ public class FileSeatRepository implements SeatRepository {
         );
     }
     
-    private ConcurrentHashMap<String, List<SeatId>> loadBookings() {
+    private ConcurrentHashMap<String, PackedSeatSet> loadBookings() {
+        ConcurrentHashMap<String, PackedSeatSet> map = new ConcurrentHashMap<>(readBookingsFile());
+        logger.log(Level.INFO, "Loaded {0} confirmed booking records (version {1}).",
+                   new Object[]{map.size(), bookingsVersion});
+        return map;
+    }
+    
+    /**
+     * Reads the bookings file, applies its release lines in order and records the
+     * latest version and change stamp. Files written before versions existed count
+     * as version 0.
+     */
+    private Map<String, PackedSeatSet> readBookingsFile() {
+        long modified = fileStamp();
+        long size = new File(bookingsFile).length();
         List<String> jsonLines = DataFileHandler.loadFromJsonFile(bookingsFile);
-        ConcurrentHashMap<String, List<SeatId>> map = new ConcurrentHashMap<>();
+        Map<String, PackedSeatSet> map = new HashMap<>();
+        long version = 0;
         
         for (String line : jsonLines) {
+            if (line.startsWith(VERSION_LINE)) {
+                version = versionOf(line);
+                continue;
+            }
             try {
                 String key = extractString(line, "key");
+                if (line.contains(RELEASED_FIELD)) {
+                    List<SeatId> released = parseSeatIds(extractString(line, "released"));
+                    map.computeIfPresent(key, (k, seats) -> minus(seats, released));
+                    version = versionOf(line);
+                    continue;
+                }
                 String seatsStr = extractString(line, "seats");
                 
-                List<SeatId> seatIds = parseSeatIds(seatsStr);
-                map.put(key, seatIds);
+                map.put(key, PackedSeatSet.of(parseSeatIds(seatsStr)));
                 
             } catch (Exception e) {
                 logger.log(Level.WARNING, "Failed to parse booking: {0}", line);
             }
         }
         
-        logger.log(Level.INFO, "Loaded {0} confirmed booking records.", map.size());
+        bookingsVersion = version;
+        seenModified = modified;
+        seenSize = size;
         return map;
     }
     
+    /**
+     * Picks up sales written by other processes. The file is authoritative: every
+     * confirm of ours was written to it under the lock, so a newer version replaces
+     * our confirmed map wholesale instead of being unioned into it.
+     */
+    private void reloadBookings() {
+        long known = bookingsVersion;
+        Map<String, PackedSeatSet> onDisk = readBookingsFile();
+        if (bookingsVersion == known) {
+            return;
+        }
+        
+        confirmedBookings.keySet().retainAll(onDisk.keySet());
+        confirmedBookings.putAll(onDisk);
+        logger.log(Level.INFO, "Reloaded bookings from version {0} to {1} (written by another terminal).",
+                   new Object[]{known, bookingsVersion});
+    }
+    
+    /**
+     * Re-reads the file if another terminal has saved since our last read. Called
+     * before showing or holding seats, so the cheap stamp check is all it costs
+     * when nothing changed.
+     */
+    private void refreshFromDisk() {
+        if (fileStamp() != seenModified || new File(bookingsFile).length() != seenSize) {
+            SharedFileLock.Held held = bookingsLock.acquire();
+            try {
+                reloadBookings();
+            } finally {
+                held.close();
+            }
+        }
+    }
+    
+    /**
+     * Reads the version on the file's last line without reading the rest. Returns -1
+     * when the file is missing or its last line has no version (older files kept it
+     * first), which makes the caller read the whole file.
+     *
+     * @throws UncheckedIOException if the file exists but cannot be read
+     */
+    private long lastVersionOnDisk() {
+        File file = new File(bookingsFile);
+        if (!file.exists()) {
+            return -1;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            int length = (int) Math.min(in.length(), TAIL_BYTES);
+            byte[] tail = new byte[length];
+            in.seek(in.length() - length);
+            in.readFully(tail);
+            String text = new String(tail, StandardCharsets.UTF_8).stripTrailing();
+            int lineStart = text.lastIndexOf('\n') + 1;
+            if (lineStart == 0 && length < in.length()) {
+                return -1; // last line is longer than the tail we read
+            }
+            return versionOf(text.substring(lineStart));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to read bookings version from {0}: {1}", new Object[]{bookingsFile, e.getMessage()});
+            throw new UncheckedIOException("Failed to read bookings version from " + bookingsFile, e);
+        }
+    }
+    
+    /**
+     * The version a bookings line carries, or -1 if it has none
+     */
+    private static long versionOf(String line) {
+        int start = line.indexOf(VERSION_FIELD);
+        if (start < 0) {
+            return -1;
+        }
+        start += VERSION_FIELD.length();
+        return Long.parseLong(line.substring(start, line.indexOf('}', start)).trim());
+    }
+    
+    private long fileStamp() {
+        return new File(bookingsFile).lastModified();
+    }
+    
     private List<SeatId> parseSeatIds(String seatsStr) {
         List<SeatId> seatIds = new ArrayList<>();
         
@@ -209,29 +462,45 @@ public class FileSeatRepository implements SeatRepository {
         for (String part : parts) {
             part = part.trim();
             if (part.length() >= 2) {
-                char row = part.charAt(0);
-                int col = Integer.parseInt(part.substring(1));
-                seatIds.add(new SeatId(row, col));
+                seatIds.add(SeatId.parse(part));
             }
         }
         
         return seatIds;
     }
     
-    private void saveBookings() {
-        List<String> jsonLines = confirmedBookings.entrySet().stream()
-            .map(entry -> bookingToJsonString(entry.getKey(), entry.getValue()))
-            .collect(Collectors.toList());
+    /**
+     * Writes the next version to a temp file and renames it over the bookings file,
+     * so readers in other processes never see a half-written file. The version line
+     * goes last, where lastVersionOnDisk looks for it. Caller holds bookingsLock.
+     *
+     * @throws UncheckedIOException if the file could not be replaced; the old file
+     *         is left as it was and the caller must undo its in-memory change
+     */
+    private synchronized void writeBookings() {
+        long nextVersion = bookingsVersion + 1;
+        List<String> jsonLines = new ArrayList<>();
+        confirmedBookings.forEach((key, seats) -> jsonLines.add(bookingToJsonString(key, seats)));
+        jsonLines.add(VERSION_LINE + nextVersion + "}");
         
-        DataFileHandler.saveToJsonFile(jsonLines, bookingsFile);
+        try {
+            DataFileHandler.replaceJsonFile(jsonLines, bookingsFile);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to replace bookings file {0}: {1}", new Object[]{bookingsFile, e.getMessage()});
+            throw new UncheckedIOException("Failed to save bookings to " + bookingsFile, e);
+        }
+        bookingsVersion = nextVersion;
+        seenModified = fileStamp();
+        seenSize = new File(bookingsFile).length();
     }
     
-    private String bookingToJsonString(String key, List<SeatId> seats) {
-        String seatsStr = seats.stream()
-            .map(SeatId::toDisplayString)
-            .collect(Collectors.joining(","));
-        
-        return String.format("{\"key\":\"%s\",\"seats\":\"%s\"}", key, seatsStr);
+    private String bookingToJsonString(String key, PackedSeatSet seats) {
+        return String.format("{\"key\":\"%s\",\"seats\":\"%s\"}", key, seats.toDisplayString());
+    }
+    
+    private String releaseToJsonString(String key, List<SeatId> released, long version) {
+        return String.format("{\"key\":\"%s\",\"released\":\"%s\",%s%d}",
+            key, PackedSeatSet.of(released).toDisplayString(), VERSION_FIELD, version);
     }
     
     private String generateKey(Showtime showtime) {
@@ -270,37 +539,58 @@ public class FileSeatRepository implements SeatRepository {
         String key = generateKey(showtime);
         
         // Check BOTH confirmed bookings AND cart reservations
-        List<SeatId> confirmed = confirmedBookings.getOrDefault(key, new ArrayList<>());
-        List<SeatId> cart = cartReservations.getOrDefault(key, new ArrayList<>());
-        
-        return confirmed.contains(seatId) || cart.contains(seatId);
+        return confirmedBookings.getOrDefault(key, PackedSeatSet.EMPTY).contains(seatId)
+            || cartReservations.getOrDefault(key, PackedSeatSet.EMPTY).contains(seatId);
     }
 
     @Override
     public List<Seat> reserveSeats(Showtime showtime, List<SeatId> seatIds) {
+        SeatReserveEvent event = new SeatReserveEvent();
+        event.begin();
+        long start = Metrics.SEAT_RESERVE.start();
+        try {
+            List<Seat> reserved = reserveInCart(showtime, seatIds);
+            Metrics.SEAT_RESERVE.stop(start);
+            return reserved;
+        } catch (RuntimeException e) {
+            Metrics.SEAT_RESERVE.failed(start);
+            event.conflict = e instanceof SeatUnavailableException;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.showtimeKey = generateKey(showtime);
+                event.seatCount = seatIds.size();
+                event.commit();
+            }
+        }
+    }
+    
+    private List<Seat> reserveInCart(Showtime showtime, List<SeatId> seatIds) {
         String key = generateKey(showtime);
+        refreshFromDisk();
         
         logger.log(Level.INFO, "Reserving seats for cart: {0}", key);
         
-        // Check conflicts with BOTH confirmed AND other carts
-        List<SeatId> confirmed = confirmedBookings.getOrDefault(key, new ArrayList<>());
-        List<SeatId> otherCarts = cartReservations.getOrDefault(key, new ArrayList<>());
-        
-        List<SeatId> allBooked = new ArrayList<>();
-        allBooked.addAll(confirmed);
-        allBooked.addAll(otherCarts);
-        
-        List<SeatId> conflicts = seatIds.stream()
-            .filter(allBooked::contains)
-            .collect(Collectors.toList());
-
-        if (!conflicts.isEmpty()) {
-            logger.log(Level.WARNING, "Seat booking conflict: {0}", conflicts);
-            throw new SeatUnavailableException("Seats already booked: " + conflicts);
-        }
-
-        // Add to CART (not confirmed bookings)
-        addToCartReservation(showtime, seatIds);
+        // Check-and-hold is one atomic step per showtime: compute() locks the cart
+        // entry, and confirmCartReservation moves seats under the same entry
+        cartReservations.compute(key, (k, otherCarts) -> {
+            PackedSeatSet held = (otherCarts != null) ? otherCarts : PackedSeatSet.EMPTY;
+            PackedSeatSet confirmed = confirmedBookings.getOrDefault(k, PackedSeatSet.EMPTY);
+            
+            // Check conflicts with BOTH confirmed AND other carts
+            List<SeatId> conflicts = seatIds.stream()
+                .filter(id -> confirmed.contains(id) || held.contains(id))
+                .collect(Collectors.toList());
+            
+            if (!conflicts.isEmpty()) {
+                logger.log(Level.WARNING, "Seat booking conflict: {0}", conflicts);
+                throw new SeatUnavailableException("Seats already booked: " + conflicts);
+            }
+            
+            // Add to CART (not confirmed bookings)
+            return held.plus(seatIds);
+        });
         
         logger.log(Level.INFO, "Successfully reserved {0} seats in cart.", seatIds.size());
 
@@ -312,16 +602,20 @@ public class FileSeatRepository implements SeatRepository {
     
     @Override
     public List<Seat> findSeatsByShowtime(Showtime showtime) {
+        refreshFromDisk();
         List<Seat> allSeats = new ArrayList<>();
         CinemaHall hall = getHallById(showtime.getHallId());
         
         char maxRow = (char) ('A' + hall.getRowAmt() - 1);
         int maxCol = hall.getMaxSeatCol();
+        String key = generateKey(showtime);
+        PackedSeatSet confirmed = confirmedBookings.getOrDefault(key, PackedSeatSet.EMPTY);
+        PackedSeatSet cart = cartReservations.getOrDefault(key, PackedSeatSet.EMPTY);
 
         for (char row = 'A'; row <= maxRow; row++) {
             for (int col = 1; col <= maxCol; col++) {
-                SeatId id = new SeatId(row, col);
-                boolean isBooked = isSeatBooked(showtime, id);
+                SeatId id = SeatId.of(row, col);
+                boolean isBooked = confirmed.contains(id) || cart.contains(id);
                 String status = isBooked ? "Booked" : "Available";
                 allSeats.add(new Seat(id, "Single", status, hall));
             }
@@ -23,13 +23,21 @@ import java.util.stream.Collectors;
  */
 public class FileShowtimeRepository implements ShowtimeRepository {
     
-    private static final String HALLS_FILE = "halls.json";
+    private static final String DEFAULT_HALLS_FILE = "halls.json";
     private static final int SHOWTIME_INTERVAL_MINUTES = 100;
     private static final Logger logger = LoggerSetup.getLogger();
     
-    private final List<CinemaHall> hallConfigurations;
+    private final String hallsFile;
+    // Immutable snapshot, replaced wholesale by reloadHalls()
+    private volatile List<CinemaHall> hallConfigurations;
 
     public FileShowtimeRepository() {
+        this(DEFAULT_HALLS_FILE);
+    }
+    
+    // Constructor for testing with custom file path
+    public FileShowtimeRepository(String hallsFile) {
+        this.hallsFile = hallsFile;
         this.hallConfigurations = loadHalls();
         
         // Seed default halls if file doesn't exist
@@ -48,12 +56,26 @@ public class FileShowtimeRepository implements ShowtimeRepository {
      * Format: {"hallNum":1,"hallType":"Standard","rowAmt":5,"colAmt":10}
      */
     private List<CinemaHall> loadHalls() {
-        List<String> jsonLines = DataFileHandler.loadFromJsonFile(HALLS_FILE);
+        List<String> jsonLines = DataFileHandler.loadFromJsonFile(hallsFile);
         
         return jsonLines.stream()
             .map(this::parseHallFromJson)
             .filter(h -> h != null)
-            .collect(Collectors.toList());
+            .collect(Collectors.toUnmodifiableList());
+    }
+    
+    /**
+     * Re-reads the halls file and swaps in the new configuration. An empty file
+     * (e.g. caught mid-save) keeps the current halls.
+     */
+    public void reloadHalls() {
+        List<CinemaHall> reloaded = loadHalls();
+        if (reloaded.isEmpty()) {
+            logger.log(Level.WARNING, "Ignoring reload of {0}: no halls parsed", hallsFile);
+            return;
+        }
+        hallConfigurations = reloaded;
+        logger.log(Level.INFO, "Reloaded {0} halls from {1}", new Object[]{reloaded.size(), hallsFile});
     }
     
     /**
@@ -77,9 +99,11 @@ public class FileShowtimeRepository implements ShowtimeRepository {
      * Creates and saves default hall configuration.
      */
     private void seedHalls() {
-        hallConfigurations.add(new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10));
-        hallConfigurations.add(new CinemaHall(2, CinemaHall.HALL_TYPE_IMAX, 8, 15));
-        hallConfigurations.add(new CinemaHall(3, CinemaHall.HALL_TYPE_LOUNGE, 5, 5));
+        hallConfigurations = List.of(
+            new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10),
+            new CinemaHall(2, CinemaHall.HALL_TYPE_IMAX, 8, 15),
+            new CinemaHall(3, CinemaHall.HALL_TYPE_LOUNGE, 5, 5)
+        );
         
         saveHalls();
         logger.info("Default halls seeded and saved.");
@@ -93,7 +117,7 @@ public class FileShowtimeRepository implements ShowtimeRepository {
             .map(this::hallToJsonString)
             .collect(Collectors.toList());
         
-        DataFileHandler.saveToJsonFile(jsonLines, HALLS_FILE);
+        DataFileHandler.saveToJsonFile(jsonLines, hallsFile);
     }
     
     /**
@@ -118,6 +142,13 @@ public class FileShowtimeRepository implements ShowtimeRepository {
         return LocalDate.now().plusDays(daysFromNow);
     }
     
+    /**
+     * The current hall configurations (an immutable snapshot).
+     */
+    public List<CinemaHall> getAllHalls() {
+        return hallConfigurations;
+    }
+    
     /**
      * Retrieves hall configuration by hall ID.
      */
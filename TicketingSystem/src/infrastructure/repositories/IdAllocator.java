@@ -0,0 +1,188 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+import domain.Customer;
+import domain.Payment;
+import domain.Ticket;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands out unique IDs per entity across threads and processes (hi/lo).
+ *
+ * The file holds, per sequence, the first ID nobody has reserved yet. A process
+ * reserves a block of IDs by bumping that value under the shared file lock, then
+ * serves IDs from the block with a lock-free counter. Restart reads one line per
+ * sequence instead of scanning history; IDs left in a block when a process exits
+ * are simply skipped.
+ *
+ * Format: {"sequence":"payment","next":1201}
+ */
+public class IdAllocator {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final String DEFAULT_ID_FILE = "id_blocks.json";
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private final String idFile;
+    private final int blockSize;
+    private final SharedFileLock fileLock;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public IdAllocator() {
+        this(DEFAULT_ID_FILE, DEFAULT_BLOCK_SIZE);
+    }
+
+    // Constructor for testing with custom file path
+    public IdAllocator(String idFile, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.idFile = idFile;
+        this.blockSize = blockSize;
+        this.fileLock = new SharedFileLock(idFile);
+    }
+
+    /**
+     * The named sequence. lastUsed is only consulted the first time the sequence
+     * is created in the file, to start above IDs issued before the allocator existed.
+     */
+    public Sequence sequence(String name, IntSupplier lastUsed) {
+        return sequences.computeIfAbsent(name, n -> new Sequence(n, lastUsed));
+    }
+
+    /**
+     * Routes new Payment, Ticket and Customer IDs through this allocator.
+     * Call after loading payments and customers, whose IDs seed new sequences.
+     */
+    public void installDomainSequences(IntSupplier lastPaymentId, IntSupplier lastTicketId) {
+        Payment.setIdSource(sequence("payment", lastPaymentId));
+        Ticket.setIdSource(sequence("ticket", lastTicketId));
+        Customer.setIdSource(sequence("customer", () -> Customer.getNextLocalId() - 1));
+    }
+
+    /**
+     * One entity's IDs. nextId() is a CAS on the current block; only the thread
+     * that finds the block used up touches the file.
+     */
+    public final class Sequence implements IntSupplier {
+        private final String name;
+        private final IntSupplier lastUsed;
+        private volatile Block block = new Block(0, 0);
+
+        private Sequence(String name, IntSupplier lastUsed) {
+            this.name = name;
+            this.lastUsed = lastUsed;
+        }
+
+        public long nextId() {
+            while (true) {
+                Block current = block;
+                long id = current.next.getAndIncrement();
+                if (id < current.limit) {
+                    return id;
+                }
+                refill(current);
+            }
+        }
+
+        @Override
+        public int getAsInt() {
+            return Math.toIntExact(nextId());
+        }
+
+        private synchronized void refill(Block exhausted) {
+            if (block == exhausted) {
+                long start = reserve(name, lastUsed);
+                block = new Block(start, start + blockSize);
+            }
+        }
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long limit;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Reserves the next block of a sequence and returns its first ID.
+     */
+    private long reserve(String name, IntSupplier lastUsed) {
+        SharedFileLock.Held held = fileLock.acquire();
+        try {
+            Map<String, Long> next = readFile();
+            long start = next.containsKey(name) ? next.get(name) : lastUsed.getAsInt() + 1L;
+            next.put(name, start + blockSize);
+            writeFile(next);
+            logger.log(Level.FINE, "Reserved {0} IDs {1}-{2}", new Object[]{name, start, start + blockSize - 1});
+            return start;
+        } finally {
+            held.close();
+        }
+    }
+
+    private Map<String, Long> readFile() {
+        Map<String, Long> next = new LinkedHashMap<>();
+        for (String line : DataFileHandler.loadFromJsonFile(idFile)) {
+            try {
+                next.put(extractString(line, "sequence"), extractLong(line, "next"));
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Failed to parse ID sequence line: {0}", line);
+            }
+        }
+        return next;
+    }
+
+    private void writeFile(Map<String, Long> next) {
+        List<String> lines = new ArrayList<>();
+        next.forEach((name, value) -> lines.add("{\"sequence\":\"" + name + "\",\"next\":" + value + "}"));
+
+        try {
+            // Only a completely written temp file is renamed over the old one
+            DataFileHandler.replaceJsonFile(lines, idFile);
+        } catch (IOException e) {
+            // Handing out IDs that were never recorded could repeat them after a restart
+            throw new IllegalStateException("Failed to record ID block in " + idFile, e);
+        }
+    }
+
+    // === JSON HELPERS ===
+
+    private String extractString(String json, String key) {
+        String searchKey = "\"" + key + "\":\"";
+        int start = json.indexOf(searchKey);
+        if (start == -1) {
+            throw new IllegalArgumentException("Missing key: " + key);
+        }
+        start += searchKey.length();
+        return json.substring(start, json.indexOf("\"", start));
+    }
+
+    private long extractLong(String json, String key) {
+        String searchKey = "\"" + key + "\":";
+        int start = json.indexOf(searchKey);
+        if (start == -1) {
+            throw new IllegalArgumentException("Missing key: " + key);
+        }
+        start += searchKey.length();
+        int end = start;
+        while (end < json.length() && (Character.isDigit(json.charAt(end)) || json.charAt(end) == '-')) {
+            end++;
+        }
+        return Long.parseLong(json.substring(start, end));
+    }
+}
@@ -0,0 +1,229 @@
+package infrastructure.repositories;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser for a JSON array of objects, read one character at a time from a
+ * Reader. Only the current field is ever held in memory, so a catalog import
+ * of any size streams straight through.
+ *
+ * Typical loop:
+ * <pre>
+ *   if (in.beginArray()) {
+ *       while (in.nextObject()) {
+ *           String key;
+ *           while ((key = in.nextKey()) != null) {
+ *               switch (key) { case "name": name = in.readString(); break; default: in.skipValue(); }
+ *           }
+ *       }
+ *   }
+ * </pre>
+ * Syntax errors surface as IOException with the character offset.
+ */
+final class JsonArrayReader {
+
+    private final Reader in;
+    private int peeked = -2; // -2 = nothing buffered, -1 = end of input
+    private long offset;
+    private boolean firstInArray = true;
+    private boolean firstInObject;
+
+    JsonArrayReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Consumes the opening '['. Returns false (consuming nothing further) if the
+     * input is empty or does not start with an array.
+     */
+    boolean beginArray() throws IOException {
+        if (peekNonSpace() != '[') {
+            return false;
+        }
+        read();
+        return true;
+    }
+
+    /**
+     * Moves to the next element. Returns true positioned inside a new object, or
+     * false once the closing ']' has been consumed.
+     */
+    boolean nextObject() throws IOException {
+        int c = peekNonSpace();
+        if (c == ']') {
+            read();
+            return false;
+        }
+        if (!firstInArray) {
+            expect(',');
+            c = peekNonSpace();
+        }
+        firstInArray = false;
+        if (c != '{') {
+            throw error("Expected '{'");
+        }
+        read();
+        firstInObject = true;
+        return true;
+    }
+
+    /**
+     * The next field name of the current object, or null once its closing '}'
+     * has been consumed. The field's value must be read or skipped next.
+     */
+    String nextKey() throws IOException {
+        int c = peekNonSpace();
+        if (c == '}') {
+            read();
+            return null;
+        }
+        if (!firstInObject) {
+            expect(',');
+        }
+        firstInObject = false;
+        String key = readString();
+        expect(':');
+        return key;
+    }
+
+    String readString() throws IOException {
+        expect('"');
+        return readStringBody();
+    }
+
+    private String readStringBody() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == -1) {
+                throw error("Unterminated string");
+            }
+            if (c == '\\') {
+                sb.append(readEscape());
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * A number, also accepting a quoted number ("6.00") as some exports write prices that way.
+     */
+    double readNumber() throws IOException {
+        if (peekNonSpace() == '"') {
+            try {
+                return Double.parseDouble(readString().trim());
+            } catch (NumberFormatException e) {
+                throw error("Expected a number");
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = peek()) != -1 && (Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+            sb.append((char) read());
+        }
+        try {
+            return Double.parseDouble(sb.toString());
+        } catch (NumberFormatException e) {
+            throw error("Expected a number");
+        }
+    }
+
+    /**
+     * Skips the next value of any type, including nested objects and arrays.
+     */
+    void skipValue() throws IOException {
+        int c = peekNonSpace();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else if (c == -1) {
+            throw error("Unexpected end of input");
+        } else {
+            // number, true, false or null
+            while ((c = peek()) != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                read();
+            }
+        }
+    }
+
+    private void skipContainer() throws IOException {
+        int depth = 0;
+        do {
+            int c = read();
+            if (c == -1) {
+                throw error("Unexpected end of input");
+            } else if (c == '"') {
+                readStringBody();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': case '\\': case '/': return (char) c;
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Bad unicode escape");
+                    }
+                    code = code * 16 + digit;
+                }
+                return (char) code;
+            default:
+                throw error("Bad escape");
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekNonSpace() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        read();
+    }
+
+    private int peekNonSpace() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+            read();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c != -1) {
+            offset++;
+        }
+        return c;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at character " + offset);
+    }
+}
@@ -0,0 +1,703 @@
+package infrastructure.repositories;
+
+import application.monitoring.Metrics;
+import application.monitoring.SeatConfirmEvent;
+import application.monitoring.SeatReserveEvent;
+import application.utilities.LoggerSetup;
+import domain.CinemaHall;
+import domain.Seat;
+import domain.Showtime;
+import domain.valueobjects.SeatId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Seat inventory in a memory-mapped file shared by every box-office process on
+ * the machine. Each showtime owns a fixed-size slot holding two seat bitmaps,
+ * SOLD and HELD, and every change is a VarHandle compare-and-set on those words,
+ * so a hold made by one process is visible to all others immediately, without
+ * re-reading or rewriting bookings.json.
+ *
+ * <pre>
+ * header (64 bytes): magic, format, slotCount, seatsPerSlot
+ * slot i:            state | keyLength | key (32 bytes) | SOLD words | HELD words
+ * </pre>
+ * Slots are found by open addressing on the showtime key. Lookups, holds and sales
+ * never lock; only claiming a slot for a new showtime takes the shared slot lock,
+ * which keeps two processes from claiming one showtime twice.
+ *
+ * Slots of past showtimes are freed when the inventory fills up, so the file
+ * never runs out after DEFAULT_SLOTS showtimes have been sold. A freed slot is
+ * left as a FREED marker (probing continues past it) and is reused by the next
+ * claim. A claim whose process died before finishing it is found by the next
+ * process to hold the slot lock (the OS drops a dead process's lock) and freed.
+ *
+ * Holds live in the shared file too. Each instance remembers its own holds and
+ * releases them on cancel, clearAllCartReservations and close; holds of a process
+ * that crashed stay until {@link #releaseAllHolds()} is run with the box office idle.
+ */
+public class MappedSeatRepository implements CartSeatRepository, AutoCloseable {
+
+    private static final String DEFAULT_INVENTORY_FILE = "seat_inventory.map";
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final int DEFAULT_SLOTS = 4096;
+    public static final int MAX_SEATS_PER_SHOWTIME = 512;
+
+    // === FILE LAYOUT ===
+    private static final int MAGIC = 0x5345_4154; // "SEAT"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_FORMAT = 4;
+    private static final int OFF_SLOT_COUNT = 8;
+    private static final int OFF_SEATS_PER_SLOT = 12;
+
+    private static final int SLOT_EMPTY = 0;
+    private static final int SLOT_CLAIMING = 1;
+    private static final int SLOT_READY = 2;
+    private static final int SLOT_FREED = 3;
+    private static final int KEY_BYTES = 32;
+    private static final int SLOT_OFF_STATE = 0;
+    private static final int SLOT_OFF_KEY_LENGTH = 4;
+    private static final int SLOT_OFF_KEY = 8;
+    private static final int SLOT_OFF_BITMAPS = SLOT_OFF_KEY + KEY_BYTES;
+
+    // How long a lookup waits for another process to finish a claim before checking it is alive
+    private static final long CLAIM_WAIT_NANOS = 50_000_000L;
+
+    // Atomic views over the mapped bytes; offsets must be 4/8-byte aligned
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final String inventoryFile;
+    private final List<CinemaHall> hallList;
+    private final MappedByteBuffer map;
+    private final int slotCount;
+    private final int words;
+    private final int slotBytes;
+    private final SharedFileLock slotLock;
+
+    // Showtime key -> slot offset, so lookups probe the file once per showtime
+    private final ConcurrentHashMap<String, Integer> slotOffsets = new ConcurrentHashMap<>();
+    // Seats this instance holds; other processes' holds are only visible as bits
+    private final ConcurrentHashMap<String, List<SeatId>> ownHolds = new ConcurrentHashMap<>();
+
+    // DEFAULT CONSTRUCTOR (for production use)
+    public MappedSeatRepository(List<CinemaHall> halls) {
+        this(DEFAULT_INVENTORY_FILE, halls, DEFAULT_SLOTS);
+    }
+
+    // CONSTRUCTOR WITH CUSTOM FILE (for testing)
+    public MappedSeatRepository(String inventoryFile, List<CinemaHall> halls, int slots) {
+        for (CinemaHall hall : halls) {
+            if (hall.getRowAmt() * hall.getMaxSeatCol() > MAX_SEATS_PER_SHOWTIME) {
+                throw new IllegalArgumentException("Hall " + hall.getHallId() + " has more than "
+                    + MAX_SEATS_PER_SHOWTIME + " seats");
+            }
+        }
+        this.inventoryFile = inventoryFile;
+        this.hallList = List.copyOf(halls);
+        this.map = mapInventory(Path.of(inventoryFile), slots);
+        this.slotCount = (int) INT.getVolatile(map, OFF_SLOT_COUNT);
+        this.words = (int) INT.getVolatile(map, OFF_SEATS_PER_SLOT) / Long.SIZE;
+        this.slotBytes = SLOT_OFF_BITMAPS + 2 * words * Long.BYTES;
+        this.slotLock = new SharedFileLock(inventoryFile);
+
+        logger.log(Level.INFO, "MappedSeatRepository initialized. File: {0}, Slots: {1}",
+                   new Object[]{inventoryFile, slotCount});
+    }
+
+    /**
+     * Maps the file, creating and formatting it on first use. Formatting runs under a
+     * file lock so two processes starting together agree on one layout.
+     */
+    private static MappedByteBuffer mapInventory(Path path, int slots) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                return mapLocked(channel, path, slots);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map seat inventory " + path, e);
+        }
+    }
+
+    // Caller holds the file lock
+    private static MappedByteBuffer mapLocked(FileChannel channel, Path path, int slots) throws IOException {
+        if (channel.size() == 0) {
+            int words = MAX_SEATS_PER_SHOWTIME / Long.SIZE;
+            long size = HEADER_BYTES + (long) slots * (SLOT_OFF_BITMAPS + 2L * words * Long.BYTES);
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            INT.setVolatile(map, OFF_FORMAT, FORMAT);
+            INT.setVolatile(map, OFF_SLOT_COUNT, slots);
+            INT.setVolatile(map, OFF_SEATS_PER_SLOT, MAX_SEATS_PER_SHOWTIME);
+            INT.setVolatile(map, OFF_MAGIC, MAGIC);
+            map.force();
+            return map;
+        }
+
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if ((int) INT.getVolatile(map, OFF_MAGIC) != MAGIC || (int) INT.getVolatile(map, OFF_FORMAT) != FORMAT) {
+            throw new IllegalStateException("Not a seat inventory file: " + path);
+        }
+        return map; // the mapping stays valid after the channel closes
+    }
+
+    // === SeatRepository ===
+
+    @Override
+    public Optional<Seat> findSeat(Showtime showtime, SeatId seatId) {
+        CinemaHall hall = getHallById(showtime.getHallId());
+        if (!isValidForHall(seatId, hall)) {
+            return Optional.empty();
+        }
+        int slot = findSlot(generateKey(showtime), false);
+        return Optional.of(toSeat(seatId, hall, slot));
+    }
+
+    @Override
+    public List<Seat> findSeatsByShowtime(Showtime showtime) {
+        CinemaHall hall = getHallById(showtime.getHallId());
+        int slot = findSlot(generateKey(showtime), false);
+        List<Seat> seats = new ArrayList<>();
+        for (char row = 'A'; row < 'A' + hall.getRowAmt(); row++) {
+            for (int col = 1; col <= hall.getMaxSeatCol(); col++) {
+                seats.add(toSeat(SeatId.of(row, col), hall, slot));
+            }
+        }
+        return seats;
+    }
+
+    @Override
+    public List<Seat> reserveSeats(Showtime showtime, List<SeatId> seatIds) {
+        SeatReserveEvent event = new SeatReserveEvent();
+        event.begin();
+        long start = Metrics.SEAT_RESERVE.start();
+        try {
+            CinemaHall hall = getHallById(showtime.getHallId());
+            String key = generateKey(showtime);
+            hold(findSlot(key, true), hall, seatIds);
+            ownHolds.merge(key, List.copyOf(seatIds), MappedSeatRepository::plus);
+            Metrics.SEAT_RESERVE.stop(start);
+
+            logger.log(Level.INFO, "Successfully reserved {0} seats in cart.", seatIds.size());
+            return seatIds.stream()
+                .map(id -> new Seat(id, "Single", "Reserved", hall))
+                .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            Metrics.SEAT_RESERVE.failed(start);
+            event.conflict = e instanceof SeatUnavailableException;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.showtimeKey = generateKey(showtime);
+                event.seatCount = seatIds.size();
+                event.commit();
+            }
+        }
+    }
+
+    // === CART MANAGEMENT ===
+
+    @Override
+    public void confirmCartReservation(Showtime showtime, List<SeatId> seatIds) {
+        SeatConfirmEvent event = new SeatConfirmEvent();
+        event.begin();
+        long start = Metrics.SEAT_CONFIRM.start();
+        try {
+            sell(showtime, seatIds);
+            Metrics.SEAT_CONFIRM.stop(start);
+        } catch (RuntimeException e) {
+            Metrics.SEAT_CONFIRM.failed(start);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.showtimeKey = generateKey(showtime);
+                event.seatCount = seatIds.size();
+                event.commit();
+            }
+        }
+    }
+
+    private void sell(Showtime showtime, List<SeatId> seatIds) {
+        CinemaHall hall = getHallById(showtime.getHallId());
+        String key = generateKey(showtime);
+        int slot = findSlot(key, true);
+
+        // Seats not held by this instance must be claimed first, exactly like a reserve
+        List<SeatId> own = ownHolds.getOrDefault(key, List.of());
+        List<SeatId> unheld = seatIds.stream().filter(id -> !own.contains(id)).collect(Collectors.toList());
+        if (!unheld.isEmpty()) {
+            hold(slot, hall, unheld);
+        }
+
+        // HELD -> SOLD: set SOLD first so the seats never look free in between
+        for (Map.Entry<Integer, Long> word : masks(hall, seatIds).entrySet()) {
+            LONG.getAndBitwiseOr(map, soldOffset(slot, word.getKey()), word.getValue());
+            LONG.getAndBitwiseAnd(map, heldOffset(slot, word.getKey()), ~word.getValue());
+        }
+        map.force(slot, slotBytes);
+        ownHolds.computeIfPresent(key, (k, held) -> minus(held, seatIds));
+
+        logger.info(() -> "Confirmed " + seatIds.size() + " seats as paid booking: " + key);
+    }
+
+    @Override
+    public void cancelCartReservation(Showtime showtime, List<SeatId> seatIds) {
+        String key = generateKey(showtime);
+        List<SeatId> own = ownHolds.getOrDefault(key, List.of());
+        List<SeatId> release = seatIds.stream().filter(own::contains).collect(Collectors.toList());
+        if (release.isEmpty()) {
+            return;
+        }
+        int slot = findSlot(key, false);
+        if (slot >= 0) {
+            unhold(slot, getHallById(showtime.getHallId()), release);
+        }
+        ownHolds.computeIfPresent(key, (k, held) -> minus(held, release));
+        logger.info(() -> "Cancelled " + release.size() + " seats from cart: " + key);
+    }
+
+    @Override
+    public void releaseConfirmed(Showtime showtime, List<SeatId> seatIds) {
+        String key = generateKey(showtime);
+        int slot = findSlot(key, false);
+        if (slot < 0) {
+            return; // nothing was ever sold for this showtime
+        }
+        for (Map.Entry<Integer, Long> word : masks(getHallById(showtime.getHallId()), seatIds).entrySet()) {
+            LONG.getAndBitwiseAnd(map, soldOffset(slot, word.getKey()), ~word.getValue());
+        }
+        map.force(slot, slotBytes);
+        logger.info(() -> "Released " + seatIds.size() + " refunded seats: " + key);
+    }
+
+    @Override
+    public void clearAllCartReservations() {
+        int count = ownHolds.size();
+        for (String key : ownHolds.keySet()) {
+            List<SeatId> held = ownHolds.remove(key);
+            int slot = findSlot(key, false);
+            if (held != null && slot >= 0) {
+                unhold(slot, getHallById(hallIdOf(key)), held);
+            }
+        }
+        logger.info(() -> "Cleared all cart reservations (" + count + " entries)");
+    }
+
+    /**
+     * Clears every HELD bit in the file, including holds of crashed processes.
+     * Only safe when no terminal has an open cart.
+     */
+    public void releaseAllHolds() {
+        for (int i = 0; i < slotCount; i++) {
+            int slot = slotOffset(i);
+            for (int w = 0; w < words; w++) {
+                LONG.setVolatile(map, heldOffset(slot, w), 0L);
+            }
+        }
+        ownHolds.clear();
+        logger.warning("Released all seat holds in " + inventoryFile);
+    }
+
+    @Override
+    public long getActiveHoldCount() {
+        return ownHolds.values().stream().mapToLong(List::size).sum();
+    }
+
+    @Override
+    public void close() {
+        clearAllCartReservations();
+        map.force();
+    }
+
+    // === HALLS ===
+
+    @Override
+    public List<CinemaHall> getAllHalls() {
+        return new ArrayList<>(hallList);
+    }
+
+    @Override
+    public List<CinemaHall> getHallsByType(String hallType) {
+        return hallList.stream()
+            .filter(h -> h.getHallType().equals(hallType))
+            .collect(Collectors.toList());
+    }
+
+    private CinemaHall getHallById(int hallId) {
+        return hallList.stream()
+            .filter(h -> h.getHallId() == hallId)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Hall ID not found: " + hallId));
+    }
+
+    private boolean isValidForHall(SeatId seatId, CinemaHall hall) {
+        return seatId.getRow() >= 'A' && seatId.getRow() < 'A' + hall.getRowAmt()
+            && seatId.getColumn() >= 1 && seatId.getColumn() <= hall.getMaxSeatCol();
+    }
+
+    // === BIT OPERATIONS ===
+
+    /**
+     * Sets HELD for all seats or none: each word is claimed with a CAS that fails if
+     * any wanted bit is SOLD or HELD, and words already claimed are rolled back on conflict.
+     */
+    private void hold(int slot, CinemaHall hall, List<SeatId> seatIds) {
+        Map<Integer, Long> masks = masks(hall, seatIds);
+        List<Map.Entry<Integer, Long>> claimed = new ArrayList<>();
+
+        for (Map.Entry<Integer, Long> word : masks.entrySet()) {
+            long mask = word.getValue();
+            int heldAt = heldOffset(slot, word.getKey());
+            int soldAt = soldOffset(slot, word.getKey());
+            while (true) {
+                long held = (long) LONG.getVolatile(map, heldAt);
+                long taken = (held | (long) LONG.getVolatile(map, soldAt)) & mask;
+                if (taken != 0) {
+                    throw conflict(slot, hall, seatIds, claimed, word.getKey(), taken);
+                }
+                if (LONG.compareAndSet(map, heldAt, held, held | mask)) {
+                    claimed.add(word);
+                    // The HELD word can return to the value we read after another terminal
+                    // held and sold a seat in between (ABA), so check SOLD again now that
+                    // our bits are set: from here on nobody else can hold these seats.
+                    long soldMeanwhile = (long) LONG.getVolatile(map, soldAt) & mask;
+                    if (soldMeanwhile != 0) {
+                        throw conflict(slot, hall, seatIds, claimed, word.getKey(), soldMeanwhile);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Undoes the words claimed so far and builds the exception for the taken seats.
+     */
+    private SeatUnavailableException conflict(int slot, CinemaHall hall, List<SeatId> seatIds,
+                                              List<Map.Entry<Integer, Long>> claimed, int wordIndex, long taken) {
+        for (Map.Entry<Integer, Long> undo : claimed) {
+            LONG.getAndBitwiseAnd(map, heldOffset(slot, undo.getKey()), ~undo.getValue());
+        }
+        List<SeatId> conflicts = seatIds.stream()
+            .filter(id -> (taken & bit(hall, id)) != 0 && wordOf(hall, id) == wordIndex)
+            .collect(Collectors.toList());
+        logger.log(Level.WARNING, "Seat booking conflict: {0}", conflicts);
+        return new SeatUnavailableException("Seats already booked: " + conflicts);
+    }
+
+    private void unhold(int slot, CinemaHall hall, List<SeatId> seatIds) {
+        for (Map.Entry<Integer, Long> word : masks(hall, seatIds).entrySet()) {
+            LONG.getAndBitwiseAnd(map, heldOffset(slot, word.getKey()), ~word.getValue());
+        }
+    }
+
+    private Seat toSeat(SeatId id, CinemaHall hall, int slot) {
+        boolean taken = false;
+        if (slot >= 0) {
+            int w = wordOf(hall, id);
+            long bits = (long) LONG.getVolatile(map, soldOffset(slot, w)) | (long) LONG.getVolatile(map, heldOffset(slot, w));
+            taken = (bits & bit(hall, id)) != 0;
+        }
+        return new Seat(id, "Single", taken ? "Booked" : "Available", hall);
+    }
+
+    /**
+     * Word index -> bit mask for the seats, in word order so concurrent holders
+     * claim words in the same sequence.
+     */
+    private Map<Integer, Long> masks(CinemaHall hall, List<SeatId> seatIds) {
+        Map<Integer, Long> masks = new TreeMap<>();
+        for (SeatId id : seatIds) {
+            if (!isValidForHall(id, hall)) {
+                throw new IllegalArgumentException("Seat " + id.toDisplayString() + " is not in hall " + hall.getHallId());
+            }
+            masks.merge(wordOf(hall, id), bit(hall, id), (a, b) -> a | b);
+        }
+        return masks;
+    }
+
+    private static int seatIndex(CinemaHall hall, SeatId id) {
+        return (id.getRow() - 'A') * hall.getMaxSeatCol() + (id.getColumn() - 1);
+    }
+
+    private static int wordOf(CinemaHall hall, SeatId id) {
+        return seatIndex(hall, id) / Long.SIZE;
+    }
+
+    private static long bit(CinemaHall hall, SeatId id) {
+        return 1L << (seatIndex(hall, id) % Long.SIZE);
+    }
+
+    // === SLOTS ===
+
+    private int slotOffset(int index) {
+        return HEADER_BYTES + index * slotBytes;
+    }
+
+    private int soldOffset(int slot, int word) {
+        return slot + SLOT_OFF_BITMAPS + word * Long.BYTES;
+    }
+
+    private int heldOffset(int slot, int word) {
+        return slot + SLOT_OFF_BITMAPS + (words + word) * Long.BYTES;
+    }
+
+    /**
+     * Offset of the showtime's slot, claiming a free one when create is set.
+     * Returns -1 when the showtime has no slot yet and create is false.
+     */
+    private int findSlot(String key, boolean create) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > KEY_BYTES) {
+            throw new IllegalArgumentException("Showtime key too long: " + key);
+        }
+        Integer cached = slotOffsets.get(key);
+        if (cached != null) {
+            // Another process may have freed the slot (past showtime) and reused it
+            if ((int) INT.getVolatile(map, cached + SLOT_OFF_STATE) == SLOT_READY && keyMatches(cached, keyBytes)) {
+                return cached;
+            }
+            slotOffsets.remove(key, cached);
+        }
+
+        int slot = lookup(key, keyBytes);
+        if (slot < 0 && create) {
+            slot = claimSlot(key, keyBytes);
+        }
+        if (slot >= 0) {
+            slotOffsets.put(key, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Lock-free probe for an existing slot; -1 if there is none.
+     */
+    private int lookup(String key, byte[] keyBytes) {
+        int start = Math.floorMod(key.hashCode(), slotCount);
+        for (int probe = 0; probe < slotCount; probe++) {
+            int slot = slotOffset((start + probe) % slotCount);
+            int state = awaitClaim(slot);
+            if (state == SLOT_EMPTY) {
+                return -1; // probing stops at the first empty slot
+            }
+            if (state == SLOT_READY && keyMatches(slot, keyBytes)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The slot's state once any claim in progress has finished. A claim still
+     * open after CLAIM_WAIT_NANOS is checked under the slot lock, which its
+     * owner holds for the whole claim: if the claim is still open once we get
+     * the lock, its process died and the slot is freed.
+     */
+    private int awaitClaim(int slot) {
+        int state = (int) INT.getVolatile(map, slot + SLOT_OFF_STATE);
+        long deadline = System.nanoTime() + CLAIM_WAIT_NANOS;
+        while (state == SLOT_CLAIMING && System.nanoTime() < deadline) {
+            Thread.onSpinWait(); // another process is writing the key
+            state = (int) INT.getVolatile(map, slot + SLOT_OFF_STATE);
+        }
+        if (state == SLOT_CLAIMING) {
+            SharedFileLock.Held held = slotLock.acquire();
+            try {
+                state = recoverStaleClaim(slot);
+            } finally {
+                held.close();
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Claims a slot for a new showtime. Runs under the slot lock so that two
+     * processes cannot both miss the key and claim it in different slots.
+     */
+    private int claimSlot(String key, byte[] keyBytes) {
+        SharedFileLock.Held held = slotLock.acquire();
+        try {
+            int slot = probeLocked(key, keyBytes);
+            if (slot == -1) {
+                int freed = freePastShowtimesLocked(LocalDate.now());
+                if (freed > 0) {
+                    logger.log(Level.INFO, "Seat inventory full; freed {0} past showtimes", freed);
+                    slot = probeLocked(key, keyBytes);
+                }
+            }
+            if (slot == -1) {
+                throw new IllegalStateException("Seat inventory " + inventoryFile + " is full ("
+                    + slotCount + " showtimes)");
+            }
+            if ((int) INT.getVolatile(map, slot + SLOT_OFF_STATE) == SLOT_READY) {
+                return slot; // claimed by another process since our lookup
+            }
+
+            INT.setVolatile(map, slot + SLOT_OFF_STATE, SLOT_CLAIMING);
+            clearBitmaps(slot);
+            map.put(slot + SLOT_OFF_KEY, keyBytes);
+            INT.setVolatile(map, slot + SLOT_OFF_KEY_LENGTH, keyBytes.length);
+            INT.setVolatile(map, slot + SLOT_OFF_STATE, SLOT_READY);
+            map.force(slot, slotBytes);
+            return slot;
+        } finally {
+            held.close();
+        }
+    }
+
+    /**
+     * The showtime's slot if it exists, else the first free slot on its probe
+     * chain, else -1 when the inventory is full. Caller holds the slot lock.
+     */
+    private int probeLocked(String key, byte[] keyBytes) {
+        int free = -1;
+        int start = Math.floorMod(key.hashCode(), slotCount);
+        for (int probe = 0; probe < slotCount; probe++) {
+            int slot = slotOffset((start + probe) % slotCount);
+            int state = recoverStaleClaim(slot);
+            if (state == SLOT_EMPTY) {
+                return (free >= 0) ? free : slot;
+            }
+            if (state == SLOT_FREED) {
+                if (free < 0) {
+                    free = slot;
+                }
+            } else if (keyMatches(slot, keyBytes)) {
+                return slot;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Caller holds the slot lock, so no live process is mid-claim: a slot still
+     * marked CLAIMING belongs to a process that died, and is freed.
+     */
+    private int recoverStaleClaim(int slot) {
+        if (INT.compareAndSet(map, slot + SLOT_OFF_STATE, SLOT_CLAIMING, SLOT_FREED)) {
+            logger.log(Level.WARNING, "Freed slot {0} left half-claimed by a terminal that exited", slot);
+        }
+        return (int) INT.getVolatile(map, slot + SLOT_OFF_STATE);
+    }
+
+    /**
+     * Frees the slots of showtimes dated before today, so their space can hold new
+     * showtimes. Any process may run this; it takes the slot lock.
+     *
+     * @return number of slots freed
+     */
+    public int releasePastShowtimes(LocalDate today) {
+        SharedFileLock.Held held = slotLock.acquire();
+        try {
+            return freePastShowtimesLocked(today);
+        } finally {
+            held.close();
+        }
+    }
+
+    // Caller holds the slot lock
+    private int freePastShowtimesLocked(LocalDate today) {
+        int freed = 0;
+        for (int i = 0; i < slotCount; i++) {
+            int slot = slotOffset(i);
+            if ((int) INT.getVolatile(map, slot + SLOT_OFF_STATE) != SLOT_READY) {
+                continue;
+            }
+            String key = slotKey(slot);
+            if (dateOf(key).isBefore(today)) {
+                // FREED before clearing, so nobody resolves the key to a slot being wiped
+                INT.setVolatile(map, slot + SLOT_OFF_STATE, SLOT_FREED);
+                clearBitmaps(slot);
+                slotOffsets.remove(key);
+                ownHolds.remove(key);
+                freed++;
+            }
+        }
+        if (freed > 0) {
+            map.force();
+        }
+        return freed;
+    }
+
+    private void clearBitmaps(int slot) {
+        for (int w = 0; w < 2 * words; w++) {
+            LONG.setVolatile(map, slot + SLOT_OFF_BITMAPS + w * Long.BYTES, 0L);
+        }
+    }
+
+    private String slotKey(int slot) {
+        byte[] keyBytes = new byte[(int) INT.getVolatile(map, slot + SLOT_OFF_KEY_LENGTH)];
+        map.get(slot + SLOT_OFF_KEY, keyBytes);
+        return new String(keyBytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean keyMatches(int slot, byte[] keyBytes) {
+        if ((int) INT.getVolatile(map, slot + SLOT_OFF_KEY_LENGTH) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (map.get(slot + SLOT_OFF_KEY + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // === HELPERS ===
+
+    private String generateKey(Showtime showtime) {
+        return showtime.getHallId() + "_" + showtime.getDate() + "_" + showtime.time();
+    }
+
+    private static int hallIdOf(String key) {
+        return Integer.parseInt(key.substring(0, key.indexOf('_')));
+    }
+
+    // Keys are hallId_date_time
+    private static LocalDate dateOf(String key) {
+        int from = key.indexOf('_') + 1;
+        return LocalDate.parse(key.substring(from, key.indexOf('_', from)));
+    }
+
+    private static List<SeatId> plus(List<SeatId> current, List<SeatId> added) {
+        List<SeatId> merged = new ArrayList<>(current);
+        merged.addAll(added);
+        return merged;
+    }
+
+    private static List<SeatId> minus(List<SeatId> current, List<SeatId> removed) {
+        List<SeatId> remaining = new ArrayList<>(current);
+        remaining.removeAll(removed);
+        return remaining.isEmpty() ? null : remaining;
+    }
+}
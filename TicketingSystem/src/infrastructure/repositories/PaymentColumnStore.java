@@ -0,0 +1,556 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+import domain.Payment;
+import domain.Ticket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Columnar side-store of the payment history for analytics.
+ *
+ * Each payment is flattened into one row per ticket line (a payment without
+ * tickets still gets one row). Columns are parallel primitive arrays; movie
+ * names and hall types are dictionary-encoded. F&B and payment totals are
+ * carried on the first row of each payment only, so every column can simply
+ * be summed.
+ *
+ * Columns are appended on savePayment and persisted as one binary file per
+ * column (plus text dictionaries) in the store directory. Readers work on an
+ * immutable snapshot and never block appends.
+ */
+public class PaymentColumnStore {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    /** Rows above which sums are split across the common fork-join pool. */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int INITIAL_CAPACITY = 256;
+    public static final int NO_MOVIE = -1;
+
+    // Column files
+    private static final String PAYMENT_ID_COL = "payment_id.col";
+    private static final String DATE_COL = "date.col";
+    private static final String MOVIE_COL = "movie.col";
+    private static final String HALL_COL = "hall.col";
+    private static final String SEATS_COL = "seats.col";
+    private static final String TICKET_COL = "ticket_cents.col";
+    private static final String FB_COL = "fb_cents.col";
+    private static final String TOTAL_COL = "total_cents.col";
+    private static final String MOVIE_DICT = "movies.dict";
+    private static final String HALL_DICT = "halls.dict";
+
+    private final File dir;
+
+    // Writer-side state (guarded by this)
+    private int[] paymentId = new int[INITIAL_CAPACITY];
+    private int[] epochDay = new int[INITIAL_CAPACITY];
+    private int[] movie = new int[INITIAL_CAPACITY];
+    private byte[] hall = new byte[INITIAL_CAPACITY];
+    private int[] seats = new int[INITIAL_CAPACITY];
+    private long[] ticketCents = new long[INITIAL_CAPACITY];
+    private long[] fbCents = new long[INITIAL_CAPACITY];
+    private long[] totalCents = new long[INITIAL_CAPACITY];
+    private int size;
+    private int payments;
+    private final List<String> movieNames = new ArrayList<>();
+    private final Map<String, Integer> movieCodes = new HashMap<>();
+    private final List<String> hallTypes = new ArrayList<>();
+    private final Map<String, Integer> hallCodes = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(this);
+
+    public PaymentColumnStore(String directory) {
+        this.dir = new File(directory);
+        load();
+    }
+
+    // === READ API ===
+
+    /**
+     * Immutable view of the columns at one point in time. Arrays may be longer
+     * than size; only indices below size are valid.
+     */
+    public static final class Snapshot {
+        public final int size;
+        public final int payments;
+        public final int[] paymentId;
+        public final int[] epochDay;
+        public final int[] movie;
+        public final byte[] hall;
+        public final int[] seats;
+        public final long[] ticketCents;
+        public final long[] fbCents;
+        public final long[] totalCents;
+        private final String[] movieNames;
+        private final String[] hallTypes;
+
+        private Snapshot(PaymentColumnStore s) {
+            this.size = s.size;
+            this.payments = s.payments;
+            this.paymentId = s.paymentId;
+            this.epochDay = s.epochDay;
+            this.movie = s.movie;
+            this.hall = s.hall;
+            this.seats = s.seats;
+            this.ticketCents = s.ticketCents;
+            this.fbCents = s.fbCents;
+            this.totalCents = s.totalCents;
+            this.movieNames = s.movieNames.toArray(new String[0]);
+            this.hallTypes = s.hallTypes.toArray(new String[0]);
+        }
+
+        public String movieName(int code) {
+            return code == NO_MOVIE ? null : movieNames[code];
+        }
+
+        public String hallType(int code) {
+            return hallTypes[code];
+        }
+
+        public int movieCount() {
+            return movieNames.length;
+        }
+
+        public int hallTypeCount() {
+            return hallTypes.length;
+        }
+
+        public long totalTicketCents() {
+            return sum(ticketCents, size);
+        }
+
+        public long totalFoodCents() {
+            return sum(fbCents, size);
+        }
+
+        public long totalRevenueCents() {
+            return sum(totalCents, size);
+        }
+
+        /**
+         * Number of rows that carry a ticket line.
+         */
+        public int ticketRowCount() {
+            int rows = 0;
+            for (int i = 0; i < size; i++) {
+                if (movie[i] != NO_MOVIE) rows++;
+            }
+            return rows;
+        }
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public int getPaymentCount() {
+        return snapshot.payments;
+    }
+
+    public int getRowCount() {
+        return snapshot.size;
+    }
+
+    public int getLastPaymentId() {
+        Snapshot s = snapshot;
+        return s.size == 0 ? 0 : s.paymentId[s.size - 1];
+    }
+
+    public long totalTicketCents() {
+        return snapshot.totalTicketCents();
+    }
+
+    public long totalFoodCents() {
+        return snapshot.totalFoodCents();
+    }
+
+    public long totalRevenueCents() {
+        return snapshot.totalRevenueCents();
+    }
+
+    /**
+     * Ticket revenue in cents for shows dated between the two days (inclusive).
+     */
+    public long ticketCentsBetween(LocalDate from, LocalDate to) {
+        Snapshot s = snapshot;
+        int lo = (int) from.toEpochDay();
+        int hi = (int) to.toEpochDay();
+        long total = 0;
+        for (int i = 0; i < s.size; i++) {
+            int d = s.epochDay[i];
+            // Branch-free select keeps the loop vectorizable
+            total += (d >= lo & d <= hi) ? s.ticketCents[i] : 0L;
+        }
+        return total;
+    }
+
+    /**
+     * Ticket revenue in cents per movie, in first-sold order.
+     */
+    public Map<String, Long> ticketCentsByMovie() {
+        Snapshot s = snapshot;
+        long[] byMovie = new long[s.movieCount()];
+        for (int i = 0; i < s.size; i++) {
+            int m = s.movie[i];
+            if (m != NO_MOVIE) byMovie[m] += s.ticketCents[i];
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int m = 0; m < byMovie.length; m++) {
+            result.put(s.movieName(m), byMovie[m]);
+        }
+        return result;
+    }
+
+    /**
+     * Ticket revenue in cents per hall type, in first-sold order.
+     */
+    public Map<String, Long> ticketCentsByHallType() {
+        Snapshot s = snapshot;
+        long[] byHall = new long[s.hallTypeCount()];
+        for (int i = 0; i < s.size; i++) {
+            byHall[s.hall[i]] += s.ticketCents[i];
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int h = 0; h < byHall.length; h++) {
+            result.put(s.hallType(h), byHall[h]);
+        }
+        return result;
+    }
+
+    static long sum(long[] column, int size) {
+        if (size >= PARALLEL_THRESHOLD) {
+            return Arrays.stream(column, 0, size).parallel().sum();
+        }
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += column[i];
+        }
+        return total;
+    }
+
+    // === WRITE API ===
+
+    /**
+     * Appends a payment to the in-memory columns and to the column files.
+     */
+    public synchronized void append(Payment payment) {
+        int firstRow = size;
+        int newMovies = movieNames.size();
+        int newHalls = hallTypes.size();
+
+        appendRows(payment);
+        publish();
+
+        try {
+            writeRows(firstRow, size, true);
+            writeDictionary(MOVIE_DICT, movieNames, newMovies, true);
+            writeDictionary(HALL_DICT, hallTypes, newHalls, true);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to append payment columns: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the whole store with the given history and rewrites the column files.
+     * Payments are read one at a time, so history may build each one on demand.
+     */
+    public synchronized void rebuild(Iterable<Payment> history) {
+        clearColumns();
+        for (Payment p : history) {
+            appendRows(p);
+        }
+        publish();
+
+        try {
+            writeRows(0, size, false);
+            writeDictionary(MOVIE_DICT, movieNames, 0, false);
+            writeDictionary(HALL_DICT, hallTypes, 0, false);
+            logger.log(Level.INFO, "Rebuilt payment column store: {0} payments, {1} rows",
+                       new Object[]{payments, size});
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to write payment columns: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * True if the store holds this history: same payment count, last id and
+     * ticket, F&B and revenue totals.
+     */
+    public boolean matches(List<Payment> history) {
+        long tickets = 0;
+        long food = 0;
+        long revenue = 0;
+        for (Payment p : history) {
+            tickets += p.getTotalTicketPriceCents();
+            food += p.getTotalFoodPriceCents();
+            revenue += p.getTotalPriceCents();
+        }
+        int lastId = history.isEmpty() ? 0 : history.get(history.size() - 1).getPaymentID();
+        return matches(history.size(), lastId, tickets, food, revenue);
+    }
+
+    /**
+     * Same check from figures the caller already has, without building Payment objects.
+     */
+    public boolean matches(int paymentCount, int lastPaymentId, long ticketCents, long foodCents,
+                           long revenueCents) {
+        Snapshot s = snapshot;
+        if (s.payments != paymentCount) return false;
+        if (paymentCount == 0) return true;
+
+        return getLastPaymentId() == lastPaymentId
+            && s.totalTicketCents() == ticketCents
+            && s.totalFoodCents() == foodCents
+            && s.totalRevenueCents() == revenueCents;
+    }
+
+    private void appendRows(Payment payment) {
+        long food = payment.getTotalFoodPriceCents();
+        long total = payment.getTotalPriceCents();
+        boolean first = true;
+
+        for (Ticket t : payment.getTicket()) {
+            if (t == null) continue;
+            int day = (t.getShowtime() != null) ? (int) t.getSchedule().toEpochDay() : 0;
+            String hallType = (t.getCinemaHall() != null) ? t.getHallType() : "";
+            addRow(payment.getPaymentID(), day, movieCode(t.getMovieName()), hallCode(hallType),
+                   t.getTicketAmt(), t.getTotalPriceCents(), first ? food : 0, first ? total : 0);
+            first = false;
+        }
+        if (first) {
+            // F&B-only (or empty) payment still needs a row for its totals
+            addRow(payment.getPaymentID(), 0, NO_MOVIE, hallCode(""), 0, 0, food, total);
+        }
+        payments++;
+    }
+
+    private void addRow(int id, int day, int movieCode, int hallCode, int seatCount,
+                        long ticket, long fb, long total) {
+        if (size == paymentId.length) {
+            grow();
+        }
+        paymentId[size] = id;
+        epochDay[size] = day;
+        movie[size] = movieCode;
+        hall[size] = (byte) hallCode;
+        seats[size] = seatCount;
+        ticketCents[size] = ticket;
+        fbCents[size] = fb;
+        totalCents[size] = total;
+        size++;
+    }
+
+    /**
+     * Arrays are only replaced on growth, so earlier snapshots keep reading
+     * their own copies while new rows are written past their size.
+     */
+    private void grow() {
+        int capacity = paymentId.length * 2;
+        paymentId = Arrays.copyOf(paymentId, capacity);
+        epochDay = Arrays.copyOf(epochDay, capacity);
+        movie = Arrays.copyOf(movie, capacity);
+        hall = Arrays.copyOf(hall, capacity);
+        seats = Arrays.copyOf(seats, capacity);
+        ticketCents = Arrays.copyOf(ticketCents, capacity);
+        fbCents = Arrays.copyOf(fbCents, capacity);
+        totalCents = Arrays.copyOf(totalCents, capacity);
+    }
+
+    private void clearColumns() {
+        paymentId = new int[INITIAL_CAPACITY];
+        epochDay = new int[INITIAL_CAPACITY];
+        movie = new int[INITIAL_CAPACITY];
+        hall = new byte[INITIAL_CAPACITY];
+        seats = new int[INITIAL_CAPACITY];
+        ticketCents = new long[INITIAL_CAPACITY];
+        fbCents = new long[INITIAL_CAPACITY];
+        totalCents = new long[INITIAL_CAPACITY];
+        size = 0;
+        payments = 0;
+        movieNames.clear();
+        movieCodes.clear();
+        hallTypes.clear();
+        hallCodes.clear();
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(this);
+    }
+
+    private int movieCode(String name) {
+        if (name == null) return NO_MOVIE;
+        return movieCodes.computeIfAbsent(name, n -> {
+            movieNames.add(n);
+            return movieNames.size() - 1;
+        });
+    }
+
+    private int hallCode(String type) {
+        Integer code = hallCodes.get(type);
+        if (code == null) {
+            if (hallTypes.size() > Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many hall types for the column store");
+            }
+            code = hallTypes.size();
+            hallTypes.add(type);
+            hallCodes.put(type, code);
+        }
+        return code;
+    }
+
+    // === PERSISTENCE ===
+
+    private void writeRows(int from, int to, boolean append) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create column store directory " + dir);
+        }
+        try (DataOutputStream ids = open(PAYMENT_ID_COL, append);
+             DataOutputStream days = open(DATE_COL, append);
+             DataOutputStream movies = open(MOVIE_COL, append);
+             DataOutputStream halls = open(HALL_COL, append);
+             DataOutputStream seatCounts = open(SEATS_COL, append);
+             DataOutputStream tickets = open(TICKET_COL, append);
+             DataOutputStream fb = open(FB_COL, append);
+             DataOutputStream totals = open(TOTAL_COL, append)) {
+            for (int i = from; i < to; i++) {
+                ids.writeInt(paymentId[i]);
+                days.writeInt(epochDay[i]);
+                movies.writeInt(movie[i]);
+                halls.writeByte(hall[i]);
+                seatCounts.writeInt(seats[i]);
+                tickets.writeLong(ticketCents[i]);
+                fb.writeLong(fbCents[i]);
+                totals.writeLong(totalCents[i]);
+            }
+        }
+    }
+
+    private DataOutputStream open(String column, boolean append) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(new File(dir, column), append), 64 * 1024));
+    }
+
+    private void writeDictionary(String name, List<String> values, int from, boolean append)
+            throws IOException {
+        if (append && from == values.size()) return;
+        try (PrintWriter out = new PrintWriter(
+                new FileWriter(new File(dir, name), StandardCharsets.UTF_8, append))) {
+            for (int i = from; i < values.size(); i++) {
+                out.println(values.get(i));
+            }
+        }
+    }
+
+    private synchronized void load() {
+        File ids = new File(dir, PAYMENT_ID_COL);
+        if (!ids.exists()) {
+            return;
+        }
+        try {
+            readDictionary(MOVIE_DICT, movieNames, movieCodes);
+            readDictionary(HALL_DICT, hallTypes, hallCodes);
+
+            // A torn append leaves columns of different lengths: keep the common prefix
+            long rows = Long.MAX_VALUE;
+            String[] columns = {PAYMENT_ID_COL, DATE_COL, MOVIE_COL, HALL_COL, SEATS_COL, TICKET_COL, FB_COL, TOTAL_COL};
+            int[] widths = {4, 4, 4, 1, 4, 8, 8, 8};
+            for (int c = 0; c < columns.length; c++) {
+                rows = Math.min(rows, new File(dir, columns[c]).length() / widths[c]);
+            }
+            int rowCount = Math.toIntExact(rows);
+            int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, rowCount)) * 2);
+            paymentId = readInts(PAYMENT_ID_COL, rowCount, capacity);
+            epochDay = readInts(DATE_COL, rowCount, capacity);
+            movie = readInts(MOVIE_COL, rowCount, capacity);
+            hall = readBytes(HALL_COL, rowCount, capacity);
+            seats = readInts(SEATS_COL, rowCount, capacity);
+            ticketCents = readLongs(TICKET_COL, rowCount, capacity);
+            fbCents = readLongs(FB_COL, rowCount, capacity);
+            totalCents = readLongs(TOTAL_COL, rowCount, capacity);
+            size = rowCount;
+
+            payments = 0;
+            for (int i = 0; i < size; i++) {
+                if (movie[i] >= movieNames.size() || movie[i] < NO_MOVIE || hall[i] < 0 || hall[i] >= hallTypes.size()) {
+                    throw new IllegalStateException("Dictionary code out of range at row " + i);
+                }
+                if (i == 0 || paymentId[i] != paymentId[i - 1]) payments++;
+            }
+            publish();
+            logger.log(Level.INFO, "Loaded payment column store: {0} payments, {1} rows",
+                       new Object[]{payments, size});
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Payment column store unreadable, will rebuild: {0}", e.getMessage());
+            clearColumns();
+            publish();
+        }
+    }
+
+    private void readDictionary(String name, List<String> values, Map<String, Integer> codes)
+            throws IOException {
+        File f = new File(dir, name);
+        if (!f.exists()) return;
+        try (BufferedReader in = new BufferedReader(new FileReader(f, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                codes.put(line, values.size());
+                values.add(line);
+            }
+        }
+    }
+
+    private DataInputStream openForRead(String column) throws IOException {
+        return new DataInputStream(new BufferedInputStream(
+            new FileInputStream(new File(dir, column)), 64 * 1024));
+    }
+
+    private int[] readInts(String column, int rows, int capacity) throws IOException {
+        int[] values = new int[capacity];
+        try (DataInputStream in = openForRead(column)) {
+            for (int i = 0; i < rows; i++) values[i] = in.readInt();
+        } catch (EOFException e) {
+            throw new IOException("Column " + column + " is truncated", e);
+        }
+        return values;
+    }
+
+    private byte[] readBytes(String column, int rows, int capacity) throws IOException {
+        byte[] values = new byte[capacity];
+        try (DataInputStream in = openForRead(column)) {
+            in.readFully(values, 0, rows);
+        }
+        return values;
+    }
+
+    private long[] readLongs(String column, int rows, int capacity) throws IOException {
+        long[] values = new long[capacity];
+        try (DataInputStream in = openForRead(column)) {
+            for (int i = 0; i < rows; i++) values[i] = in.readLong();
+        } catch (EOFException e) {
+            throw new IOException("Column " + column + " is truncated", e);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,42 @@
+package infrastructure.repositories;
+
+import domain.Payment;
+
+import java.util.List;
+
+/**
+ * One page of payment history and the cursor to fetch the next one.
+ *
+ * Cursors are positions in the append-only history, so paging stays correct
+ * while new payments are saved: later pages simply pick them up at the end.
+ */
+public final class PaymentPage {
+
+    /** Cursor for the first page. */
+    public static final int FIRST = 0;
+    /** Next cursor of the last page. */
+    public static final int END = -1;
+
+    private final List<Payment> payments;
+    private final int nextCursor;
+
+    PaymentPage(List<Payment> payments, int nextCursor) {
+        this.payments = payments;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * The payments on this page, in history order (read-only).
+     */
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != END;
+    }
+}
@@ -0,0 +1,63 @@
+package infrastructure.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Filter for browsing the payment history. Immutable; each with-method returns
+ * a narrowed copy, so a query can be kept and re-run page after page.
+ *
+ * The history records show dates, not purchase dates, so the date range
+ * matches payments with at least one ticket for a showing in the range.
+ */
+public final class PaymentQuery {
+
+    private static final PaymentQuery ALL = new PaymentQuery(null, null, null);
+
+    private final String customerName; // null = any customer
+    private final LocalDate from;       // null = open start
+    private final LocalDate to;         // null = open end
+
+    private PaymentQuery(String customerName, LocalDate from, LocalDate to) {
+        this.customerName = customerName;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static PaymentQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Only payments by this customer name (case-insensitive; "Guest" for walk-ins).
+     * A null or blank name removes the filter.
+     */
+    public PaymentQuery withCustomer(String name) {
+        return new PaymentQuery((name == null || name.isBlank()) ? null : name, from, to);
+    }
+
+    /**
+     * Only payments with a showing between the dates, inclusive. Either end may be null.
+     */
+    public PaymentQuery withShowDates(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date " + from + " is after end date " + to);
+        }
+        return new PaymentQuery(customerName, from, to);
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    boolean hasDateRange() {
+        return from != null || to != null;
+    }
+}
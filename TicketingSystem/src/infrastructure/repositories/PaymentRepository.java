@@ -1,147 +1,473 @@
 package infrastructure.repositories;
 
+import application.monitoring.Metrics;
+import application.monitoring.PaymentPersistEvent;
 import application.utilities.LoggerSetup;
 import domain.Customer;
 import domain.Food;
 import domain.Payment;
 import domain.Ticket;
-import domain.Movie; 
 import domain.Showtime;
-import domain.CinemaHall;
 import domain.Seat;
+import domain.valueobjects.Money;
 import domain.valueobjects.SeatId;
-import domain.Popcorn;
 import domain.Beverage;
 import domain.HotFood;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class PaymentRepository {
     private static final String DEFAULT_PAYMENT_FILE = "payment_history.json";
+    private static final String DEFAULT_COLUMN_DIR = "payment_columns";
     private static final Logger logger = LoggerSetup.getLogger();
     
     private final String paymentFile;
-    private ArrayList<Payment> paymentHistory;
+    // Payments live packed; Payment objects are materialized per request. Guarded by this.
+    private final CompactPaymentHistory history = new CompactPaymentHistory();
+    private volatile int paymentCount;
+    private final PaymentColumnStore columnStore; // null when analytics columns are disabled
+    private final CatalogInterner interner;
+    private int maxLoadedPaymentId;
+    private int maxLoadedTicketId;
+    
+    // Secondary indexes, guarded by this. Values are history rows (legacy files
+    // may repeat a payment ID; the last row wins), in history order.
+    private final Map<Integer, Integer> rowsById = new HashMap<>();
+    private final Map<String, Rows> rowsByCustomer = new HashMap<>();
+    private final Map<String, Rows> rowsByMovie = new HashMap<>();
+    private final Map<LocalDate, Rows> rowsByShowDate = new HashMap<>();
+    private final Map<Integer, Integer> refundRowsByOriginal = new HashMap<>();
     
     // Default constructor for production
     public PaymentRepository() {
-        this(DEFAULT_PAYMENT_FILE);
+        this(DEFAULT_PAYMENT_FILE, DEFAULT_COLUMN_DIR);
+    }
+    
+    // Production constructor sharing the loaded catalog
+    public PaymentRepository(CatalogInterner interner) {
+        this(DEFAULT_PAYMENT_FILE, DEFAULT_COLUMN_DIR, interner);
     }
     
     // Constructor for testing with custom file
     public PaymentRepository(String paymentFile) {
+        this(paymentFile, null);
+    }
+    
+    /**
+     * @param columnDir directory of the columnar analytics store, or null to disable it
+     */
+    public PaymentRepository(String paymentFile, String columnDir) {
+        this(paymentFile, columnDir, new CatalogInterner());
+    }
+    
+    /**
+     * @param interner resolves movies, halls and showtimes in the history to shared catalog instances
+     */
+    public PaymentRepository(String paymentFile, String columnDir, CatalogInterner interner) {
         this.paymentFile = paymentFile;
-        this.paymentHistory = loadPayments();
+        this.interner = interner;
+        loadPayments();
         syncPaymentIds();
+        rebuildIndexes();
+        this.columnStore = (columnDir != null) ? openColumnStore(columnDir) : null;
         logger.log(Level.INFO, "PaymentRepository initialized with {0} existing payments.", 
-                   this.paymentHistory.size());
+                   paymentCount);
+    }
+    
+    private PaymentColumnStore openColumnStore(String columnDir) {
+        PaymentColumnStore store = new PaymentColumnStore(columnDir);
+        // The JSON history is the source of truth; rebuild the columns if they drifted.
+        // Compared on the packed rows, and rebuilt one materialized payment at a time,
+        // so startup never holds the whole history as objects
+        long tickets = 0;
+        long food = 0;
+        long revenue = 0;
+        for (int row = 0; row < history.size(); row++) {
+            for (int t = history.ticketStart(row); t < history.ticketEnd(row); t++) {
+                tickets += history.ticketCents(t);
+            }
+            for (int f = history.foodStart(row); f < history.foodEnd(row); f++) {
+                food += history.foodCents(f);
+            }
+            revenue += history.totalCents(row);
+        }
+        int lastId = (history.size() == 0) ? 0 : history.paymentId(history.size() - 1);
+        if (!store.matches(history.size(), lastId, tickets, food, revenue)) {
+            store.rebuild(() -> IntStream.range(0, history.size())
+                .mapToObj(row -> history.materialize(row, interner))
+                .iterator());
+        }
+        return store;
+    }
+    
+    /**
+     * Columnar view of the history for analytics, or null if disabled.
+     */
+    public PaymentColumnStore getColumnStore() {
+        return columnStore;
     }
     
     private void syncPaymentIds() {
         int maxId = 0;
-        for (Payment p : paymentHistory) {
-            if (p.getPaymentID() > maxId) maxId = p.getPaymentID();
+        for (int row = 0; row < history.size(); row++) {
+            maxId = Math.max(maxId, history.paymentId(row));
         }
+        maxLoadedPaymentId = maxId;
         Payment.setLastID(maxId);
+
+        // Lines written before ticket IDs were recorded drew them from a counter
+        // starting at 1, so start no lower than the number of tickets on file
+        int ticketCount = (history.size() == 0) ? 0 : history.ticketEnd(history.size() - 1);
+        int maxTicketId = ticketCount;
+        for (int t = 0; t < ticketCount; t++) {
+            maxTicketId = Math.max(maxTicketId, history.ticketId(t));
+        }
+        maxLoadedTicketId = maxTicketId;
+    }
+    
+    // --- SECONDARY INDEXES ---
+    
+    private synchronized void rebuildIndexes() {
+        rowsById.clear();
+        rowsByCustomer.clear();
+        rowsByMovie.clear();
+        rowsByShowDate.clear();
+        refundRowsByOriginal.clear();
+        for (int row = 0; row < history.size(); row++) {
+            index(row);
+        }
+    }
+    
+    // Caller holds this
+    private void index(int row) {
+        rowsById.put(history.paymentId(row), row);
+        if (history.refundOf(row) != 0) {
+            refundRowsByOriginal.put(history.refundOf(row), row);
+        }
+        rowsByCustomer.computeIfAbsent(key(history.customerName(row)), k -> new Rows()).add(row);
+        
+        // A payment with two tickets for one movie or date is listed once
+        for (int t = history.ticketStart(row); t < history.ticketEnd(row); t++) {
+            rowsByMovie.computeIfAbsent(key(history.movieName(t)), k -> new Rows()).addOnce(row);
+            rowsByShowDate.computeIfAbsent(history.showDate(t), k -> new Rows()).addOnce(row);
+        }
+    }
+    
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Growable int list of history rows, kept in ascending order.
+     */
+    private static final class Rows {
+        private int[] rows = new int[4];
+        private int size;
+        
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+        
+        // Rows arrive in order, so a repeat can only be the last one
+        void addOnce(int row) {
+            if (size == 0 || rows[size - 1] != row) {
+                add(row);
+            }
+        }
+    }
+    
+    // Caller holds this
+    private Payment materialize(Integer row) {
+        return (row == null) ? null : history.materialize(row, interner);
+    }
+    
+    // Caller holds this
+    private List<Payment> materialize(Rows rows) {
+        if (rows == null) {
+            return List.of();
+        }
+        List<Payment> result = new ArrayList<>(rows.size);
+        for (int i = 0; i < rows.size; i++) {
+            result.add(history.materialize(rows.rows[i], interner));
+        }
+        return List.copyOf(result);
+    }
+    
+    public synchronized Optional<Payment> findById(int paymentId) {
+        return Optional.ofNullable(materialize(rowsById.get(paymentId)));
+    }
+    
+    /**
+     * The refund record for a payment, if it has been refunded.
+     */
+    public synchronized Optional<Payment> findRefundFor(int paymentId) {
+        return Optional.ofNullable(materialize(refundRowsByOriginal.get(paymentId)));
+    }
+    
+    /**
+     * Payments by a customer name (case-insensitive; "Guest" for walk-ins).
+     * The history file stores names, not customer IDs.
+     */
+    public synchronized List<Payment> findByCustomer(String customerName) {
+        return materialize(rowsByCustomer.get(key(customerName)));
+    }
+    
+    public synchronized List<Payment> findByMovie(String movieName) {
+        return materialize(rowsByMovie.get(key(movieName)));
+    }
+    
+    public synchronized List<Payment> findByShowDate(LocalDate date) {
+        return materialize(rowsByShowDate.get(date));
+    }
+    
+    /**
+     * Payments with a ticket for one showing: walks the smaller of the movie and
+     * date postings and checks their packed tickets, materializing only matches.
+     */
+    public synchronized List<Payment> findByShowing(String movieName, LocalDate date, String time) {
+        Rows byMovie = rowsByMovie.get(key(movieName));
+        Rows byDate = rowsByShowDate.get(date);
+        if (byMovie == null || byDate == null) {
+            return List.of();
+        }
+        Rows candidates = byMovie.size <= byDate.size ? byMovie : byDate;
+        
+        List<Payment> result = new ArrayList<>();
+        for (int i = 0; i < candidates.size; i++) {
+            int row = candidates.rows[i];
+            for (int t = history.ticketStart(row); t < history.ticketEnd(row); t++) {
+                if (key(history.movieName(t)).equals(key(movieName)) && history.showDate(t).equals(date)
+                        && (time == null || time.equals(history.showTime(t)))) {
+                    result.add(history.materialize(row, interner));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    // --- PAGING AND STREAMING ---
+    
+    /**
+     * Up to pageSize matching payments starting at cursor (PaymentPage.FIRST for
+     * the first page, then the previous page's next cursor). Only the returned
+     * payments are materialized.
+     */
+    public synchronized PaymentPage findPage(PaymentQuery query, int cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        List<Payment> page = new ArrayList<>(Math.min(pageSize, 256));
+        int row = nextMatch(query, cursor, history.size());
+        while (row >= 0 && page.size() < pageSize) {
+            page.add(history.materialize(row, interner));
+            row = nextMatch(query, row + 1, history.size());
+        }
+        return new PaymentPage(List.copyOf(page), row >= 0 ? row : PaymentPage.END);
+    }
+    
+    /**
+     * Matching payments in history order, materialized one at a time as the
+     * stream is consumed. The stream covers the history as it was when this was
+     * called; the lock is only held while finding and building each element.
+     */
+    public Stream<Payment> stream(PaymentQuery query) {
+        return stream(query, PaymentPage.FIRST);
+    }
+    
+    /**
+     * Same, starting at a cursor: stream(PaymentQuery.all(), n) yields only the
+     * payments saved after the first n, which lets callers catch up incrementally.
+     */
+    public Stream<Payment> stream(PaymentQuery query, int fromCursor) {
+        if (fromCursor < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + fromCursor);
+        }
+        int end;
+        synchronized (this) {
+            end = history.size();
+        }
+        Spliterator<Payment> rows = new Spliterators.AbstractSpliterator<Payment>(
+                Math.max(0, end - fromCursor), Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int cursor = fromCursor;
+            
+            @Override
+            public boolean tryAdvance(Consumer<? super Payment> action) {
+                Payment next;
+                synchronized (PaymentRepository.this) {
+                    int row = nextMatch(query, cursor, end);
+                    if (row < 0) {
+                        cursor = end;
+                        return false;
+                    }
+                    cursor = row + 1;
+                    next = history.materialize(row, interner);
+                }
+                action.accept(next);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false);
+    }
+    
+    // Caller holds this. First row in [from, end) matching the query, or -1.
+    private int nextMatch(PaymentQuery query, int from, int end) {
+        if (query.getCustomerName() != null) {
+            // Walk the customer's postings instead of the whole history
+            Rows postings = rowsByCustomer.get(key(query.getCustomerName()));
+            if (postings == null) {
+                return -1;
+            }
+            int i = Arrays.binarySearch(postings.rows, 0, postings.size, from);
+            for (i = (i >= 0) ? i : -i - 1; i < postings.size && postings.rows[i] < end; i++) {
+                if (matchesDates(postings.rows[i], query)) {
+                    return postings.rows[i];
+                }
+            }
+            return -1;
+        }
+        for (int row = from; row < end; row++) {
+            if (matchesDates(row, query)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+    
+    // Caller holds this
+    private boolean matchesDates(int row, PaymentQuery query) {
+        if (!query.hasDateRange()) {
+            return true;
+        }
+        long lo = (query.getFrom() != null) ? query.getFrom().toEpochDay() : Long.MIN_VALUE;
+        long hi = (query.getTo() != null) ? query.getTo().toEpochDay() : Long.MAX_VALUE;
+        for (int t = history.ticketStart(row); t < history.ticketEnd(row); t++) {
+            int day = history.epochDay(t);
+            if (day >= lo && day <= hi) {
+                return true;
+            }
+        }
+        return false;
     }
     
     // --- LOAD LOGIC ---
-    private ArrayList<Payment> loadPayments() {
+    private synchronized void loadPayments() {
         List<String> jsonLines = DataFileHandler.loadFromJsonFile(paymentFile);
-        ArrayList<Payment> payments = new ArrayList<>();
         for (String line : jsonLines) {
             if (line.trim().startsWith("{")) {
-                Payment p = parsePaymentFromJson(line);
-                if (p != null) payments.add(p);
+                parsePaymentFromJson(line);
             }
         }
-        return payments;
+        paymentCount = history.size();
     }
     
-    private Payment parsePaymentFromJson(String json) {
+    /**
+     * Packs one history line straight into the compact store, without building
+     * Payment objects. A line that fails part-way is rolled back.
+     */
+    private void parsePaymentFromJson(String json) {
+        int row = -1;
         try {
             int paymentId = extractInt(json, "paymentId");
-            double totalAmount = extractDouble(json, "totalAmount");
+            long totalCents = extractCents(json, "totalAmount");
             String custName = extractString(json, "customerName");
-            Customer historyCustomer = new Customer(custName, "");
-            
-            // --- 1. RECONSTRUCT TICKETS WITH REAL DATA ---
-            ArrayList<Ticket> tickets = new ArrayList<>();
-            String ticketArray = extractArrayString(json, "tickets");
-            List<String> ticketObjs = splitObjects(ticketArray);
+            int refundOf = extractInt(json, "refundOf");
+            row = history.beginPayment(paymentId, Optional.of(custName), refundOf, totalCents);
             
-            for (String tJson : ticketObjs) {
-                String movieName = extractString(tJson, "movieName");
-                String dateStr = extractString(tJson, "date");
-                String timeStr = extractString(tJson, "time");
-                String hallType = extractString(tJson, "hall");
+            for (String tJson : splitObjects(extractArrayString(json, "tickets"))) {
                 String seatStr = extractString(tJson, "seats");
-                double price = extractDouble(tJson, "price");
-                
-                Movie m = new Movie(0, movieName, 0, "", "");
-                CinemaHall hall = new CinemaHall(0, hallType, 0, 0);
-                
-                String[] dateParts = dateStr.split("-");
-                int year = Integer.parseInt(dateParts[0]);
-                int month = Integer.parseInt(dateParts[1]);
-                int day = Integer.parseInt(dateParts[2]);
-                
-                Showtime s = new Showtime(m, year, month, day, timeStr, hall);
-                
-                ArrayList<Seat> seatList = new ArrayList<>();
+                List<SeatId> seats = new ArrayList<>();
                 if (!seatStr.isEmpty()) {
-                    String[] ids = seatStr.split(",");
-                    for (String id : ids) {
-                        char row = id.charAt(0);
-                        int col = Integer.parseInt(id.substring(1));
-                        seatList.add(new Seat(new SeatId(row, col), "Single", "Sold", hall));
+                    for (String id : seatStr.split(",")) {
+                        seats.add(SeatId.parse(id));
                     }
                 }
-                
-                Ticket t = new Ticket(s, seatList.size(), hall, seatList);
-                tickets.add(t);
+                history.addTicket(extractInt(tJson, "ticketId"), // 0 in lines written before IDs were recorded
+                                  extractString(tJson, "movieName"),
+                                  LocalDate.parse(extractString(tJson, "date")),
+                                  extractString(tJson, "time"),
+                                  extractInt(tJson, "hallId"), // 0 in files written before refunds existed
+                                  extractString(tJson, "hall"),
+                                  seats,
+                                  extractCents(tJson, "price"));
             }
             
-            // --- 2. RECONSTRUCT FOOD ---
-            ArrayList<Food> foods = new ArrayList<>();
-            String foodArray = extractArrayString(json, "food");
-            List<String> foodObjs = splitObjects(foodArray);
-            
-            for (String fJson : foodObjs) {
-                String name = extractString(fJson, "name");
-                int qty = extractInt(fJson, "qty");
-                double price = extractDouble(fJson, "price");
-                
-                Food f = new Popcorn();
-                f.setName(name);
-                f.setQty(qty);
-                f.setPrice(price); 
-                foods.add(f);
+            for (String fJson : splitObjects(extractArrayString(json, "food"))) {
+                history.addFood(extractString(fJson, "name"), extractInt(fJson, "qty"), extractCents(fJson, "price"));
             }
-
-            Payment payment = new Payment(Optional.of(historyCustomer), tickets, foods, totalAmount, true);
-            payment.setPaymentID(paymentId);
-            return payment;
             
         } catch (Exception e) {
+            if (row >= 0) {
+                history.truncate(row);
+            }
             logger.log(Level.SEVERE, "Failed to parse payment: {0}", e.getMessage());
-            return null;
         }
     }
 
     // --- SAVE LOGIC ---
     public void savePayment(Payment payment) {
-        paymentHistory.add(payment);
-        List<String> lines = new ArrayList<>();
-        for (Payment p : paymentHistory) {
-            lines.add(paymentToJsonString(p));
+        PaymentPersistEvent event = new PaymentPersistEvent();
+        event.begin();
+        long start = Metrics.PAYMENT_SAVE.start();
+        try {
+            persistPayment(payment);
+            Metrics.PAYMENT_SAVE.stop(start);
+        } catch (RuntimeException e) {
+            Metrics.PAYMENT_SAVE.failed(start);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.paymentId = payment.getPaymentID();
+                event.recordCount = paymentCount;
+                event.bytes = new File(paymentFile).length();
+                event.commit();
+            }
+        }
+    }
+    
+    // Synchronized: the history list, indexes and file must move together.
+    // The file is one payment per line, so a save appends instead of rewriting it.
+    private synchronized void persistPayment(Payment payment) {
+        if (payment.isRefund() && refundRowsByOriginal.containsKey(payment.getRefundOf())) {
+            throw new IllegalStateException("Payment " + payment.getRefundOf() + " has already been refunded");
+        }
+        // On disk first: a payment that failed to write must not show up in memory
+        if (!DataFileHandler.appendToJsonFile(paymentToJsonString(payment), paymentFile)) {
+            throw new UncheckedIOException(new IOException("Failed to append payment "
+                + payment.getPaymentID() + " to " + paymentFile));
+        }
+        index(history.append(payment));
+        paymentCount = history.size();
+        
+        if (columnStore != null) {
+            columnStore.append(payment);
         }
-        DataFileHandler.saveToJsonFile(lines, paymentFile);
     }
     
     private String paymentToJsonString(Payment p) {
@@ -149,7 +475,10 @@ public class PaymentRepository {
         sb.append("{");
         sb.append("\"paymentId\":").append(p.getPaymentID()).append(",");
         sb.append("\"customerName\":\"").append(p.getCustomer().map(Customer::getName).orElse("Guest")).append("\",");
-        sb.append("\"totalAmount\":").append(p.getTotalPrice()).append(",");
+        if (p.isRefund()) {
+            sb.append("\"refundOf\":").append(p.getRefundOf()).append(",");
+        }
+        Money.appendTo(sb.append("\"totalAmount\":"), p.getTotalPriceCents()).append(",");
         
         sb.append("\"tickets\":[");
         ArrayList<Ticket> tickets = p.getTicket();
@@ -158,10 +487,12 @@ public class PaymentRepository {
             Showtime s = t.getShowtime();
             
             sb.append("{");
+            sb.append("\"ticketId\":").append(t.getTicketID()).append(",");
             sb.append("\"movieName\":\"").append(t.getMovieName()).append("\",");
             sb.append("\"date\":\"").append(s.getDate().toString()).append("\",");
             sb.append("\"time\":\"").append(s.time()).append("\",");
             sb.append("\"hall\":\"").append(t.getHallType()).append("\",");
+            sb.append("\"hallId\":").append(t.getHallId()).append(",");
             
             sb.append("\"seats\":\"");
             ArrayList<Seat> seats = t.getSeat();
@@ -171,7 +502,7 @@ public class PaymentRepository {
             }
             sb.append("\",");
             
-            sb.append("\"price\":").append(t.getTotalPrice());
+            Money.appendTo(sb.append("\"price\":"), t.getTotalPriceCents());
             sb.append("}");
             if (i < tickets.size() - 1) sb.append(",");
         }
@@ -184,7 +515,7 @@ public class PaymentRepository {
             sb.append("{");
             sb.append("\"name\":\"").append(f.getName()).append("\",");
             sb.append("\"qty\":").append(f.getQty()).append(",");
-            sb.append("\"price\":").append(f.getPrice());
+            Money.appendTo(sb.append("\"price\":"), f.getPriceCents());
             sb.append("}");
             if (i < foods.size() - 1) sb.append(",");
         }
@@ -194,8 +525,46 @@ public class PaymentRepository {
         return sb.toString();
     }
     
-    public ArrayList<Payment> getAllPayments() {
-        return new ArrayList<>(paymentHistory);
+    /**
+     * Materializes the whole history. Prefer the find methods or the column store:
+     * this builds every Payment object afresh on each call.
+     */
+    public synchronized ArrayList<Payment> getAllPayments() {
+        ArrayList<Payment> all = new ArrayList<>(history.size());
+        for (int row = 0; row < history.size(); row++) {
+            all.add(history.materialize(row, interner));
+        }
+        return all;
+    }
+    
+    /**
+     * Number of payments in the history (cheap; used by the monitoring gauges)
+     */
+    public int getPaymentCount() {
+        return paymentCount;
+    }
+    
+    /**
+     * ID of the newest payment in the history (0 when empty). Refunds are payments
+     * too, so any new sale or refund moves it.
+     */
+    public synchronized int getLastPaymentId() {
+        int size = history.size();
+        return (size == 0) ? 0 : history.paymentId(size - 1);
+    }
+    
+    /**
+     * Highest payment ID found in the history file at startup; seeds a new IdAllocator sequence.
+     */
+    public int getMaxLoadedPaymentId() {
+        return maxLoadedPaymentId;
+    }
+
+    /**
+     * Highest ticket ID the history at startup may contain; seeds a new IdAllocator sequence.
+     */
+    public int getMaxLoadedTicketId() {
+        return maxLoadedTicketId;
     }
 
     // --- PARSING HELPERS (Standard) ---
@@ -213,9 +582,10 @@ public class PaymentRepository {
         return val.isEmpty() ? 0 : Integer.parseInt(val);
     }
     
-    private double extractDouble(String json, String key) {
+    // Amounts go straight from text to cents, never through a double
+    private long extractCents(String json, String key) {
         String val = extractValue(json, key);
-        return val.isEmpty() ? 0.0 : Double.parseDouble(val);
+        return val.isEmpty() ? 0L : Money.parse(val);
     }
     
     private String extractValue(String json, String key) {
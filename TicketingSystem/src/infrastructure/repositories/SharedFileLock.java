@@ -0,0 +1,96 @@
+package infrastructure.repositories;
+
+import application.utilities.LoggerSetup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Exclusive lock on a data file shared by several JVMs (e.g. box-office terminals
+ * on one machine).
+ *
+ * The OS lock is taken on a sidecar "&lt;file&gt;.lock" rather than the data file itself,
+ * because the data file is replaced by an atomic rename on every save. OS file locks
+ * are held per process, so threads of this JVM first queue on an in-process lock for
+ * the same path; otherwise a second channel would fail with OverlappingFileLockException.
+ */
+final class SharedFileLock {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    static final String LOCK_SUFFIX = ".lock";
+
+    // One in-process lock per canonical data file, shared by every repository instance
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final ReentrantLock processLock;
+
+    SharedFileLock(String dataFile) {
+        Path path = Path.of(dataFile).toAbsolutePath().normalize();
+        this.lockFile = Path.of(path + LOCK_SUFFIX);
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(path, p -> new ReentrantLock());
+    }
+
+    /**
+     * Held lock; closing it releases the OS lock and then the in-process lock.
+     */
+    final class Held implements AutoCloseable {
+        private final FileChannel channel;
+        private final FileLock fileLock;
+
+        private Held(FileChannel channel, FileLock fileLock) {
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+
+        @Override
+        public void close() {
+            try {
+                fileLock.release();
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Failed to release file lock " + lockFile + ": " + e.getMessage());
+            } finally {
+                processLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Blocks until this thread holds the file exclusively across threads and processes.
+     *
+     * @throws UncheckedIOException if the lock file cannot be opened or locked
+     */
+    Held acquire() {
+        processLock.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            return new Held(channel, channel.lock());
+        } catch (IOException e) {
+            closeQuietly(channel);
+            processLock.unlock();
+            throw new UncheckedIOException("Cannot lock " + lockFile, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            processLock.unlock();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already failing; the original error is more useful
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package presentation.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON helpers for the booking API, in the same hand-rolled spirit as
+ * the repositories. Request bodies are flat objects whose values are strings,
+ * numbers, booleans, null or arrays of those.
+ */
+final class ApiJson {
+
+    private ApiJson() {
+        // Prevent instantiation
+    }
+
+    // === WRITING ===
+
+    static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    // === PARSING ===
+
+    /**
+     * Parses a flat JSON object.
+     *
+     * @throws IllegalArgumentException if the body is not a flat object
+     */
+    static Map<String, Object> parseObject(String json) {
+        Parser p = new Parser(json == null ? "" : json);
+        Map<String, Object> result = p.object();
+        p.skipWhitespace();
+        if (!p.atEnd()) {
+            throw new IllegalArgumentException("Unexpected content after JSON object");
+        }
+        return result;
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        boolean atEnd() {
+            return pos >= s.length();
+        }
+
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        void expect(char c) {
+            skipWhitespace();
+            if (pos >= s.length() || s.charAt(pos) != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at position " + pos);
+            }
+            pos++;
+        }
+
+        boolean peek(char c) {
+            skipWhitespace();
+            return pos < s.length() && s.charAt(pos) == c;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            expect('{');
+            if (peek('}')) {
+                pos++;
+                return map;
+            }
+            do {
+                skipWhitespace();
+                String key = string();
+                expect(':');
+                map.put(key, value(true));
+            } while (consumeComma());
+            expect('}');
+            return map;
+        }
+
+        boolean consumeComma() {
+            if (peek(',')) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        Object value(boolean allowArray) {
+            skipWhitespace();
+            if (atEnd()) throw new IllegalArgumentException("Unexpected end of JSON");
+            char c = s.charAt(pos);
+            if (c == '"') return string();
+            if (c == '[' && allowArray) return array();
+            if (s.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (s.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (s.startsWith("null", pos)) { pos += 4; return null; }
+            return number();
+        }
+
+        List<Object> array() {
+            List<Object> list = new ArrayList<>();
+            expect('[');
+            if (peek(']')) {
+                pos++;
+                return list;
+            }
+            do {
+                list.add(value(false));
+            } while (consumeComma());
+            expect(']');
+            return list;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < s.length()) {
+                char c = s.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c == '\\' && pos < s.length()) {
+                    char e = s.charAt(pos++);
+                    switch (e) {
+                        case 'n': sb.append('\n'); break;
+                        case 'r': sb.append('\r'); break;
+                        case 't': sb.append('\t'); break;
+                        case 'u':
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                            pos += 4;
+                            break;
+                        default: sb.append(e);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+
+        Number number() {
+            int start = pos;
+            while (pos < s.length() && "+-.eE0123456789".indexOf(s.charAt(pos)) >= 0) pos++;
+            String token = s.substring(start, pos);
+            if (token.isEmpty()) {
+                throw new IllegalArgumentException("Unexpected character at position " + start);
+            }
+            if (token.contains(".") || token.contains("e") || token.contains("E")) {
+                return Double.parseDouble(token);
+            }
+            return Long.parseLong(token);
+        }
+    }
+}
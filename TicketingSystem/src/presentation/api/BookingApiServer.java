@@ -0,0 +1,678 @@
+package presentation.api;
+
+import application.dto.BookingRequest;
+import application.dto.BookingResult;
+import application.dto.PaymentRequest;
+import application.dto.PaymentResult;
+import application.services.AuthService;
+import application.services.BookingService;
+import application.services.CustomerService;
+import application.services.FoodService;
+import application.services.OtpService;
+import application.services.OutOfStockException;
+import application.services.PasswordService;
+import application.services.PaymentService;
+import application.services.ReportService;
+import application.utilities.LoggerSetup;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import domain.CinemaHall;
+import domain.Customer;
+import domain.Food;
+import domain.FoodOrderList;
+import domain.Movie;
+import domain.Payment;
+import domain.Seat;
+import domain.Showtime;
+import domain.Ticket;
+import domain.factory.FoodFactory;
+import domain.pricing.PriceTable;
+import domain.pricing.PricingEngine;
+import domain.valueobjects.Money;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.CartManager;
+import infrastructure.repositories.CatalogInterner;
+import infrastructure.repositories.ConfigWatcher;
+import infrastructure.repositories.FileMovieRepository;
+import infrastructure.repositories.FilePricingRuleRepository;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.FileShowtimeRepository;
+import infrastructure.repositories.IdAllocator;
+import infrastructure.repositories.PaymentRepository;
+import infrastructure.repositories.SeatUnavailableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless JSON HTTP API over the shared in-memory inventory, so many kiosks and
+ * counter terminals can sell from one box office process.
+ *
+ * Every request runs on its own virtual thread. Seat holds go through the same
+ * FileSeatRepository as the GUI, so kiosks and the desktop app never double sell.
+ *
+ * <pre>
+ *   GET    /api/movies                       GET  /api/halls
+ *   GET    /api/showtimes?movieId=1          GET  /api/menu?type=Popcorn
+ *   GET    /api/seats?movieId=&amp;date=&amp;time=&amp;hallId=
+ *   POST   /api/sessions      {"name":..,"password":..} or {} for a walk-in guest
+ *   DELETE /api/sessions      releases the session's seat holds
+ *   GET    /api/cart          POST /api/cart/tickets  {"movieId","date","time","hallId","seats":["A1"]}
+ *   DELETE /api/cart          POST /api/cart/food     {"type","name","qty"}
+ *   POST   /api/checkout      {"method":"Cash"} or {"method":"Bank Transfer","account":..}
+ *   GET    /api/reports/{sales|movies|food}   (text/plain)
+ * </pre>
+ * Session endpoints take the token from POST /api/sessions in an X-Session header.
+ */
+public class BookingApiServer {
+    private static final Logger logger = LoggerSetup.getLogger();
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final String SESSION_HEADER = "X-Session";
+
+    // Same slots the booking view offers
+    static final List<String> SHOW_TIMES = List.of(
+        "10:00 AM", "11:40 AM", "01:20 PM", "03:00 PM", "04:40 PM", "06:20 PM", "08:00 PM"
+    );
+    private static final List<String> FOOD_TYPES = List.of("Popcorn", "Beverage", "HotFood");
+
+    private final BookingService bookingService;
+    private final FileSeatRepository seatRepository;
+    private final CartManager cartManager;
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final ReportService reportService;
+    private final FoodService foodService;
+    private final AuthService authService;
+    private final CustomerService customerService;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * One kiosk or terminal: an optional signed-in customer plus its cart.
+     * Cart changes synchronize on the session.
+     */
+    private static final class Session {
+        final String token;
+        final Optional<Customer> customer;
+        final ArrayList<Ticket> tickets = new ArrayList<>();
+        final FoodOrderList food = new FoodOrderList();
+
+        Session(String token, Optional<Customer> customer) {
+            this.token = token;
+            this.customer = customer;
+        }
+    }
+
+    /** Error with an HTTP status, reported to the client as {"error": message}. */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public BookingApiServer(BookingService bookingService, FileSeatRepository seatRepository,
+                            CartManager cartManager, PaymentService paymentService,
+                            PaymentRepository paymentRepository, ReportService reportService,
+                            FoodService foodService, AuthService authService,
+                            CustomerService customerService) {
+        this.bookingService = bookingService;
+        this.seatRepository = seatRepository;
+        this.cartManager = cartManager;
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.reportService = reportService;
+        this.foodService = foodService;
+        this.authService = authService;
+        this.customerService = customerService;
+    }
+
+    /**
+     * Wires the production repositories (as CinemaApplication does) and serves until killed.
+     * Usage: Launcher --server [--port=8080]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        FileMovieRepository movieRepository = new FileMovieRepository();
+        FileShowtimeRepository showtimeRepository = new FileShowtimeRepository();
+        FileSeatRepository seatRepository = new FileSeatRepository();
+        FoodService foodService = new FoodService();
+        CatalogInterner catalog = new CatalogInterner(movieRepository.findAll(), showtimeRepository.getAllHalls());
+        PaymentRepository paymentRepository = new PaymentRepository(catalog);
+        PricingEngine.getDefault().setRules(new FilePricingRuleRepository().findAll());
+        PasswordService passwordService = new PasswordService();
+        CustomerService customerService = new CustomerService();
+        new IdAllocator().installDomainSequences(paymentRepository::getMaxLoadedPaymentId,
+                                                paymentRepository::getMaxLoadedTicketId);
+
+        BookingApiServer api = new BookingApiServer(
+            new BookingService(movieRepository, showtimeRepository, seatRepository),
+            seatRepository,
+            new CartManager(catalog),
+            new PaymentService(),
+            paymentRepository,
+            new ReportService(paymentRepository),
+            foodService,
+            new AuthService(passwordService, new OtpService()),
+            customerService
+        );
+        ConfigWatcher configWatcher = new ConfigWatcher(Path.of("."))
+            .watch("movies.json", movieRepository::reload)
+            .watch("halls.json", showtimeRepository::reloadHalls)
+            .watch("halls.json", seatRepository::reloadHalls)
+            .watch("beverage.json", foodService::reloadMenu)
+            .watch("popcorn.json", foodService::reloadMenu)
+            .watch("hotfood.json", foodService::reloadMenu);
+        configWatcher.start();
+        api.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            configWatcher.close();
+        }, "api-shutdown"));
+        logger.log(Level.INFO, "Booking API listening on port {0}", api.getPort());
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+        logger.log(Level.INFO, "Booking API started on port {0}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.close();
+            server = null;
+            logger.info("Booking API stopped.");
+        }
+    }
+
+    // ========== ROUTING ==========
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+
+            String route = method + " " + path;
+            switch (route) {
+                case "GET /api/movies": sendJson(ex, 200, movies()); break;
+                case "GET /api/halls": sendJson(ex, 200, halls()); break;
+                case "GET /api/showtimes": sendJson(ex, 200, showtimes(query)); break;
+                case "GET /api/seats": sendJson(ex, 200, seats(query)); break;
+                case "GET /api/menu": sendJson(ex, 200, menu(query)); break;
+                case "POST /api/sessions": sendJson(ex, 201, openSession(readBody(ex))); break;
+                case "DELETE /api/sessions": sendJson(ex, 200, closeSession(session(ex))); break;
+                case "GET /api/cart": sendJson(ex, 200, cartJson(session(ex))); break;
+                case "DELETE /api/cart": sendJson(ex, 200, clearCart(session(ex))); break;
+                case "POST /api/cart/tickets": sendJson(ex, 201, addTickets(session(ex), readBody(ex))); break;
+                case "POST /api/cart/food": sendJson(ex, 201, addFood(session(ex), readBody(ex))); break;
+                case "POST /api/checkout": sendJson(ex, 201, checkout(session(ex), readBody(ex))); break;
+                default:
+                    if (method.equals("GET") && path.startsWith("/api/reports/")) {
+                        sendText(ex, report(path.substring("/api/reports/".length())));
+                    } else {
+                        throw new ApiException(404, "No such endpoint: " + route);
+                    }
+            }
+        } catch (ApiException e) {
+            sendJson(ex, e.status, ApiJson.error(e.getMessage()));
+        } catch (SeatUnavailableException | OutOfStockException e) {
+            sendJson(ex, 409, ApiJson.error(e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendJson(ex, 400, ApiJson.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Booking API request failed: " + ex.getRequestURI(), e);
+            sendJson(ex, 500, ApiJson.error("Internal error"));
+        } finally {
+            ex.close();
+        }
+    }
+
+    // ========== CATALOG ==========
+
+    private String movies() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Movie m : bookingService.getAvailableMovies()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(m.getId())
+              .append(",\"name\":").append(ApiJson.quote(m.getMovieName()))
+              .append(",\"length\":").append(m.getMovieLength())
+              .append(",\"director\":").append(ApiJson.quote(m.getDirector()))
+              .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String halls() {
+        StringBuilder sb = new StringBuilder("[");
+        for (CinemaHall h : bookingService.getAllHalls()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"id\":").append(h.getHallId())
+              .append(",\"type\":").append(ApiJson.quote(h.getHallType()))
+              .append(",\"rows\":").append(h.getRowAmt())
+              .append(",\"cols\":").append(h.getColAmt())
+              .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String showtimes(Map<String, String> query) {
+        Movie movie = bookingService.getMovieById(intParam(query, "movieId"));
+        StringBuilder sb = new StringBuilder("{\"dates\":[");
+        boolean first = true;
+        for (Showtime s : bookingService.getAvailableShowtimeDates(movie)) {
+            if (!first) sb.append(',');
+            sb.append(ApiJson.quote(s.getDate().toString()));
+            first = false;
+        }
+        sb.append("],\"times\":[");
+        for (int i = 0; i < SHOW_TIMES.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ApiJson.quote(SHOW_TIMES.get(i)));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private String seats(Map<String, String> query) {
+        Movie movie = bookingService.getMovieById(intParam(query, "movieId"));
+        LocalDate date = LocalDate.parse(param(query, "date"));
+        String time = param(query, "time");
+        int hallId = intParam(query, "hallId");
+
+        List<Seat> seats = bookingService.getSeatsByShowtime(movie, date, time, hallId);
+        PriceTable prices = bookingService.getPriceTable(movie, date, time, hallId);
+
+        StringBuilder sb = new StringBuilder("{\"seats\":[");
+        for (int i = 0; i < seats.size(); i++) {
+            Seat s = seats.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":\"").append(s.getId().toDisplayString())
+              .append("\",\"status\":\"").append(s.getSeatStatus())
+              .append("\",\"price\":");
+            Money.appendTo(sb, prices.centsOf(s.getId()));
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private String menu(Map<String, String> query) {
+        String type = foodType(param(query, "type"));
+        StringBuilder sb = new StringBuilder("[");
+        for (Food f : foodService.getMenuByType(type)) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append("{\"name\":").append(ApiJson.quote(f.getName())).append(",\"price\":");
+            Money.appendTo(sb, f.getPriceCents());
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    // ========== SESSIONS ==========
+
+    private String openSession(Map<String, Object> body) {
+        Optional<Customer> customer = Optional.empty();
+        Object name = body.get("name");
+        if (name != null) {
+            customer = authService.authenticateCustomer(
+                customerService.getCustomerList(), name.toString(), String.valueOf(body.get("password")));
+            if (customer.isEmpty()) {
+                throw new ApiException(401, "Invalid customer name or password");
+            }
+        }
+
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        Session session = new Session(HexFormat.of().formatHex(bytes), customer);
+        sessions.put(session.token, session);
+        customer.ifPresent(c -> restoreSavedCart(session, c));
+
+        return "{\"token\":\"" + session.token + "\",\"customer\":"
+            + customer.map(c -> ApiJson.quote(c.getName())).orElse("null") + "}";
+    }
+
+    /**
+     * Brings back a signed-in customer's saved cart, re-holding its seats. Tickets
+     * whose seats were sold in the meantime are dropped.
+     */
+    private void restoreSavedCart(Session session, Customer customer) {
+        CartManager.CartData saved = cartManager.loadCart(customer);
+        if (saved == null) return;
+
+        synchronized (session) {
+            for (Ticket t : saved.tickets) {
+                try {
+                    seatRepository.reserveSeats(t.getShowtime(), seatIds(t));
+                    session.tickets.add(t);
+                } catch (SeatUnavailableException | IllegalArgumentException e) {
+                    logger.log(Level.INFO, "Dropped saved ticket for {0}: {1}", new Object[]{customer.getName(), e.getMessage()});
+                }
+            }
+            session.food.addAll(saved.food);
+        }
+    }
+
+    private String closeSession(Session session) {
+        sessions.remove(session.token);
+        synchronized (session) {
+            releaseHolds(session);
+            if (session.customer.isPresent()) {
+                // Keep the cart for the customer's next visit, like the GUI does on logout
+                cartManager.saveCart(session.customer.get(), session.tickets, session.food);
+            }
+        }
+        return "{\"closed\":true}";
+    }
+
+    private Session session(HttpExchange ex) {
+        String token = ex.getRequestHeaders().getFirst(SESSION_HEADER);
+        Session session = (token == null) ? null : sessions.get(token);
+        if (session == null) {
+            throw new ApiException(401, "Missing or unknown " + SESSION_HEADER + " header");
+        }
+        return session;
+    }
+
+    // ========== CART ==========
+
+    private String addTickets(Session session, Map<String, Object> body) {
+        List<SeatId> seatIds = new ArrayList<>();
+        Object seats = body.get("seats");
+        if (!(seats instanceof List)) {
+            throw new IllegalArgumentException("seats must be an array like [\"A1\",\"A2\"]");
+        }
+        for (Object s : (List<?>) seats) {
+            seatIds.add(parseSeatId(String.valueOf(s)));
+        }
+
+        BookingResult result = bookingService.bookTickets(new BookingRequest(
+            intValue(body, "movieId"),
+            LocalDate.parse(stringValue(body, "date")),
+            stringValue(body, "time"),
+            intValue(body, "hallId"),
+            seatIds
+        ));
+        Ticket ticket = new Ticket(result.getShowtime(), result.getSeats().size(),
+                                   result.getShowtime().getCinemaHall(), new ArrayList<>(result.getSeats()));
+
+        synchronized (session) {
+            session.tickets.add(ticket);
+            saveCart(session);
+            return cartJson(session);
+        }
+    }
+
+    private String addFood(Session session, Map<String, Object> body) {
+        String type = foodType(stringValue(body, "type"));
+        String name = stringValue(body, "name");
+        int qty = intValue(body, "qty");
+        if (qty <= 0) {
+            throw new IllegalArgumentException("qty must be positive");
+        }
+
+        Food menuItem = foodService.getMenuByType(type).stream()
+            .filter(f -> f.getName().equals(name))
+            .findFirst()
+            .orElseThrow(() -> new ApiException(404, "No " + type + " named " + name));
+
+        // Same steps as the food order view: unit price, quantity, then total
+        Food orderItem = FoodFactory.createMenuItem(type, name, menuItem.getPrice());
+        orderItem.setQty(qty);
+        orderItem.calPrice();
+
+        synchronized (session) {
+            Food line = session.food.findSame(orderItem);
+            int inCart = (line == null) ? 0 : line.getQty();
+            if (!foodService.hasStock(type, name, inCart + qty)) {
+                throw new OutOfStockException("Not enough " + name + " left");
+            }
+            foodService.addOrMergeOrder(session.food, orderItem, menuItem.getPrice());
+            saveCart(session);
+            return cartJson(session);
+        }
+    }
+
+    private String clearCart(Session session) {
+        synchronized (session) {
+            releaseHolds(session);
+            session.food.clear();
+            session.customer.ifPresent(cartManager::clearCart);
+            return cartJson(session);
+        }
+    }
+
+    private void releaseHolds(Session session) {
+        for (Ticket t : session.tickets) {
+            seatRepository.cancelCartReservation(t.getShowtime(), seatIds(t));
+        }
+        session.tickets.clear();
+    }
+
+    private void saveCart(Session session) {
+        session.customer.ifPresent(c -> cartManager.saveCart(c, session.tickets, session.food));
+    }
+
+    private String cartJson(Session session) {
+        synchronized (session) {
+            StringBuilder sb = new StringBuilder("{\"tickets\":[");
+            for (int i = 0; i < session.tickets.size(); i++) {
+                Ticket t = session.tickets.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"movie\":").append(ApiJson.quote(t.getMovieName()))
+                  .append(",\"date\":\"").append(t.getSchedule())
+                  .append("\",\"time\":").append(ApiJson.quote(t.time()))
+                  .append(",\"hallId\":").append(t.getCinemaHall().getHallId())
+                  .append(",\"seats\":[");
+                List<SeatId> ids = seatIds(t);
+                for (int j = 0; j < ids.size(); j++) {
+                    if (j > 0) sb.append(',');
+                    sb.append('"').append(ids.get(j).toDisplayString()).append('"');
+                }
+                sb.append("],\"price\":");
+                Money.appendTo(sb, t.getTotalPriceCents());
+                sb.append('}');
+            }
+            sb.append("],\"food\":[");
+            for (int i = 0; i < session.food.size(); i++) {
+                Food f = session.food.get(i);
+                if (i > 0) sb.append(',');
+                sb.append("{\"name\":").append(ApiJson.quote(f.getName()))
+                  .append(",\"qty\":").append(f.getQty())
+                  .append(",\"price\":");
+                Money.appendTo(sb, f.getPriceCents());
+                sb.append('}');
+            }
+            sb.append("],\"total\":");
+            Money.appendTo(sb, cartTotalCents(session));
+            return sb.append('}').toString();
+        }
+    }
+
+    private long cartTotalCents(Session session) {
+        long total = 0;
+        for (Ticket t : session.tickets) total += t.getTotalPriceCents();
+        for (Food f : session.food) total += f.getPriceCents();
+        return total;
+    }
+
+    // ========== CHECKOUT ==========
+
+    private String checkout(Session session, Map<String, Object> body) {
+        synchronized (session) {
+            if (session.tickets.isEmpty() && session.food.isEmpty()) {
+                throw new ApiException(409, "Cart is empty");
+            }
+            double total = Money.toAmount(cartTotalCents(session));
+            Object account = body.get("account");
+
+            foodService.commitStock(session.food);
+            PaymentResult result = paymentService.processPayment(new PaymentRequest(
+                total, stringValue(body, "method"), account == null ? "" : account.toString(),
+                session.tickets, session.food, session.customer));
+            if (!result.isSuccess()) {
+                foodService.releaseStock(session.food);
+                throw new ApiException(402, result.getMessage());
+            }
+
+            // Same order as the payment view: confirm the held seats, then record the payment
+            Payment payment = new Payment(session.customer, session.tickets, session.food, total, true);
+            for (Ticket t : session.tickets) {
+                seatRepository.confirmCartReservation(t.getShowtime(), seatIds(t));
+            }
+            paymentRepository.savePayment(payment);
+
+            session.tickets.clear();
+            session.food.clear();
+            session.customer.ifPresent(cartManager::clearCart);
+
+            StringBuilder sb = new StringBuilder("{\"paymentId\":").append(payment.getPaymentID()).append(",\"total\":");
+            Money.appendTo(sb, payment.getTotalPriceCents());
+            return sb.append('}').toString();
+        }
+    }
+
+    // ========== REPORTS ==========
+
+    private String report(String name) {
+        switch (name) {
+            case "sales": return reportService.generateSalesSummaryReport();
+            case "movies": return reportService.getMoviePurchaseReport();
+            case "food": return reportService.getFoodPurchaseReport();
+            default: throw new ApiException(404, "No such report: " + name);
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private static List<SeatId> seatIds(Ticket ticket) {
+        List<SeatId> ids = new ArrayList<>();
+        for (Seat s : ticket.getSeat()) {
+            ids.add(s.getId());
+        }
+        return ids;
+    }
+
+    static SeatId parseSeatId(String text) {
+        String s = text.trim().toUpperCase();
+        if (s.length() < 2 || s.charAt(0) < 'A' || s.charAt(0) > 'Z') {
+            throw new IllegalArgumentException("Invalid seat: " + text);
+        }
+        return SeatId.parse(s);
+    }
+
+    private static String foodType(String type) {
+        return FOOD_TYPES.stream()
+            .filter(t -> t.equalsIgnoreCase(type))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown food type: " + type));
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String param(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing query parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> query, String name) {
+        return Integer.parseInt(param(query, name));
+    }
+
+    private static String stringValue(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return value.toString();
+    }
+
+    private static int intValue(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return Integer.parseInt(stringValue(body, name));
+    }
+
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            return body.isEmpty() ? new HashMap<>() : ApiJson.parseObject(body);
+        }
+    }
+
+    private static void sendJson(HttpExchange ex, int status, String json) throws IOException {
+        send(ex, status, "application/json; charset=utf-8", json);
+    }
+
+    private static void sendText(HttpExchange ex, String text) throws IOException {
+        send(ex, 200, "text/plain; charset=utf-8", text);
+    }
+
+    private static void send(HttpExchange ex, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", contentType);
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
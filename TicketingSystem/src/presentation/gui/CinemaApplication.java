@@ -1,15 +1,25 @@
 package presentation.gui;
 
+import application.monitoring.Metrics;
 import application.services.*;
+import application.utilities.LoggerSetup;
+import domain.pricing.PricingEngine;
 import domain.repositories.*;
 import infrastructure.repositories.*;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 public class CinemaApplication extends Application {
+    private static final Logger logger = LoggerSetup.getLogger();
     
-    private MovieRepository movieRepository;
-    private ShowtimeRepository showtimeRepository;
+    private FileMovieRepository movieRepository; // Concrete types for hot reload
+    private FileShowtimeRepository showtimeRepository;
     private FileSeatRepository seatRepository; // Changed to concrete type
     private PaymentRepository paymentRepository;
     private CartManager cartManager; // NEW
@@ -21,10 +31,12 @@ public class CinemaApplication extends Application {
     private AuthService authService;
     private ReportService reportService;
     private StaffService staffService;
+    private ReportExportQueue reportExportQueue;
     private FoodService foodService;
     private PaymentService paymentService;
     
     private ViewManager viewManager;
+    private ConfigWatcher configWatcher;
     
     @Override
     public void start(Stage primaryStage) {
@@ -32,19 +44,29 @@ public class CinemaApplication extends Application {
         movieRepository = new FileMovieRepository();
         showtimeRepository = new FileShowtimeRepository();
         seatRepository = new FileSeatRepository(); // Concrete type for cart methods
-        paymentRepository = new PaymentRepository();
-        cartManager = new CartManager(); // NEW: Cart persistence
+        CatalogInterner catalog = new CatalogInterner(movieRepository.findAll(), showtimeRepository.getAllHalls());
+        paymentRepository = new PaymentRepository(catalog);
+        cartManager = new CartManager(catalog); // NEW: Cart persistence
+        PricingEngine.getDefault().setRules(new FilePricingRuleRepository().findAll());
+        bindMetricGauges();
         
         // Initialize services
         customerService = new CustomerService();
+        new IdAllocator().installDomainSequences(paymentRepository::getMaxLoadedPaymentId,
+                                                paymentRepository::getMaxLoadedTicketId);
         passwordService = new PasswordService();
         otpService = new OtpService();
         authService = new AuthService(passwordService, otpService);
         bookingService = new BookingService(movieRepository, showtimeRepository, seatRepository);
         reportService = new ReportService(paymentRepository);
-        staffService = new StaffService(reportService, customerService);
+        reportExportQueue = new ReportExportQueue();
+        reportExportQueue.prewarmFonts();
+        staffService = new StaffService(reportService, customerService, Optional.of(reportExportQueue),
+                                        Optional.of(new RefundService(paymentRepository, seatRepository)),
+                                        Optional.of(new ReportCache(reportService, paymentRepository)));
         foodService = new FoodService();
         paymentService = new PaymentService();
+        startConfigWatcher();
         
         // Initialize view manager with cart manager
         viewManager = new ViewManager(
@@ -69,6 +91,44 @@ public class CinemaApplication extends Application {
         primaryStage.show();
     }
     
+    /**
+     * Exposes live repository state on the TicketingSystem:type=Gauges MBean.
+     */
+    private void bindMetricGauges() {
+        Metrics.GAUGES.bindActiveHolds(seatRepository::getActiveHoldCount);
+        Metrics.GAUGES.bindShowtimeKeys(seatRepository::getShowtimeKeyCount);
+        Metrics.GAUGES.bindInMemoryPayments(paymentRepository::getPaymentCount);
+    }
+    
+    /**
+     * Picks up edits to the menu, movie and hall files without a restart.
+     */
+    private void startConfigWatcher() {
+        configWatcher = new ConfigWatcher(Path.of("."))
+            .watch("movies.json", movieRepository::reload)
+            .watch("halls.json", showtimeRepository::reloadHalls)
+            .watch("halls.json", seatRepository::reloadHalls)
+            .watch("beverage.json", foodService::reloadMenu)
+            .watch("popcorn.json", foodService::reloadMenu)
+            .watch("hotfood.json", foodService::reloadMenu);
+        try {
+            configWatcher.start();
+        } catch (IOException e) {
+            // Not fatal: the app runs on the files read at startup
+            logger.log(Level.WARNING, "Config hot reload disabled: {0}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        if (reportExportQueue != null) {
+            reportExportQueue.shutdown();
+        }
+    }
+    
     public static void main(String[] args) {
         launch(args);
     }
@@ -9,7 +9,17 @@ package presentation.gui;
  * @author MOON
  */
 public class Launcher {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Headless load simulation: Launcher --simulate [--customers=N --skew=0.8 ...]
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            application.simulation.LoadSimulator.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Headless kiosk API: Launcher --server [--port=8080]
+        if (args.length > 0 && args[0].equals("--server")) {
+            presentation.api.BookingApiServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         CinemaApplication.main(args);
     }
 }
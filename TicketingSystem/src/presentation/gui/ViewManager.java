@@ -3,6 +3,7 @@ package presentation.gui;
 import application.services.*;
 import domain.Customer;
 import domain.Food;
+import domain.FoodOrderList;
 import domain.Ticket;
 import infrastructure.repositories.PaymentRepository;
 import infrastructure.repositories.CartManager;
@@ -32,7 +33,7 @@ public class ViewManager {
     
     private Optional<Customer> currentUser = Optional.empty();
     private ArrayList<Ticket> ticketCart = new ArrayList<>();
-    private ArrayList<Food> foodCart = new ArrayList<>();
+    private ArrayList<Food> foodCart = new FoodOrderList();
     
     public ViewManager(Stage primaryStage, AuthService authService, 
                       CustomerService customerService, BookingService bookingService,
@@ -66,7 +67,7 @@ public class ViewManager {
         CartManager.CartData savedCart = cartManager.loadCart(customer);
         if (savedCart != null) {
             this.ticketCart = savedCart.tickets;
-            this.foodCart = savedCart.food;
+            this.foodCart = new FoodOrderList(savedCart.food);
             System.out.println("✓ Restored cart: " + ticketCart.size() + " tickets, " + foodCart.size() + " food items");
         }
         
@@ -91,7 +92,7 @@ public class ViewManager {
     
     public void showPaymentView() {
         PaymentView paymentView = new PaymentView(
-            this, paymentService, paymentRepository, seatRepository,
+            this, paymentService, foodService, paymentRepository, seatRepository,
             ticketCart, foodCart, currentUser
         );
         setScene(paymentView, "YSCM Cinema - Payment");
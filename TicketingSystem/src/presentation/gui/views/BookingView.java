@@ -4,6 +4,7 @@ import application.dto.BookingRequest;
 import application.dto.BookingResult;
 import application.services.BookingService;
 import domain.*;
+import domain.pricing.PriceTable;
 import domain.valueobjects.SeatId;
 import infrastructure.repositories.SeatUnavailableException;
 import javafx.geometry.Insets;
@@ -33,6 +34,7 @@ public class BookingView extends BorderPane {
     private Set<SeatId> selectedSeats;
     private Label selectedCountLabel;
     private Button bookBtn;
+    private PriceTable currentPrices; // Compiled prices for the loaded seat map
     
     // Current selection state
     private Movie selectedMovie;
@@ -281,6 +283,10 @@ public class BookingView extends BorderPane {
             selectedMovie, selectedDate, selectedTime, selectedHall.getHallId()
         );
         
+        currentPrices = bookingService.getPriceTable(
+            selectedMovie, selectedDate, selectedTime, selectedHall.getHallId()
+        );
+        
         Set<SeatId> bookedSeats = new HashSet<>();
         for (Seat seat : allSeats) {
             if (seat.getSeatStatus().equals("Booked")) {
@@ -302,7 +308,7 @@ public class BookingView extends BorderPane {
             
             for (int col = 0; col < cols; col++) {
                 int colNum = col + 1;
-                SeatId seatId = new SeatId(rowLetter, colNum);
+                SeatId seatId = SeatId.of(rowLetter, colNum);
                 
                 Button seatBtn = createSeatButton(seatId, bookedSeats.contains(seatId));
                 seatGrid.add(seatBtn, col + 1, row + 2);
@@ -322,6 +328,10 @@ public class BookingView extends BorderPane {
     
     private Button createSeatButton(SeatId seatId, boolean isBooked) {
         Button seatBtn = new Button(seatId.toDisplayString());
+        if (currentPrices != null && currentPrices.contains(seatId)) {
+            seatBtn.setTooltip(new Tooltip(String.format("%s - RM%.2f", 
+                seatId.toDisplayString(), currentPrices.priceOf(seatId))));
+        }
         seatBtn.setMinSize(40, 40);
         seatBtn.setMaxSize(40, 40);
         seatBtn.setFont(Font.font("Arial", FontWeight.BOLD, 10));
@@ -380,12 +390,19 @@ public class BookingView extends BorderPane {
     }
     
     private void updateSelectedCount() {
-        selectedCountLabel.setText("Selected: " + selectedSeats.size() + " seat(s)");
+        double subtotal = 0;
+        if (currentPrices != null) {
+            for (SeatId id : selectedSeats) {
+                if (currentPrices.contains(id)) subtotal += currentPrices.priceOf(id);
+            }
+        }
+        selectedCountLabel.setText(String.format("Selected: %d seat(s) - RM%.2f", selectedSeats.size(), subtotal));
         bookBtn.setDisable(selectedSeats.isEmpty());
     }
     
     private void resetSeatSelection() {
         selectedSeats.clear();
+        currentPrices = null;
         seatGrid.getChildren().clear();
         
         Label placeholder = new Label("Please complete all selections to view seats");
@@ -112,6 +112,16 @@ public class FoodOrderView extends BorderPane {
             Food selected = menuListView.getSelectionModel().getSelectedItem();
             if (selected != null) {
                 int qty = quantitySpinner.getValue();
+                int inCart = foodCart.stream()
+                    .filter(f -> f.getFoodType().equals(selected.getFoodType()) && f.getName().equals(selected.getName()))
+                    .mapToInt(Food::getQty)
+                    .sum();
+                if (!foodService.hasStock(selected.getFoodType(), selected.getName(), inCart + qty)) {
+                    long left = foodService.getStock(selected.getFoodType(), selected.getName())
+                        .map(s -> s.getRemaining()).orElse(0L);
+                    showError("Out of Stock", "Only " + left + " " + selected.getName() + " left.");
+                    return;
+                }
                 
                 // Create new food item for order
                 Food orderItem = createFoodInstance(selected.getFoodType());
@@ -208,4 +218,11 @@ public class FoodOrderView extends BorderPane {
         alert.setContentText(message);
         alert.showAndWait();
     }
+    
+    private void showError(String title, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
 }
\ No newline at end of file
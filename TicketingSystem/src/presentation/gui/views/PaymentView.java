@@ -2,6 +2,8 @@ package presentation.gui.views;
 
 import application.dto.PaymentRequest;
 import application.dto.PaymentResult;
+import application.services.FoodService;
+import application.services.OutOfStockException;
 import application.services.PaymentService;
 import domain.*;
 import infrastructure.repositories.PaymentRepository;
@@ -26,6 +28,7 @@ import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.WriterException;
+import domain.valueobjects.Money;
 import domain.valueobjects.SeatId;
 import infrastructure.repositories.FileSeatRepository;
 import java.util.List;
@@ -34,6 +37,7 @@ public class PaymentView extends BorderPane {
     
     private final ViewManager viewManager;
     private final PaymentService paymentService;
+    private final FoodService foodService;
     private final PaymentRepository paymentRepository;
     private final FileSeatRepository seatRepository;
     private final ArrayList<Ticket> tickets;
@@ -42,11 +46,12 @@ public class PaymentView extends BorderPane {
     
     private TabPane tabPane;
     
-    public PaymentView(ViewManager viewManager, PaymentService paymentService,
+    public PaymentView(ViewManager viewManager, PaymentService paymentService, FoodService foodService,
                       PaymentRepository paymentRepository, FileSeatRepository seatRepository,
                       ArrayList<Ticket> tickets, ArrayList<Food> foods, Optional<Customer> customer) {
         this.viewManager = viewManager;
         this.paymentService = paymentService;
+        this.foodService = foodService;
         this.paymentRepository = paymentRepository;
         this.seatRepository = seatRepository; // NEW
         this.tickets = tickets;
@@ -180,6 +185,14 @@ public class PaymentView extends BorderPane {
                 total, paymentMethod, bankAccount, tickets, foods, customer
             );
             
+            // Hold the concessions first so two tills cannot sell the last item twice
+            try {
+                foodService.commitStock(foods);
+            } catch (OutOfStockException ex) {
+                showError("Out of Stock", ex.getMessage());
+                return;
+            }
+            
             PaymentResult result = paymentService.processPayment(request);
             
             if (result.isSuccess()) {
@@ -206,6 +219,7 @@ public class PaymentView extends BorderPane {
                 // Switch to history tab to show the new payment
                 tabPane.getSelectionModel().select(historyTab);
             } else {
+                foodService.releaseStock(foods);
                 showError("Payment Failed", result.getMessage());
             }
         });
@@ -449,7 +463,7 @@ public class PaymentView extends BorderPane {
         receipt.append("         YSCM CINEMA RECEIPT\n");
         receipt.append("========================================\n\n");
         
-        double ticketTotal = 0;
+        long ticketTotal = 0; // cents
         if (!tickets.isEmpty()) {
             receipt.append("TICKETS:\n");
             receipt.append("----------------------------------------\n");
@@ -458,36 +472,36 @@ public class PaymentView extends BorderPane {
                 receipt.append(String.format("  Date: %s  Time: %s\n", t.getSchedule(), t.time()));
                 receipt.append(String.format("  Qty: %d  Hall: %s\n", t.getTicketAmt(), t.getHallType()));
                 receipt.append(String.format("  Price: RM%.2f\n\n", t.getTotalPrice()));
-                ticketTotal += t.getTotalPrice();
+                ticketTotal += t.getTotalPriceCents();
             }
         }
         
-        double foodTotal = 0;
+        long foodTotal = 0; // cents
         if (!foods.isEmpty()) {
             receipt.append("FOOD & BEVERAGE:\n");
             receipt.append("----------------------------------------\n");
             for (Food f : foods) {
                 receipt.append(String.format("%-25s x%d\n", f.getName(), f.getQty()));
                 receipt.append(String.format("  RM%.2f\n\n", f.getPrice()));
-                foodTotal += f.getPrice();
+                foodTotal += f.getPriceCents();
             }
         }
         
         receipt.append("========================================\n");
-        receipt.append(String.format("Tickets Subtotal:       RM%.2f\n", ticketTotal));
-        receipt.append(String.format("Food Subtotal:          RM%.2f\n", foodTotal));
+        receipt.append("Tickets Subtotal:       RM").append(Money.format(ticketTotal)).append("\n");
+        receipt.append("Food Subtotal:          RM").append(Money.format(foodTotal)).append("\n");
         receipt.append("----------------------------------------\n");
-        receipt.append(String.format("GRAND TOTAL:            RM%.2f\n", ticketTotal + foodTotal));
+        receipt.append("GRAND TOTAL:            RM").append(Money.format(ticketTotal + foodTotal)).append("\n");
         receipt.append("========================================\n");
         
         return receipt.toString();
     }
     
     private double calculateTotal() {
-        double total = 0;
-        for (Ticket t : tickets) total += t.getTotalPrice();
-        for (Food f : foods) total += f.getPrice();
-        return total;
+        long total = 0;
+        for (Ticket t : tickets) total += t.getTotalPriceCents();
+        for (Food f : foods) total += f.getPriceCents();
+        return Money.toAmount(total);
     }
     
     private void showError(String title, String message) {
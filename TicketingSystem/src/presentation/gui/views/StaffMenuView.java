@@ -1,8 +1,17 @@
 package presentation.gui.views;
 
 import application.services.CustomerService;
+import application.services.ExportJob;
 import application.services.StaffService;
 import domain.Customer;
+import domain.Payment;
+import domain.Ticket;
+import domain.valueobjects.Money;
+import infrastructure.repositories.PaymentPage;
+import infrastructure.repositories.PaymentQuery;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -14,9 +23,10 @@ import javafx.stage.FileChooser;
 import presentation.gui.ViewManager;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class StaffMenuView extends BorderPane {
     
@@ -25,10 +35,28 @@ public class StaffMenuView extends BorderPane {
     private final CustomerService customerService;
     private TableView<Customer> customerTable;
     
+    // Type-ahead over the customer name index; only the top matches are shown
+    private static final int CUSTOMER_MATCH_LIMIT = 50;
+    private TextField customerSearch;
+    
     // Track current report for PDF export
     private String currentReportContent = "";
     private String currentReportType = "";
     
+    // One row per background PDF export (progress bar + cancel)
+    private VBox exportJobsBox;
+    
+    // Payment history browser: only the visible page is held. pageStarts[i] is
+    // the cursor page i was loaded from, so Previous can go back.
+    private static final int PAYMENT_PAGE_SIZE = 50;
+    private TableView<Payment> paymentTable;
+    private PaymentQuery paymentQuery = PaymentQuery.all();
+    private final List<Integer> pageStarts = new ArrayList<>();
+    private PaymentPage currentPage;
+    private Label pageLabel;
+    private Button prevPageBtn;
+    private Button nextPageBtn;
+    
     public StaffMenuView(ViewManager viewManager, StaffService staffService, 
                         CustomerService customerService) {
         this.viewManager = viewManager;
@@ -89,6 +117,10 @@ public class StaffMenuView extends BorderPane {
         passwordCol.setPrefWidth(250);
         
         customerTable.getColumns().addAll(idCol, nameCol, passwordCol);
+        
+        customerSearch = new TextField();
+        customerSearch.setPromptText("Search customers by name");
+        customerSearch.textProperty().addListener((obs, old, text) -> refreshCustomerTable());
         refreshCustomerTable();
         
         Button deleteBtn = new Button("Delete Selected Customer");
@@ -117,12 +149,117 @@ public class StaffMenuView extends BorderPane {
             }
         });
         
-        VBox leftPanel = new VBox(15, manageTitle, customerTable, deleteBtn);
-        leftPanel.setPadding(new Insets(10));
+        VBox customerPane = new VBox(15, manageTitle, customerSearch, customerTable, deleteBtn);
+        customerPane.setPadding(new Insets(10));
+        
+        Tab customersTab = new Tab("Customers", customerPane);
+        Tab paymentsTab = new Tab("Payments", createPaymentsPane());
+        TabPane tabs = new TabPane(customersTab, paymentsTab);
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
         
+        VBox leftPanel = new VBox(tabs);
+        VBox.setVgrow(tabs, Priority.ALWAYS);
         return leftPanel;
     }
     
+    /**
+     * Payment history browser, fetched one page at a time from the repository
+     * so browsing never loads or copies the whole history.
+     */
+    private VBox createPaymentsPane() {
+        Label title = new Label("Payment History");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+        
+        TextField customerFilter = new TextField();
+        customerFilter.setPromptText("Customer name");
+        DatePicker fromPicker = new DatePicker();
+        fromPicker.setPromptText("Show date from");
+        DatePicker toPicker = new DatePicker();
+        toPicker.setPromptText("to");
+        Button searchBtn = new Button("Search");
+        searchBtn.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-cursor: hand;");
+        searchBtn.setOnAction(e -> {
+            try {
+                paymentQuery = PaymentQuery.all()
+                    .withCustomer(customerFilter.getText())
+                    .withShowDates(fromPicker.getValue(), toPicker.getValue());
+            } catch (IllegalArgumentException ex) {
+                showError("Invalid Filter", ex.getMessage());
+                return;
+            }
+            pageStarts.clear();
+            showPaymentPage(PaymentPage.FIRST);
+        });
+        HBox filters = new HBox(8, customerFilter, fromPicker, toPicker, searchBtn);
+        filters.setAlignment(Pos.CENTER_LEFT);
+        
+        paymentTable = new TableView<>();
+        paymentTable.setPrefHeight(400);
+        paymentTable.setPlaceholder(new Label("No payments found"));
+        
+        TableColumn<Payment, Integer> idCol = new TableColumn<>("ID");
+        idCol.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getPaymentID()));
+        idCol.setPrefWidth(60);
+        
+        TableColumn<Payment, String> customerCol = new TableColumn<>("Customer");
+        customerCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(
+            c.getValue().getCustomer().map(Customer::getName).orElse("Guest")));
+        customerCol.setPrefWidth(140);
+        
+        TableColumn<Payment, String> moviesCol = new TableColumn<>("Movies");
+        moviesCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().getTicket().stream()
+            .map(Ticket::getMovieName).distinct().collect(Collectors.joining(", "))));
+        moviesCol.setPrefWidth(200);
+        
+        TableColumn<Payment, Integer> ticketsCol = new TableColumn<>("Tickets");
+        ticketsCol.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getTicketAmt()));
+        ticketsCol.setPrefWidth(60);
+        
+        TableColumn<Payment, String> totalCol = new TableColumn<>("Total (RM)");
+        totalCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(Money.format(c.getValue().getTotalPriceCents())));
+        totalCol.setPrefWidth(90);
+        
+        TableColumn<Payment, String> typeCol = new TableColumn<>("Type");
+        typeCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(
+            c.getValue().isRefund() ? "Refund of #" + c.getValue().getRefundOf() : "Sale"));
+        typeCol.setPrefWidth(110);
+        
+        List<TableColumn<Payment, ?>> columns = List.of(idCol, customerCol, moviesCol, ticketsCol, totalCol, typeCol);
+        paymentTable.getColumns().addAll(columns);
+        
+        prevPageBtn = new Button("◀ Previous");
+        prevPageBtn.setOnAction(e -> {
+            pageStarts.remove(pageStarts.size() - 1);
+            showPaymentPage(pageStarts.remove(pageStarts.size() - 1));
+        });
+        nextPageBtn = new Button("Next ▶");
+        nextPageBtn.setOnAction(e -> showPaymentPage(currentPage.getNextCursor()));
+        pageLabel = new Label();
+        HBox paging = new HBox(10, prevPageBtn, pageLabel, nextPageBtn);
+        paging.setAlignment(Pos.CENTER);
+        
+        showPaymentPage(PaymentPage.FIRST);
+        
+        VBox pane = new VBox(15, title, filters, paymentTable, paging);
+        pane.setPadding(new Insets(10));
+        VBox.setVgrow(paymentTable, Priority.ALWAYS);
+        return pane;
+    }
+    
+    private void showPaymentPage(int cursor) {
+        currentPage = staffService.browsePayments(paymentQuery, cursor, PAYMENT_PAGE_SIZE);
+        pageStarts.add(cursor);
+        paymentTable.getItems().setAll(currentPage.getPayments());
+        pageLabel.setText("Page " + pageStarts.size());
+        prevPageBtn.setDisable(pageStarts.size() <= 1);
+        nextPageBtn.setDisable(!currentPage.hasMore());
+    }
+    
+    // Re-reads the page on screen (e.g. after a refund added a record)
+    private void reloadPaymentPage() {
+        showPaymentPage(pageStarts.remove(pageStarts.size() - 1));
+    }
+    
     private VBox createRightPanel() {
         Label reportTitle = new Label("Reports");
         reportTitle.setFont(Font.font("Arial", FontWeight.BOLD, 18));
@@ -185,6 +322,13 @@ public class StaffMenuView extends BorderPane {
         instructionLabel.setStyle("-fx-font-size: 10; -fx-text-fill: #7f8c8d; -fx-font-style: italic;");
         instructionLabel.setWrapText(true);
         
+        exportJobsBox = new VBox(5);
+        
+        Button refundBtn = new Button("↩ Refund Payment");
+        refundBtn.setPrefWidth(250);
+        refundBtn.setStyle("-fx-background-color: #e67e22; -fx-text-fill: white; -fx-cursor: hand;");
+        refundBtn.setOnAction(e -> handleRefund());
+        
         VBox rightPanel = new VBox(10,
             reportTitle,
             customerListBtn,
@@ -194,6 +338,9 @@ public class StaffMenuView extends BorderPane {
             new Separator(),
             exportPdfBtn,
             instructionLabel,
+            exportJobsBox,
+            new Separator(),
+            refundBtn,
             new Separator(),
             new Label("Report Output:"),
             reportArea
@@ -204,6 +351,46 @@ public class StaffMenuView extends BorderPane {
         return rightPanel;
     }
     
+    /**
+     * Asks for a payment ID, confirms, and refunds it.
+     */
+    private void handleRefund() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("Refund Payment");
+        dialog.setHeaderText("Refund a whole payment and release its seats");
+        dialog.setContentText("Payment ID:");
+        Optional<String> input = dialog.showAndWait();
+        if (input.isEmpty() || input.get().isBlank()) {
+            return;
+        }
+        
+        int paymentId;
+        try {
+            paymentId = Integer.parseInt(input.get().trim());
+        } catch (NumberFormatException ex) {
+            showError("Invalid ID", "Payment ID must be a number");
+            return;
+        }
+        
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Confirm Refund");
+        confirm.setHeaderText("Refund Payment");
+        confirm.setContentText("Refund payment #" + paymentId + "? This cannot be undone.");
+        Optional<ButtonType> result = confirm.showAndWait();
+        if (result.isEmpty() || result.get() != ButtonType.OK) {
+            return;
+        }
+        
+        try {
+            Payment refund = staffService.refundPayment(paymentId);
+            showInfo("Refunded", "Payment #" + paymentId + " refunded (RM "
+                     + Money.format(-refund.getTotalPriceCents()) + "). Refund record #" + refund.getPaymentID());
+            reloadPaymentPage();
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            showError("Refund Failed", ex.getMessage());
+        }
+    }
+    
     private Button createReportButton(String text) {
         Button button = new Button(text);
         button.setPrefWidth(250);
@@ -246,34 +433,107 @@ public class StaffMenuView extends BorderPane {
                 selectedFile = new File(selectedFile.getAbsolutePath() + ".pdf");
             }
             
-            try {
-                // Call appropriate export method based on report type
-                switch (currentReportType) {
-                    case "CustomerList":
-                        staffService.exportCustomerListToPdf(
-                            customerService.getCustomerList(), 
-                            selectedFile
-                        );
-                        break;
-                    case "MoviePurchase":
-                        staffService.exportMoviePurchaseToPdf(selectedFile);
-                        break;
-                    case "FoodPurchase":
-                        staffService.exportFoodPurchaseToPdf(selectedFile);
-                        break;
-                    case "SalesSummary":
-                        staffService.exportSalesSummaryToPdf(selectedFile);
-                        break;
-                }
-                
-                // Success notification
-                showInfo("PDF Exported", 
-                    "Report successfully exported to:\n" + selectedFile.getAbsolutePath());
-                
-            } catch (IOException ex) {
-                showError("Export Failed", 
-                    "Failed to export PDF: " + ex.getMessage());
+            // Queue the export; PDF layout runs on the report workers, not the FX thread
+            ExportJob job = null;
+            switch (currentReportType) {
+                case "CustomerList":
+                    job = staffService.submitCustomerListExport(
+                        customerService.getCustomerList(), 
+                        selectedFile
+                    );
+                    break;
+                case "MoviePurchase":
+                    job = staffService.submitMoviePurchaseExport(selectedFile);
+                    break;
+                case "FoodPurchase":
+                    job = staffService.submitFoodPurchaseExport(selectedFile);
+                    break;
+                case "SalesSummary":
+                    job = staffService.submitSalesSummaryExport(selectedFile);
+                    break;
             }
+            
+            if (job != null) {
+                trackExportJob(job);
+            }
+        }
+    }
+    
+    /**
+     * Adds a progress row for an export job and keeps it updated until it finishes.
+     */
+    private void trackExportJob(ExportJob job) {
+        Label statusLabel = new Label(job.getTitle() + " (queued)");
+        statusLabel.setStyle("-fx-font-size: 10;");
+        statusLabel.setPrefWidth(200);
+        
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(150);
+        
+        Button cancelBtn = new Button("Cancel");
+        cancelBtn.setStyle("-fx-font-size: 10; -fx-cursor: hand;");
+        
+        HBox row = new HBox(8, statusLabel, progressBar, cancelBtn);
+        row.setAlignment(Pos.CENTER_LEFT);
+        exportJobsBox.getChildren().add(row);
+        
+        cancelBtn.setOnAction(e -> {
+            if (job.isFinished()) {
+                exportJobsBox.getChildren().remove(row); // "Clear" once finished
+            } else {
+                cancelBtn.setDisable(true);
+                job.cancel();
+            }
+        });
+        
+        // Listener runs on the worker thread; hop back to the FX thread
+        job.onUpdate(j -> Platform.runLater(() -> updateExportRow(j, row, statusLabel, progressBar, cancelBtn)));
+    }
+    
+    private void updateExportRow(ExportJob job, HBox row, Label statusLabel, 
+                                 ProgressBar progressBar, Button cancelBtn) {
+        if (row.getProperties().containsKey("finished")) {
+            return; // Late progress update after completion was already shown
+        }
+        
+        switch (job.getState()) {
+            case QUEUED:
+                progressBar.setProgress(0);
+                break;
+            case RUNNING:
+                statusLabel.setText(job.getTitle());
+                double progress = job.getProgress();
+                progressBar.setProgress(progress < 0 ? ProgressBar.INDETERMINATE_PROGRESS : progress);
+                break;
+            default:
+                row.getProperties().put("finished", Boolean.TRUE);
+                cancelBtn.setText("Clear");
+                cancelBtn.setDisable(false);
+                finishExportRow(job, statusLabel, progressBar);
+                break;
+        }
+    }
+    
+    private void finishExportRow(ExportJob job, Label statusLabel, ProgressBar progressBar) {
+        switch (job.getState()) {
+            case DONE:
+                progressBar.setProgress(1);
+                statusLabel.setText("✔ " + job.getTitle());
+                showInfo("PDF Exported", 
+                    "Report successfully exported to:\n" + job.getOutputFile().getAbsolutePath());
+                break;
+            case CANCELLED:
+                progressBar.setProgress(0);
+                statusLabel.setText("✖ " + job.getTitle() + " (cancelled)");
+                break;
+            case FAILED:
+                progressBar.setProgress(0);
+                statusLabel.setText("✖ " + job.getTitle() + " (failed)");
+                String reason = (job.getError() != null) ? job.getError().getMessage() : "unknown error";
+                showError("Export Failed", "Failed to export PDF: " + reason);
+                break;
+            default:
+                break;
         }
     }
     
@@ -286,9 +546,11 @@ public class StaffMenuView extends BorderPane {
     }
     
     private void refreshCustomerTable() {
-        ArrayList<Customer> customers = customerService.getCustomerList();
-        customerTable.getItems().clear();
-        customerTable.getItems().addAll(customers);
+        String prefix = customerSearch.getText();
+        List<Customer> customers = (prefix == null || prefix.isBlank())
+            ? customerService.getCustomerList()
+            : customerService.searchCustomers(prefix, CUSTOMER_MATCH_LIMIT);
+        customerTable.getItems().setAll(customers);
     }
     
     private void showError(String title, String message) {
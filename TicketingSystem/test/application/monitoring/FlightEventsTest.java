@@ -0,0 +1,133 @@
+package application.monitoring;
+
+import application.services.ReportService;
+import domain.*;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.PaymentRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the custom flight recorder events
+ */
+public class FlightEventsTest {
+
+    private static final String TEST_BOOKINGS_FILE = "bookings_jfr_test.json";
+    private static final String TEST_HALLS_FILE = "halls_jfr_test.json";
+    private static final String TEST_PAYMENT_FILE = "payment_jfr_test.json";
+    private static final File RECORDING_FILE = new File("events_test.jfr");
+
+    private Recording recording;
+    private Showtime showtime;
+    private CinemaHall hall;
+
+    @Before
+    public void setUp() {
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_BOOKINGS_FILE);
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_HALLS_FILE);
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_PAYMENT_FILE);
+
+        Movie movie = new Movie(1, "Test Movie", 2.0, "Test Director", "2025-01-01");
+        hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        showtime = new Showtime(movie, 2025, 1, 15, "10:00 AM", hall);
+
+        recording = new Recording();
+        for (String name : new String[]{"SeatReserve", "SeatConfirm", "PaymentPersist", "FileLoad", "ReportGenerate"}) {
+            recording.enable("ticketing." + name).withThreshold(Duration.ZERO);
+        }
+        recording.start();
+    }
+
+    @After
+    public void tearDown() {
+        recording.close();
+        RECORDING_FILE.delete();
+        new File(TEST_BOOKINGS_FILE).delete();
+        new File(TEST_HALLS_FILE).delete();
+        new File(TEST_PAYMENT_FILE).delete();
+    }
+
+    private List<RecordedEvent> stopAndRead(String eventName) throws Exception {
+        recording.stop();
+        Path path = RECORDING_FILE.toPath();
+        recording.dump(path);
+        return RecordingFile.readAllEvents(path).stream()
+            .filter(e -> e.getEventType().getName().equals(eventName))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSeatEvents_CarryShowtimeKeyAndSeatCount() throws Exception {
+        FileSeatRepository repository = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        List<SeatId> seats = Arrays.asList(new SeatId('A', 1), new SeatId('A', 2));
+        repository.reserveSeats(showtime, seats);
+        repository.confirmCartReservation(showtime, seats);
+
+        List<RecordedEvent> reserves = stopAndRead("ticketing.SeatReserve");
+        assertEquals(1, reserves.size());
+        assertEquals("1_2025-01-15_10:00 AM", reserves.get(0).getString("showtimeKey"));
+        assertEquals(2, reserves.get(0).getInt("seatCount"));
+        assertFalse(reserves.get(0).getBoolean("conflict"));
+
+        List<RecordedEvent> confirms = RecordingFile.readAllEvents(RECORDING_FILE.toPath()).stream()
+            .filter(e -> e.getEventType().getName().equals("ticketing.SeatConfirm"))
+            .collect(Collectors.toList());
+        assertEquals(1, confirms.size());
+        assertEquals(2, confirms.get(0).getInt("seatCount"));
+    }
+
+    @Test
+    public void testFileLoad_RecordsBytesAndRecords() throws Exception {
+        DataFileHandler.saveToJsonFile(Arrays.asList("{\"a\":1}", "{\"a\":2}"), TEST_PAYMENT_FILE);
+        DataFileHandler.loadFromJsonFile(TEST_PAYMENT_FILE);
+
+        RecordedEvent load = stopAndRead("ticketing.FileLoad").stream()
+            .filter(e -> TEST_PAYMENT_FILE.equals(e.getString("path")))
+            .findFirst().orElseThrow();
+        assertTrue(load.getBoolean("found"));
+        assertEquals(2, load.getInt("recordCount"));
+        assertEquals(new File(TEST_PAYMENT_FILE).length(), load.getLong("bytes"));
+    }
+
+    @Test
+    public void testPaymentAndReport_Events() throws Exception {
+        PaymentRepository payments = new PaymentRepository(TEST_PAYMENT_FILE);
+        ArrayList<Seat> seats = new ArrayList<>();
+        seats.add(new Seat(new SeatId('B', 1), "Single", "Booked", hall));
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        tickets.add(new Ticket(showtime, 1, hall, seats));
+        Payment payment = new Payment(Optional.of(new Customer("Jfr Tester", "pw")), tickets, new ArrayList<>(), 15.00, true);
+        payments.savePayment(payment);
+
+        new ReportService(payments).getMoviePurchaseReport();
+
+        RecordedEvent persist = stopAndRead("ticketing.PaymentPersist").get(0);
+        assertEquals(payment.getPaymentID(), persist.getInt("paymentId"));
+        assertEquals(1, persist.getInt("recordCount"));
+        assertTrue(persist.getLong("bytes") > 0);
+
+        RecordedEvent report = RecordingFile.readAllEvents(RECORDING_FILE.toPath()).stream()
+            .filter(e -> e.getEventType().getName().equals("ticketing.ReportGenerate"))
+            .findFirst().orElseThrow();
+        assertEquals("MoviePurchase", report.getString("report"));
+        assertEquals("TextReportSink", report.getString("output"));
+        assertEquals(1, report.getInt("rowCount"));
+    }
+}
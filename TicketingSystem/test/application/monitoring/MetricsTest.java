@@ -0,0 +1,136 @@
+package application.monitoring;
+
+import domain.*;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.SeatUnavailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.management.MBeanServer;
+
+/**
+ * Unit tests for the JMX metrics surface
+ */
+public class MetricsTest {
+
+    private static final String TEST_BOOKINGS_FILE = "bookings_metrics_test.json";
+    private static final String TEST_HALLS_FILE = "halls_metrics_test.json";
+
+    private FileSeatRepository repository;
+    private Showtime showtime;
+
+    @Before
+    public void setUp() {
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_BOOKINGS_FILE);
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_HALLS_FILE);
+        repository = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+
+        Movie movie = new Movie(1, "Test Movie", 2.0, "Test Director", "2025-01-01");
+        CinemaHall hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        showtime = new Showtime(movie, 2025, 1, 15, "10:00 AM", hall);
+        Metrics.resetAll();
+    }
+
+    @After
+    public void tearDown() {
+        new File(TEST_BOOKINGS_FILE).delete();
+        new File(TEST_HALLS_FILE).delete();
+        Metrics.GAUGES.bindActiveHolds(() -> 0);
+        Metrics.GAUGES.bindShowtimeKeys(() -> 0);
+    }
+
+    // ========== HISTOGRAM ==========
+
+    @Test
+    public void testHistogram_PercentilesFallInRightBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) histogram.record(100_000);    // 100 µs
+        for (int i = 0; i < 10; i++) histogram.record(50_000_000); // 50 ms
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(128, histogram.percentileMicros(50));          // bucket [64, 128)
+        assertEquals(50_000, histogram.percentileMicros(99));       // capped at max seen
+        assertEquals(50_000, histogram.getMaxMicros());
+        assertEquals((90 * 100 + 10 * 50_000) / 100.0, histogram.getMeanMicros(), 0.001);
+    }
+
+    @Test
+    public void testHistogram_EmptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileMicros(99));
+
+        histogram.record(5_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void testHistogram_HugeValuesGoToLastBucket() {
+        assertEquals(0, LatencyHistogram.bucketFor(0));
+        assertEquals(1, LatencyHistogram.bucketFor(1));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketFor(Long.MAX_VALUE));
+    }
+
+    // ========== INSTRUMENTED PATHS ==========
+
+    @Test
+    public void testReserveSeats_CountsSuccessAndConflict() {
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+        try {
+            repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+            fail("Expected a seat conflict");
+        } catch (SeatUnavailableException expected) {
+            // counted as an error below
+        }
+
+        assertEquals(2, Metrics.SEAT_RESERVE.getCount());
+        assertEquals(1, Metrics.SEAT_RESERVE.getErrorCount());
+    }
+
+    @Test
+    public void testConfirm_RecordsFileWriteBytes() {
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('B', 2)));
+        repository.confirmCartReservation(showtime, Arrays.asList(new SeatId('B', 2)));
+
+        assertEquals(1, Metrics.SEAT_CONFIRM.getCount());
+        assertTrue(Metrics.FILE_WRITE.getCount() >= 1);
+        assertEquals(new File(TEST_BOOKINGS_FILE).length(), Metrics.FILE_WRITE.getBytes());
+    }
+
+    // ========== JMX ==========
+
+    @Test
+    public void testMBeans_ReadableThroughPlatformServer() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('C', 3), new SeatId('C', 4)));
+        Metrics.GAUGES.bindActiveHolds(repository::getActiveHoldCount);
+        Metrics.GAUGES.bindShowtimeKeys(repository::getShowtimeKeyCount);
+
+        Object count = server.getAttribute(Metrics.objectName("Operation", "SeatReserve"), "Count");
+        assertEquals(1L, count);
+
+        Object holds = server.getAttribute(Metrics.objectName("Gauges", "BoxOffice"), "ActiveHolds");
+        Object keys = server.getAttribute(Metrics.objectName("Gauges", "BoxOffice"), "ShowtimeKeys");
+        assertEquals(2L, holds);
+        assertEquals(1L, keys);
+    }
+
+    @Test
+    public void testMBeanReset_ClearsOperation() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('D', 1)));
+
+        server.invoke(Metrics.objectName("Operation", "SeatReserve"), "reset", null, null);
+
+        assertEquals(0, Metrics.SEAT_RESERVE.getCount());
+    }
+}
@@ -0,0 +1,91 @@
+package application.services;
+
+import domain.Customer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CustomerNameIndex
+ */
+public class CustomerNameIndexTest {
+
+    private static List<Customer> customers(String... names) {
+        List<Customer> list = new ArrayList<>();
+        for (String name : names) {
+            list.add(new Customer(name, "password"));
+        }
+        return list;
+    }
+
+    private static List<String> names(List<Customer> customers) {
+        return customers.stream().map(Customer::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindByPrefix_IgnoresCaseAndSortsByName() {
+        CustomerNameIndex index = new CustomerNameIndex(customers("bob", "Alice", "alfred", "Albert", "Carol"));
+
+        assertEquals(List.of("Albert", "alfred", "Alice"), names(index.findByPrefix("AL", 10)));
+        assertEquals(List.of("Albert", "alfred"), names(index.findByPrefix("al", 2)));
+        assertEquals(List.of("Carol"), names(index.findByPrefix(" car ", 10)));
+        assertTrue(index.findByPrefix("zed", 10).isEmpty());
+    }
+
+    @Test
+    public void testBlankPrefix_MatchesEveryone() {
+        CustomerNameIndex index = new CustomerNameIndex(customers("bob", "Alice", "Carol"));
+
+        assertEquals(List.of("Alice", "bob", "Carol"), names(index.findByPrefix("", 10)));
+        assertEquals(3, index.findByPrefix(null, 10).size());
+    }
+
+    @Test
+    public void testAddAndRemove_VisibleBeforeMerge() {
+        CustomerNameIndex index = new CustomerNameIndex(customers("Alice", "Carol"), 100);
+
+        index.add(new Customer("Alan", "password"));
+        index.remove("ALICE");
+
+        assertEquals(List.of("Alan"), names(index.findByPrefix("al", 10)));
+        assertEquals(2, index.size());
+
+        index.add(new Customer("Alice", "password"));
+        assertEquals(List.of("Alan", "Alice"), names(index.findByPrefix("al", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testMerge_KeepsOrderAndRemovals() {
+        CustomerNameIndex index = new CustomerNameIndex(customers("m1", "m3", "m5"), 3);
+
+        index.add(new Customer("m2", "password"));
+        index.remove("m3");
+        index.add(new Customer("m4", "password")); // third change: merged
+
+        assertEquals(List.of("m1", "m2", "m4", "m5"), names(index.findByPrefix("m", 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testLargeIndex_ReturnsTopMatches() {
+        List<Customer> many = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            many.add(Customer.fromHistory(String.format("user%06d", i)));
+        }
+        CustomerNameIndex index = new CustomerNameIndex(many);
+
+        List<String> top = names(index.findByPrefix("user1234", 5));
+
+        assertEquals(List.of("user123400", "user123401", "user123402", "user123403", "user123404"), top);
+        assertEquals(200_000, index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindByPrefix_RejectsNonPositiveLimit() {
+        new CustomerNameIndex(customers("Alice")).findByPrefix("a", 0);
+    }
+}
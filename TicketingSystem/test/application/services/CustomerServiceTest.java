@@ -145,4 +145,42 @@ public class CustomerServiceTest {
         assertFalse(service.deleteCustomer(""));
         assertFalse(service.deleteCustomer("   "));
     }
-}
\ No newline at end of file
+
+    // ---------------------------
+    // Persistence (append log)
+    // ---------------------------
+    @Test
+    public void testAddAndDelete_SurviveRestart() {
+        service.addCustomer(new Customer("Charlie", "pass789"));
+        service.deleteCustomer("Alice");
+
+        CustomerService restarted = new CustomerService(TEST_FILE);
+
+        assertEquals(2, restarted.getCustomerList().size());
+        assertTrue(restarted.getCustomerList().stream().anyMatch(c -> c.getName().equals("Charlie")));
+        assertFalse(restarted.getCustomerList().stream().anyMatch(c -> c.getName().equals("Alice")));
+    }
+
+    @Test
+    public void testAddCustomer_AppendsWithoutRewriting() {
+        int before = DataFileHandler.loadFromJsonFile(TEST_FILE).size();
+
+        service.addCustomer(new Customer("Charlie", "pass789"));
+
+        List<String> lines = DataFileHandler.loadFromJsonFile(TEST_FILE);
+        assertEquals(before + 1, lines.size());
+        assertTrue("Staff line is left in place, not rewritten", lines.get(2).contains(AuthService.STAFF_ID));
+    }
+
+    @Test
+    public void testSearchCustomers_FollowsAddAndDelete() {
+        service.addCustomer(new Customer("Alina", "pw"));
+        assertEquals(2, service.searchCustomers("ali", 10).size());
+
+        service.deleteCustomer("alice");
+        List<Customer> matches = service.searchCustomers("ALI", 10);
+        assertEquals(1, matches.size());
+        assertEquals("Alina", matches.get(0).getName());
+        assertTrue("Staff account is not indexed", service.searchCustomers(AuthService.STAFF_ID, 10).isEmpty());
+    }
+}
@@ -1,9 +1,14 @@
 package application.services;
 
 import domain.Food;
+import domain.FoodOrderList;
 import domain.factory.FoodFactory;
+import infrastructure.repositories.DataFileHandler;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -181,4 +186,169 @@ public class FoodServiceTest {
         assertFalse(result);
     }
 
-}
\ No newline at end of file
+    // ========== ORDER INDEX TESTS ==========
+
+    @Test
+    public void testAddOrMergeOrder_foodOrderListMergesByTypeAndName() {
+        FoodService service = new FoodService();
+        FoodOrderList orders = new FoodOrderList();
+
+        service.addOrMergeOrder(orders, FoodFactory.createMenuItem("Beverage", "Cola", 5.0), 5.0);
+        service.addOrMergeOrder(orders, FoodFactory.createMenuItem("Popcorn", "Cola", 7.0), 7.0);
+        service.addOrMergeOrder(orders, FoodFactory.createMenuItem("Beverage", "Cola", 5.0), 5.0);
+
+        assertEquals(2, orders.size());
+        assertEquals(2, orders.get(0).getQty());
+        assertEquals(10.0, orders.get(0).getPrice(), 0.001);
+    }
+
+    @Test
+    public void testFoodOrderList_indexFollowsDirectChanges() {
+        FoodService service = new FoodService();
+        FoodOrderList orders = new FoodOrderList();
+        service.addOrMergeOrder(orders, FoodFactory.createMenuItem("Beverage", "Cola", 5.0), 5.0);
+
+        // Removing behind the index's back must not merge into the detached line
+        service.removeOrderItem(orders, 0);
+        service.addOrMergeOrder(orders, FoodFactory.createMenuItem("Beverage", "Cola", 5.0), 5.0);
+        assertEquals(1, orders.size());
+        assertEquals(1, orders.get(0).getQty());
+
+        orders.set(0, FoodFactory.createMenuItem("Beverage", "Tea", 3.0));
+        assertNull(orders.findSame(FoodFactory.createMenuItem("Beverage", "Cola", 5.0)));
+        assertSame(orders.get(0), orders.findSame(FoodFactory.createMenuItem("Beverage", "Tea", 3.0)));
+    }
+
+    // ========== STOCK TESTS ==========
+
+    private static final String TEST_STOCK_FILE = "food_stock_test.json";
+
+    private FoodService serviceWithStock(long hotdogs) {
+        DataFileHandler.saveToJsonFile(List.of(
+            "{\"type\":\"HotFood\",\"name\":\"Hotdog Sandwich\",\"stock\":" + hotdogs + ",\"lowStock\":3}"),
+            TEST_STOCK_FILE);
+        return new FoodService(TEST_STOCK_FILE);
+    }
+
+    private Food hotdogs(int qty) {
+        Food item = FoodFactory.createMenuItem("HotFood", "Hotdog Sandwich", 9.0);
+        item.setQty(qty);
+        item.calPrice();
+        return item;
+    }
+
+    @Test
+    public void testCommitStock_DecrementsAndPersists() {
+        FoodService service = serviceWithStock(10);
+        try {
+            service.commitStock(List.of(hotdogs(4), FoodFactory.createMenuItem("Beverage", "Cola", 5.0)));
+
+            assertEquals(6, service.getStock("HotFood", "Hotdog Sandwich").get().getRemaining());
+            assertEquals(4, service.getStock("HotFood", "Hotdog Sandwich").get().getSold());
+            assertFalse("Untracked items never sell out", service.getStock("Beverage", "Cola").isPresent());
+            assertEquals(6, new FoodService(TEST_STOCK_FILE).getStock("HotFood", "Hotdog Sandwich").get().getRemaining());
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+
+    @Test
+    public void testCommitStock_OutOfStockTakesNothing() {
+        FoodService service = serviceWithStock(3);
+        try {
+            service.commitStock(List.of(hotdogs(2), hotdogs(2)));
+            fail("Only 3 hotdogs for an order of 4");
+        } catch (OutOfStockException expected) {
+            assertEquals(3, service.getStock("HotFood", "Hotdog Sandwich").get().getRemaining());
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+
+    @Test
+    public void testLowStockAlert_FiresOncePerDip() {
+        FoodService service = serviceWithStock(6);
+        List<String> alerts = new ArrayList<>();
+        service.addLowStockListener(level -> alerts.add(level.getName() + ":" + level.getRemaining()));
+        try {
+            service.commitStock(List.of(hotdogs(2)));   // 4 left, above threshold
+            service.commitStock(List.of(hotdogs(1)));   // 3 left, alert
+            service.commitStock(List.of(hotdogs(1)));   // 2 left, already alerted
+            assertEquals(List.of("Hotdog Sandwich:3"), alerts);
+            assertEquals(1, service.getLowStockItems().size());
+
+            service.restock("HotFood", "Hotdog Sandwich", 10);
+            service.commitStock(List.of(hotdogs(9)));   // back down to 3, alert again
+            assertEquals(2, alerts.size());
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+
+    @Test
+    public void testCommitStock_ConcurrentTillsNeverOversell() throws InterruptedException {
+        FoodService service = serviceWithStock(50);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        List<Thread> tills = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                tills.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        go.await();
+                        service.commitStock(List.of(hotdogs(1)));
+                        sold.incrementAndGet();
+                    } catch (OutOfStockException expected) {
+                        // sold out
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            go.countDown();
+            for (Thread t : tills) {
+                t.join();
+            }
+
+            assertEquals(50, sold.get());
+            assertEquals(0, service.getStock("HotFood", "Hotdog Sandwich").get().getRemaining());
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+
+    @Test
+    public void testReleaseStock_ReturnsUnpaidOrder() {
+        FoodService service = serviceWithStock(5);
+        try {
+            List<Food> order = List.of(hotdogs(5));
+            service.commitStock(order);
+            assertFalse(service.hasStock("HotFood", "Hotdog Sandwich", 1));
+
+            service.releaseStock(order);
+            assertTrue(service.hasStock("HotFood", "Hotdog Sandwich", 5));
+            assertTrue("Released stock is saved",
+                       new FoodService(TEST_STOCK_FILE).hasStock("HotFood", "Hotdog Sandwich", 5));
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+
+    @Test
+    public void testReloadMenu_KeepsStockAndNumbering() {
+        FoodService service = serviceWithStock(5);
+        try {
+            List<Food> before = service.getMenuByType("HotFood");
+            int nextNum = Food.getLastNum();
+
+            service.reloadMenu();
+
+            List<Food> after = service.getMenuByType("HotFood");
+            assertEquals(before.size(), after.size());
+            assertTrue("Reloaded items get fresh numbers", after.get(0).getFoodNum() >= nextNum);
+            assertTrue(service.hasStock("HotFood", "Hotdog Sandwich", 5));
+        } finally {
+            new File(TEST_STOCK_FILE).delete();
+        }
+    }
+}
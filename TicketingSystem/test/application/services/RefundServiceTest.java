@@ -0,0 +1,169 @@
+package application.services;
+
+import domain.CinemaHall;
+import domain.Customer;
+import domain.Food;
+import domain.Movie;
+import domain.Payment;
+import domain.Popcorn;
+import domain.Seat;
+import domain.Showtime;
+import domain.Ticket;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.PaymentRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Unit tests for RefundService against real file repositories.
+ */
+public class RefundServiceTest {
+
+    private static final String TEST_PAYMENT_FILE = "payment_refund_test.json";
+    private static final String TEST_BOOKINGS_FILE = "bookings_refund_test.json";
+    private static final String TEST_HALLS_FILE = "halls_refund_test.json";
+
+    private PaymentRepository paymentRepository;
+    private FileSeatRepository seatRepository;
+    private RefundService refundService;
+    private Showtime showtime;
+    private List<SeatId> seatIds;
+
+    @Before
+    public void setUp() {
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_PAYMENT_FILE);
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_BOOKINGS_FILE);
+        DataFileHandler.saveToJsonFile(Collections.emptyList(), TEST_HALLS_FILE);
+        paymentRepository = new PaymentRepository(TEST_PAYMENT_FILE);
+        seatRepository = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        refundService = new RefundService(paymentRepository, seatRepository);
+
+        CinemaHall hall = seatRepository.getAllHalls().get(0);
+        showtime = new Showtime(new Movie(1, "Refund Movie", 2.0, "Director", "2025-01-01"),
+                                2025, 3, 1, "10:00 AM", hall);
+        seatIds = Arrays.asList(new SeatId('C', 1), new SeatId('C', 2));
+    }
+
+    @After
+    public void tearDown() {
+        for (String f : new String[]{TEST_PAYMENT_FILE, TEST_BOOKINGS_FILE, TEST_HALLS_FILE}) {
+            new File(f).delete();
+            new File(f + ".lock").delete();
+        }
+    }
+
+    private Payment sell() {
+        seatRepository.reserveSeats(showtime, seatIds);
+        seatRepository.confirmCartReservation(showtime, seatIds);
+        ArrayList<Seat> seats = new ArrayList<>();
+        for (SeatId id : seatIds) {
+            seats.add(new Seat(id, "Single", "Sold", showtime.getCinemaHall()));
+        }
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        tickets.add(new Ticket(showtime, seats.size(), showtime.getCinemaHall(), seats));
+        ArrayList<Food> food = new ArrayList<>();
+        Popcorn popcorn = new Popcorn("Large Popcorn", 12.00);
+        popcorn.setQty(2);
+        popcorn.setPriceCents(2400);
+        food.add(popcorn);
+
+        Payment payment = new Payment(Optional.of(new Customer("Alice", "pw")), tickets, food, 0.0, true);
+        payment.setTotalPriceCents(payment.getTotalTicketPriceCents() + 2400);
+        paymentRepository.savePayment(payment);
+        return payment;
+    }
+
+    @Test
+    public void testRefund_WritesCompensatingRecord() {
+        Payment sale = sell();
+
+        Payment refund = refundService.refund(sale.getPaymentID());
+
+        assertTrue(refund.isRefund());
+        assertEquals(sale.getPaymentID(), refund.getRefundOf());
+        assertEquals(-sale.getTotalPriceCents(), refund.getTotalPriceCents());
+        assertEquals(-sale.getTotalTicketPriceCents(), refund.getTotalTicketPriceCents());
+        assertEquals(-2400, refund.getTotalFoodPriceCents());
+        assertEquals(-2, refund.getTicketAmt());
+        assertEquals(refund.getPaymentID(), paymentRepository.findRefundFor(sale.getPaymentID()).get().getPaymentID());
+        assertEquals(2, paymentRepository.findByCustomer("Alice").size());
+    }
+
+    @Test
+    public void testRefund_ReleasesSeats() {
+        Payment sale = sell();
+
+        refundService.refund(sale.getPaymentID());
+
+        assertEquals("Available", seatRepository.findSeat(showtime, seatIds.get(0)).get().getSeatStatus());
+        seatRepository.reserveSeats(showtime, seatIds); // can be sold again
+    }
+
+    @Test
+    public void testRefund_FailedRecordKeepsSeatsSold() {
+        Payment sale = sell();
+        // A directory in place of the history file makes the append fail
+        File history = new File(TEST_PAYMENT_FILE);
+        assertTrue(history.delete());
+        assertTrue(history.mkdir());
+
+        try {
+            refundService.refund(sale.getPaymentID());
+            fail("The refund could not be recorded");
+        } catch (java.io.UncheckedIOException expected) {
+            // nothing refunded
+        } finally {
+            history.delete();
+        }
+
+        assertFalse(paymentRepository.findRefundFor(sale.getPaymentID()).isPresent());
+        assertNotEquals("Available", seatRepository.findSeat(showtime, seatIds.get(0)).get().getSeatStatus());
+    }
+
+    @Test
+    public void testRefund_TotalsNetToZeroAfterReload() {
+        Payment sale = sell();
+        refundService.refund(sale.getPaymentID());
+
+        PaymentRepository reloaded = new PaymentRepository(TEST_PAYMENT_FILE);
+        long revenue = 0;
+        long tickets = 0;
+        for (Payment p : reloaded.getAllPayments()) {
+            revenue += p.getTotalPriceCents();
+            tickets += p.getTotalTicketPriceCents();
+        }
+
+        assertEquals(0, revenue);
+        assertEquals(0, tickets);
+        assertTrue(reloaded.findRefundFor(sale.getPaymentID()).isPresent());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRefund_Twice_Rejected() {
+        Payment sale = sell();
+        refundService.refund(sale.getPaymentID());
+        refundService.refund(sale.getPaymentID());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRefund_OfRefund_Rejected() {
+        Payment refund = refundService.refund(sell().getPaymentID());
+        refundService.refund(refund.getPaymentID());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRefund_UnknownPayment_Rejected() {
+        refundService.refund(999_999);
+    }
+}
@@ -0,0 +1,167 @@
+package application.services;
+
+import application.utilities.TextReportSink;
+import domain.*;
+import domain.valueobjects.SeatId;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.PaymentRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Unit tests for ReportCache against a real payment history
+ */
+public class ReportCacheTest {
+
+    private static final String TEST_FILE = "report_cache_test.json";
+    private static final File PDF_A = new File("report_cache_test_a.pdf");
+    private static final File PDF_B = new File("report_cache_test_b.pdf");
+
+    private PaymentRepository repository;
+    private ReportService reportService;
+    private ReportCache cache;
+
+    private Customer customer;
+    private CinemaHall hall;
+    private Movie movie;
+
+    @Before
+    public void setUp() {
+        DataFileHandler.saveToJsonFile(new ArrayList<>(), TEST_FILE);
+        Payment.setLastID(0);
+
+        customer = new Customer("Cache Tester", "password");
+        hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        movie = new Movie(1, "Dune: Part 1", 2.35, "Denis Villeneuve", "October 22, 2021");
+
+        repository = new PaymentRepository(TEST_FILE);
+        reportService = new ReportService(repository);
+        cache = new ReportCache(reportService, repository);
+    }
+
+    @After
+    public void tearDown() {
+        new File(TEST_FILE).delete();
+        PDF_A.delete();
+        PDF_B.delete();
+    }
+
+    private Payment payment(int seatCount, double foodPrice) {
+        ArrayList<Seat> seats = new ArrayList<>();
+        for (int c = 1; c <= seatCount; c++) {
+            seats.add(new Seat(SeatId.of('A', c), "Single", "Booked", hall));
+        }
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        tickets.add(new Ticket(new Showtime(movie, 2025, 12, 15, "10:00 AM", hall), seatCount, hall, seats));
+
+        ArrayList<Food> foods = new ArrayList<>();
+        if (foodPrice > 0) {
+            Popcorn popcorn = new Popcorn("Large Popcorn", foodPrice);
+            popcorn.setQty(1);
+            foods.add(popcorn);
+        }
+        return new Payment(Optional.of(customer), tickets, foods, 0, true);
+    }
+
+    @Test
+    public void testEmptyHistory_MatchesReportService() {
+        assertEquals(reportService.getMoviePurchaseReport(), cache.getMoviePurchaseReport());
+        assertEquals(reportService.getFoodPurchaseReport(), cache.getFoodPurchaseReport());
+        assertEquals(reportService.generateSalesSummaryReport(), cache.getSalesSummaryReport());
+    }
+
+    @Test
+    public void testRepeatedReport_ServedFromCache() {
+        repository.savePayment(payment(2, 12.00));
+
+        String first = cache.getMoviePurchaseReport();
+        String second = cache.getMoviePurchaseReport();
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getRebuildCount());
+        assertEquals(reportService.getMoviePurchaseReport(), first);
+    }
+
+    @Test
+    public void testNewPayments_AddedFromWatermark() {
+        repository.savePayment(payment(2, 12.00));
+        cache.getMoviePurchaseReport();
+        cache.getFoodPurchaseReport();
+        cache.getSalesSummaryReport();
+
+        repository.savePayment(payment(1, 8.50));
+        repository.savePayment(payment(3, 0));
+
+        assertEquals(reportService.getMoviePurchaseReport(), cache.getMoviePurchaseReport());
+        assertEquals(reportService.getFoodPurchaseReport(), cache.getFoodPurchaseReport());
+        assertEquals(reportService.generateSalesSummaryReport(), cache.getSalesSummaryReport());
+        assertTrue(cache.getSalesSummaryReport().contains("Total Number of Transactions: 3"));
+        assertEquals(3, cache.getRebuildCount());
+        assertEquals(3, cache.getIncrementalUpdateCount());
+    }
+
+    @Test
+    public void testInvalidate_RebuildsFromStart() {
+        repository.savePayment(payment(2, 12.00));
+        cache.getSalesSummaryReport();
+
+        cache.invalidate();
+
+        assertEquals(reportService.generateSalesSummaryReport(), cache.getSalesSummaryReport());
+        assertEquals(2, cache.getRebuildCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testPdfExport_ReusesBytesUntilNewPayment() throws Exception {
+        repository.savePayment(payment(2, 12.00));
+
+        cache.exportSalesSummaryToPdf(PDF_A);
+        cache.exportSalesSummaryToPdf(PDF_B);
+
+        assertEquals(1, cache.getHitCount());
+        assertArrayEquals(Files.readAllBytes(PDF_A.toPath()), Files.readAllBytes(PDF_B.toPath()));
+
+        repository.savePayment(payment(1, 0));
+        cache.exportSalesSummaryToPdf(PDF_B);
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getIncrementalUpdateCount());
+        assertTrue(PDF_B.length() > 0);
+    }
+
+    @Test
+    public void testQueuedExportRendering_MatchesText() {
+        repository.savePayment(payment(2, 12.00));
+        repository.savePayment(payment(1, 8.50));
+        cache.getMoviePurchaseReport();
+
+        StringBuilder out = new StringBuilder();
+        cache.writeMoviePurchaseReport(new TextReportSink(out));
+
+        assertEquals(cache.getMoviePurchaseReport(), out.toString());
+        assertEquals(2, cache.getMoviePurchaseRowCount());
+        assertEquals(2, cache.getFoodPurchaseRowCount());
+        assertEquals(2, cache.getRebuildCount()); // movie and food once each
+    }
+
+    @Test
+    public void testPdfOverLimit_NotKept() throws Exception {
+        ReportCache small = new ReportCache(reportService, repository, 0);
+        repository.savePayment(payment(2, 12.00));
+
+        small.exportMoviePurchaseToPdf(PDF_A);
+        small.exportMoviePurchaseToPdf(PDF_B);
+
+        assertEquals(0, small.getHitCount());
+        assertTrue(PDF_B.length() > 0);
+    }
+}
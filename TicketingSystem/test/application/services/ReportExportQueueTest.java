@@ -0,0 +1,183 @@
+package application.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for ReportExportQueue and ExportJob
+ */
+public class ReportExportQueueTest {
+
+    private static final int[] WIDTHS = {6, 30};
+
+    private ReportExportQueue queue;
+    private List<File> files;
+
+    @Before
+    public void setUp() {
+        queue = new ReportExportQueue(2);
+        files = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        queue.shutdown();
+        queue.awaitTermination(5, TimeUnit.SECONDS);
+        for (File f : files) {
+            f.delete();
+        }
+    }
+
+    private File tempFile(String name) {
+        File f = new File("test_export_" + name + ".pdf");
+        f.delete();
+        files.add(f);
+        return f;
+    }
+
+    @Test
+    public void testSubmit_WritesFileAndReportsFullProgress() throws InterruptedException {
+        File out = tempFile("done");
+        List<Double> progress = new ArrayList<>();
+
+        ExportJob job = queue.submit("Rows", out, sink -> {
+            sink.beginTable(new String[]{"No.", "Name"}, WIDTHS);
+            for (int i = 1; i <= 50; i++) {
+                sink.row(Integer.toString(i), "Row " + i);
+            }
+            sink.endTable();
+        }, 50);
+        job.onUpdate(j -> {
+            synchronized (progress) {
+                progress.add(j.getProgress());
+            }
+        });
+
+        assertTrue(job.await(10, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.DONE, job.getState());
+        assertEquals(1.0, job.getProgress(), 0.001);
+        assertTrue(out.exists());
+        assertTrue(out.length() > 0);
+        synchronized (progress) {
+            assertFalse(progress.isEmpty());
+        }
+    }
+
+    @Test
+    public void testCancel_RunningJobDiscardsOutput() throws InterruptedException {
+        File out = tempFile("cancel");
+        CountDownLatch started = new CountDownLatch(1);
+
+        ExportJob job = queue.submit("Endless", out, sink -> {
+            sink.beginTable(new String[]{"No.", "Name"}, WIDTHS);
+            for (int i = 1; ; i++) {
+                sink.row(Integer.toString(i), "Row " + i);
+                started.countDown();
+            }
+        }, 0);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertEquals(-1, job.getProgress(), 0.001); // unknown row count
+        job.cancel();
+
+        assertTrue(job.await(10, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.CANCELLED, job.getState());
+        assertFalse("Cancelled export should not write a file", out.exists());
+    }
+
+    @Test
+    public void testCancel_QueuedJobNeverRuns() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<ExportJob> blockers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            blockers.add(queue.submit("Blocker " + i, tempFile("blocker" + i), sink -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0));
+        }
+
+        File out = tempFile("queued");
+        ExportJob queued = queue.submit("Queued", out, sink -> sink.text("never"), 0);
+        queued.cancel();
+        release.countDown();
+
+        assertTrue(queued.await(10, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.CANCELLED, queued.getState());
+        for (ExportJob b : blockers) {
+            assertTrue(b.await(10, TimeUnit.SECONDS));
+        }
+        assertFalse(out.exists());
+    }
+
+    @Test
+    public void testFailure_IsReportedOnJob() throws InterruptedException {
+        File out = tempFile("failed");
+
+        ExportJob job = queue.submit("Broken", out, sink -> {
+            throw new IllegalStateException("boom");
+        }, 0);
+
+        assertTrue(job.await(10, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertEquals("boom", job.getError().getMessage());
+        assertFalse(out.exists());
+    }
+
+    @Test
+    public void testInvalidOutputPath_Fails() throws InterruptedException {
+        ExportJob job = queue.submit("Invalid", new File("/invalid/path/does/not/exist/r.pdf"),
+                                     sink -> sink.text("content"), 0);
+
+        assertTrue(job.await(10, TimeUnit.SECONDS));
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertNotNull(job.getError());
+    }
+
+    @Test
+    public void testJobs_RunInParallel() throws InterruptedException {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        List<ExportJob> jobs = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            jobs.add(queue.submit("Parallel " + i, tempFile("parallel" + i), sink -> {
+                bothRunning.countDown();
+                try {
+                    // Only completes if the other job is running at the same time
+                    if (!bothRunning.await(10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("jobs did not overlap");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                sink.text("done");
+            }, 0));
+        }
+
+        for (ExportJob job : jobs) {
+            assertTrue(job.await(15, TimeUnit.SECONDS));
+            assertEquals(ExportJob.State.DONE, job.getState());
+        }
+    }
+
+    @Test
+    public void testOnUpdate_CalledImmediatelyForFinishedJob() throws InterruptedException {
+        ExportJob job = queue.submit("Quick", tempFile("quick"), sink -> sink.text("x"), 0);
+        assertTrue(job.await(10, TimeUnit.SECONDS));
+
+        ExportJob.State[] seen = new ExportJob.State[1];
+        job.onUpdate(j -> seen[0] = j.getState());
+
+        assertEquals(ExportJob.State.DONE, seen[0]);
+    }
+}
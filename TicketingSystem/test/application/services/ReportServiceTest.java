@@ -18,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 import org.junit.runner.RunWith;
@@ -69,7 +70,7 @@ public class ReportServiceTest {
     // ---------------------------
     @Test
     public void testGetMoviePurchaseReport_noTickets() {
-        when(paymentRepository.getAllPayments()).thenReturn(new ArrayList<>());
+        when(paymentRepository.stream(any())).thenAnswer(inv -> Stream.empty());
 
         String report = reportService.getMoviePurchaseReport();
 
@@ -81,7 +82,7 @@ public class ReportServiceTest {
         Ticket ticket = mock(Ticket.class);
         when(ticket.getMovieName()).thenReturn("Avengers");
         when(ticket.getTicketAmt()).thenReturn(2);
-        when(ticket.ticketPrice()).thenReturn(15.0);
+        when(ticket.getTotalPriceCents()).thenReturn(3000L);
 
         ArrayList<Ticket> tickets = new ArrayList<>();
         tickets.add(ticket);
@@ -92,7 +93,7 @@ public class ReportServiceTest {
         ArrayList<Payment> payments = new ArrayList<>();
         payments.add(payment);
 
-        when(paymentRepository.getAllPayments()).thenReturn(payments);
+        when(paymentRepository.stream(any())).thenAnswer(inv -> payments.stream());
 
         String report = reportService.getMoviePurchaseReport();
 
@@ -106,7 +107,7 @@ public class ReportServiceTest {
     // ---------------------------
     @Test
     public void testGetFoodPurchaseReport_noFood() {
-        when(paymentRepository.getAllPayments()).thenReturn(new ArrayList<>());
+        when(paymentRepository.stream(any())).thenAnswer(inv -> Stream.empty());
 
         String report = reportService.getFoodPurchaseReport();
 
@@ -118,7 +119,7 @@ public class ReportServiceTest {
         Food food = mock(Food.class);
         when(food.getName()).thenReturn("Popcorn");
         when(food.getQty()).thenReturn(2);
-        when(food.getPrice()).thenReturn(12.0);
+        when(food.getPriceCents()).thenReturn(1200L);
 
         ArrayList<Food> foods = new ArrayList<>();
         foods.add(food);
@@ -129,7 +130,7 @@ public class ReportServiceTest {
         ArrayList<Payment> payments = new ArrayList<>();
         payments.add(payment);
 
-        when(paymentRepository.getAllPayments()).thenReturn(payments);
+        when(paymentRepository.stream(any())).thenAnswer(inv -> payments.stream());
 
         String report = reportService.getFoodPurchaseReport();
 
@@ -143,7 +144,7 @@ public class ReportServiceTest {
     // ---------------------------
     @Test
     public void testGenerateSalesSummaryReport_noPayments() {
-        when(paymentRepository.getAllPayments()).thenReturn(new ArrayList<>());
+        when(paymentRepository.stream(any())).thenAnswer(inv -> Stream.empty());
 
         String report = reportService.generateSalesSummaryReport();
 
@@ -153,20 +154,20 @@ public class ReportServiceTest {
     @Test
     public void testGenerateSalesSummaryReport_withPayments() {
         Payment payment1 = mock(Payment.class);
-        when(payment1.getTotalTicketPrice()).thenReturn(30);
-        when(payment1.getTotalFoodPrice()).thenReturn(20.0);
-        when(payment1.getTotalPrice()).thenReturn(50.0);
+        when(payment1.getTotalTicketPriceCents()).thenReturn(3000L);
+        when(payment1.getTotalFoodPriceCents()).thenReturn(2000L);
+        when(payment1.getTotalPriceCents()).thenReturn(5000L);
 
         Payment payment2 = mock(Payment.class);
-        when(payment2.getTotalTicketPrice()).thenReturn(15);
-        when(payment2.getTotalFoodPrice()).thenReturn(5.0);
-        when(payment2.getTotalPrice()).thenReturn(20.0);
+        when(payment2.getTotalTicketPriceCents()).thenReturn(1500L);
+        when(payment2.getTotalFoodPriceCents()).thenReturn(500L);
+        when(payment2.getTotalPriceCents()).thenReturn(2000L);
 
         ArrayList<Payment> payments = new ArrayList<>();
         payments.add(payment1);
         payments.add(payment2);
 
-        when(paymentRepository.getAllPayments()).thenReturn(payments);
+        when(paymentRepository.stream(any())).thenAnswer(inv -> payments.stream());
 
         String report = reportService.generateSalesSummaryReport();
 
@@ -176,4 +177,30 @@ public class ReportServiceTest {
         assertTrue(report.contains("RM 25.00")); // food total
         assertTrue(report.contains("RM 70.00")); // grand total
     }
+
+    // ---------------------------
+    // PDF export
+    // ---------------------------
+    @Test
+    public void testExportToPdf_FailedReportLeavesNoFile() throws Exception {
+        java.io.File out = new java.io.File("report_service_abort_test.pdf");
+        out.delete();
+
+        try {
+            reportService.exportToPdf(out, "Broken Report", sink -> {
+                sink.text("Header");
+                sink.beginTable(new String[]{"No.", "Name"}, new int[]{4, 20});
+                for (int i = 0; i < 200; i++) {
+                    sink.row(Integer.toString(i), "Row " + i);
+                }
+                throw new IllegalStateException("report failed half way");
+            });
+            fail("The report failure must reach the caller");
+        } catch (IllegalStateException expected) {
+            assertEquals("report failed half way", expected.getMessage());
+        } finally {
+            assertFalse("No partial PDF may be left behind", out.exists());
+            out.delete();
+        }
+    }
 }
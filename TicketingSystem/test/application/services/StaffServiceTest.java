@@ -10,6 +10,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -348,4 +349,75 @@ public class StaffServiceTest {
         verify(reportService, times(1))
             .exportCustomerListToPdf(emptyList, testFile);
     }
-}
\ No newline at end of file
+    
+    // ========== BACKGROUND EXPORT TESTS ==========
+    
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitExport_WithoutQueueThrows() {
+        staffService.submitMoviePurchaseExport(new File("movie.pdf"));
+    }
+    
+    @Test
+    public void testSubmitMoviePurchaseExport_UsesQueue() throws InterruptedException {
+        ReportExportQueue queue = new ReportExportQueue(1);
+        StaffService queued = new StaffService(reportService, customerService,
+            Optional.of(queue), Optional.empty(), Optional.empty());
+        File testFile = new File("queued_movie.pdf");
+        when(reportService.countTicketRows()).thenReturn(3);
+        
+        try {
+            ExportJob job = queued.submitMoviePurchaseExport(testFile);
+            
+            assertTrue(job.await(10, java.util.concurrent.TimeUnit.SECONDS));
+            assertEquals(ExportJob.State.DONE, job.getState());
+            verify(reportService).writeMoviePurchaseReport(any());
+        } finally {
+            queue.shutdown();
+            testFile.delete();
+        }
+    }
+    
+    @Test
+    public void testSubmitExports_RenderFromReportCache() throws InterruptedException {
+        ReportExportQueue queue = new ReportExportQueue(1);
+        ReportCache cache = mock(ReportCache.class);
+        StaffService cached = new StaffService(reportService, customerService,
+            Optional.of(queue), Optional.empty(), Optional.of(cache));
+        File movieFile = new File("cached_movie.pdf");
+        File salesFile = new File("cached_sales.pdf");
+        when(cache.getMoviePurchaseRowCount()).thenReturn(3);
+        
+        try {
+            ExportJob movie = cached.submitMoviePurchaseExport(movieFile);
+            ExportJob sales = cached.submitSalesSummaryExport(salesFile);
+            
+            assertTrue(movie.await(10, java.util.concurrent.TimeUnit.SECONDS));
+            assertTrue(sales.await(10, java.util.concurrent.TimeUnit.SECONDS));
+            verify(cache).writeMoviePurchaseReport(any());
+            verify(cache).writeSalesSummaryReport(any());
+            verifyNoInteractions(reportService);
+        } finally {
+            queue.shutdown();
+            movieFile.delete();
+            salesFile.delete();
+        }
+    }
+    
+    // ========== REFUND TESTS ==========
+    
+    @Test(expected = IllegalStateException.class)
+    public void testRefundPayment_WithoutRefundServiceThrows() {
+        staffService.refundPayment(7);
+    }
+    
+    @Test
+    public void testRefundPayment_UsesRefundService() {
+        RefundService refunds = mock(RefundService.class);
+        StaffService withRefunds = new StaffService(reportService, customerService,
+            Optional.empty(), Optional.of(refunds), Optional.empty());
+        
+        withRefunds.refundPayment(7);
+        
+        verify(refunds).refund(7);
+    }
+}
@@ -0,0 +1,89 @@
+package application.simulation;
+
+import domain.CinemaHall;
+import domain.Seat;
+import domain.valueobjects.SeatId;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Unit tests for LoadSimulator
+ */
+public class LoadSimulatorTest {
+
+    @Test
+    public void testRun_NoDoubleSellsOrLostBookings() throws Exception {
+        LoadSimulator.Report report = new LoadSimulator(new LoadSimulator.Config()
+            .customers(300)
+            .halls(1)
+            .hallSize(5, 10)
+            .showtimesPerHall(1)
+            .seatsPerOrder(3)
+            .hotSeatSkew(1.0))
+            .run();
+
+        assertTrue(report.toString(), report.isConsistent());
+        assertTrue(report.checkouts > 0);
+        assertTrue("Cannot sell more seats than the hall has", report.seatsSold <= 50);
+        assertEquals(300, report.checkouts + report.soldOut + report.gaveUp + report.errors);
+        assertEquals(report.checkouts, report.checkoutLatency.getCount());
+    }
+
+    @Test
+    public void testRun_MappedStoreStaysConsistent() throws Exception {
+        LoadSimulator.Report report = new LoadSimulator(LoadSimulator.Config.fromArgs(new String[]{
+            "--customers=200", "--halls=1", "--rows=5", "--cols=10", "--showtimes=1", "--store=mapped"}))
+            .run();
+
+        assertTrue(report.toString(), report.isConsistent());
+        assertTrue(report.seatsSold <= 50);
+    }
+
+    @Test
+    public void testPickSeats_HotBuyersStayInTheMiddle() {
+        CinemaHall hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 9, 12);
+        List<Seat> seats = allAvailable(hall);
+
+        for (int i = 0; i < 50; i++) {
+            List<SeatId> pick = LoadSimulator.pickSeats(seats, hall, 2, true, ThreadLocalRandom.current());
+            assertEquals(2, pick.size());
+            assertEquals(pick.get(0).getRow(), pick.get(1).getRow());
+            assertEquals(pick.get(0).getColumn() + 1, pick.get(1).getColumn());
+            assertTrue(pick.get(0).getRow() >= 'D' && pick.get(0).getRow() <= 'F');
+            assertTrue(pick.get(0).getColumn() >= 5 && pick.get(1).getColumn() <= 8);
+        }
+    }
+
+    @Test
+    public void testPickSeats_FallsBackWhenHotBlockIsFull() {
+        CinemaHall hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 3, 3);
+        List<Seat> seats = new ArrayList<>();
+        for (Seat s : allAvailable(hall)) {
+            boolean onlyFree = s.getId().equals(new SeatId('A', 1));
+            seats.add(new Seat(s.getId(), "Single", onlyFree ? "Available" : "Booked", hall));
+        }
+
+        List<SeatId> pick = LoadSimulator.pickSeats(seats, hall, 1, true, ThreadLocalRandom.current());
+        assertEquals(List.of(new SeatId('A', 1)), pick);
+        assertTrue(LoadSimulator.pickSeats(seats, hall, 2, false, ThreadLocalRandom.current()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigFromArgs_RejectsUnknownOption() {
+        LoadSimulator.Config.fromArgs(new String[]{"--customers=10", "--bogus=1"});
+    }
+
+    private List<Seat> allAvailable(CinemaHall hall) {
+        List<Seat> seats = new ArrayList<>();
+        for (char r = 'A'; r < 'A' + hall.getRowAmt(); r++) {
+            for (int c = 1; c <= hall.getMaxSeatCol(); c++) {
+                seats.add(new Seat(new SeatId(r, c), "Single", "Available", hall));
+            }
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,173 @@
+package application.utilities;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Unit tests for AsyncLogHandler
+ */
+public class AsyncLogHandlerTest {
+
+    /** Collects records; can be held closed to simulate a stalled console. */
+    private static class CollectingHandler extends Handler {
+        final List<LogRecord> records = new ArrayList<>();
+        final List<String> threads = new ArrayList<>();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean closed;
+
+        CollectingHandler() {
+            setLevel(Level.INFO);
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (records) {
+                records.add(record);
+                threads.add(Thread.currentThread().getName());
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> messages() {
+            synchronized (records) {
+                List<String> out = new ArrayList<>();
+                for (LogRecord r : records) out.add(r.getMessage());
+                return out;
+            }
+        }
+    }
+
+    @Test
+    public void testRecords_DeliveredInOrderOnDrainThread() {
+        CollectingHandler sink = new CollectingHandler();
+        AsyncLogHandler handler = AsyncLogHandler.start(sink, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "m" + i));
+        }
+        handler.flush();
+
+        List<String> messages = sink.messages();
+        assertEquals(100, messages.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("m" + i, messages.get(i));
+        }
+        assertEquals("log-drain", sink.threads.get(0));
+        assertEquals(0, handler.getDroppedCount());
+        handler.close();
+    }
+
+    @Test
+    public void testDropPolicy_NeverBlocksCallerWhenFull() {
+        CollectingHandler sink = new CollectingHandler();
+        sink.gate = new CountDownLatch(1); // console stalled
+        AsyncLogHandler handler = AsyncLogHandler.start(sink, 4, AsyncLogHandler.OverflowPolicy.DROP);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            handler.publish(new LogRecord(Level.INFO, "m" + i));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("Publishing must not wait for the console", elapsedMs < 1000);
+        assertTrue(handler.getDroppedCount() > 0);
+
+        sink.gate.countDown();
+        handler.close();
+        assertTrue(sink.closed);
+        // The drain thread reports the drops once it catches up
+        assertTrue(sink.messages().stream().anyMatch(m -> m.contains("dropped")));
+    }
+
+    @Test
+    public void testBlockPolicy_WaitsInsteadOfDropping() throws InterruptedException {
+        CollectingHandler sink = new CollectingHandler();
+        sink.gate = new CountDownLatch(1);
+        AsyncLogHandler handler = AsyncLogHandler.start(sink, 2, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                handler.publish(new LogRecord(Level.INFO, "m" + i));
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertTrue("Producer should be held back by the full buffer", producer.isAlive());
+
+        sink.gate.countDown();
+        producer.join(5000);
+        handler.flush();
+
+        assertEquals(20, sink.messages().size());
+        assertEquals(0, handler.getDroppedCount());
+        handler.close();
+    }
+
+    @Test
+    public void testLevelFilter_AndCallerInferredOnPublishingThread() {
+        CollectingHandler sink = new CollectingHandler();
+        AsyncLogHandler handler = AsyncLogHandler.start(sink);
+        Logger logger = Logger.getLogger("async-handler-test");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        try {
+            logger.fine("filtered out");
+            logger.info(() -> "kept");
+            handler.flush();
+        } finally {
+            logger.removeHandler(handler);
+            handler.close();
+        }
+
+        assertEquals(1, sink.records.size());
+        assertEquals(AsyncLogHandlerTest.class.getName(), sink.records.get(0).getSourceClassName());
+    }
+
+    @Test
+    public void testClose_DrainsBufferedRecords() {
+        CollectingHandler sink = new CollectingHandler();
+        AsyncLogHandler handler = AsyncLogHandler.start(sink, 64, AsyncLogHandler.OverflowPolicy.DROP);
+        for (int i = 0; i < 30; i++) {
+            handler.publish(new LogRecord(Level.WARNING, "w" + i));
+        }
+
+        handler.close();
+        handler.publish(new LogRecord(Level.WARNING, "late"));
+
+        List<String> messages = sink.messages();
+        assertEquals(31, messages.size());
+        assertEquals("late", messages.get(30));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity_Rejected() {
+        AsyncLogHandler.start(new CollectingHandler(), 0, AsyncLogHandler.OverflowPolicy.DROP);
+    }
+
+    @Test
+    public void testLoggerSetup_UsesAsyncHandlerByDefault() {
+        assertTrue(LoggerSetup.getLogger().getHandlers()[0] instanceof AsyncLogHandler);
+    }
+}
@@ -5,6 +5,10 @@ import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
 import java.io.File;
 import java.io.IOException;
 
@@ -273,4 +277,20 @@ public class PdfReportGeneratorTest {
         
         assertTrue("Should handle very long lines", testFile.exists());
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testGeneratePdfReport_ContentBeyondSecondPage() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= 200; i++) {
+            content.append("Line ").append(i).append("\n");
+        }
+        
+        PdfReportGenerator.generatePdfReport(content.toString(), testFile, "Many Lines");
+        
+        try (PDDocument doc = Loader.loadPDF(testFile)) {
+            assertTrue("200 lines should span more than two pages", doc.getNumberOfPages() > 2);
+            String text = new PDFTextStripper().getText(doc);
+            assertTrue("Last line should not be dropped", text.contains("Line 200"));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package application.utilities;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Unit tests for PdfReportWriter and TextReportSink
+ */
+public class PdfReportWriterTest {
+
+    private static final String TEST_PDF_FILE = "test_writer_report.pdf";
+    private static final int[] WIDTHS = {6, 30, 12};
+    private File testFile;
+
+    @Before
+    public void setUp() {
+        testFile = new File(TEST_PDF_FILE);
+        if (testFile.exists()) {
+            testFile.delete();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (testFile != null && testFile.exists()) {
+            testFile.delete();
+        }
+    }
+
+    // ========== PDF WRITER TESTS ==========
+
+    @Test
+    public void testRows_RollOverPagesAndKeepEveryRow() throws IOException {
+        int pages;
+        try (PdfReportWriter writer = new PdfReportWriter(testFile, "Rows")) {
+            writer.beginTable(new String[]{"No.", "Movie Name", "Total"}, WIDTHS);
+            for (int i = 1; i <= 500; i++) {
+                writer.row(Integer.toString(i), "Movie " + i, "15.00");
+            }
+            writer.endTable();
+            writer.text("Sum of Price: 7500.00");
+            pages = writer.getPageCount();
+        }
+
+        try (PDDocument doc = Loader.loadPDF(testFile)) {
+            assertTrue("500 rows should need several pages", pages > 5);
+            assertEquals(pages, doc.getNumberOfPages());
+
+            String text = new PDFTextStripper().getText(doc);
+            assertTrue(text.contains("Movie 500"));
+            assertTrue(text.contains("Sum of Price: 7500.00"));
+        }
+    }
+
+    @Test
+    public void testTableHeader_RepeatedOnEveryPage() throws IOException {
+        try (PdfReportWriter writer = new PdfReportWriter(testFile, "Header")) {
+            writer.beginTable(new String[]{"No.", "Movie Name", "Total"}, WIDTHS);
+            for (int i = 1; i <= 120; i++) {
+                writer.row(Integer.toString(i), "Movie " + i, "15.00");
+            }
+            writer.endTable();
+        }
+
+        try (PDDocument doc = Loader.loadPDF(testFile)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            for (int p = 1; p <= doc.getNumberOfPages(); p++) {
+                stripper.setStartPage(p);
+                stripper.setEndPage(p);
+                assertTrue("Page " + p + " should have the table header",
+                           stripper.getText(doc).contains("Movie Name"));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedCharacters_AreSanitized() throws IOException {
+        try (PdfReportWriter writer = new PdfReportWriter(testFile, "Sanitize")) {
+            writer.text("Tab\there \u0001 and emoji 🎬");
+            writer.beginTable(new String[]{"No.", "Name", "Total"}, WIDTHS);
+            writer.row("1", "🍿 Popcorn", null);
+            writer.endTable();
+        }
+        assertTrue(testFile.length() > 0);
+    }
+
+    @Test
+    public void testSanitize() {
+        assertEquals("plain", PdfReportWriter.sanitize("plain"));
+        assertEquals("a    b", PdfReportWriter.sanitize("a\tb"));
+        assertEquals("ab", PdfReportWriter.sanitize("a\u0007b\r"));
+        assertEquals("café ?", PdfReportWriter.sanitize("café 中"));
+        assertEquals("", PdfReportWriter.sanitize(null));
+    }
+
+    @Test(expected = IOException.class)
+    public void testClose_InvalidPathThrows() throws IOException {
+        File invalid = new File("/invalid/path/that/does/not/exist/report.pdf");
+        try (PdfReportWriter writer = new PdfReportWriter(invalid, "Invalid")) {
+            writer.text("content");
+        }
+    }
+
+    // ========== TEXT SINK TESTS ==========
+
+    @Test
+    public void testTextSink_PadsAndTruncatesColumns() {
+        StringBuilder out = new StringBuilder();
+        TextReportSink sink = new TextReportSink(out);
+
+        sink.beginTable(new String[]{"No.", "Name", "Total"}, new int[]{4, 8, 6});
+        sink.row("1", "A very long movie name", "30.00");
+        sink.endTable();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals("=".repeat(18), lines[0]);
+        assertEquals("No. Name    Total", lines[1]);
+        assertEquals("1   A very  30.00", lines[3]);
+        assertEquals("=".repeat(18), lines[4]);
+    }
+}
@@ -135,7 +135,7 @@ public class PaymentTest {
     public void testGetTotalTicketPrice_EmptyTickets() {
         payment = new Payment(Optional.of(testCustomer), new ArrayList<>(), testFood, 50.00, true);
         
-        assertEquals(0, payment.getTotalTicketPrice());
+        assertEquals(0.0, payment.getTotalTicketPrice(), 0.001);
     }
     
     @Test
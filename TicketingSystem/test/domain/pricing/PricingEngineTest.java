@@ -0,0 +1,163 @@
+package domain.pricing;
+
+import domain.CinemaHall;
+import domain.Movie;
+import domain.Seat;
+import domain.Showtime;
+import domain.Ticket;
+import domain.valueobjects.SeatId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for PricingEngine, PricingRule and PriceTable
+ */
+public class PricingEngineTest {
+
+    private PricingEngine engine;
+    private Movie movie;
+    private CinemaHall standardHall;
+    private CinemaHall imaxHall;
+
+    @Before
+    public void setUp() {
+        engine = new PricingEngine();
+        movie = new Movie(1, "Dune: Part 1", 2.35, "Denis Villeneuve", "October 22, 2021");
+        standardHall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        imaxHall = new CinemaHall(4, CinemaHall.HALL_TYPE_IMAX, 8, 15);
+    }
+
+    @After
+    public void tearDown() {
+        PricingEngine.getDefault().setRules(List.of());
+    }
+
+    // 2025-12-13 is a Saturday, 2025-12-15 a Monday
+    private Showtime showtime(CinemaHall hall, int day, String time) {
+        return new Showtime(movie, 2025, 12, day, time, hall);
+    }
+
+    @Test
+    public void testNoRules_UsesHallBasePrice() {
+        PriceTable table = engine.tableFor(showtime(imaxHall, 15, "10:00 AM"));
+
+        assertEquals(8 * 15, table.size());
+        assertEquals(30.00, table.priceOf(new SeatId('A', 1)), 0.001);
+        assertEquals(30.00, table.priceOf(new SeatId('H', 15)), 0.001);
+    }
+
+    @Test
+    public void testTable_IsCompiledOncePerShowtime() {
+        Showtime s = showtime(standardHall, 15, "10:00 AM");
+
+        assertSame(engine.tableFor(s), engine.tableFor(showtime(standardHall, 15, "10:00 AM")));
+    }
+
+    @Test
+    public void testRowZoneRule() {
+        engine.addRule(PricingRule.named("Back rows").rows('D', 'E').add(5.00));
+        PriceTable table = engine.tableFor(showtime(standardHall, 15, "10:00 AM"));
+
+        assertEquals(15.00, table.priceOf(new SeatId('A', 3)), 0.001);
+        assertEquals(20.00, table.priceOf(new SeatId('D', 3)), 0.001);
+        assertEquals(20.00, table.priceOf(new SeatId('E', 10)), 0.001);
+    }
+
+    @Test
+    public void testWeekdayRule_OnlyMatchingDays() {
+        engine.addRule(PricingRule.named("Weekend").on(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY).multiply(1.5));
+
+        assertEquals(22.50, engine.tableFor(showtime(standardHall, 13, "10:00 AM")).priceAt(0), 0.001);
+        assertEquals(15.00, engine.tableFor(showtime(standardHall, 15, "10:00 AM")).priceAt(0), 0.001);
+    }
+
+    @Test
+    public void testDayPartRule() {
+        engine.addRule(PricingRule.named("Matinee").dayPart(LocalTime.of(10, 0), LocalTime.of(13, 0)).add(-3.00));
+
+        assertEquals(12.00, engine.tableFor(showtime(standardHall, 15, "11:40 AM")).priceAt(0), 0.001);
+        assertEquals(15.00, engine.tableFor(showtime(standardHall, 15, "08:00 PM")).priceAt(0), 0.001);
+    }
+
+    @Test
+    public void testHallTypeAndDateRangeRule() {
+        engine.addRule(PricingRule.named("Holiday IMAX").hallType(CinemaHall.HALL_TYPE_IMAX)
+            .between(LocalDate.of(2025, 12, 20), LocalDate.of(2025, 12, 31)).set(40.00));
+
+        assertEquals(40.00, engine.tableFor(showtime(imaxHall, 24, "10:00 AM")).priceAt(0), 0.001);
+        assertEquals(30.00, engine.tableFor(showtime(imaxHall, 15, "10:00 AM")).priceAt(0), 0.001);
+        assertEquals(15.00, engine.tableFor(showtime(standardHall, 24, "10:00 AM")).priceAt(0), 0.001);
+    }
+
+    @Test
+    public void testRulesApplyInOrder() {
+        engine.addRule(PricingRule.named("Flat").set(10.00));
+        engine.addRule(PricingRule.named("Surcharge").add(2.00));
+
+        assertEquals(12.00, engine.tableFor(showtime(standardHall, 15, "10:00 AM")).priceAt(0), 0.001);
+    }
+
+    @Test
+    public void testAddRule_InvalidatesCompiledTables() {
+        Showtime s = showtime(standardHall, 15, "10:00 AM");
+        PriceTable before = engine.tableFor(s);
+
+        engine.addRule(PricingRule.named("Surcharge").add(1.00));
+
+        assertNotSame(before, engine.tableFor(s));
+        assertEquals(16.00, engine.tableFor(s).priceAt(0), 0.001);
+    }
+
+    @Test
+    public void testHallWithoutDimensions_FallsBackToDirectEvaluation() {
+        CinemaHall historyHall = new CinemaHall(0, CinemaHall.HALL_TYPE_LOUNGE, 0, 0);
+        engine.addRule(PricingRule.named("Front").rows('A', 'A').add(10.00));
+        Showtime s = showtime(historyHall, 15, "10:00 AM");
+
+        assertNull(engine.tableFor(s));
+        assertEquals(90.00, engine.priceOf(s, new SeatId('A', 1)), 0.001);
+        assertEquals(80.00, engine.priceOf(s, new SeatId('B', 1)), 0.001);
+    }
+
+    @Test
+    public void testTicketTotal_SumsPerSeatPrices() {
+        PricingEngine.getDefault().addRule(PricingRule.named("Back rows").rows('E', 'E').add(5.00));
+        Showtime s = showtime(standardHall, 15, "10:00 AM");
+
+        ArrayList<Seat> seats = new ArrayList<>();
+        seats.add(new Seat(new SeatId('A', 1), "Single", "Reserved", standardHall));
+        seats.add(new Seat(new SeatId('E', 1), "Single", "Reserved", standardHall));
+        Ticket ticket = new Ticket(s, seats.size(), standardHall, seats);
+
+        assertEquals(35.00, ticket.getTotalPrice(), 0.001);
+        assertEquals(15.00, ticket.ticketPrice(), 0.001);
+    }
+
+    @Test
+    public void testPriceTable_IndexOf_OutsideHall() {
+        PriceTable table = engine.tableFor(showtime(standardHall, 15, "10:00 AM"));
+
+        assertEquals(0, table.indexOf('A', 1));
+        assertEquals(49, table.indexOf('E', 10));
+        assertEquals(-1, table.indexOf('F', 1));
+        assertEquals(-1, table.indexOf('A', 11));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPriceTable_PriceOf_OutsideHallThrows() {
+        engine.tableFor(showtime(standardHall, 15, "10:00 AM")).priceOf(new SeatId('Z', 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRule_InvalidRowRange() {
+        PricingRule.named("Bad").rows('E', 'A');
+    }
+}
@@ -0,0 +1,88 @@
+package domain.valueobjects;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the Money fixed-point helpers
+ */
+public class MoneyTest {
+
+    @Test
+    public void testOfAmount_RoundsToCents() {
+        assertEquals(1500L, Money.ofAmount(15.00));
+        assertEquals(1234L, Money.ofAmount(12.344));
+        assertEquals(1235L, Money.ofAmount(12.345000001));
+        assertEquals(-5000L, Money.ofAmount(-50.00));
+    }
+
+    @Test
+    public void testOfAmount_RoundsHalfAwayFromZero() {
+        assertEquals(13L, Money.ofAmount(0.125));
+        assertEquals(-13L, Money.ofAmount(-0.125));
+        assertEquals(-1235L, Money.ofAmount(-12.345000001));
+        assertEquals(-1234L, Money.ofAmount(-12.344));
+        assertEquals(0L, Money.ofAmount(-0.004));
+    }
+
+    @Test
+    public void testParse_PlainAmounts() {
+        assertEquals(3000L, Money.parse("30"));
+        assertEquals(3000L, Money.parse("30.0"));
+        assertEquals(3005L, Money.parse("30.05"));
+        assertEquals(-1450L, Money.parse("-14.50"));
+        assertEquals(50L, Money.parse(".5"));
+        assertEquals(99999999L, Money.parse(" 999999.99 "));
+    }
+
+    @Test
+    public void testParse_RoundsThirdDecimalHalfUp() {
+        assertEquals(1235L, Money.parse("12.345"));
+        assertEquals(1234L, Money.parse("12.3449"));
+    }
+
+    @Test
+    public void testParse_Exponent() {
+        assertEquals(150000L, Money.parse("1.5E3"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParse_Invalid() {
+        Money.parse("12a");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParse_Empty() {
+        Money.parse("  ");
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("15.05", Money.format(1505));
+        assertEquals("0.00", Money.format(0));
+        assertEquals("-0.50", Money.format(-50));
+        assertEquals("-50.00", Money.format(-5000));
+    }
+
+    @Test
+    public void testFormatParse_RoundTrip() {
+        for (long cents : new long[]{0, 1, 99, 100, 123456789, -1, -101}) {
+            assertEquals(cents, Money.parse(Money.format(cents)));
+        }
+    }
+
+    @Test
+    public void testLargeSums_AreExact() {
+        // 0.10 added a million times drifts as a double but not in cents
+        long total = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            total += Money.ofAmount(0.10);
+        }
+        assertEquals("100000.00", Money.format(total));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testTimes_Overflow() {
+        Money.times(Long.MAX_VALUE / 2, 3);
+    }
+}
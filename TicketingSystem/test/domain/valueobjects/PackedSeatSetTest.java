@@ -0,0 +1,72 @@
+package domain.valueobjects;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for SeatId packing and the PackedSeatSet bitmap
+ */
+public class PackedSeatSetTest {
+
+    @Test
+    public void testSeatIdOf_ReturnsSharedInstance() {
+        assertSame(SeatId.of('C', 7), SeatId.of('C', 7));
+        assertSame(SeatId.of('C', 7), SeatId.parse(" C7 "));
+        assertEquals(new SeatId('C', 7), SeatId.of('C', 7));
+    }
+
+    @Test
+    public void testPacked_RoundTripsAndStaysInRange() {
+        for (SeatId seat : List.of(SeatId.of('A', 1), SeatId.of('B', 12), SeatId.of('Z', SeatId.MAX_COLUMN))) {
+            assertTrue(seat.packed() >= 0 && seat.packed() < SeatId.PACKED_LIMIT);
+            assertSame(seat, SeatId.fromPacked(seat.packed()));
+            assertEquals(seat.packed(), seat.hashCode());
+        }
+        assertEquals(0, SeatId.of('A', 1).packed());
+        assertTrue(SeatId.PACKED_LIMIT <= Short.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOf_RejectsColumnBeyondPackedRange() {
+        SeatId.of('A', SeatId.MAX_COLUMN + 1);
+    }
+
+    @Test
+    public void testPlusAndMinus_LeaveOriginalUnchanged() {
+        PackedSeatSet sold = PackedSeatSet.of(List.of(SeatId.of('A', 1), SeatId.of('E', 15)));
+        PackedSeatSet more = sold.plus(List.of(SeatId.of('B', 2)));
+        PackedSeatSet fewer = more.minus(List.of(SeatId.of('A', 1)));
+
+        assertEquals(2, sold.size());
+        assertEquals(3, more.size());
+        assertTrue(more.contains(SeatId.of('B', 2)));
+        assertFalse(sold.contains(SeatId.of('B', 2)));
+        assertFalse(fewer.contains(SeatId.of('A', 1)));
+        assertTrue(fewer.contains(new SeatId('E', 15)));
+    }
+
+    @Test
+    public void testToList_RowThenColumnOrder() {
+        PackedSeatSet set = PackedSeatSet.of(List.of(SeatId.of('B', 1), SeatId.of('A', 10), SeatId.of('A', 2)));
+        assertEquals(List.of(SeatId.of('A', 2), SeatId.of('A', 10), SeatId.of('B', 1)), set.toList());
+        assertEquals("A2,A10,B1", set.toDisplayString());
+    }
+
+    @Test
+    public void testEquals_IgnoresTrailingEmptyWords() {
+        PackedSeatSet small = PackedSeatSet.of(List.of(SeatId.of('A', 1)));
+        PackedSeatSet shrunk = small.plus(List.of(SeatId.of('Z', 200))).minus(List.of(SeatId.of('Z', 200)));
+        assertEquals(small, shrunk);
+        assertEquals(small.hashCode(), shrunk.hashCode());
+        assertEquals(PackedSeatSet.EMPTY, small.minus(List.of(SeatId.of('A', 1))));
+    }
+
+    @Test
+    public void testPlusAll_Union() {
+        PackedSeatSet a = PackedSeatSet.of(List.of(SeatId.of('A', 1)));
+        PackedSeatSet b = PackedSeatSet.of(List.of(SeatId.of('D', 4), SeatId.of('A', 1)));
+        assertEquals(2, a.plusAll(b).size());
+    }
+}
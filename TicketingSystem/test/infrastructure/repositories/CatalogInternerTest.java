@@ -0,0 +1,77 @@
+package infrastructure.repositories;
+
+import domain.CinemaHall;
+import domain.Movie;
+import domain.Showtime;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unit tests for CatalogInterner.
+ */
+public class CatalogInternerTest {
+
+    private Movie movie;
+    private CinemaHall standard;
+    private CinemaHall imax;
+    private CatalogInterner interner;
+
+    @Before
+    public void setUp() {
+        movie = new Movie(7, "Dune", 2.5, "Villeneuve", "2024-03-01");
+        standard = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        imax = new CinemaHall(2, CinemaHall.HALL_TYPE_IMAX, 8, 15);
+        interner = new CatalogInterner(List.of(movie), List.of(standard, imax));
+    }
+
+    @Test
+    public void testMovie_ResolvesToCatalogInstance() {
+        assertSame(movie, interner.movie("Dune"));
+    }
+
+    @Test
+    public void testMovie_UnknownNameSharesOnePlaceholder() {
+        Movie first = interner.movie("Retired Film");
+        assertEquals("Retired Film", first.getMovieName());
+        assertSame(first, interner.movie("Retired Film"));
+    }
+
+    @Test
+    public void testHall_ResolvesByIdWithRealDimensions() {
+        CinemaHall hall = interner.hall(2, CinemaHall.HALL_TYPE_IMAX);
+        assertSame(imax, hall);
+        assertEquals(8, hall.getRowAmt());
+    }
+
+    @Test
+    public void testHall_LegacyRecordResolvesByUniqueType() {
+        assertSame(standard, interner.hall(0, CinemaHall.HALL_TYPE_STANDARD));
+    }
+
+    @Test
+    public void testHall_AmbiguousLegacyTypeGetsPlaceholder() {
+        CatalogInterner twoStandard = new CatalogInterner(List.of(),
+            List.of(standard, new CinemaHall(4, CinemaHall.HALL_TYPE_STANDARD, 6, 12)));
+        CinemaHall hall = twoStandard.hall(0, CinemaHall.HALL_TYPE_STANDARD);
+        assertNotSame(standard, hall);
+        assertSame(hall, twoStandard.hall(0, CinemaHall.HALL_TYPE_STANDARD));
+    }
+
+    @Test
+    public void testShowtime_SameShowingBuiltOnce() {
+        LocalDate date = LocalDate.of(2025, 1, 15);
+        Showtime first = interner.showtime(movie, date, "10:00 AM", standard);
+        Showtime again = interner.showtime(interner.movie("Dune"), LocalDate.parse("2025-01-15"), "10:00 AM",
+                                           interner.hall(1, CinemaHall.HALL_TYPE_STANDARD));
+        Showtime later = interner.showtime(movie, date, "4:00 PM", standard);
+
+        assertSame(first, again);
+        assertNotSame(first, later);
+        assertEquals(2, interner.getShowtimeCount());
+        assertEquals(date, first.getDate());
+    }
+}
@@ -0,0 +1,117 @@
+package infrastructure.repositories;
+
+import domain.CinemaHall;
+import domain.Customer;
+import domain.Movie;
+import domain.Payment;
+import domain.Ticket;
+import domain.valueobjects.SeatId;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Unit tests for the packed payment history.
+ */
+public class CompactPaymentHistoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 8);
+
+    private Movie movie;
+    private CinemaHall hall;
+    private CatalogInterner interner;
+    private CompactPaymentHistory history;
+
+    @Before
+    public void setUp() {
+        movie = new Movie(1, "Arrival", 1.9, "Villeneuve", "2016-11-11");
+        hall = new CinemaHall(2, CinemaHall.HALL_TYPE_IMAX, 8, 15);
+        interner = new CatalogInterner(List.of(movie), List.of(hall));
+        history = new CompactPaymentHistory();
+    }
+
+    @Test
+    public void testMaterialize_RebuildsTicketsFoodAndCustomer() {
+        int row = history.beginPayment(41, Optional.of("Alice"), 0, 5400);
+        history.addTicket(101, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX,
+                          List.of(SeatId.of('C', 4), SeatId.of('C', 5)), 3600);
+        history.addFood("Nachos", 2, 1800);
+
+        Payment p = history.materialize(row, interner);
+
+        assertEquals(41, p.getPaymentID());
+        assertEquals(5400, p.getTotalPriceCents());
+        assertEquals(3600, p.getTotalTicketPriceCents());
+        assertEquals("Alice", p.getCustomer().get().getName());
+        Ticket t = p.getTicket().get(0);
+        assertEquals("Arrival", t.getMovieName());
+        assertEquals(101, t.getTicketID());
+        assertSame(hall, t.getCinemaHall());
+        assertEquals(SeatId.of('C', 5), t.getSeat().get(1).getId());
+        assertEquals("Nachos", p.getFood().get(0).getName());
+        assertEquals(1800, p.getFood().get(0).getPriceCents());
+    }
+
+    @Test
+    public void testRowsKeepTheirOwnTicketsAndFood() {
+        int first = history.beginPayment(1, Optional.of("Alice"), 0, 1000);
+        history.addTicket(102, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX, List.of(SeatId.of('A', 1)), 1000);
+        int second = history.beginPayment(2, Optional.empty(), 0, 600);
+        history.addFood("Cola", 1, 600);
+        int third = history.beginPayment(3, Optional.of("Bob"), 0, 2000);
+        history.addTicket(103, "Arrival", DATE, "9:30 PM", 2, CinemaHall.HALL_TYPE_IMAX,
+                          List.of(SeatId.of('B', 1), SeatId.of('B', 2)), 2000);
+
+        assertEquals(1, history.materialize(first, interner).getTicket().size());
+        assertTrue(history.materialize(first, interner).getFood().isEmpty());
+        assertTrue(history.materialize(second, interner).getTicket().isEmpty());
+        assertFalse(history.materialize(second, interner).getCustomer().isPresent());
+        assertEquals("Guest", history.customerName(second));
+        assertEquals(2, history.materialize(third, interner).getTicket().get(0).getSeat().size());
+        assertEquals("9:30 PM", history.showTime(history.ticketStart(third)));
+    }
+
+    @Test
+    public void testMaterialize_RefundRowNegatesTickets() {
+        int row = history.beginPayment(9, Optional.of("Alice"), 4, -1500);
+        history.addTicket(104, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX, List.of(SeatId.of('D', 1)), -1500);
+
+        Payment refund = history.materialize(row, interner);
+
+        assertTrue(refund.isRefund());
+        assertEquals(-1, refund.getTicketAmt());
+        assertTrue(refund.getTicket().get(0).isRefund());
+        assertEquals(-1500, refund.getTicket().get(0).getTotalPriceCents());
+    }
+
+    @Test
+    public void testTruncate_DropsHalfWrittenPayment() {
+        history.beginPayment(1, Optional.of("Alice"), 0, 1000);
+        history.addTicket(105, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX, List.of(SeatId.of('A', 1)), 1000);
+        int broken = history.beginPayment(2, Optional.of("Bob"), 0, 500);
+        history.addTicket(106, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX, List.of(SeatId.of('A', 2)), 500);
+        history.truncate(broken);
+
+        int next = history.beginPayment(3, Optional.of("Carol"), 0, 700);
+        history.addTicket(107, "Arrival", DATE, "7:00 PM", 2, CinemaHall.HALL_TYPE_IMAX, List.of(SeatId.of('A', 3)), 700);
+
+        assertEquals(2, history.size());
+        assertEquals(3, history.paymentId(next));
+        assertEquals(SeatId.of('A', 3), history.materialize(next, interner).getTicket().get(0).getSeat().get(0).getId());
+        assertEquals(1, history.materialize(0, interner).getTicket().get(0).getSeat().size());
+    }
+
+    @Test
+    public void testAppend_RoundTripsSessionPayment() {
+        Customer alice = new Customer("Alice", "hash");
+        Payment sale = Payment.restore(77, Optional.of(alice), new java.util.ArrayList<>(),
+                                       new java.util.ArrayList<>(), 0, 0);
+        int row = history.append(sale);
+        assertEquals(77, history.materialize(row, interner).getPaymentID());
+        assertEquals("Alice", history.customerName(row));
+    }
+}
@@ -0,0 +1,91 @@
+package infrastructure.repositories;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for ConfigWatcher, using a scratch directory so real data files
+ * are never touched.
+ */
+public class ConfigWatcherTest {
+
+    private Path dir;
+    private ConfigWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("config-watch-test");
+        watcher = new ConfigWatcher(dir, 50);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        watcher.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testModifiedFile_RunsReload() throws Exception {
+        Files.writeString(dir.resolve("movies.json"), "[]");
+        CountDownLatch reloaded = new CountDownLatch(1);
+        watcher.watch("movies.json", reloaded::countDown).start();
+
+        Files.writeString(dir.resolve("movies.json"), "[{\"id\":1}]");
+
+        assertTrue("Reload should run after the file changes", reloaded.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnwatchedFile_Ignored() throws Exception {
+        AtomicInteger movieReloads = new AtomicInteger();
+        CountDownLatch hallsReloaded = new CountDownLatch(1);
+        watcher.watch("movies.json", movieReloads::incrementAndGet)
+               .watch("halls.json", hallsReloaded::countDown)
+               .start();
+
+        Files.writeString(dir.resolve("notes.txt"), "not config");
+        Files.writeString(dir.resolve("halls.json"), "[]");
+
+        assertTrue(hallsReloaded.await(10, TimeUnit.SECONDS));
+        assertEquals(0, movieReloads.get());
+    }
+
+    @Test
+    public void testFailingReload_DoesNotStopOtherActions() throws Exception {
+        CountDownLatch second = new CountDownLatch(2);
+        watcher.watch("halls.json", () -> { throw new IllegalStateException("bad file"); })
+               .watch("halls.json", second::countDown)
+               .start();
+
+        Files.writeString(dir.resolve("halls.json"), "[]");
+        assertTrue(waitUntil(() -> second.getCount() < 2));
+
+        // The watcher is still alive for the next save
+        Files.writeString(dir.resolve("halls.json"), "[ ]");
+        assertTrue(second.await(10, TimeUnit.SECONDS));
+    }
+
+    private static boolean waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package infrastructure.repositories;
+
+import domain.Customer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CustomerLogStore.
+ */
+public class CustomerLogStoreTest {
+
+    private static final String TEST_FILE = "customer_log_test.json";
+
+    private CustomerLogStore store;
+
+    @Before
+    public void setUp() {
+        new File(TEST_FILE).delete();
+        store = new CustomerLogStore(TEST_FILE, 4);
+        store.load();
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        new File(TEST_FILE).delete();
+        new File(TEST_FILE + ".compact").delete();
+    }
+
+    @Test
+    public void testAppend_OneLinePerRegistration() {
+        store.append(new Customer("Alice", "pw1"));
+        store.append(new Customer("Bob", "pw2"));
+
+        assertEquals(2, DataFileHandler.loadFromJsonFile(TEST_FILE).size());
+        assertEquals(List.of("Alice", "Bob"), names(reopen().load()));
+    }
+
+    @Test
+    public void testTombstone_HidesCustomerOnReplay() {
+        store.append(new Customer("Alice", "pw1"));
+        store.append(new Customer("Bob", "pw2"));
+        store.appendTombstone("alice");
+
+        List<String> lines = DataFileHandler.loadFromJsonFile(TEST_FILE);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("tombstone"));
+        assertEquals(List.of("Bob"), names(reopen().load()));
+        assertEquals(2, store.getGarbageCount());
+    }
+
+    @Test
+    public void testReRegisterAfterDelete_IsLive() {
+        store.append(new Customer("Alice", "pw1"));
+        store.appendTombstone("Alice");
+        store.append(new Customer("Alice", "pw3"));
+
+        assertEquals(List.of("Alice"), names(reopen().load()));
+    }
+
+    @Test
+    public void testCompact_DropsGarbageAndKeepsLiveCustomers() {
+        for (int i = 0; i < 6; i++) {
+            store.append(new Customer("Member" + i, "pw"));
+        }
+        store.appendTombstone("Member1");
+        store.appendTombstone("Member3");
+
+        store.compact();
+
+        assertEquals(4, DataFileHandler.loadFromJsonFile(TEST_FILE).size());
+        assertEquals(0, store.getGarbageCount());
+        assertEquals(List.of("Member0", "Member2", "Member4", "Member5"), names(reopen().load()));
+    }
+
+    @Test
+    public void testGarbageThreshold_TriggersBackgroundCompaction() {
+        for (int i = 0; i < 4; i++) {
+            store.append(new Customer("Member" + i, "pw"));
+        }
+        for (int i = 0; i < 3; i++) {
+            store.appendTombstone("Member" + i);
+        }
+
+        store.close(); // waits for the compactor
+        assertEquals(List.of("Member3"), names(reopen().load()));
+        assertTrue("7 logged lines should have been compacted",
+                   DataFileHandler.loadFromJsonFile(TEST_FILE).size() < 7);
+    }
+
+    @Test
+    public void testCompact_FailedTempWriteKeepsLog() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            store.append(new Customer("Member" + i, "pw"));
+        }
+        store.appendTombstone("Member1");
+        // A directory where the temp file should go makes its write fail
+        File blocker = new File(TEST_FILE + ".compact");
+        assertTrue(blocker.mkdir());
+        try {
+            store.compact();
+        } finally {
+            blocker.delete();
+        }
+
+        assertEquals(7, DataFileHandler.loadFromJsonFile(TEST_FILE).size());
+        assertEquals(2, store.getGarbageCount());
+        assertEquals(List.of("Member0", "Member2", "Member3", "Member4", "Member5"), names(reopen().load()));
+    }
+
+    @Test
+    public void testAppend_FailedWriteThrowsAndKeepsState() {
+        // The parent directory does not exist, so no line can be written
+        CustomerLogStore broken = new CustomerLogStore("missing_dir/" + TEST_FILE, 4);
+        broken.load();
+        try {
+            broken.append(new Customer("Alice", "pw1"));
+            fail("The log cannot be written");
+        } catch (UncheckedIOException expected) {
+            assertTrue(expected.getMessage().contains("missing_dir"));
+        }
+        try {
+            broken.appendTombstone("Alice");
+            fail("The log cannot be written");
+        } catch (UncheckedIOException expected) {
+            // nothing recorded
+        } finally {
+            broken.close();
+        }
+        assertEquals(0, broken.getGarbageCount());
+    }
+
+    private CustomerLogStore reopen() {
+        return new CustomerLogStore(TEST_FILE, Integer.MAX_VALUE);
+    }
+
+    private static List<String> names(List<Customer> customers) {
+        return customers.stream().map(Customer::getName).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
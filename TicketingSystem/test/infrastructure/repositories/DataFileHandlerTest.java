@@ -301,6 +301,48 @@ public class DataFileHandlerTest {
         assertEquals("7-Up", foodData.get(2).get("name"));
     }
     
+    @Test
+    public void testLoadFoodInventoryData_ReorderedAndExtraFields() {
+        String foodJson = "[\n" +
+            "  {\"price\": 6.00, \"image\": \"img/cola.png\", \"name\": \"Cola, \\\"Large\\\"\"},\n" +
+            "  {\"category\": \"Beverage\", \"stock\": {\"qty\": 40, \"tags\": [\"cold\", \"}\"]}, " +
+            "\"name\": \"Milo\", \"price\": \"7.50\"}\n" +
+            "]";
+        DataFileHandler.saveToJsonFile(List.of(foodJson), TEST_FOOD_FILE);
+        
+        List<Map<String, Object>> foodData = 
+            DataFileHandler.loadFoodInventoryData(TEST_FOOD_FILE);
+        
+        assertEquals(2, foodData.size());
+        assertEquals("Cola, \"Large\"", foodData.get(0).get("name"));
+        assertEquals(6.0, (Double) foodData.get(0).get("price"), 0.001);
+        assertEquals("Milo", foodData.get(1).get("name"));
+        assertEquals(7.5, (Double) foodData.get(1).get("price"), 0.001);
+    }
+    
+    @Test
+    public void testReadFoodInventory_SkipsIncompleteItems() {
+        String foodJson = "[{\"name\":\"No Price\"},{\"name\":\"Nachos\",\"price\":9.0}]";
+        DataFileHandler.saveToJsonFile(List.of(foodJson), TEST_FOOD_FILE);
+        List<String> names = new ArrayList<>();
+        
+        int count = DataFileHandler.readFoodInventory(TEST_FOOD_FILE, (name, price) -> names.add(name));
+        
+        assertEquals(1, count);
+        assertEquals(List.of("Nachos"), names);
+    }
+    
+    @Test
+    public void testReadFoodInventory_TruncatedFileKeepsEarlierItems() {
+        String foodJson = "[{\"name\":\"Nachos\",\"price\":9.0},{\"name\":\"Hotd";
+        DataFileHandler.saveToJsonFile(List.of(foodJson), TEST_FOOD_FILE);
+        List<String> names = new ArrayList<>();
+        
+        DataFileHandler.readFoodInventory(TEST_FOOD_FILE, (name, price) -> names.add(name));
+        
+        assertEquals(List.of("Nachos"), names);
+    }
+    
     // ========== INTEGRATION TESTS ==========
     
     @Test
@@ -342,4 +342,32 @@ public class FileMovieRepositoryTest {
                        m.releaseDate().trim().isEmpty());
         }
     }
-}
\ No newline at end of file
+    
+    // ========== HOT RELOAD TESTS ==========
+    
+    @Test
+    public void testReload_PicksUpEditedFile() {
+        FileMovieRepository fileRepo = new FileMovieRepository(TEST_FILE);
+        List<Movie> before = fileRepo.findAll();
+        
+        DataFileHandler.saveToJsonFile(List.of(
+            "{\"id\":42,\"movieName\":\"Late Addition\",\"movieLength\":1.5,"
+                + "\"director\":\"Someone\",\"releaseDate\":\"2025-06-01\"}"), TEST_FILE);
+        fileRepo.reload();
+        
+        assertEquals(1, fileRepo.findAll().size());
+        assertEquals("Late Addition", fileRepo.findById(42).get().getMovieName());
+        assertFalse("Old snapshot held by a reader is unchanged", before.isEmpty());
+    }
+    
+    @Test
+    public void testReload_EmptyFileKeepsCurrentMovies() {
+        FileMovieRepository fileRepo = new FileMovieRepository(TEST_FILE);
+        int count = fileRepo.findAll().size();
+        DataFileHandler.saveToJsonFile(java.util.Collections.emptyList(), TEST_FILE);
+        
+        fileRepo.reload();
+        
+        assertEquals(count, fileRepo.findAll().size());
+    }
+}
@@ -504,4 +504,271 @@ public class FileSeatRepositoryTest {
         
         assertEquals("Should reserve all 50 seats", 50, reserved.size());
     }
-}
\ No newline at end of file
+    
+    // ========== CONCURRENCY TESTS ==========
+    
+    @Test
+    public void testReserveSeats_ConcurrentBuyersOnlyOneWins() throws InterruptedException {
+        int buyers = 64;
+        java.util.concurrent.CountDownLatch go = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicInteger winners = new java.util.concurrent.atomic.AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        
+        for (int i = 0; i < buyers; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    go.await();
+                    repository.reserveSeats(testShowtime, Arrays.asList(new SeatId('C', 5), new SeatId('C', 6)));
+                    winners.incrementAndGet();
+                } catch (SeatUnavailableException expected) {
+                    // lost the race
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        go.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        
+        assertEquals("Exactly one buyer should get the seats", 1, winners.get());
+        assertEquals(2, repository.getActiveHoldCount());
+    }
+    
+    @Test
+    public void testConfirm_ConcurrentShowtimesAllPersisted() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int col = 1; col <= 10; col++) {
+            SeatId seat = new SeatId('A', col);
+            threads.add(Thread.ofVirtual().start(() -> {
+                repository.reserveSeats(testShowtime, Arrays.asList(seat));
+                repository.confirmCartReservation(testShowtime, Arrays.asList(seat));
+            }));
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        
+        FileSeatRepository reloaded = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        long booked = reloaded.findSeatsByShowtime(testShowtime).stream()
+            .filter(s -> s.getSeatStatus().equals("Booked"))
+            .count();
+        assertEquals(10, booked);
+        assertEquals(0, repository.getActiveHoldCount());
+    }
+    
+    @Test
+    public void testConfirm_FailedWriteKeepsFileAndRollsBack() {
+        List<SeatId> sold = Arrays.asList(new SeatId('A', 1));
+        List<SeatId> held = Arrays.asList(new SeatId('A', 2));
+        repository.reserveSeats(testShowtime, sold);
+        repository.confirmCartReservation(testShowtime, sold);
+        repository.reserveSeats(testShowtime, held);
+        List<String> before = DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE);
+        
+        // A directory where the temp file goes makes every write fail
+        java.io.File blocker = new java.io.File(TEST_BOOKINGS_FILE + ".tmp");
+        assertTrue(blocker.mkdir());
+        try {
+            try {
+                repository.confirmCartReservation(testShowtime, held);
+                fail("A sale that was not written must not be confirmed");
+            } catch (java.io.UncheckedIOException expected) {
+                // reported to the caller
+            }
+            
+            assertEquals(before, DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE));
+            assertEquals("Held seat is back in the cart", 1, repository.getActiveHoldCount());
+            assertEquals("Booked", repository.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+        } finally {
+            blocker.delete();
+        }
+        
+        // The seat went back to the cart, so the sale can be retried
+        repository.confirmCartReservation(testShowtime, held);
+        assertEquals("Booked", new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE)
+            .findSeat(testShowtime, new SeatId('A', 2)).get().getSeatStatus());
+        assertEquals(0, repository.getActiveHoldCount());
+    }
+    
+    // ========== MULTI-TERMINAL TESTS ==========
+    // Two repository instances on one file stand in for two terminal processes:
+    // each keeps its own in-memory bookings, as separate JVMs would.
+    
+    @Test
+    public void testConfirm_OtherTerminalsSalesAreNotOverwritten() {
+        FileSeatRepository otherTerminal = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        
+        repository.reserveSeats(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        repository.confirmCartReservation(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        otherTerminal.reserveSeats(testShowtime, Arrays.asList(new SeatId('B', 1)));
+        otherTerminal.confirmCartReservation(testShowtime, Arrays.asList(new SeatId('B', 1)));
+        
+        FileSeatRepository reloaded = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        assertEquals("Booked", reloaded.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+        assertEquals("Booked", reloaded.findSeat(testShowtime, new SeatId('B', 1)).get().getSeatStatus());
+        List<String> lines = DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE);
+        assertEquals("{\"version\":2}", lines.get(lines.size() - 1));
+    }
+    
+    @Test
+    public void testConfirm_SeatSoldByOtherTerminalIsRejected() {
+        FileSeatRepository otherTerminal = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        List<SeatId> seat = Arrays.asList(new SeatId('C', 3));
+        
+        // Both terminals hold the seat in their own carts
+        repository.reserveSeats(testShowtime, seat);
+        otherTerminal.reserveSeats(testShowtime, seat);
+        repository.confirmCartReservation(testShowtime, seat);
+        
+        try {
+            otherTerminal.confirmCartReservation(testShowtime, seat);
+            fail("Second terminal must not confirm a seat the first one sold");
+        } catch (SeatUnavailableException expected) {
+            // conflict detected against the file
+        }
+        
+        long lines = DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE).stream()
+            .filter(l -> l.contains("C3"))
+            .count();
+        assertEquals(1, lines);
+    }
+    
+    @Test
+    public void testReserve_SeesOtherTerminalsSales() {
+        FileSeatRepository otherTerminal = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        List<SeatId> seat = Arrays.asList(new SeatId('D', 4));
+        
+        repository.reserveSeats(testShowtime, seat);
+        repository.confirmCartReservation(testShowtime, seat);
+        
+        assertEquals("Booked", otherTerminal.findSeatsByShowtime(testShowtime).stream()
+            .filter(s -> s.getId().equals(seat.get(0)))
+            .findFirst().get().getSeatStatus());
+        try {
+            otherTerminal.reserveSeats(testShowtime, seat);
+            fail("Stale terminal should see the sale before holding the seat");
+        } catch (SeatUnavailableException expected) {
+            // refreshed from disk
+        }
+    }
+    
+    @Test
+    public void testConfirm_ConcurrentTerminalsNoLostUpdates() throws InterruptedException {
+        List<FileSeatRepository> terminals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            terminals.add(new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE));
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int col = 1; col <= 10; col++) {
+            FileSeatRepository terminal = terminals.get(col % terminals.size());
+            SeatId seat = new SeatId('E', col);
+            threads.add(Thread.ofVirtual().start(() -> {
+                terminal.reserveSeats(testShowtime, Arrays.asList(seat));
+                terminal.confirmCartReservation(testShowtime, Arrays.asList(seat));
+            }));
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        
+        FileSeatRepository reloaded = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        long booked = reloaded.findSeatsByShowtime(testShowtime).stream()
+            .filter(s -> s.getSeatStatus().equals("Booked"))
+            .count();
+        assertEquals(10, booked);
+    }
+    
+    // ========== REFUND RELEASE TESTS ==========
+    
+    @Test
+    public void testReleaseConfirmed_SeatsCanBeSoldAgain() {
+        List<SeatId> seats = Arrays.asList(new SeatId('A', 1), new SeatId('A', 2));
+        repository.reserveSeats(testShowtime, seats);
+        repository.confirmCartReservation(testShowtime, seats);
+        
+        repository.releaseConfirmed(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        
+        assertEquals("Available", repository.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+        assertEquals("Booked", repository.findSeat(testShowtime, new SeatId('A', 2)).get().getSeatStatus());
+        
+        // Persisted: another terminal sees A1 free and A2 still sold
+        FileSeatRepository otherTerminal = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        otherTerminal.reserveSeats(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        assertEquals("Booked", otherTerminal.findSeat(testShowtime, new SeatId('A', 2)).get().getSeatStatus());
+        otherTerminal.clearAllCartReservations();
+    }
+    
+    @Test
+    public void testReleaseConfirmed_AppendsOneLineForTheShowtime() {
+        Showtime otherShowtime = new Showtime(testMovie, 2025, 1, 15, "2:00 PM", standardHall);
+        repository.reserveSeats(otherShowtime, Arrays.asList(new SeatId('C', 1)));
+        repository.confirmCartReservation(otherShowtime, Arrays.asList(new SeatId('C', 1)));
+        List<SeatId> seats = Arrays.asList(new SeatId('A', 1), new SeatId('A', 2));
+        repository.reserveSeats(testShowtime, seats);
+        repository.confirmCartReservation(testShowtime, seats);
+        List<String> before = DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE);
+        
+        repository.releaseConfirmed(testShowtime, Arrays.asList(new SeatId('A', 1), new SeatId('B', 9)));
+        
+        // Nothing already written changes; only the seat that was sold is released
+        List<String> after = DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE);
+        assertEquals(before, after.subList(0, before.size()));
+        assertEquals(before.size() + 1, after.size());
+        assertTrue(after.get(before.size()).contains("\"released\":\"A1\""));
+    }
+    
+    @Test
+    public void testReleaseConfirmed_FoldedIntoNextConfirmByOtherTerminal() {
+        List<SeatId> seats = Arrays.asList(new SeatId('A', 1), new SeatId('A', 2));
+        repository.reserveSeats(testShowtime, seats);
+        repository.confirmCartReservation(testShowtime, seats);
+        FileSeatRepository otherTerminal = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        
+        repository.releaseConfirmed(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        otherTerminal.reserveSeats(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        otherTerminal.confirmCartReservation(testShowtime, Arrays.asList(new SeatId('A', 1)));
+        
+        assertTrue(DataFileHandler.loadFromJsonFile(TEST_BOOKINGS_FILE).stream()
+            .noneMatch(line -> line.contains("released")));
+        FileSeatRepository reopened = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        assertEquals("Booked", reopened.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+        assertEquals("Booked", reopened.findSeat(testShowtime, new SeatId('A', 2)).get().getSeatStatus());
+        
+        // Our next release starts from the other terminal's version
+        repository.releaseConfirmed(testShowtime, Arrays.asList(new SeatId('A', 2)));
+        reopened = new FileSeatRepository(TEST_BOOKINGS_FILE, TEST_HALLS_FILE);
+        assertEquals("Booked", reopened.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+        assertEquals("Available", reopened.findSeat(testShowtime, new SeatId('A', 2)).get().getSeatStatus());
+    }
+    
+    @Test
+    public void testReleaseConfirmed_UnreadableFileKeepsSeatsSold() {
+        List<SeatId> sold = Arrays.asList(new SeatId('A', 1));
+        repository.reserveSeats(testShowtime, sold);
+        repository.confirmCartReservation(testShowtime, sold);
+        
+        // A directory in place of the bookings file can be neither read nor appended to
+        java.io.File bookings = new java.io.File(TEST_BOOKINGS_FILE);
+        assertTrue(bookings.delete());
+        assertTrue(bookings.mkdir());
+        try {
+            repository.releaseConfirmed(testShowtime, sold);
+            fail("A release that was not written must not be applied");
+        } catch (java.io.UncheckedIOException expected) {
+            // reported to the caller
+        } finally {
+            bookings.delete();
+        }
+        
+        assertEquals("Booked", repository.findSeat(testShowtime, new SeatId('A', 1)).get().getSeatStatus());
+    }
+    
+    @Test
+    public void testReleaseConfirmed_UnsoldSeatsIgnored() {
+        repository.releaseConfirmed(testShowtime, Arrays.asList(new SeatId('B', 1)));
+        
+        assertEquals("Available", repository.findSeat(testShowtime, new SeatId('B', 1)).get().getSeatStatus());
+    }
+}
@@ -487,4 +487,32 @@ public class FileShowtimeRepositoryTest {
                         dates2.get(i).getDate());
         }
     }
-}
\ No newline at end of file
+    
+    // ========== HOT RELOAD TESTS ==========
+    
+    @Test
+    public void testReloadHalls_PicksUpEditedLayout() {
+        FileShowtimeRepository fileRepo = new FileShowtimeRepository(TEST_HALLS_FILE);
+        LocalDate date = LocalDate.now().plusDays(1);
+        assertEquals(5, fileRepo.findAvailableShowtime(testMovie, date, "10:00 AM", 1)
+                                .get().getCinemaHall().getRowAmt());
+        
+        DataFileHandler.saveToJsonFile(List.of(
+            "{\"hallNum\":1,\"hallType\":\"Standard\",\"rowAmt\":7,\"colAmt\":10}"), TEST_HALLS_FILE);
+        fileRepo.reloadHalls();
+        
+        assertEquals(7, fileRepo.findAvailableShowtime(testMovie, date, "10:00 AM", 1)
+                                .get().getCinemaHall().getRowAmt());
+    }
+    
+    @Test
+    public void testReloadHalls_EmptyFileKeepsCurrentHalls() {
+        FileShowtimeRepository fileRepo = new FileShowtimeRepository(TEST_HALLS_FILE);
+        DataFileHandler.saveToJsonFile(java.util.Collections.emptyList(), TEST_HALLS_FILE);
+        
+        fileRepo.reloadHalls();
+        
+        assertTrue(fileRepo.findAvailableShowtime(testMovie, LocalDate.now().plusDays(1), "10:00 AM", 2)
+                           .isPresent());
+    }
+}
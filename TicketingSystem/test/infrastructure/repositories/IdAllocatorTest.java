@@ -0,0 +1,132 @@
+package infrastructure.repositories;
+
+import domain.Customer;
+import domain.Payment;
+import domain.Ticket;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit tests for IdAllocator. Separate instances on one file stand in for
+ * separate processes.
+ */
+public class IdAllocatorTest {
+
+    private static final String TEST_ID_FILE = "id_blocks_test.json";
+
+    @Before
+    public void setUp() {
+        new File(TEST_ID_FILE).delete();
+    }
+
+    @After
+    public void tearDown() {
+        Payment.setIdSource(null);
+        Ticket.setIdSource(null);
+        Customer.setIdSource(null);
+        new File(TEST_ID_FILE).delete();
+        new File(TEST_ID_FILE + SharedFileLock.LOCK_SUFFIX).delete();
+    }
+
+    @Test
+    public void testNewSequence_StartsAboveLastUsed() {
+        IdAllocator allocator = new IdAllocator(TEST_ID_FILE, 10);
+        IdAllocator.Sequence payments = allocator.sequence("payment", () -> 41);
+
+        assertEquals(42, payments.nextId());
+        assertEquals(43, payments.nextId());
+    }
+
+    @Test
+    public void testRestart_ContinuesAfterReservedBlockWithoutSeed() {
+        new IdAllocator(TEST_ID_FILE, 10).sequence("payment", () -> 0).nextId(); // reserves 1-10
+
+        IdAllocator.Sequence restarted = new IdAllocator(TEST_ID_FILE, 10)
+            .sequence("payment", () -> { throw new AssertionError("seed must not be read again"); });
+
+        assertEquals(11, restarted.nextId());
+    }
+
+    @Test
+    public void testTwoProcesses_GetDisjointBlocks() {
+        IdAllocator.Sequence first = new IdAllocator(TEST_ID_FILE, 5).sequence("ticket", () -> 0);
+        IdAllocator.Sequence second = new IdAllocator(TEST_ID_FILE, 5).sequence("ticket", () -> 0);
+
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 12; i++) {
+            assertTrue(seen.add(first.nextId()));
+            assertTrue(seen.add(second.nextId()));
+        }
+    }
+
+    @Test
+    public void testSequences_AreIndependent() {
+        IdAllocator allocator = new IdAllocator(TEST_ID_FILE, 10);
+
+        assertEquals(1, allocator.sequence("ticket", () -> 0).nextId());
+        assertEquals(8, allocator.sequence("customer", () -> 7).nextId());
+        assertEquals(2, allocator.sequence("ticket", () -> 0).nextId());
+    }
+
+    @Test
+    public void testConcurrentThreads_NoDuplicates() throws InterruptedException {
+        IdAllocator.Sequence sequence = new IdAllocator(TEST_ID_FILE, 7).sequence("payment", () -> 0);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 250; i++) {
+                    seen.add(sequence.nextId());
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(2000, seen.size());
+    }
+
+    @Test
+    public void testInstalledSource_UsedForNewPayments() {
+        IdAllocator allocator = new IdAllocator(TEST_ID_FILE, 10);
+        allocator.installDomainSequences(() -> 500, () -> 70);
+
+        Payment payment = new Payment(Optional.empty(), new ArrayList<>(), new ArrayList<>(), 10.0, true);
+        Ticket ticket = new Ticket(null, 0, null, new ArrayList<>());
+
+        assertEquals(501, payment.getPaymentID());
+        assertEquals(71, ticket.getTicketID());
+    }
+
+    @Test
+    public void testFailedWrite_KeepsFileAndHandsOutNothing() {
+        new IdAllocator(TEST_ID_FILE, 10).sequence("payment", () -> 0).nextId(); // reserves 1-10
+        List<String> before = DataFileHandler.loadFromJsonFile(TEST_ID_FILE);
+        // A directory where the temp file should go makes its write fail
+        File blocker = new File(TEST_ID_FILE + ".tmp");
+        assertTrue(blocker.mkdir());
+        try {
+            new IdAllocator(TEST_ID_FILE, 10).sequence("payment", () -> 0).nextId();
+            fail("An unrecorded block must not be used");
+        } catch (IllegalStateException expected) {
+            assertEquals(before, DataFileHandler.loadFromJsonFile(TEST_ID_FILE));
+        } finally {
+            blocker.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroBlockSize_Rejected() {
+        new IdAllocator(TEST_ID_FILE, 0);
+    }
+}
@@ -0,0 +1,270 @@
+package infrastructure.repositories;
+
+import domain.CinemaHall;
+import domain.Movie;
+import domain.Seat;
+import domain.Showtime;
+import domain.valueobjects.SeatId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for MappedSeatRepository. Two instances on one file stand in for
+ * two box-office processes: they share nothing but the mapped pages.
+ */
+public class MappedSeatRepositoryTest {
+
+    private static final String TEST_INVENTORY_FILE = "seat_inventory_test.map";
+
+    private CinemaHall hall;
+    private Movie movie;
+    private Showtime showtime;
+    private List<CinemaHall> halls;
+    private MappedSeatRepository repository;
+
+    @Before
+    public void setUp() {
+        new File(TEST_INVENTORY_FILE).delete();
+        hall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        halls = List.of(hall, new CinemaHall(4, CinemaHall.HALL_TYPE_IMAX, 8, 15));
+        movie = new Movie(1, "Test Movie", 2.0, "Test Director", "2025-01-01");
+        showtime = new Showtime(movie, 2025, 1, 15, "10:00 AM", hall);
+        repository = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+    }
+
+    @After
+    public void tearDown() {
+        repository.close();
+        new File(TEST_INVENTORY_FILE).delete();
+    }
+
+    @Test
+    public void testReserveSeats_MarksSeatsBooked() {
+        List<Seat> reserved = repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1), new SeatId('E', 10)));
+
+        assertEquals(2, reserved.size());
+        assertEquals("Booked", repository.findSeat(showtime, new SeatId('E', 10)).get().getSeatStatus());
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('A', 2)).get().getSeatStatus());
+        assertEquals(2, repository.getActiveHoldCount());
+        assertEquals(50, repository.findSeatsByShowtime(showtime).size());
+    }
+
+    @Test
+    public void testReserveSeats_ConflictLeavesNoPartialHold() {
+        // 8x15 IMAX hall: A1 is in the first bitmap word, H15 (seat 120) in the second
+        Showtime imax = new Showtime(movie, 2025, 1, 15, "10:00 AM", halls.get(1));
+        repository.reserveSeats(imax, Arrays.asList(new SeatId('H', 15)));
+        try {
+            repository.reserveSeats(imax, Arrays.asList(new SeatId('A', 1), new SeatId('H', 15)));
+            fail("H15 is already held");
+        } catch (SeatUnavailableException expected) {
+            assertTrue(expected.getMessage().contains("H15"));
+        }
+        assertEquals("Available", repository.findSeat(imax, new SeatId('A', 1)).get().getSeatStatus());
+    }
+
+    @Test
+    public void testOtherProcessSeesHoldsImmediately() {
+        MappedSeatRepository otherTerminal = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('C', 3)));
+
+        assertEquals("Booked", otherTerminal.findSeat(showtime, new SeatId('C', 3)).get().getSeatStatus());
+        try {
+            otherTerminal.reserveSeats(showtime, Arrays.asList(new SeatId('C', 3)));
+            fail("Seat is held by the first terminal");
+        } catch (SeatUnavailableException expected) {
+            // visible through the shared mapping
+        }
+
+        repository.cancelCartReservation(showtime, Arrays.asList(new SeatId('C', 3)));
+        otherTerminal.reserveSeats(showtime, Arrays.asList(new SeatId('C', 3)));
+        otherTerminal.close();
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('C', 3)).get().getSeatStatus());
+    }
+
+    @Test
+    public void testConfirm_SurvivesReopen() {
+        List<SeatId> seats = Arrays.asList(new SeatId('B', 2), new SeatId('B', 3));
+        repository.reserveSeats(showtime, seats);
+        repository.confirmCartReservation(showtime, seats);
+        assertEquals(0, repository.getActiveHoldCount());
+
+        // A cancel after confirm must not free sold seats
+        repository.cancelCartReservation(showtime, seats);
+        repository.close();
+
+        repository = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+        assertEquals("Booked", repository.findSeat(showtime, new SeatId('B', 3)).get().getSeatStatus());
+        try {
+            repository.reserveSeats(showtime, seats);
+            fail("Sold seats cannot be held again");
+        } catch (SeatUnavailableException expected) {
+            // sold bit persisted
+        }
+    }
+
+    @Test(expected = SeatUnavailableException.class)
+    public void testConfirm_SeatHeldByOtherTerminalIsRejected() {
+        MappedSeatRepository otherTerminal = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+        otherTerminal.reserveSeats(showtime, Arrays.asList(new SeatId('D', 4)));
+
+        repository.confirmCartReservation(showtime, Arrays.asList(new SeatId('D', 4)));
+    }
+
+    @Test
+    public void testClearAllCartReservations_ReleasesOnlyOwnHolds() {
+        MappedSeatRepository otherTerminal = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+        otherTerminal.reserveSeats(showtime, Arrays.asList(new SeatId('A', 5)));
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 6)));
+
+        repository.clearAllCartReservations();
+
+        assertEquals("Booked", repository.findSeat(showtime, new SeatId('A', 5)).get().getSeatStatus());
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('A', 6)).get().getSeatStatus());
+
+        repository.releaseAllHolds();
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('A', 5)).get().getSeatStatus());
+    }
+
+    @Test
+    public void testConcurrentTerminals_OnlyOneWins() throws InterruptedException {
+        List<MappedSeatRepository> terminals = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            terminals.add(new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16));
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            MappedSeatRepository terminal = terminals.get(i % terminals.size());
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    go.await();
+                    terminal.reserveSeats(showtime, Arrays.asList(new SeatId('C', 5), new SeatId('C', 6)));
+                    winners.incrementAndGet();
+                } catch (SeatUnavailableException expected) {
+                    // lost the race
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        go.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    public void testShowtimesGetSeparateSlots() {
+        Showtime later = new Showtime(movie, 2025, 1, 15, "1:00 PM", hall);
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+
+        assertEquals("Available", repository.findSeat(later, new SeatId('A', 1)).get().getSeatStatus());
+        repository.reserveSeats(later, Arrays.asList(new SeatId('A', 1)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFullInventory_Rejected() {
+        int nextYear = LocalDate.now().getYear() + 1;
+        for (int day = 1; day <= 17; day++) {
+            Showtime s = new Showtime(movie, nextYear, 2, day, "10:00 AM", hall);
+            repository.reserveSeats(s, Arrays.asList(new SeatId('A', 1)));
+        }
+    }
+
+    @Test
+    public void testFullInventory_FreesPastShowtimes() {
+        // Fill every slot with showtimes that are already over
+        for (int day = 1; day <= 16; day++) {
+            Showtime s = new Showtime(movie, 2025, 2, day, "10:00 AM", hall);
+            repository.reserveSeats(s, Arrays.asList(new SeatId('A', 1)));
+        }
+
+        Showtime upcoming = new Showtime(movie, LocalDate.now().getYear() + 1, 3, 1, "10:00 AM", hall);
+        repository.reserveSeats(upcoming, Arrays.asList(new SeatId('A', 1)));
+
+        assertEquals("Booked", repository.findSeat(upcoming, new SeatId('A', 1)).get().getSeatStatus());
+        Showtime past = new Showtime(movie, 2025, 2, 1, "10:00 AM", hall);
+        assertEquals("Available", repository.findSeat(past, new SeatId('A', 1)).get().getSeatStatus());
+    }
+
+    @Test
+    public void testReleasePastShowtimes_KeepsUpcoming() {
+        Showtime upcoming = new Showtime(movie, 2025, 1, 20, "10:00 AM", hall);
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+        repository.confirmCartReservation(upcoming, Arrays.asList(new SeatId('A', 1)));
+        MappedSeatRepository otherTerminal = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+
+        assertEquals(1, otherTerminal.releasePastShowtimes(LocalDate.of(2025, 1, 16)));
+
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('A', 1)).get().getSeatStatus());
+        assertEquals("Booked", repository.findSeat(upcoming, new SeatId('A', 1)).get().getSeatStatus());
+        otherTerminal.close();
+    }
+
+    @Test
+    public void testStaleClaim_RecoveredByNextTerminal() throws IOException {
+        // A terminal that died mid-claim leaves the slot in CLAIMING (state 1)
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+        repository.close();
+        try (FileChannel channel = FileChannel.open(Path.of(TEST_INVENTORY_FILE),
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer raw = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            raw.order(ByteOrder.nativeOrder());
+            for (int slot = 64; slot < raw.capacity(); slot += (raw.capacity() - 64) / 16) {
+                if (raw.getInt(slot) == 2) {
+                    raw.putInt(slot, 1);
+                }
+            }
+            raw.force();
+        }
+
+        repository = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+        assertEquals("Available", repository.findSeat(showtime, new SeatId('A', 1)).get().getSeatStatus());
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('A', 1)));
+        assertEquals("Booked", repository.findSeat(showtime, new SeatId('A', 1)).get().getSeatStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSeatOutsideHall_Rejected() {
+        repository.reserveSeats(showtime, Arrays.asList(new SeatId('F', 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOversizedHall_Rejected() {
+        new MappedSeatRepository(TEST_INVENTORY_FILE, List.of(new CinemaHall(9, CinemaHall.HALL_TYPE_IMAX, 26, 30)), 16);
+    }
+
+    @Test
+    public void testReleaseConfirmed_VisibleToOtherProcess() {
+        List<SeatId> seats = Arrays.asList(new SeatId('B', 2), new SeatId('B', 3));
+        repository.reserveSeats(showtime, seats);
+        repository.confirmCartReservation(showtime, seats);
+        MappedSeatRepository otherTerminal = new MappedSeatRepository(TEST_INVENTORY_FILE, halls, 16);
+
+        repository.releaseConfirmed(showtime, Arrays.asList(new SeatId('B', 2)));
+
+        otherTerminal.reserveSeats(showtime, Arrays.asList(new SeatId('B', 2)));
+        assertEquals("Booked", otherTerminal.findSeat(showtime, new SeatId('B', 3)).get().getSeatStatus());
+        otherTerminal.close();
+    }
+}
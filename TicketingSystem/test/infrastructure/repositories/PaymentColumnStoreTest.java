@@ -0,0 +1,216 @@
+package infrastructure.repositories;
+
+import application.services.ReportService;
+import domain.*;
+import domain.valueobjects.SeatId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Unit tests for PaymentColumnStore and its use by PaymentRepository and ReportService
+ */
+public class PaymentColumnStoreTest {
+
+    private static final String TEST_FILE = "payment_columns_test.json";
+    private static final String TEST_DIR = "payment_columns_test";
+
+    private Customer customer;
+    private CinemaHall standardHall;
+    private CinemaHall imaxHall;
+    private Movie dune;
+    private Movie bladeRunner;
+
+    @Before
+    public void setUp() {
+        DataFileHandler.saveToJsonFile(new ArrayList<>(), TEST_FILE);
+        deleteDir();
+        Payment.setLastID(0);
+
+        customer = new Customer("Column Tester", "password");
+        standardHall = new CinemaHall(1, CinemaHall.HALL_TYPE_STANDARD, 5, 10);
+        imaxHall = new CinemaHall(4, CinemaHall.HALL_TYPE_IMAX, 8, 15);
+        dune = new Movie(1, "Dune: Part 1", 2.35, "Denis Villeneuve", "October 22, 2021");
+        bladeRunner = new Movie(2, "Blade Runner 2049", 2.4, "Denis Villeneuve", "October 6, 2017");
+    }
+
+    @After
+    public void tearDown() {
+        new File(TEST_FILE).delete();
+        deleteDir();
+    }
+
+    private void deleteDir() {
+        File dir = new File(TEST_DIR);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    private Ticket ticket(Movie movie, CinemaHall hall, int day, int seatCount) {
+        ArrayList<Seat> seats = new ArrayList<>();
+        for (int c = 1; c <= seatCount; c++) {
+            seats.add(new Seat(new SeatId('A', c), "Single", "Booked", hall));
+        }
+        return new Ticket(new Showtime(movie, 2025, 12, day, "10:00 AM", hall), seatCount, hall, seats);
+    }
+
+    private Payment payment(double total, Ticket... tickets) {
+        ArrayList<Ticket> list = new ArrayList<>();
+        for (Ticket t : tickets) list.add(t);
+        return new Payment(Optional.of(customer), list, new ArrayList<>(), total, true);
+    }
+
+    private Payment paymentWithFood(Ticket ticket, double foodPrice) {
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        tickets.add(ticket);
+        ArrayList<Food> foods = new ArrayList<>();
+        Popcorn popcorn = new Popcorn("Large Popcorn", foodPrice);
+        popcorn.setQty(1);
+        foods.add(popcorn);
+        return new Payment(Optional.of(customer), tickets, foods,
+                           ticket.getTotalPrice() + foodPrice, true);
+    }
+
+    @Test
+    public void testAppend_SumsMatchObjectTotals() {
+        PaymentColumnStore store = new PaymentColumnStore(TEST_DIR);
+
+        store.append(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        store.append(payment(60.00, ticket(dune, imaxHall, 16, 1), ticket(bladeRunner, imaxHall, 16, 1)));
+        store.append(paymentWithFood(ticket(bladeRunner, standardHall, 17, 1), 12.50));
+
+        assertEquals(3, store.getPaymentCount());
+        assertEquals(4, store.getRowCount());
+        assertEquals(3, store.getLastPaymentId());
+        assertEquals(3000 + 6000 + 1500, store.totalTicketCents());
+        assertEquals(1250, store.totalFoodCents());
+        assertEquals(3000 + 6000 + 2750, store.totalRevenueCents());
+    }
+
+    @Test
+    public void testGroupings() {
+        PaymentColumnStore store = new PaymentColumnStore(TEST_DIR);
+        store.append(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        store.append(payment(60.00, ticket(dune, imaxHall, 16, 1), ticket(bladeRunner, imaxHall, 20, 1)));
+
+        Map<String, Long> byMovie = store.ticketCentsByMovie();
+        assertEquals(Long.valueOf(6000), byMovie.get("Dune: Part 1"));
+        assertEquals(Long.valueOf(3000), byMovie.get("Blade Runner 2049"));
+
+        Map<String, Long> byHall = store.ticketCentsByHallType();
+        assertEquals(Long.valueOf(3000), byHall.get(CinemaHall.HALL_TYPE_STANDARD));
+        assertEquals(Long.valueOf(6000), byHall.get(CinemaHall.HALL_TYPE_IMAX));
+
+        assertEquals(6000, store.ticketCentsBetween(LocalDate.of(2025, 12, 15), LocalDate.of(2025, 12, 16)));
+        assertEquals(3000, store.ticketCentsBetween(LocalDate.of(2025, 12, 20), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    public void testFoodOnlyPayment_HasTotalsRowButNoTicketRow() {
+        PaymentColumnStore store = new PaymentColumnStore(TEST_DIR);
+        ArrayList<Food> foods = new ArrayList<>();
+        foods.add(new Popcorn("Large Popcorn", 12.00));
+        store.append(new Payment(Optional.of(customer), new ArrayList<>(), foods, 12.00, true));
+
+        assertEquals(1, store.getRowCount());
+        assertEquals(0, store.snapshot().ticketRowCount());
+        assertEquals(1200, store.totalFoodCents());
+    }
+
+    @Test
+    public void testColumns_PersistAcrossReopen() {
+        PaymentColumnStore store = new PaymentColumnStore(TEST_DIR);
+        store.append(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        store.append(paymentWithFood(ticket(bladeRunner, imaxHall, 16, 1), 8.00));
+
+        PaymentColumnStore reopened = new PaymentColumnStore(TEST_DIR);
+
+        assertEquals(2, reopened.getPaymentCount());
+        assertEquals(store.totalTicketCents(), reopened.totalTicketCents());
+        assertEquals(store.totalFoodCents(), reopened.totalFoodCents());
+        assertEquals(store.ticketCentsByMovie(), reopened.ticketCentsByMovie());
+    }
+
+    @Test
+    public void testTornAppend_KeepsCommonPrefix() throws Exception {
+        PaymentColumnStore store = new PaymentColumnStore(TEST_DIR);
+        store.append(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        store.append(payment(15.00, ticket(dune, standardHall, 16, 1)));
+
+        // Simulate a crash half way through the second append
+        try (RandomAccessFile f = new RandomAccessFile(new File(TEST_DIR, "ticket_cents.col"), "rw")) {
+            f.setLength(f.length() - 8);
+        }
+
+        PaymentColumnStore reopened = new PaymentColumnStore(TEST_DIR);
+        assertEquals(1, reopened.getRowCount());
+        assertEquals(3000, reopened.totalTicketCents());
+    }
+
+    @Test
+    public void testRepository_RebuildsStaleColumnsAndAppendsOnSave() {
+        PaymentRepository plain = new PaymentRepository(TEST_FILE);
+        plain.savePayment(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        plain.savePayment(payment(15.00, ticket(bladeRunner, standardHall, 16, 1)));
+
+        // Columns did not exist while those were saved, so opening must rebuild them
+        PaymentRepository repository = new PaymentRepository(TEST_FILE, TEST_DIR);
+        PaymentColumnStore store = repository.getColumnStore();
+        assertEquals(2, store.getPaymentCount());
+        assertEquals(4500, store.totalTicketCents());
+
+        repository.savePayment(payment(30.00, ticket(dune, imaxHall, 17, 1)));
+        assertEquals(3, store.getPaymentCount());
+        assertTrue(store.matches(repository.getAllPayments()));
+    }
+
+    @Test
+    public void testRepository_KeepsColumnsThatMatchPackedHistory() {
+        PaymentRepository repository = new PaymentRepository(TEST_FILE, TEST_DIR);
+        repository.savePayment(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        repository.savePayment(paymentWithFood(ticket(bladeRunner, imaxHall, 16, 1), 12.00));
+        File column = new File(TEST_DIR, "ticket_cents.col");
+        assertTrue(column.setLastModified(1_000_000L));
+
+        PaymentColumnStore store = new PaymentRepository(TEST_FILE, TEST_DIR).getColumnStore();
+
+        assertEquals("Matching columns are not rewritten", 1_000_000L, column.lastModified());
+        assertEquals(2, store.getPaymentCount());
+        assertTrue(store.matches(repository.getAllPayments()));
+    }
+
+    @Test
+    public void testReportService_ColumnsMatchObjectWalk() {
+        PaymentRepository repository = new PaymentRepository(TEST_FILE, TEST_DIR);
+        repository.savePayment(payment(30.00, ticket(dune, standardHall, 15, 2)));
+        repository.savePayment(paymentWithFood(ticket(bladeRunner, imaxHall, 16, 1), 12.00));
+
+        ReportService fromColumns = new ReportService(repository);
+        ReportService fromObjects = new ReportService(new PaymentRepository(TEST_FILE));
+
+        assertEquals(fromObjects.getMoviePurchaseReport(), fromColumns.getMoviePurchaseReport());
+        assertEquals(fromObjects.generateSalesSummaryReport(), fromColumns.generateSalesSummaryReport());
+        assertEquals(fromObjects.countTicketRows(), fromColumns.countTicketRows());
+        assertTrue(fromColumns.generateSalesSummaryReport().contains("RM 72.00"));
+    }
+
+    @Test
+    public void testLargeSums_UseParallelPath() {
+        long[] column = new long[PaymentColumnStore.PARALLEL_THRESHOLD + 10];
+        java.util.Arrays.fill(column, 150L);
+
+        assertEquals(150L * column.length, PaymentColumnStore.sum(column, column.length));
+        assertEquals(150L * 10, PaymentColumnStore.sum(column, 10));
+    }
+}
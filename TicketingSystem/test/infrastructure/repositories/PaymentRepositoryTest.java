@@ -297,4 +297,236 @@ public class PaymentRepositoryTest {
         assertEquals(40.00, payments.get(1).getTotalPrice(), 0.001);
         assertEquals(50.00, payments.get(2).getTotalPrice(), 0.001);
     }
-}
\ No newline at end of file
+    
+    // ========== SECONDARY INDEX TESTS ==========
+    
+    private Payment ticketPayment(Customer customer, Showtime showtime) {
+        ArrayList<Seat> seats = new ArrayList<>();
+        seats.add(new Seat(new SeatId('B', 1), "Single", "Booked", testHall));
+        ArrayList<Ticket> tickets = new ArrayList<>();
+        tickets.add(new Ticket(showtime, 1, testHall, seats));
+        return new Payment(Optional.ofNullable(customer), tickets, new ArrayList<>(), 12.00, true);
+    }
+    
+    @Test
+    public void testIndexes_UpdatedOnSave() {
+        Movie other = new Movie(2, "Other Movie", 1.5, "Someone", "2025-02-01");
+        Showtime otherShow = new Showtime(other, 2025, 1, 16, "1:00 PM", testHall);
+        Payment first = ticketPayment(testCustomer, testShowtime);
+        Payment second = ticketPayment(new Customer("Someone Else", "pw"), otherShow);
+        repository.savePayment(first);
+        repository.savePayment(second);
+        
+        assertEquals(1, repository.findByCustomer("test customer").size());
+        assertEquals(first.getPaymentID(), repository.findByMovie("Test Movie").get(0).getPaymentID());
+        assertEquals(second.getPaymentID(), repository.findByShowDate(java.time.LocalDate.of(2025, 1, 16)).get(0).getPaymentID());
+        assertEquals(second.getPaymentID(), repository.findById(second.getPaymentID()).get().getPaymentID());
+        assertTrue(repository.findByMovie("Unknown").isEmpty());
+    }
+    
+    @Test
+    public void testIndexes_RebuiltOnLoad() {
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        repository.savePayment(ticketPayment(null, testShowtime));
+        
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE);
+        
+        assertEquals(1, reloaded.findByCustomer("Test Customer").size());
+        assertEquals(1, reloaded.findByCustomer("Guest").size());
+        assertEquals(2, reloaded.findByMovie("Test Movie").size());
+        assertEquals(2, reloaded.findByShowDate(java.time.LocalDate.of(2025, 1, 15)).size());
+    }
+    
+    @Test
+    public void testFindByShowing_MatchesMovieDateAndTime() {
+        Showtime later = new Showtime(testMovie, 2025, 1, 15, "4:00 PM", testHall);
+        Movie other = new Movie(2, "Other Movie", 1.5, "Someone", "2025-02-01");
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        repository.savePayment(ticketPayment(testCustomer, later));
+        repository.savePayment(ticketPayment(testCustomer, new Showtime(other, 2025, 1, 15, "10:00 AM", testHall)));
+        
+        java.time.LocalDate date = java.time.LocalDate.of(2025, 1, 15);
+        assertEquals(1, repository.findByShowing("Test Movie", date, testShowtime.time()).size());
+        assertEquals(2, repository.findByShowing("Test Movie", date, null).size());
+    }
+    
+    @Test
+    public void testFindByMovie_ResultIsReadOnly() {
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        try {
+            repository.findByMovie("Test Movie").clear();
+            fail("Index results must not expose the index");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(1, repository.findByMovie("Test Movie").size());
+        }
+    }
+    
+    @Test
+    public void testReload_SharesCatalogInstances() {
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        repository.savePayment(ticketPayment(new Customer("Someone Else", "pw"), testShowtime));
+        
+        CatalogInterner catalog = new CatalogInterner(java.util.List.of(testMovie), java.util.List.of(testHall));
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE, null, catalog);
+        Ticket first = reloaded.getAllPayments().get(0).getTicket().get(0);
+        Ticket second = reloaded.getAllPayments().get(1).getTicket().get(0);
+        
+        assertSame(first.getShowtime(), second.getShowtime());
+        assertSame(testHall, first.getCinemaHall());
+        assertEquals(5, first.getShowtime().getCinemaHall().getRowAmt());
+    }
+    
+    @Test
+    public void testReload_SkipsMalformedLineWithoutPartialRow() {
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        DataFileHandler.appendToJsonFile("{\"paymentId\":99,\"customerName\":\"X\",\"totalAmount\":1.00,"
+            + "\"tickets\":[{\"movieName\":\"Test Movie\",\"date\":\"not-a-date\",\"seats\":\"A1\"}],\"food\":[]}", TEST_FILE);
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE);
+        assertEquals(2, reloaded.getPaymentCount());
+        assertFalse(reloaded.findById(99).isPresent());
+        assertEquals(1, reloaded.getAllPayments().get(1).getTicket().size());
+    }
+    
+    @Test
+    public void testFindPage_WalksHistoryWithCursor() {
+        for (int i = 0; i < 5; i++) {
+            repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        }
+        
+        PaymentPage first = repository.findPage(PaymentQuery.all(), PaymentPage.FIRST, 2);
+        PaymentPage second = repository.findPage(PaymentQuery.all(), first.getNextCursor(), 2);
+        PaymentPage third = repository.findPage(PaymentQuery.all(), second.getNextCursor(), 2);
+        
+        assertEquals(2, first.getPayments().size());
+        assertEquals(3, second.getPayments().get(0).getPaymentID());
+        assertEquals(1, third.getPayments().size());
+        assertFalse(third.hasMore());
+    }
+    
+    @Test
+    public void testFindPage_FiltersByCustomerAndShowDates() {
+        Showtime later = new Showtime(testMovie, 2025, 2, 1, "10:00 AM", testHall);
+        Customer bob = new Customer("Bob", "pw");
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        repository.savePayment(ticketPayment(bob, testShowtime));
+        repository.savePayment(ticketPayment(bob, later));
+        repository.savePayment(ticketPayment(testCustomer, later));
+        
+        PaymentQuery bobs = PaymentQuery.all().withCustomer("bob");
+        assertEquals(2, repository.findPage(bobs, PaymentPage.FIRST, 10).getPayments().size());
+        
+        PaymentQuery february = PaymentQuery.all().withShowDates(java.time.LocalDate.of(2025, 2, 1), null);
+        PaymentPage page = repository.findPage(february.withCustomer("Bob"), PaymentPage.FIRST, 10);
+        assertEquals(1, page.getPayments().size());
+        assertEquals(3, page.getPayments().get(0).getPaymentID());
+        
+        assertTrue(repository.findPage(PaymentQuery.all().withCustomer("Nobody"), PaymentPage.FIRST, 10)
+                             .getPayments().isEmpty());
+    }
+    
+    @Test
+    public void testFindPage_PicksUpPaymentsSavedBetweenPages() {
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        PaymentPage first = repository.findPage(PaymentQuery.all(), PaymentPage.FIRST, 1);
+        assertFalse(first.hasMore());
+        
+        repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        PaymentPage again = repository.findPage(PaymentQuery.all(), 1, 1);
+        assertEquals(2, again.getPayments().get(0).getPaymentID());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testShowDates_RejectsReversedRange() {
+        PaymentQuery.all().withShowDates(java.time.LocalDate.of(2025, 2, 1), java.time.LocalDate.of(2025, 1, 1));
+    }
+    
+    @Test
+    public void testStream_FiltersAndStopsEarly() {
+        for (int i = 0; i < 4; i++) {
+            repository.savePayment(ticketPayment(i % 2 == 0 ? testCustomer : null, testShowtime));
+        }
+        
+        assertEquals(2, repository.stream(PaymentQuery.all().withCustomer("Guest")).count());
+        assertEquals(1, repository.stream(PaymentQuery.all()).findFirst().get().getPaymentID());
+        assertEquals(4, repository.stream(PaymentQuery.all()).mapToInt(Payment::getTicketAmt).sum());
+    }
+    
+    @Test
+    public void testStreamFromCursor_OnlyNewerPayments() {
+        assertEquals(0, repository.getLastPaymentId());
+        for (int i = 0; i < 3; i++) {
+            repository.savePayment(ticketPayment(testCustomer, testShowtime));
+        }
+        
+        assertEquals(3, repository.getLastPaymentId());
+        assertEquals(java.util.List.of(3), repository.stream(PaymentQuery.all(), 2).map(Payment::getPaymentID).toList());
+        assertEquals(0, repository.stream(PaymentQuery.all(), 3).count());
+    }
+    
+    @Test
+    public void testReload_KeepsRecordedTicketPricesWhenRulesChange() {
+        Payment sale = ticketPayment(testCustomer, testShowtime);
+        long paid = sale.getTicket().get(0).getTotalPriceCents();
+        repository.savePayment(sale);
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE);
+        
+        try {
+            domain.pricing.PricingEngine.getDefault().setRules(
+                java.util.List.of(domain.pricing.PricingRule.named("Surcharge").add(5.00)));
+            
+            assertNotEquals(paid, ticketPayment(testCustomer, testShowtime).getTicket().get(0).getTotalPriceCents());
+            Ticket restored = reloaded.getAllPayments().get(0).getTicket().get(0);
+            assertEquals(paid, restored.getTotalPriceCents());
+            assertEquals(paid, new PaymentRepository(TEST_FILE).getAllPayments().get(0).getTotalTicketPriceCents());
+            assertFalse(restored.isRefund());
+        } finally {
+            domain.pricing.PricingEngine.getDefault().setRules(java.util.List.of());
+        }
+    }
+    
+    @Test
+    public void testReload_SeedsTicketIdsFromHistory() {
+        Payment sale = ticketPayment(testCustomer, testShowtime);
+        repository.savePayment(sale);
+        
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE);
+        
+        int ticketId = sale.getTicket().get(0).getTicketID();
+        assertEquals(ticketId, reloaded.getMaxLoadedTicketId());
+        assertEquals(ticketId, reloaded.findById(sale.getPaymentID()).get().getTicket().get(0).getTicketID());
+    }
+    
+    @Test
+    public void testReload_LegacyLinesSeedTicketIdsFromTicketCount() {
+        // Written before ticket IDs were recorded
+        DataFileHandler.saveToJsonFile(java.util.List.of(
+            "{\"paymentId\":1,\"customerName\":\"Guest\",\"totalAmount\":24.00,\"tickets\":["
+                + "{\"movieName\":\"Test Movie\",\"date\":\"2025-01-15\",\"time\":\"10:00 AM\",\"hall\":\"Standard\",\"hallId\":1,\"seats\":\"A1\",\"price\":12.00},"
+                + "{\"movieName\":\"Test Movie\",\"date\":\"2025-01-15\",\"time\":\"1:00 PM\",\"hall\":\"Standard\",\"hallId\":1,\"seats\":\"A2\",\"price\":12.00}"
+                + "],\"food\":[]}"), TEST_FILE);
+        
+        PaymentRepository reloaded = new PaymentRepository(TEST_FILE);
+        
+        assertEquals(1, reloaded.getPaymentCount());
+        assertEquals(2, reloaded.getMaxLoadedTicketId());
+    }
+    
+    @Test
+    public void testSave_FailedAppendThrowsAndKeepsHistory() {
+        // The parent directory does not exist, so no line can be written
+        PaymentRepository broken = new PaymentRepository("missing_dir/" + TEST_FILE);
+        Payment sale = ticketPayment(testCustomer, testShowtime);
+        try {
+            broken.savePayment(sale);
+            fail("The history cannot be written");
+        } catch (java.io.UncheckedIOException expected) {
+            assertTrue(expected.getMessage().contains("missing_dir"));
+        }
+        
+        assertEquals(0, broken.getPaymentCount());
+        assertFalse(broken.findById(sale.getPaymentID()).isPresent());
+        assertTrue(broken.findByCustomer("Test Customer").isEmpty());
+    }
+}
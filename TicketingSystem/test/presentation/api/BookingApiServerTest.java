@@ -0,0 +1,230 @@
+package presentation.api;
+
+import application.services.AuthService;
+import application.services.BookingService;
+import application.services.CustomerService;
+import application.services.FoodService;
+import application.services.OtpService;
+import application.services.PasswordService;
+import application.services.PaymentService;
+import application.services.ReportService;
+import domain.CinemaHall;
+import domain.Movie;
+import domain.Showtime;
+import domain.repositories.MovieRepository;
+import domain.repositories.ShowtimeRepository;
+import infrastructure.repositories.CartManager;
+import infrastructure.repositories.DataFileHandler;
+import infrastructure.repositories.FileSeatRepository;
+import infrastructure.repositories.PaymentRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Integration tests for BookingApiServer over real HTTP on an ephemeral port
+ */
+public class BookingApiServerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 12, 16);
+
+    private File dir;
+    private BookingApiServer server;
+    private FileSeatRepository seatRepository;
+    private PaymentRepository paymentRepository;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("booking-api").toFile();
+        File halls = new File(dir, "halls.json");
+        DataFileHandler.saveToJsonFile(List.of("{\"hallNum\":1,\"hallType\":\"Standard\",\"rowAmt\":5,\"colAmt\":10}"), halls.getPath());
+
+        Movie movie = new Movie(1, "Dune: Part 1", 2.35, "Denis Villeneuve", "October 22, 2021");
+        seatRepository = new FileSeatRepository(new File(dir, "bookings.json").getPath(), halls.getPath());
+        CinemaHall hall = seatRepository.getAllHalls().get(0);
+
+        MovieRepository movies = new MovieRepository() {
+            @Override
+            public List<Movie> findAll() {
+                return List.of(movie);
+            }
+
+            @Override
+            public Optional<Movie> findById(int id) {
+                return id == 1 ? Optional.of(movie) : Optional.empty();
+            }
+        };
+        ShowtimeRepository showtimes = new ShowtimeRepository() {
+            @Override
+            public List<Showtime> findAvailableDates(Movie m) {
+                return List.of(new Showtime(movie, 2025, 12, 16, "10:00 AM", hall));
+            }
+
+            @Override
+            public Optional<Showtime> findAvailableShowtime(Movie m, LocalDate d, String time, int hallId) {
+                return hallId == 1 ? Optional.of(new Showtime(movie, d.getYear(), d.getMonthValue(), d.getDayOfMonth(), time, hall))
+                                   : Optional.empty();
+            }
+        };
+
+        paymentRepository = new PaymentRepository(new File(dir, "payments.json").getPath());
+        server = new BookingApiServer(
+            new BookingService(movies, showtimes, seatRepository),
+            seatRepository,
+            new CartManager(new File(dir, "carts.json").getPath()),
+            new PaymentService(),
+            paymentRepository,
+            new ReportService(paymentRepository),
+            new FoodService(),
+            new AuthService(new PasswordService(), new OtpService()),
+            new CustomerService(new File(dir, "customers.json").getPath())
+        );
+        server.start(0);
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testCatalogEndpoints() throws Exception {
+        HttpResponse<String> movies = send("GET", "/api/movies", null, null);
+        assertEquals(200, movies.statusCode());
+        assertTrue(movies.body().contains("\"name\":\"Dune: Part 1\""));
+
+        HttpResponse<String> seats = send("GET", "/api/seats?movieId=1&date=" + DATE + "&time=10%3A00%20AM&hallId=1", null, null);
+        assertEquals(200, seats.statusCode());
+        assertTrue(seats.body().contains("{\"id\":\"A1\",\"status\":\"Available\""));
+
+        assertEquals(400, send("GET", "/api/seats?movieId=1", null, null).statusCode());
+        assertEquals(404, send("GET", "/api/nowhere", null, null).statusCode());
+    }
+
+    @Test
+    public void testGuestCheckout_ConfirmsSeatsAndSavesPayment() throws Exception {
+        String token = openGuestSession();
+
+        HttpResponse<String> hold = send("POST", "/api/cart/tickets", token, ticketBody("A1", "A2"));
+        assertEquals(hold.body(), 201, hold.statusCode());
+        assertTrue(hold.body().contains("\"seats\":[\"A1\",\"A2\"]"));
+
+        HttpResponse<String> food = send("POST", "/api/cart/food", token,
+            "{\"type\":\"popcorn\",\"name\":\"Small Caramel Popcorn\",\"qty\":2}");
+        assertEquals(food.body(), 201, food.statusCode());
+
+        HttpResponse<String> paid = send("POST", "/api/checkout", token, "{\"method\":\"Cash\"}");
+        assertEquals(paid.body(), 201, paid.statusCode());
+        assertTrue(paid.body().contains("\"paymentId\":"));
+
+        assertEquals(1, paymentRepository.getPaymentCount());
+        assertEquals(0, seatRepository.getActiveHoldCount());
+        assertTrue(send("GET", "/api/cart", token, null).body().startsWith("{\"tickets\":[],\"food\":[]"));
+        assertTrue(send("GET", "/api/reports/sales", null, null).body().length() > 0);
+    }
+
+    @Test
+    public void testSecondKioskCannotHoldTheSameSeat() throws Exception {
+        String first = openGuestSession();
+        String second = openGuestSession();
+
+        assertEquals(201, send("POST", "/api/cart/tickets", first, ticketBody("C5")).statusCode());
+        HttpResponse<String> clash = send("POST", "/api/cart/tickets", second, ticketBody("C5"));
+        assertEquals(409, clash.statusCode());
+        assertTrue(clash.body().startsWith("{\"error\":"));
+
+        // Closing the first session releases its hold for everyone else
+        assertEquals(200, send("DELETE", "/api/sessions", first, null).statusCode());
+        assertEquals(201, send("POST", "/api/cart/tickets", second, ticketBody("C5")).statusCode());
+    }
+
+    @Test
+    public void testConcurrentKiosks_EachSeatHeldOnce() throws Exception {
+        int kiosks = 40;
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < kiosks; i++) {
+            results.add(pool.submit(() -> send("POST", "/api/cart/tickets", openGuestSession(), ticketBody("E10")).statusCode()));
+        }
+
+        int held = 0;
+        for (Future<Integer> r : results) {
+            int status = r.get();
+            if (status == 201) held++;
+            else assertEquals(409, status);
+        }
+        pool.close();
+        assertEquals(1, held);
+    }
+
+    @Test
+    public void testSessionRequired_AndBadLoginRejected() throws Exception {
+        assertEquals(401, send("GET", "/api/cart", null, null).statusCode());
+        assertEquals(401, send("GET", "/api/cart", "not-a-token", null).statusCode());
+        assertEquals(401, send("POST", "/api/sessions", null, "{\"name\":\"nobody\",\"password\":\"x\"}").statusCode());
+        assertEquals(409, send("POST", "/api/checkout", openGuestSession(), "{\"method\":\"Cash\"}").statusCode());
+    }
+
+    @Test
+    public void testApiJson_ParsesFlatObjects() {
+        Map<String, Object> body = ApiJson.parseObject("{\"a\":\"x\\\"y\",\"n\":3,\"d\":1.5,\"ok\":true,\"s\":[\"A1\",\"B2\"],\"z\":null}");
+        assertEquals("x\"y", body.get("a"));
+        assertEquals(3L, body.get("n"));
+        assertEquals(1.5, body.get("d"));
+        assertEquals(Boolean.TRUE, body.get("ok"));
+        assertEquals(List.of("A1", "B2"), body.get("s"));
+        assertTrue(body.containsKey("z"));
+        assertEquals("\"a\\nb\"", ApiJson.quote("a\nb"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testApiJson_RejectsMalformedBody() {
+        ApiJson.parseObject("{\"a\":1");
+    }
+
+    // === Helpers ===
+
+    private String openGuestSession() throws Exception {
+        HttpResponse<String> response = send("POST", "/api/sessions", null, "{}");
+        assertEquals(201, response.statusCode());
+        return ApiJson.parseObject(response.body()).get("token").toString();
+    }
+
+    private String ticketBody(String... seats) {
+        StringBuilder sb = new StringBuilder("{\"movieId\":1,\"date\":\"" + DATE + "\",\"time\":\"10:00 AM\",\"hallId\":1,\"seats\":[");
+        for (int i = 0; i < seats.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(seats[i]).append('"');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header(BookingApiServer.SESSION_HEADER, token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}